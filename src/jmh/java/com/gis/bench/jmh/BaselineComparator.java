@@ -0,0 +1,110 @@
+package com.gis.bench.jmh;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONArray;
+import com.alibaba.fastjson.JSONObject;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 对比两次 JMH 结果（-rf json 输出）
+ * 按基准方法和参数配对，输出主指标（耗时或吞吐量）和每次操作分配量（需 -prof gc）的变化。
+ * 主指标变差超过阈值且超出两次结果误差范围之和时记为退步，有退步时以状态码 1 退出，便于在评审前检查优化效果。
+ * 用法：java com.gis.bench.jmh.BaselineComparator 基线.json 当前.json [阈值百分比，默认 5]
+ */
+public class BaselineComparator {
+
+    private static final String ALLOCATION_METRIC = "gc.alloc.rate.norm";
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("用法: BaselineComparator 基线.json 当前.json [阈值百分比]");
+            System.exit(2);
+        }
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) / 100 : 0.05;
+        Map<String, JSONObject> baseline = load(args[0]);
+        Map<String, JSONObject> current = load(args[1]);
+
+        int regressions = 0;
+        System.out.println(String.format("%-90s %14s %14s %9s %12s", "基准", "基线", "当前", "变化", "分配变化"));
+        for (Map.Entry<String, JSONObject> entry : current.entrySet()) {
+            JSONObject before = baseline.get(entry.getKey());
+            if (before == null) {
+                System.out.println(String.format("%-90s %14s %14s", entry.getKey(), "-",
+                        format(entry.getValue().getJSONObject("primaryMetric"))));
+                continue;
+            }
+            JSONObject after = entry.getValue();
+            JSONObject beforeMetric = before.getJSONObject("primaryMetric");
+            JSONObject afterMetric = after.getJSONObject("primaryMetric");
+            double oldScore = beforeMetric.getDoubleValue("score");
+            double newScore = afterMetric.getDoubleValue("score");
+            // 吞吐量越大越好，其余模式（耗时）越小越好
+            boolean higherIsBetter = "thrpt".equals(after.getString("mode"));
+            double change = oldScore == 0 ? 0 : (newScore - oldScore) / oldScore;
+            double worse = higherIsBetter ? -change : change;
+            double noise = errorOf(beforeMetric) + errorOf(afterMetric);
+            boolean regression = worse > threshold && Math.abs(newScore - oldScore) > noise;
+            if (regression) {
+                regressions++;
+            }
+            System.out.println(String.format("%-90s %14s %14s %+8.1f%% %12s%s", entry.getKey(), format(beforeMetric),
+                    format(afterMetric), change * 100, allocationChange(before, after), regression ? "  退步" : ""));
+        }
+        for (String key : baseline.keySet()) {
+            if (!current.containsKey(key)) {
+                System.out.println(String.format("%-90s %14s %14s", key, format(baseline.get(key).getJSONObject("primaryMetric")), "-"));
+            }
+        }
+        System.out.println(regressions == 0 ? "没有退步" : "退步 " + regressions + " 项（阈值 " + threshold * 100 + "%）");
+        System.exit(regressions == 0 ? 0 : 1);
+    }
+
+    /**
+     * 读取 JMH 结果，键为 基准方法 + 排序后的参数
+     */
+    private static Map<String, JSONObject> load(String file) throws IOException {
+        JSONArray results = JSON.parseArray(new String(Files.readAllBytes(Paths.get(file)), StandardCharsets.UTF_8));
+        Map<String, JSONObject> byKey = new LinkedHashMap<>();
+        for (int i = 0; i < results.size(); i++) {
+            JSONObject result = results.getJSONObject(i);
+            StringBuilder key = new StringBuilder(result.getString("benchmark")
+                    .replace("com.gis.bench.jmh.", ""));
+            JSONObject params = result.getJSONObject("params");
+            if (params != null) {
+                for (Map.Entry<String, Object> param : new TreeMap<>(params).entrySet()) {
+                    key.append(' ').append(param.getKey()).append('=').append(param.getValue());
+                }
+            }
+            byKey.put(key.toString(), result);
+        }
+        return byKey;
+    }
+
+    private static double errorOf(JSONObject metric) {
+        double error = metric.getDoubleValue("scoreError");
+        return Double.isNaN(error) ? 0 : error;
+    }
+
+    private static String format(JSONObject metric) {
+        return String.format("%.3f %s", metric.getDoubleValue("score"), metric.getString("scoreUnit"));
+    }
+
+    private static String allocationChange(JSONObject before, JSONObject after) {
+        JSONObject beforeSecondary = before.getJSONObject("secondaryMetrics");
+        JSONObject afterSecondary = after.getJSONObject("secondaryMetrics");
+        if (beforeSecondary == null || afterSecondary == null
+                || !beforeSecondary.containsKey(ALLOCATION_METRIC) || !afterSecondary.containsKey(ALLOCATION_METRIC)) {
+            return "-";
+        }
+        double oldBytes = beforeSecondary.getJSONObject(ALLOCATION_METRIC).getDoubleValue("score");
+        double newBytes = afterSecondary.getJSONObject(ALLOCATION_METRIC).getDoubleValue("score");
+        return oldBytes == 0 ? "-" : String.format("%+.1f%%", (newBytes - oldBytes) / oldBytes * 100);
+    }
+}
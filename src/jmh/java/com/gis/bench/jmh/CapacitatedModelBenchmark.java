@@ -0,0 +1,101 @@
+package com.gis.bench.jmh;
+
+import com.gis.hangar.CapacitatedCoverModel;
+import com.gis.hangar.CoverageMatrix;
+import com.gis.hangar.DroneModel;
+import com.gis.hangar.InspectionPoint;
+import com.gis.hangar.SetCoverModel;
+import com.google.ortools.linearsolver.MPSolver;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 容量约束 MIP 与纯集合覆盖 ILP 的构建 + 求解耗时对比
+ * <ul>
+ *     <li>setCover：纯集合覆盖（忽略 capacity 参数）</li>
+ *     <li>weak：容量模型，只用容量约束连接分配变量和选址变量</li>
+ *     <li>strong：容量模型，另为每个分配变量加 a[p][c] ≤ x[c]</li>
+ * </ul>
+ * capacity = limited 时型号容量为 20/30/40 次，8km 型号固定成本 3。
+ * 每次求解时间上限 timeLimitMs，求解器达到上限时测得的是上限本身，应结合目标值一起看。
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CapacitatedModelBenchmark {
+
+    @Param({"500", "1000", "2000"})
+    public int points;
+
+    @Param({"setCover", "weak", "strong"})
+    public String model;
+
+    @Param({"unlimited", "limited"})
+    public String capacity;
+
+    @Param({"60000"})
+    public long timeLimitMs;
+
+    private CoverageMatrix matrix;
+    private double[] cost;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        com.google.ortools.Loader.loadNativeLibraries();
+        Random random = new Random(points);
+        List<InspectionPoint> inspectionPoints = new ArrayList<>();
+        // 点密度固定（约每平方公里 0.5 个点），规模越大区域越大
+        double side = Math.sqrt(points / 0.5) * 1000;
+        for (int i = 0; i < points; i++) {
+            InspectionPoint point = new InspectionPoint("p" + i, 12127000 + random.nextDouble() * side,
+                    4053000 + random.nextDouble() * side, random.nextInt(4) == 0);
+            point.setVisitsPerCycle(1 + random.nextInt(2));
+            inspectionPoints.add(point);
+        }
+        List<InspectionPoint> sites = InstanceGenerator.sites(inspectionPoints);
+        List<DroneModel> drones = Arrays.asList(new DroneModel("3km", 3.0), new DroneModel("5km", 5.0),
+                new DroneModel("8km", 8.0));
+        if ("limited".equals(capacity)) {
+            drones.get(0).setSortieCapacity(20);
+            drones.get(1).setSortieCapacity(30);
+            drones.get(2).setSortieCapacity(40);
+            drones.get(2).setFixedCost(3);
+        }
+        matrix = CoverageMatrix.build(sites, inspectionPoints, drones);
+        cost = SetCoverModel.rangeWeightedCosts(matrix);
+    }
+
+    @Benchmark
+    public double buildAndSolve() {
+        MPSolver solver = SetCoverModel.createMipSolver();
+        try {
+            switch (model) {
+                case "setCover":
+                    SetCoverModel.build(solver, matrix, cost);
+                    break;
+                case "weak":
+                    CapacitatedCoverModel.build(solver, matrix, cost, false);
+                    break;
+                case "strong":
+                    CapacitatedCoverModel.build(solver, matrix, cost, true);
+                    break;
+                default:
+                    throw new IllegalArgumentException("不支持的模型: " + model);
+            }
+            solver.setTimeLimit(timeLimitMs);
+            MPSolver.ResultStatus status = solver.solve();
+            boolean solved = status == MPSolver.ResultStatus.OPTIMAL || status == MPSolver.ResultStatus.FEASIBLE;
+            return solved ? solver.objective().value() : Double.NaN;
+        } finally {
+            solver.delete();
+        }
+    }
+}
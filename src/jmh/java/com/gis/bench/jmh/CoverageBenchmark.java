@@ -0,0 +1,68 @@
+package com.gis.bench.jmh;
+
+import com.gis.hangar.CoverageMatrix;
+import com.gis.hangar.DroneModel;
+import com.gis.hangar.InspectionPoint;
+import com.gis.hangar.SetCoverModel;
+import com.google.ortools.linearsolver.MPSolver;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 覆盖关系预计算和 ILP 建模的基准测试
+ * precompute 测 CoverageMatrix.build（网格索引 + 位图），modelBuild 测在预先算好的覆盖关系上构建稀疏 SetCoverModel。
+ * 加 -prof gc 可以得到每次操作的分配量（gc.alloc.rate.norm）。
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx8g"})
+@State(Scope.Benchmark)
+public class CoverageBenchmark {
+
+    @Param({"UNIFORM", "CLUSTERED", "CORRIDOR"})
+    public InstanceGenerator.Shape shape;
+
+    @Param({"100", "1000", "10000", "100000"})
+    public int points;
+
+    @Param({"1", "3", "5"})
+    public int drones;
+
+    @Param({"42"})
+    public long seed;
+
+    private List<InspectionPoint> inspectionPoints;
+    private List<InspectionPoint> sites;
+    private List<DroneModel> droneModels;
+    private CoverageMatrix matrix;
+    private double[] cost;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        com.google.ortools.Loader.loadNativeLibraries();
+        inspectionPoints = InstanceGenerator.points(shape, points, seed);
+        sites = InstanceGenerator.sites(inspectionPoints);
+        droneModels = InstanceGenerator.droneModels(drones);
+        matrix = CoverageMatrix.build(sites, inspectionPoints, droneModels);
+        cost = SetCoverModel.rangeWeightedCosts(matrix);
+    }
+
+    @Benchmark
+    public CoverageMatrix precompute() {
+        return CoverageMatrix.build(sites, inspectionPoints, droneModels);
+    }
+
+    @Benchmark
+    public long modelBuild() {
+        MPSolver solver = SetCoverModel.createMipSolver();
+        try {
+            return SetCoverModel.build(solver, matrix, cost).getNonZeroCount();
+        } finally {
+            solver.delete();
+        }
+    }
+}
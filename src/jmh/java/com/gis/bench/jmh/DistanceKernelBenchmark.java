@@ -0,0 +1,102 @@
+package com.gis.bench.jmh;
+
+import com.gis.hangar.CoverageMatrix;
+import com.gis.hangar.DroneModel;
+import com.gis.hangar.InspectionPoint;
+import com.gis.hangar.MercatorScale;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 距离计算基准测试
+ * 对比三种核：原来的墨卡托平面 sqrt、预先计算比例因子的地面距离、每对点现算 cosh 的地面距离，
+ * 每次操作计算 points × points 对；coverageMatrix 测陕西范围随机点上完整 CoverageMatrix 预计算的耗时。
+ * 用法：mvn -Pjmh compile exec:exec -Djmh.args="DistanceKernelBenchmark"
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DistanceKernelBenchmark {
+
+    @Param({"4096"})
+    public int points;
+
+    @Param({"42"})
+    public long seed;
+
+    private double[] xs;
+    private double[] ys;
+    private double[] scales;
+    private List<InspectionPoint> inspectionPoints;
+    private List<DroneModel> droneModels;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(seed);
+        xs = new double[points];
+        ys = new double[points];
+        scales = new double[points];
+        for (int i = 0; i < points; i++) {
+            // 陕西范围（约东经 105.5°~111°、北纬 31.7°~39.6°）
+            xs[i] = 11740000 + random.nextDouble() * 620000;
+            ys[i] = 3720000 + random.nextDouble() * 1080000;
+            scales[i] = MercatorScale.scaleAt(ys[i]);
+        }
+
+        inspectionPoints = new ArrayList<>();
+        for (int i = 0; i < points; i++) {
+            inspectionPoints.add(new InspectionPoint("p" + i, 11740000 + random.nextDouble() * 150000,
+                    3720000 + random.nextDouble() * 150000, true));
+        }
+        droneModels = Arrays.asList(new DroneModel("3km", 3.0), new DroneModel("5km", 5.0), new DroneModel("8km", 8.0));
+    }
+
+    @Benchmark
+    public double planar() {
+        double sum = 0;
+        for (int i = 0; i < xs.length; i++) {
+            for (int j = 0; j < xs.length; j++) {
+                double dx = xs[i] - xs[j];
+                double dy = ys[i] - ys[j];
+                sum += Math.sqrt(dx * dx + dy * dy);
+            }
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public double precomputed() {
+        double sum = 0;
+        for (int i = 0; i < xs.length; i++) {
+            for (int j = 0; j < xs.length; j++) {
+                sum += MercatorScale.groundDistance(xs[i] - xs[j], ys[i] - ys[j], scales[i], scales[j]);
+            }
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public double perPair() {
+        double sum = 0;
+        for (int i = 0; i < xs.length; i++) {
+            for (int j = 0; j < xs.length; j++) {
+                sum += MercatorScale.groundDistance(xs[i] - xs[j], ys[i] - ys[j],
+                        MercatorScale.scaleAt(ys[i]), MercatorScale.scaleAt(ys[j]));
+            }
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public CoverageMatrix coverageMatrix() {
+        return CoverageMatrix.build(inspectionPoints, inspectionPoints, droneModels);
+    }
+}
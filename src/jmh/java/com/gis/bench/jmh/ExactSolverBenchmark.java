@@ -0,0 +1,70 @@
+package com.gis.bench.jmh;
+
+import com.gis.hangar.DroneModel;
+import com.gis.hangar.HangarPlacementAlgorithm2;
+import com.gis.hangar.HangarPlacementAlgorithm3;
+import com.gis.hangar.HangarPlacementAlgorithm4;
+import com.gis.hangar.HangarPlacementAlgorithm5;
+import com.gis.hangar.InspectionPoint;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 精确算法的端到端基准测试，只用小规模实例
+ * <ul>
+ *     <li>algorithm2：HangarPlacementAlgorithm2 ILP</li>
+ *     <li>algorithm3：HangarPlacementAlgorithm3 fork-join 分支定界</li>
+ *     <li>algorithm4：HangarPlacementAlgorithm4 分支定界</li>
+ *     <li>algorithm5：HangarPlacementAlgorithm5 约简 + 稀疏 ILP，不限时</li>
+ * </ul>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ExactSolverBenchmark {
+
+    @Param({"UNIFORM", "CLUSTERED", "CORRIDOR"})
+    public InstanceGenerator.Shape shape;
+
+    @Param({"50", "100", "200"})
+    public int points;
+
+    @Param({"1", "3"})
+    public int drones;
+
+    @Param({"algorithm2", "algorithm3", "algorithm4", "algorithm5"})
+    public String algorithm;
+
+    @Param({"42"})
+    public long seed;
+
+    private List<InspectionPoint> inspectionPoints;
+    private List<DroneModel> droneModels;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        inspectionPoints = InstanceGenerator.points(shape, points, seed);
+        droneModels = InstanceGenerator.droneModels(drones);
+    }
+
+    @Benchmark
+    public int solve() {
+        switch (algorithm) {
+            case "algorithm2":
+                return new HangarPlacementAlgorithm2(inspectionPoints, droneModels, false).findOptimalHangars().size();
+            case "algorithm3":
+                return new HangarPlacementAlgorithm3(inspectionPoints, droneModels, false).findOptimalHangars().size();
+            case "algorithm4":
+                return new HangarPlacementAlgorithm4(inspectionPoints, droneModels).findOptimalHangars().size();
+            case "algorithm5":
+                return new HangarPlacementAlgorithm5(inspectionPoints, droneModels).solve(0, 0).getHangars().size();
+            default:
+                throw new IllegalArgumentException("不支持的算法: " + algorithm);
+        }
+    }
+}
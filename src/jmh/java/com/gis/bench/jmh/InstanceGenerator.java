@@ -0,0 +1,124 @@
+package com.gis.bench.jmh;
+
+import com.gis.hangar.DroneModel;
+import com.gis.hangar.InspectionPoint;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * 机巢布置基准测试的合成实例生成器
+ * 相同的形状、点数和种子总是生成相同的实例，不同优化之间的结果可以直接对比。
+ * 坐标为陕西中部（约东经 109°、北纬 34°）的墨卡托坐标，点密度固定，规模越大区域越大：
+ * <ul>
+ *     <li>UNIFORM：区域内均匀分布</li>
+ *     <li>CLUSTERED：围绕若干中心的正态分布簇（如城镇、变电站周边）</li>
+ *     <li>CORRIDOR：沿折线走廊分布，间距约一个杆塔档距，带少量横向偏移（输电线路）</li>
+ * </ul>
+ */
+public final class InstanceGenerator {
+
+    public enum Shape {
+        UNIFORM, CLUSTERED, CORRIDOR
+    }
+
+    private static final double ORIGIN_X = 12127000;
+    private static final double ORIGIN_Y = 4053000;
+    // 平均每平方公里的点数
+    private static final double POINTS_PER_KM2 = 0.5;
+    // 每个簇的平均点数和簇半径（米，正态分布标准差）
+    private static final int POINTS_PER_CLUSTER = 200;
+    private static final double CLUSTER_SIGMA = 2000;
+    // 每条线路的平均点数、档距和横向偏移（米）
+    private static final int POINTS_PER_LINE = 2000;
+    private static final double SPAN = 400;
+    private static final double LATERAL_SIGMA = 30;
+    // 可建机巢的点所占比例
+    private static final double SITE_FRACTION = 0.25;
+    // 型号半径（公里），前 droneCount 个参与实例
+    private static final double[] RANGES_KM = {3.0, 5.0, 8.0, 10.0, 15.0};
+
+    private InstanceGenerator() {
+    }
+
+    public static List<InspectionPoint> points(Shape shape, int count, long seed) {
+        Random random = new Random(seed * 31 + shape.ordinal());
+        double side = Math.sqrt(count / POINTS_PER_KM2) * 1000;
+        List<InspectionPoint> points = new ArrayList<>(count);
+        switch (shape) {
+            case UNIFORM:
+                for (int i = 0; i < count; i++) {
+                    add(points, random, ORIGIN_X + random.nextDouble() * side, ORIGIN_Y + random.nextDouble() * side);
+                }
+                break;
+            case CLUSTERED: {
+                int clusters = Math.max(1, count / POINTS_PER_CLUSTER);
+                double[] cx = new double[clusters];
+                double[] cy = new double[clusters];
+                for (int k = 0; k < clusters; k++) {
+                    cx[k] = ORIGIN_X + random.nextDouble() * side;
+                    cy[k] = ORIGIN_Y + random.nextDouble() * side;
+                }
+                for (int i = 0; i < count; i++) {
+                    int k = random.nextInt(clusters);
+                    add(points, random, cx[k] + random.nextGaussian() * CLUSTER_SIGMA,
+                            cy[k] + random.nextGaussian() * CLUSTER_SIGMA);
+                }
+                break;
+            }
+            case CORRIDOR: {
+                int lines = Math.max(1, count / POINTS_PER_LINE);
+                for (int line = 0; line < lines; line++) {
+                    int remaining = count - points.size();
+                    int linePoints = line == lines - 1 ? remaining : Math.min(remaining, count / lines);
+                    double x = ORIGIN_X + random.nextDouble() * side;
+                    double y = ORIGIN_Y + random.nextDouble() * side;
+                    double heading = random.nextDouble() * 2 * Math.PI;
+                    for (int i = 0; i < linePoints; i++) {
+                        // 每隔约 20 档转一次向，模拟线路的折线走向
+                        if (i % 20 == 0) {
+                            heading += random.nextGaussian() * Math.toRadians(25);
+                        }
+                        x += Math.cos(heading) * SPAN;
+                        y += Math.sin(heading) * SPAN;
+                        double offset = random.nextGaussian() * LATERAL_SIGMA;
+                        add(points, random, x - Math.sin(heading) * offset, y + Math.cos(heading) * offset);
+                    }
+                }
+                break;
+            }
+            default:
+                throw new IllegalArgumentException("未知的实例形状: " + shape);
+        }
+        return points;
+    }
+
+    /**
+     * 前 count 个型号（1 到 5 个），半径依次为 3、5、8、10、15 公里
+     */
+    public static List<DroneModel> droneModels(int count) {
+        if (count < 1 || count > RANGES_KM.length) {
+            throw new IllegalArgumentException("型号数量必须在 1 到 " + RANGES_KM.length + " 之间: " + count);
+        }
+        List<DroneModel> drones = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            drones.add(new DroneModel("M" + (int) RANGES_KM[i] + "KM", RANGES_KM[i]));
+        }
+        return drones;
+    }
+
+    public static List<InspectionPoint> sites(List<InspectionPoint> points) {
+        List<InspectionPoint> sites = new ArrayList<>();
+        for (InspectionPoint point : points) {
+            if (point.canBuildHangar()) {
+                sites.add(point);
+            }
+        }
+        return sites;
+    }
+
+    private static void add(List<InspectionPoint> points, Random random, double x, double y) {
+        points.add(new InspectionPoint("p" + points.size(), x, y, random.nextDouble() < SITE_FRACTION));
+    }
+}
@@ -0,0 +1,89 @@
+package com.gis.bench.jmh;
+
+import com.gis.hangar.CoverageVerifier;
+import com.gis.hangar.DroneModel;
+import com.gis.hangar.GraspSolver;
+import com.gis.hangar.HangarPlacementAlgorithm;
+import com.gis.hangar.HangarPlacementAlgorithm3;
+import com.gis.hangar.HangarPlacementAlgorithm5;
+import com.gis.hangar.InspectionPoint;
+import com.gis.hangar.PlacementSolution;
+import com.gis.hangar.SelectedHangar;
+
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 解的质量报告
+ * JMH 只统计耗时和分配量，这里在与基准测试相同的种子实例上各求解一次，输出 CSV：
+ * 机巢数、未覆盖点数、目标值、下界和耗时。实例确定，记录一次即可作为质量基线，与后续结果逐行对比。
+ * 用法：java com.gis.bench.jmh.SolutionQualityReport [输出文件] [点数,点数,...]
+ */
+public class SolutionQualityReport {
+
+    // 精确算法（分支定界）只在不超过该点数的实例上运行
+    private static final int EXACT_MAX_POINTS = 200;
+    private static final long ILP_TIME_LIMIT_MS = 10000;
+    private static final long SEED = 42;
+
+    public static void main(String[] args) throws IOException {
+        int[] sizes = args.length > 1
+                ? Arrays.stream(args[1].split(",")).mapToInt(Integer::parseInt).toArray()
+                : new int[]{100, 1000, 10000};
+        try (Writer writer = args.length > 0 ? new FileWriter(args[0])
+                : new OutputStreamWriter(System.out, StandardCharsets.UTF_8);
+             PrintWriter out = new PrintWriter(writer)) {
+            out.println("shape,points,drones,algorithm,hangars,uncovered,objective,lowerBound,status,timeMs");
+            for (InstanceGenerator.Shape shape : InstanceGenerator.Shape.values()) {
+                for (int size : sizes) {
+                    for (int drones = 1; drones <= 5; drones += 2) {
+                        List<InspectionPoint> points = InstanceGenerator.points(shape, size, SEED);
+                        List<DroneModel> droneModels = InstanceGenerator.droneModels(drones);
+                        String prefix = shape + "," + size + "," + drones + ",";
+
+                        long start = System.currentTimeMillis();
+                        List<SelectedHangar> greedy = new HangarPlacementAlgorithm(points, droneModels).findOptimalHangars();
+                        report(out, prefix + "greedy", greedy, points, droneModels, greedy.size(), Double.NaN,
+                                "FEASIBLE", System.currentTimeMillis() - start);
+
+                        start = System.currentTimeMillis();
+                        List<SelectedHangar> grasp = new HangarPlacementAlgorithm(points, droneModels)
+                                .findGraspHangars(GraspSolver.DEFAULT_RESTARTS, SEED);
+                        report(out, prefix + "grasp", grasp, points, droneModels, grasp.size(), Double.NaN,
+                                "FEASIBLE", System.currentTimeMillis() - start);
+
+                        PlacementSolution ilp = new HangarPlacementAlgorithm5(points, droneModels)
+                                .solve(ILP_TIME_LIMIT_MS, 0);
+                        report(out, prefix + "ilp", ilp.getHangars(), points, droneModels, ilp.getObjectiveValue(),
+                                ilp.getLowerBound(), ilp.getStatus().name(), ilp.getSolveTimeMs());
+
+                        if (size <= EXACT_MAX_POINTS) {
+                            start = System.currentTimeMillis();
+                            List<SelectedHangar> exact = new HangarPlacementAlgorithm3(points, droneModels, false)
+                                    .findOptimalHangars();
+                            report(out, prefix + "algorithm3", exact, points, droneModels, exact.size(), exact.size(),
+                                    "OPTIMAL", System.currentTimeMillis() - start);
+                        }
+                        out.flush();
+                    }
+                }
+            }
+        }
+    }
+
+    private static void report(PrintWriter out, String key, List<SelectedHangar> hangars, List<InspectionPoint> points,
+                               List<DroneModel> droneModels, double objective, double lowerBound, String status,
+                               long timeMs) {
+        CoverageVerifier.Report coverage = new CoverageVerifier(points, droneModels).verify(hangars);
+        out.println(key + "," + hangars.size() + "," + coverage.getUncoveredCount() + ","
+                + String.format("%.4f", objective) + ","
+                + (Double.isNaN(lowerBound) ? "" : String.format("%.4f", lowerBound)) + ","
+                + status + "," + timeMs);
+    }
+}
@@ -0,0 +1,100 @@
+package com.gis.bench.jmh;
+
+import com.gis.hangar.CoverageMatrix;
+import com.gis.hangar.DroneModel;
+import com.gis.hangar.GraspSolver;
+import com.gis.hangar.InspectionPoint;
+import com.gis.hangar.LazyGreedySolver;
+import com.gis.hangar.SetCoverModel;
+import com.google.ortools.linearsolver.MPSolver;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 可扩展求解器核心的基准测试，规模到 10 万个点
+ * 覆盖关系在 setUp 中预先算好（预计算的耗时见 CoverageBenchmark），这里只测求解核心，
+ * 不经过 HangarPlacementAlgorithm/HangarPlacementAlgorithm5 的入口，避免把逐个机巢打印日志的控制台 I/O 计入结果。
+ * <ul>
+ *     <li>greedy：LazyGreedySolver 延迟贪心</li>
+ *     <li>grasp：GraspSolver 多起点随机贪心加局部搜索，固定种子</li>
+ *     <li>ilp：稀疏 SetCoverModel 建模 + 贪心热启动 + 限时求解，时间上限 ilpTimeLimitMs（不做问题约简）</li>
+ * </ul>
+ * 精确算法只适合小规模实例，见 ExactSolverBenchmark；解的质量见 SolutionQualityReport。
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx8g"})
+@State(Scope.Benchmark)
+public class SolverBenchmark {
+
+    @Param({"UNIFORM", "CLUSTERED", "CORRIDOR"})
+    public InstanceGenerator.Shape shape;
+
+    @Param({"100", "1000", "10000", "100000"})
+    public int points;
+
+    @Param({"1", "3", "5"})
+    public int drones;
+
+    @Param({"greedy", "grasp", "ilp"})
+    public String algorithm;
+
+    @Param({"42"})
+    public long seed;
+
+    @Param({"10000"})
+    public long ilpTimeLimitMs;
+
+    private CoverageMatrix matrix;
+    private double[] cost;
+    // ILP 热启动用的贪心解，在 setUp 中算好
+    private int[] greedySolution;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        if ("ilp".equals(algorithm)) {
+            com.google.ortools.Loader.loadNativeLibraries();
+        }
+        List<InspectionPoint> inspectionPoints = InstanceGenerator.points(shape, points, seed);
+        List<DroneModel> droneModels = InstanceGenerator.droneModels(drones);
+        matrix = CoverageMatrix.build(InstanceGenerator.sites(inspectionPoints), inspectionPoints, droneModels);
+        cost = SetCoverModel.rangeWeightedCosts(matrix);
+        greedySolution = new LazyGreedySolver(matrix).solve(matrix.newPointSet()).getCandidates();
+    }
+
+    @Benchmark
+    public double solve() {
+        switch (algorithm) {
+            case "greedy":
+                return new LazyGreedySolver(matrix).solve(matrix.newPointSet()).getCandidates().length;
+            case "grasp":
+                return new GraspSolver(matrix, cost)
+                        .setRestarts(GraspSolver.DEFAULT_RESTARTS)
+                        .setSeed(seed)
+                        .solve()
+                        .getBestCost();
+            case "ilp":
+                return solveIlp();
+            default:
+                throw new IllegalArgumentException("不支持的算法: " + algorithm);
+        }
+    }
+
+    private double solveIlp() {
+        MPSolver solver = SetCoverModel.createMipSolver();
+        try {
+            SetCoverModel model = SetCoverModel.build(solver, matrix, cost);
+            model.setHint(greedySolution);
+            solver.setTimeLimit(ilpTimeLimitMs);
+            MPSolver.ResultStatus status = solver.solve();
+            boolean solved = status == MPSolver.ResultStatus.OPTIMAL || status == MPSolver.ResultStatus.FEASIBLE;
+            return solved ? solver.objective().value() : Double.NaN;
+        } finally {
+            solver.delete();
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.gis.gdal;
+
+import org.gdal.gdal.Band;
+import org.gdal.gdal.Dataset;
+import org.gdal.gdalconst.gdalconstConstants;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Byte 栅格：地形分类、洼地掩码等，像元按 GDAL 的 GDT_Byte 视为 0-255 的无符号数
+ */
+public final class ByteRasterGrid extends RasterGrid {
+
+    private final byte[] array;
+
+    private ByteRasterGrid(int width, int height, double[] geoTransform, Double noData, byte[] array,
+                           ByteBuffer bytes) {
+        super(width, height, geoTransform, noData, bytes);
+        this.array = array;
+    }
+
+    public static ByteRasterGrid allocate(int width, int height, double[] geoTransform, Double noData) {
+        return new ByteRasterGrid(width, height, geoTransform, noData,
+                new byte[Math.multiplyExact(width, height)], null);
+    }
+
+    public static ByteRasterGrid allocateDirect(int width, int height, double[] geoTransform, Double noData) {
+        return new ByteRasterGrid(width, height, geoTransform, noData, null, allocateBytes(width, height, 1));
+    }
+
+    public static ByteRasterGrid wrap(byte[] data, int width, int height, double[] geoTransform, Double noData) {
+        if (data.length != Math.multiplyExact(width, height)) {
+            throw new IllegalArgumentException("数组长度 " + data.length + " 与栅格尺寸 " + width + "x" + height + " 不符");
+        }
+        return new ByteRasterGrid(width, height, geoTransform, noData, data, null);
+    }
+
+    public static ByteRasterGrid wrap(ByteBuffer bytes, int width, int height, double[] geoTransform, Double noData) {
+        return new ByteRasterGrid(width, height, geoTransform, noData, null, slice(bytes, width, height, 1));
+    }
+
+    public static ByteRasterGrid read(Dataset dataset) {
+        Band band = dataset.GetRasterBand(1);
+        ByteRasterGrid grid = allocate(dataset.getRasterXSize(), dataset.getRasterYSize(),
+                dataset.GetGeoTransform(), noDataOf(band));
+        grid.readFrom(band);
+        return grid;
+    }
+
+    @Override
+    public int getDataType() {
+        return gdalconstConstants.GDT_Byte;
+    }
+
+    public byte get(int index) {
+        return array != null ? array[index] : bytes.get(index);
+    }
+
+    public byte get(int x, int y) {
+        return get(y * width + x);
+    }
+
+    public void set(int index, byte value) {
+        if (array != null) {
+            array[index] = value;
+        } else {
+            bytes.put(index, value);
+        }
+    }
+
+    @Override
+    public double getDouble(int index) {
+        return get(index) & 0xFF;
+    }
+
+    @Override
+    public void setDouble(int index, double value) {
+        set(index, (byte) (int) Math.round(value));
+    }
+
+    public boolean hasArray() {
+        return array != null;
+    }
+
+    public byte[] array() {
+        if (array == null) {
+            throw new IllegalStateException("栅格存放在堆外缓冲区中");
+        }
+        return array;
+    }
+
+    /**
+     * 转为 byte[行][列]，兼容旧的洼地识别接口
+     */
+    public byte[][] toByteRows() {
+        byte[][] rows = new byte[height][width];
+        for (int y = 0; y < height; y++) {
+            int offset = y * width;
+            for (int x = 0; x < width; x++) {
+                rows[y][x] = get(offset + x);
+            }
+        }
+        return rows;
+    }
+
+    @Override
+    protected void readArray(Band band) {
+        band.ReadRaster(0, 0, width, height, width, height, gdalconstConstants.GDT_Byte, array);
+    }
+
+    @Override
+    protected void writeArray(Band band) {
+        band.WriteRaster(0, 0, width, height, width, height, gdalconstConstants.GDT_Byte, array);
+    }
+
+    @Override
+    protected void readRows(Band band) {
+        byte[] row = new byte[width];
+        for (int y = 0; y < height; y++) {
+            band.ReadRaster(0, y, width, 1, width, 1, gdalconstConstants.GDT_Byte, row);
+            ByteBuffer target = bytes.duplicate();
+            target.position(y * width);
+            target.put(row);
+        }
+    }
+
+    @Override
+    protected void writeRows(Band band) {
+        byte[] row = new byte[width];
+        for (int y = 0; y < height; y++) {
+            ByteBuffer source = bytes.duplicate();
+            source.position(y * width);
+            source.get(row);
+            band.WriteRaster(0, y, width, 1, width, 1, gdalconstConstants.GDT_Byte, row);
+        }
+    }
+}
@@ -77,6 +77,69 @@ public class DepressionAnalysis {
         }
     }
 
+    /**
+     * 根据内存中的 DEM 栅格确定洼地阈值，不再读取数据集
+     * 统计量排除栅格的无效值（与 GetStatistics 相同），分位数只统计大于 noDataValue 的高程。
+     */
+    public double calculateDepressionThreshold(RasterGrid dem, ThresholdMethod method, double paramValue) {
+        int size = dem.getSize();
+        double min = Double.POSITIVE_INFINITY;
+        double max = Double.NEGATIVE_INFINITY;
+        double sum = 0;
+        double sumSquares = 0;
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            if (dem.isNoData(i)) {
+                continue;
+            }
+            double value = dem.getDouble(i);
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+            sum += value;
+            sumSquares += value * value;
+            count++;
+        }
+        if (count == 0) {
+            System.err.println("计算洼地阈值时出错: 栅格没有有效像元");
+            return Double.NaN;
+        }
+        double mean = sum / count;
+        double stdDev = Math.sqrt(Math.max(0, sumSquares / count - mean * mean));
+        System.out.println("DEM统计数据: 最小值=" + min + ", 最大值=" + max +
+                ", 平均值=" + mean + ", 标准差=" + stdDev);
+
+        double threshold;
+        switch (method) {
+            case STANDARD_DEVIATION:
+                threshold = mean - (paramValue * stdDev);
+                break;
+
+            case WEIGHTED_AVERAGE:
+                threshold = (min * paramValue) + (mean * (1 - paramValue));
+                break;
+
+            case PERCENTILE: {
+                float[] validValues = new float[size];
+                int validCount = 0;
+                for (int i = 0; i < size; i++) {
+                    double value = dem.getDouble(i);
+                    if (value > noDataValue) {
+                        validValues[validCount++] = (float) value;
+                    }
+                }
+                Arrays.sort(validValues, 0, validCount);
+                threshold = validValues[(int) (validCount * paramValue)];
+                break;
+            }
+
+            default:
+                threshold = mean - stdDev;
+        }
+
+        // 确保阈值在有效范围内
+        return Math.max(threshold, min);
+    }
+
     /**
      * 计算分位数阈值
      */
@@ -127,6 +190,27 @@ public class DepressionAnalysis {
         return depressions;
     }
 
+    /**
+     * 在内存中的 DEM 栅格上识别洼地
+     * @param dem DEM 栅格
+     * @param threshold 洼地阈值
+     * @return 洼地栅格 (1=洼地, 0=非洼地)，地理变换与 DEM 相同
+     */
+    public ByteRasterGrid identifyDepressions(RasterGrid dem, double threshold) {
+        ByteRasterGrid depressions = ByteRasterGrid.allocate(dem.getWidth(), dem.getHeight(),
+                dem.getGeoTransform(), null);
+        byte[] mask = depressions.array();
+        int size = dem.getSize();
+        for (int i = 0; i < size; i++) {
+            double value = dem.getDouble(i);
+            // 如果高程低于阈值，标记为洼地
+            if (value != noDataValue && value < threshold) {
+                mask[i] = 1;
+            }
+        }
+        return depressions;
+    }
+
     /**
      * 阈值确定方法枚举
      */
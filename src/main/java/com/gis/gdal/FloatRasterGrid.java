@@ -0,0 +1,142 @@
+package com.gis.gdal;
+
+import org.gdal.gdal.Band;
+import org.gdal.gdal.Dataset;
+import org.gdal.gdalconst.gdalconstConstants;
+
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+
+/**
+ * Float32 栅格：DEM 高程、坡度、坡向、TPI
+ */
+public final class FloatRasterGrid extends RasterGrid {
+
+    private final float[] array;
+    private final FloatBuffer buffer;
+
+    private FloatRasterGrid(int width, int height, double[] geoTransform, Double noData, float[] array,
+                            ByteBuffer bytes) {
+        super(width, height, geoTransform, noData, bytes);
+        this.array = array;
+        this.buffer = array != null ? FloatBuffer.wrap(array) : bytes.asFloatBuffer();
+    }
+
+    public static FloatRasterGrid allocate(int width, int height, double[] geoTransform, Double noData) {
+        return new FloatRasterGrid(width, height, geoTransform, noData,
+                new float[Math.multiplyExact(width, height)], null);
+    }
+
+    /**
+     * 在堆外分配，不占用 Java 堆
+     */
+    public static FloatRasterGrid allocateDirect(int width, int height, double[] geoTransform, Double noData) {
+        return new FloatRasterGrid(width, height, geoTransform, noData, null, allocateBytes(width, height, 4));
+    }
+
+    public static FloatRasterGrid wrap(float[] data, int width, int height, double[] geoTransform, Double noData) {
+        if (data.length != Math.multiplyExact(width, height)) {
+            throw new IllegalArgumentException("数组长度 " + data.length + " 与栅格尺寸 " + width + "x" + height + " 不符");
+        }
+        return new FloatRasterGrid(width, height, geoTransform, noData, data, null);
+    }
+
+    /**
+     * 包装 bytes 从当前位置开始的 width * height 个 float，按 bytes 的字节序解释（如内存映射文件）
+     */
+    public static FloatRasterGrid wrap(ByteBuffer bytes, int width, int height, double[] geoTransform, Double noData) {
+        return new FloatRasterGrid(width, height, geoTransform, noData, null, slice(bytes, width, height, 4));
+    }
+
+    /**
+     * 读取数据集的第一个波段到堆内数组
+     */
+    public static FloatRasterGrid read(Dataset dataset) {
+        Band band = dataset.GetRasterBand(1);
+        FloatRasterGrid grid = allocate(dataset.getRasterXSize(), dataset.getRasterYSize(),
+                dataset.GetGeoTransform(), noDataOf(band));
+        grid.readFrom(band);
+        return grid;
+    }
+
+    @Override
+    public int getDataType() {
+        return gdalconstConstants.GDT_Float32;
+    }
+
+    public float get(int index) {
+        return array != null ? array[index] : buffer.get(index);
+    }
+
+    public float get(int x, int y) {
+        return get(y * width + x);
+    }
+
+    public void set(int index, float value) {
+        if (array != null) {
+            array[index] = value;
+        } else {
+            buffer.put(index, value);
+        }
+    }
+
+    @Override
+    public double getDouble(int index) {
+        return get(index);
+    }
+
+    @Override
+    public void setDouble(int index, double value) {
+        set(index, (float) value);
+    }
+
+    public boolean hasArray() {
+        return array != null;
+    }
+
+    /**
+     * 堆内数组，供热循环直接访问；堆外存储时抛出 IllegalStateException
+     */
+    public float[] array() {
+        if (array == null) {
+            throw new IllegalStateException("栅格存放在堆外缓冲区中");
+        }
+        return array;
+    }
+
+    public FloatBuffer buffer() {
+        return buffer.duplicate();
+    }
+
+    @Override
+    protected void readArray(Band band) {
+        band.ReadRaster(0, 0, width, height, width, height, gdalconstConstants.GDT_Float32, array);
+    }
+
+    @Override
+    protected void writeArray(Band band) {
+        band.WriteRaster(0, 0, width, height, width, height, gdalconstConstants.GDT_Float32, array);
+    }
+
+    @Override
+    protected void readRows(Band band) {
+        float[] row = new float[width];
+        for (int y = 0; y < height; y++) {
+            band.ReadRaster(0, y, width, 1, width, 1, gdalconstConstants.GDT_Float32, row);
+            FloatBuffer target = buffer.duplicate();
+            target.position(y * width);
+            target.put(row);
+        }
+    }
+
+    @Override
+    protected void writeRows(Band band) {
+        float[] row = new float[width];
+        for (int y = 0; y < height; y++) {
+            FloatBuffer source = buffer.duplicate();
+            source.position(y * width);
+            source.get(row);
+            band.WriteRaster(0, y, width, 1, width, 1, gdalconstConstants.GDT_Float32, row);
+        }
+    }
+}
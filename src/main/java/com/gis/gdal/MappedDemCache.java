@@ -0,0 +1,417 @@
+package com.gis.gdal;
+
+import org.gdal.gdal.Band;
+import org.gdal.gdal.Dataset;
+import org.gdal.gdal.gdal;
+import org.gdal.gdalconst.gdalconstConstants;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.UUID;
+
+/**
+ * 内存映射的 DEM 缓存文件
+ * 把 DEM 的第一个波段一次性转换为未压缩的 Float32 分块文件，之后通过 FileChannel.map 只读映射，
+ * 重复分析同一栅格时不再经过 GDAL 打开和 LZW 解码，多个进程/任务通过操作系统页缓存共享同一份数据。
+ * <p>
+ * 文件格式（小端字节序）：
+ * <pre>
+ *   0  "DEMCACHE"                8 字节魔数
+ *   8  int    版本号
+ *  12  int    宽、高、块边长
+ *  24  double 地理变换 6 项
+ *  72  int    是否有无效值，随后 double 无效值
+ *  84  long   源文件长度、源文件修改时间（判断缓存是否过期）
+ * 100  int    投影 WKT 的 UTF-8 字节数，随后为 WKT
+ *      按 4096 字节对齐后为各块数据
+ * </pre>
+ * 块按行优先排列，每块内部按行存放 tw × th 个 float（边缘块不补齐）。
+ * 一行块共 th × width 个像元，因此块 (tx, ty) 的偏移为 (ty × tileSize × width + tx × tileSize × th) × 4。
+ * 每一行块单独映射，单次映射不超过 2GB；块边长不小于栅格尺寸时整幅栅格就是一个零拷贝的块。
+ */
+public final class MappedDemCache {
+
+    public static final int DEFAULT_TILE_SIZE = 256;
+    public static final String FILE_SUFFIX = ".demcache";
+
+    private static final byte[] MAGIC = "DEMCACHE".getBytes(StandardCharsets.US_ASCII);
+    private static final int VERSION = 1;
+    private static final int FIXED_HEADER_SIZE = 104;
+    private static final int ALIGNMENT = 4096;
+
+    private final Path path;
+    private final int width;
+    private final int height;
+    private final int tileSize;
+    private final int tilesX;
+    private final int tilesY;
+    private final double[] geoTransform;
+    private final Double noData;
+    private final String projection;
+    private final long sourceSize;
+    private final long sourceModified;
+    // 每一行块一个映射
+    private final MappedByteBuffer[] tileRows;
+
+    private MappedDemCache(Path path, int width, int height, int tileSize, double[] geoTransform, Double noData,
+                           String projection, long sourceSize, long sourceModified, MappedByteBuffer[] tileRows) {
+        this.path = path;
+        this.width = width;
+        this.height = height;
+        this.tileSize = tileSize;
+        this.tilesX = (width + tileSize - 1) / tileSize;
+        this.tilesY = (height + tileSize - 1) / tileSize;
+        this.geoTransform = geoTransform;
+        this.noData = noData;
+        this.projection = projection;
+        this.sourceSize = sourceSize;
+        this.sourceModified = sourceModified;
+        this.tileRows = tileRows;
+    }
+
+    /**
+     * 打开 DEM 对应的缓存，不存在、无法识别或源文件已修改时先重新转换
+     * 缓存文件名由源文件名和绝对路径的哈希组成，位于 cacheDir 下。
+     * 只读取文件头判断是否过期，确认是最新的才映射：过期的文件在替换前不能被映射，
+     * 否则 Windows 上映射未解除时 Files.move 无法覆盖它。
+     */
+    public static MappedDemCache openOrCreate(String demPath, Path cacheDir) throws IOException {
+        File source = new File(demPath).getAbsoluteFile();
+        String name = source.getName() + "_" + Integer.toHexString(source.getPath().hashCode()) + FILE_SUFFIX;
+        Path cachePath = cacheDir.resolve(name);
+        if (Files.exists(cachePath) && isCurrent(cachePath, source)) {
+            return open(cachePath);
+        }
+        Files.createDirectories(cacheDir);
+        return create(demPath, cachePath, DEFAULT_TILE_SIZE);
+    }
+
+    /**
+     * 缓存文件头记录的源文件长度和修改时间是否与源文件一致，只读文件头，不做映射
+     */
+    private static boolean isCurrent(Path cachePath, File source) {
+        Header header;
+        try (FileChannel channel = FileChannel.open(cachePath, StandardOpenOption.READ)) {
+            header = readHeader(channel, cachePath);
+        } catch (IOException e) {
+            System.out.println("DEM缓存无法识别，重新生成: " + cachePath + " (" + e.getMessage() + ")");
+            return false;
+        }
+        if (header.sourceSize == source.length() && header.sourceModified == source.lastModified()) {
+            return true;
+        }
+        System.out.println("DEM已修改，重新生成缓存: " + source);
+        return false;
+    }
+
+    /**
+     * 通过 GDAL 读取 DEM 的第一个波段，写入缓存文件后映射打开
+     * 先写入同目录下的临时文件再原子替换，并发的读者不会看到写了一半的缓存。
+     *
+     * @param tileSize 块边长（像元）
+     */
+    public static MappedDemCache create(String demPath, Path cachePath, int tileSize) throws IOException {
+        if (tileSize <= 0) {
+            throw new IllegalArgumentException("块边长必须大于0: " + tileSize);
+        }
+        gdal.AllRegister();
+        Dataset dataset = gdal.Open(demPath, gdalconstConstants.GA_ReadOnly);
+        if (dataset == null) {
+            throw new IllegalArgumentException("无法打开DEM文件: " + demPath);
+        }
+        long startTime = System.currentTimeMillis();
+        Path tempPath = cachePath.resolveSibling(cachePath.getFileName() + "." + UUID.randomUUID() + ".tmp");
+        try {
+            int width = dataset.getRasterXSize();
+            int height = dataset.getRasterYSize();
+            int stripHeight = Math.min(tileSize, height);
+            long stripBytes = (long) width * stripHeight * 4;
+            if (stripBytes > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("块边长过大，一行块超过 2GB: " + tileSize);
+            }
+            Band band = dataset.GetRasterBand(1);
+            Double[] noDataValue = new Double[1];
+            band.GetNoDataValue(noDataValue);
+            File source = new File(demPath);
+
+            try (FileChannel channel = FileChannel.open(tempPath, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                ByteBuffer header = header(width, height, tileSize, dataset.GetGeoTransform(), noDataValue[0],
+                        dataset.GetProjection(), source.length(), source.lastModified());
+                writeFully(channel, header);
+
+                // 每次读取一行块的高程（tileSize 行），重排为块后顺序写出
+                float[] strip = new float[(int) (stripBytes / 4)];
+                ByteBuffer tiles = ByteBuffer.allocateDirect((int) stripBytes).order(ByteOrder.LITTLE_ENDIAN);
+                for (int y0 = 0; y0 < height; y0 += tileSize) {
+                    int th = Math.min(tileSize, height - y0);
+                    band.ReadRaster(0, y0, width, th, width, th, gdalconstConstants.GDT_Float32, strip);
+                    tiles.clear();
+                    FloatBuffer floats = tiles.asFloatBuffer();
+                    for (int x0 = 0; x0 < width; x0 += tileSize) {
+                        int tw = Math.min(tileSize, width - x0);
+                        for (int r = 0; r < th; r++) {
+                            floats.put(strip, r * width + x0, tw);
+                        }
+                    }
+                    tiles.limit(width * th * 4);
+                    writeFully(channel, tiles);
+                }
+                channel.force(true);
+            }
+            try {
+                Files.move(tempPath, cachePath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tempPath, cachePath, StandardCopyOption.REPLACE_EXISTING);
+            }
+            System.out.println("DEM缓存生成完成: " + cachePath + ", " + width + "x" + height
+                    + ", 耗时 " + (System.currentTimeMillis() - startTime) + "ms");
+        } finally {
+            dataset.delete();
+            Files.deleteIfExists(tempPath);
+        }
+        return open(cachePath);
+    }
+
+    /**
+     * 只读映射已有的缓存文件
+     */
+    public static MappedDemCache open(Path cachePath) throws IOException {
+        try (FileChannel channel = FileChannel.open(cachePath, StandardOpenOption.READ)) {
+            Header header = readHeader(channel, cachePath);
+            int width = header.width;
+            int height = header.height;
+            int tileSize = header.tileSize;
+            long expectedSize = header.dataOffset + (long) width * height * 4;
+            if (channel.size() < expectedSize) {
+                throw new IOException("DEM缓存文件不完整: " + cachePath);
+            }
+            int tilesY = (height + tileSize - 1) / tileSize;
+            MappedByteBuffer[] tileRows = new MappedByteBuffer[tilesY];
+            for (int ty = 0; ty < tilesY; ty++) {
+                int th = Math.min(tileSize, height - ty * tileSize);
+                long offset = header.dataOffset + (long) ty * tileSize * width * 4;
+                tileRows[ty] = channel.map(FileChannel.MapMode.READ_ONLY, offset, (long) th * width * 4);
+                tileRows[ty].order(ByteOrder.LITTLE_ENDIAN);
+            }
+            // 映射在通道关闭后仍然有效，由 GC 回收时解除
+            return new MappedDemCache(cachePath, width, height, tileSize, header.geoTransform,
+                    header.noData, header.projection, header.sourceSize, header.sourceModified, tileRows);
+        }
+    }
+
+    /**
+     * 缓存文件头
+     */
+    private static final class Header {
+        int width;
+        int height;
+        int tileSize;
+        double[] geoTransform;
+        Double noData;
+        long sourceSize;
+        long sourceModified;
+        String projection;
+        long dataOffset;
+    }
+
+    /**
+     * 用普通读取解析并校验文件头（魔数、版本号），不映射数据
+     */
+    private static Header readHeader(FileChannel channel, Path cachePath) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(FIXED_HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        readFully(channel, buffer, 0);
+        buffer.flip();
+        byte[] magic = new byte[MAGIC.length];
+        buffer.get(magic);
+        if (!Arrays.equals(magic, MAGIC)) {
+            throw new IOException("不是DEM缓存文件: " + cachePath);
+        }
+        int version = buffer.getInt();
+        if (version != VERSION) {
+            throw new IOException("不支持的DEM缓存版本 " + version + ": " + cachePath);
+        }
+        Header header = new Header();
+        header.width = buffer.getInt();
+        header.height = buffer.getInt();
+        header.tileSize = buffer.getInt();
+        header.geoTransform = new double[6];
+        for (int i = 0; i < 6; i++) {
+            header.geoTransform[i] = buffer.getDouble();
+        }
+        boolean hasNoData = buffer.getInt() != 0;
+        double noDataValue = buffer.getDouble();
+        header.noData = hasNoData ? noDataValue : null;
+        header.sourceSize = buffer.getLong();
+        header.sourceModified = buffer.getLong();
+        int projectionLength = buffer.getInt();
+        if (projectionLength < 0 || projectionLength > channel.size() - FIXED_HEADER_SIZE) {
+            throw new IOException("DEM缓存文件头损坏: " + cachePath);
+        }
+        ByteBuffer projectionBytes = ByteBuffer.allocate(projectionLength);
+        readFully(channel, projectionBytes, FIXED_HEADER_SIZE);
+        header.projection = new String(projectionBytes.array(), StandardCharsets.UTF_8);
+        header.dataOffset = dataOffset(projectionLength);
+        return header;
+    }
+
+    private static ByteBuffer header(int width, int height, int tileSize, double[] geoTransform, Double noData,
+                                     String projection, long sourceSize, long sourceModified) {
+        byte[] projectionBytes = (projection == null ? "" : projection).getBytes(StandardCharsets.UTF_8);
+        ByteBuffer header = ByteBuffer.allocate((int) dataOffset(projectionBytes.length)).order(ByteOrder.LITTLE_ENDIAN);
+        header.put(MAGIC);
+        header.putInt(VERSION);
+        header.putInt(width);
+        header.putInt(height);
+        header.putInt(tileSize);
+        for (int i = 0; i < 6; i++) {
+            header.putDouble(geoTransform[i]);
+        }
+        header.putInt(noData != null ? 1 : 0);
+        header.putDouble(noData != null ? noData : 0);
+        header.putLong(sourceSize);
+        header.putLong(sourceModified);
+        header.putInt(projectionBytes.length);
+        header.put(projectionBytes);
+        // 其余为对齐填充
+        header.position(header.capacity());
+        header.flip();
+        return header;
+    }
+
+    private static long dataOffset(int projectionLength) {
+        long end = FIXED_HEADER_SIZE + (long) projectionLength;
+        return (end + ALIGNMENT - 1) / ALIGNMENT * ALIGNMENT;
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position + buffer.position());
+            if (read < 0) {
+                throw new IOException("DEM缓存文件不完整");
+            }
+        }
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public int getTileSize() {
+        return tileSize;
+    }
+
+    public int getTilesX() {
+        return tilesX;
+    }
+
+    public int getTilesY() {
+        return tilesY;
+    }
+
+    public double[] getGeoTransform() {
+        return geoTransform.clone();
+    }
+
+    /**
+     * 无效值，没有时为 null
+     */
+    public Double getNoData() {
+        return noData;
+    }
+
+    public String getProjection() {
+        return projection;
+    }
+
+    /**
+     * 块 (tx, ty) 的零拷贝视图，地理变换平移到块的左上角
+     */
+    public FloatRasterGrid tile(int tx, int ty) {
+        if (tx < 0 || ty < 0 || tx >= tilesX || ty >= tilesY) {
+            throw new IndexOutOfBoundsException("块 (" + tx + ", " + ty + ") 超出范围 " + tilesX + "x" + tilesY);
+        }
+        int x0 = tx * tileSize;
+        int y0 = ty * tileSize;
+        int tw = Math.min(tileSize, width - x0);
+        int th = Math.min(tileSize, height - y0);
+        ByteBuffer bytes = tileRows[ty].duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        bytes.position(x0 * th * 4);
+        double[] tileTransform = geoTransform.clone();
+        tileTransform[0] = geoTransform[0] + x0 * geoTransform[1];
+        tileTransform[3] = geoTransform[3] + y0 * geoTransform[5];
+        return FloatRasterGrid.wrap(bytes, tw, th, tileTransform, noData);
+    }
+
+    public float get(int x, int y) {
+        int ty = y / tileSize;
+        int tx = x / tileSize;
+        int th = Math.min(tileSize, height - ty * tileSize);
+        int tw = Math.min(tileSize, width - tx * tileSize);
+        int index = tx * tileSize * th + (y - ty * tileSize) * tw + (x - tx * tileSize);
+        return tileRows[ty].getFloat(index * 4);
+    }
+
+    /**
+     * 读取窗口 [x, x+w) × [y, y+h) 的像元，按行存入 out
+     * 与 ElevationTileCache.TileReader 的签名相同，可直接作为其读取器使用。线程安全。
+     */
+    public void read(int x, int y, int w, int h, float[] out) {
+        if (x < 0 || y < 0 || x + w > width || y + h > height) {
+            throw new IndexOutOfBoundsException("窗口超出栅格范围: " + x + "," + y + " " + w + "x" + h);
+        }
+        for (int ty = y / tileSize; ty * tileSize < y + h; ty++) {
+            int tileY0 = ty * tileSize;
+            int th = Math.min(tileSize, height - tileY0);
+            FloatBuffer floats = tileRows[ty].duplicate().order(ByteOrder.LITTLE_ENDIAN).asFloatBuffer();
+            int rowFrom = Math.max(y, tileY0);
+            int rowTo = Math.min(y + h, tileY0 + th);
+            for (int tx = x / tileSize; tx * tileSize < x + w; tx++) {
+                int tileX0 = tx * tileSize;
+                int tw = Math.min(tileSize, width - tileX0);
+                int colFrom = Math.max(x, tileX0);
+                int length = Math.min(x + w, tileX0 + tw) - colFrom;
+                for (int row = rowFrom; row < rowTo; row++) {
+                    floats.position(tileX0 * th + (row - tileY0) * tw + (colFrom - tileX0));
+                    floats.get(out, (row - y) * w + (colFrom - x), length);
+                }
+            }
+        }
+    }
+
+    /**
+     * 复制为整幅堆内栅格，供以 RasterGrid 为参数的分析类使用（SlopeAnalysis、DepressionAnalysis 等）
+     * 数据来自页缓存，只有内存复制，没有解码。
+     */
+    public FloatRasterGrid readGrid() {
+        FloatRasterGrid grid = FloatRasterGrid.allocate(width, height, geoTransform.clone(), noData);
+        read(0, 0, width, height, grid.array());
+        return grid;
+    }
+}
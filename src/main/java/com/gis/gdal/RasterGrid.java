@@ -0,0 +1,201 @@
+package com.gis.gdal;
+
+import org.gdal.gdal.Band;
+import org.gdal.gdal.Dataset;
+import org.gdal.gdalconst.gdalconstConstants;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * 单波段栅格的扁平存储
+ * 像元按行存放在一维数组或堆外 ByteBuffer 中（下标 y * width + x），同时携带地理变换和无效值。
+ * 取代 double[][]：Float32 DEM 每像元从 8 字节降到 4 字节，热循环中也没有逐行的数组指针间接访问。
+ * 按像元类型分为 FloatRasterGrid（高程、坡度）、ShortRasterGrid（Int16 DEM）和 ByteRasterGrid（分类、掩码）。
+ */
+public abstract class RasterGrid {
+
+    protected final int width;
+    protected final int height;
+    protected final double[] geoTransform;
+    protected final Double noData;
+    // 堆外存储，使用堆内数组时为 null
+    protected final ByteBuffer bytes;
+
+    protected RasterGrid(int width, int height, double[] geoTransform, Double noData, ByteBuffer bytes) {
+        if (width <= 0 || height <= 0) {
+            throw new IllegalArgumentException("栅格尺寸必须大于0: " + width + "x" + height);
+        }
+        Math.multiplyExact(width, height);
+        this.width = width;
+        this.height = height;
+        this.geoTransform = geoTransform;
+        this.noData = noData;
+        this.bytes = bytes;
+    }
+
+    /**
+     * 按波段的像元类型读取第一个波段：Byte 读为 ByteRasterGrid，Int16 读为 ShortRasterGrid，其余读为 FloatRasterGrid
+     */
+    public static RasterGrid read(Dataset dataset) {
+        Band band = dataset.GetRasterBand(1);
+        int dataType = band.getDataType();
+        if (dataType == gdalconstConstants.GDT_Byte) {
+            return ByteRasterGrid.read(dataset);
+        }
+        if (dataType == gdalconstConstants.GDT_Int16) {
+            return ShortRasterGrid.read(dataset);
+        }
+        return FloatRasterGrid.read(dataset);
+    }
+
+    static Double noDataOf(Band band) {
+        Double[] noDataValue = new Double[1];
+        band.GetNoDataValue(noDataValue);
+        return noDataValue[0];
+    }
+
+    static ByteBuffer allocateBytes(int width, int height, int bytesPerCell) {
+        return ByteBuffer.allocateDirect(Math.multiplyExact(Math.multiplyExact(width, height), bytesPerCell))
+                .order(ByteOrder.nativeOrder());
+    }
+
+    /**
+     * 截取 buffer 从当前位置开始的部分并保留字节序
+     */
+    static ByteBuffer slice(ByteBuffer buffer, int width, int height, int bytesPerCell) {
+        int required = Math.multiplyExact(Math.multiplyExact(width, height), bytesPerCell);
+        if (buffer.remaining() < required) {
+            throw new IllegalArgumentException("缓冲区长度不足: 需要 " + required + " 字节, 剩余 " + buffer.remaining());
+        }
+        ByteBuffer slice = buffer.slice().order(buffer.order());
+        slice.limit(required);
+        return slice;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public int getSize() {
+        return width * height;
+    }
+
+    public double[] getGeoTransform() {
+        return geoTransform;
+    }
+
+    /**
+     * 无效值，没有时为 null
+     */
+    public Double getNoData() {
+        return noData;
+    }
+
+    public boolean hasNoData() {
+        return noData != null;
+    }
+
+    /**
+     * 是否存放在堆外 ByteBuffer 中
+     */
+    public boolean isDirect() {
+        return bytes != null;
+    }
+
+    public final int index(int x, int y) {
+        return y * width + x;
+    }
+
+    /**
+     * GDAL 像元类型（gdalconstConstants.GDT_*）
+     */
+    public abstract int getDataType();
+
+    public abstract double getDouble(int index);
+
+    public abstract void setDouble(int index, double value);
+
+    public double getDouble(int x, int y) {
+        return getDouble(y * width + x);
+    }
+
+    public boolean isNoData(int index) {
+        if (noData == null) {
+            return false;
+        }
+        double value = getDouble(index);
+        return value == noData || (Double.isNaN(value) && Double.isNaN(noData));
+    }
+
+    /**
+     * 读取波段的全部像元
+     */
+    public void readFrom(Band band) {
+        if (bytes == null) {
+            readArray(band);
+        } else if (bytes.isDirect() && bytes.order() == ByteOrder.nativeOrder()) {
+            // GDAL 按本机字节序直接写入堆外内存，没有中间数组
+            band.ReadRaster_Direct(0, 0, width, height, width, height, getDataType(), bytes);
+        } else {
+            readRows(band);
+        }
+    }
+
+    /**
+     * 把全部像元写入波段
+     */
+    public void writeTo(Band band) {
+        if (bytes == null) {
+            writeArray(band);
+        } else if (bytes.isDirect() && bytes.order() == ByteOrder.nativeOrder()) {
+            band.WriteRaster_Direct(0, 0, width, height, width, height, getDataType(), bytes);
+        } else {
+            writeRows(band);
+        }
+    }
+
+    /**
+     * 写入数据集的第一个波段，并设置地理变换和无效值
+     */
+    public void writeTo(Dataset dataset) {
+        if (geoTransform != null) {
+            dataset.SetGeoTransform(geoTransform);
+        }
+        Band band = dataset.GetRasterBand(1);
+        if (noData != null) {
+            band.SetNoDataValue(noData);
+        }
+        writeTo(band);
+    }
+
+    /**
+     * 转为 double[行][列]，兼容以二维数组为参数的旧接口
+     */
+    public double[][] toRows() {
+        double[][] rows = new double[height][width];
+        for (int y = 0; y < height; y++) {
+            double[] row = rows[y];
+            int offset = y * width;
+            for (int x = 0; x < width; x++) {
+                row[x] = getDouble(offset + x);
+            }
+        }
+        return rows;
+    }
+
+    protected abstract void readArray(Band band);
+
+    protected abstract void writeArray(Band band);
+
+    /**
+     * 非本机字节序或堆内 ByteBuffer：逐行经临时数组读写
+     */
+    protected abstract void readRows(Band band);
+
+    protected abstract void writeRows(Band band);
+}
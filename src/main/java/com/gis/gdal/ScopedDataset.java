@@ -0,0 +1,72 @@
+package com.gis.gdal;
+
+import org.gdal.gdal.Dataset;
+import org.gdal.gdal.gdal;
+import org.gdal.gdalconst.gdalconstConstants;
+
+import java.util.UUID;
+
+/**
+ * GDAL 数据集的 try-with-resources 包装
+ * close 时释放数据集；数据集位于 /vsimem/ 虚拟内存文件系统时同时删除该内存文件。
+ * 临时结果用 tempPath 生成每次调用唯一的 /vsimem/ 路径，并发请求之间互不覆盖，也不落盘。
+ */
+public final class ScopedDataset implements AutoCloseable {
+
+    private static final String VSIMEM_PREFIX = "/vsimem/";
+
+    private final Dataset dataset;
+    private final String vsimemPath;
+
+    private ScopedDataset(Dataset dataset, String vsimemPath) {
+        this.dataset = dataset;
+        this.vsimemPath = vsimemPath;
+    }
+
+    /**
+     * 只读打开数据集，失败时返回 null
+     */
+    public static ScopedDataset open(String path) {
+        Dataset dataset = gdal.Open(path, gdalconstConstants.GA_ReadOnly);
+        return dataset == null ? null : of(dataset, path);
+    }
+
+    /**
+     * 包装已打开的数据集，path 位于 /vsimem/ 下时 close 会删除该内存文件
+     *
+     * @param dataset 数据集，可以为 null（如 DEMProcessing 失败），此时只清理内存文件
+     * @param path 数据集路径，MEM 驱动的数据集传 null 或空串
+     */
+    public static ScopedDataset of(Dataset dataset, String path) {
+        boolean inMemoryFile = path != null && path.startsWith(VSIMEM_PREFIX);
+        return new ScopedDataset(dataset, inMemoryFile ? path : null);
+    }
+
+    /**
+     * 生成唯一的 /vsimem/ 临时路径
+     *
+     * @param name 名称前缀，便于调试时辨认
+     * @param extension 扩展名（不含点），决定 GDAL 按哪种格式识别
+     */
+    public static String tempPath(String name, String extension) {
+        return VSIMEM_PREFIX + name + "_" + UUID.randomUUID() + "." + extension;
+    }
+
+    public Dataset get() {
+        return dataset;
+    }
+
+    public boolean isValid() {
+        return dataset != null;
+    }
+
+    @Override
+    public void close() {
+        if (dataset != null) {
+            dataset.delete();
+        }
+        if (vsimemPath != null) {
+            gdal.Unlink(vsimemPath);
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.gis.gdal;
+
+import org.gdal.gdal.Band;
+import org.gdal.gdal.Dataset;
+import org.gdal.gdalconst.gdalconstConstants;
+
+import java.nio.ByteBuffer;
+import java.nio.ShortBuffer;
+
+/**
+ * Int16 栅格：整数米的 DEM（如 SRTM），每像元 2 字节
+ */
+public final class ShortRasterGrid extends RasterGrid {
+
+    private final short[] array;
+    private final ShortBuffer buffer;
+
+    private ShortRasterGrid(int width, int height, double[] geoTransform, Double noData, short[] array,
+                            ByteBuffer bytes) {
+        super(width, height, geoTransform, noData, bytes);
+        this.array = array;
+        this.buffer = array != null ? ShortBuffer.wrap(array) : bytes.asShortBuffer();
+    }
+
+    public static ShortRasterGrid allocate(int width, int height, double[] geoTransform, Double noData) {
+        return new ShortRasterGrid(width, height, geoTransform, noData,
+                new short[Math.multiplyExact(width, height)], null);
+    }
+
+    public static ShortRasterGrid allocateDirect(int width, int height, double[] geoTransform, Double noData) {
+        return new ShortRasterGrid(width, height, geoTransform, noData, null, allocateBytes(width, height, 2));
+    }
+
+    public static ShortRasterGrid wrap(short[] data, int width, int height, double[] geoTransform, Double noData) {
+        if (data.length != Math.multiplyExact(width, height)) {
+            throw new IllegalArgumentException("数组长度 " + data.length + " 与栅格尺寸 " + width + "x" + height + " 不符");
+        }
+        return new ShortRasterGrid(width, height, geoTransform, noData, data, null);
+    }
+
+    public static ShortRasterGrid wrap(ByteBuffer bytes, int width, int height, double[] geoTransform, Double noData) {
+        return new ShortRasterGrid(width, height, geoTransform, noData, null, slice(bytes, width, height, 2));
+    }
+
+    public static ShortRasterGrid read(Dataset dataset) {
+        Band band = dataset.GetRasterBand(1);
+        ShortRasterGrid grid = allocate(dataset.getRasterXSize(), dataset.getRasterYSize(),
+                dataset.GetGeoTransform(), noDataOf(band));
+        grid.readFrom(band);
+        return grid;
+    }
+
+    @Override
+    public int getDataType() {
+        return gdalconstConstants.GDT_Int16;
+    }
+
+    public short get(int index) {
+        return array != null ? array[index] : buffer.get(index);
+    }
+
+    public short get(int x, int y) {
+        return get(y * width + x);
+    }
+
+    public void set(int index, short value) {
+        if (array != null) {
+            array[index] = value;
+        } else {
+            buffer.put(index, value);
+        }
+    }
+
+    @Override
+    public double getDouble(int index) {
+        return get(index);
+    }
+
+    @Override
+    public void setDouble(int index, double value) {
+        set(index, (short) Math.round(value));
+    }
+
+    public boolean hasArray() {
+        return array != null;
+    }
+
+    public short[] array() {
+        if (array == null) {
+            throw new IllegalStateException("栅格存放在堆外缓冲区中");
+        }
+        return array;
+    }
+
+    @Override
+    protected void readArray(Band band) {
+        band.ReadRaster(0, 0, width, height, width, height, gdalconstConstants.GDT_Int16, array);
+    }
+
+    @Override
+    protected void writeArray(Band band) {
+        band.WriteRaster(0, 0, width, height, width, height, gdalconstConstants.GDT_Int16, array);
+    }
+
+    @Override
+    protected void readRows(Band band) {
+        short[] row = new short[width];
+        for (int y = 0; y < height; y++) {
+            band.ReadRaster(0, y, width, 1, width, 1, gdalconstConstants.GDT_Int16, row);
+            ShortBuffer target = buffer.duplicate();
+            target.position(y * width);
+            target.put(row);
+        }
+    }
+
+    @Override
+    protected void writeRows(Band band) {
+        short[] row = new short[width];
+        for (int y = 0; y < height; y++) {
+            ShortBuffer source = buffer.duplicate();
+            source.position(y * width);
+            source.get(row);
+            band.WriteRaster(0, y, width, 1, width, 1, gdalconstConstants.GDT_Int16, row);
+        }
+    }
+}
@@ -3,7 +3,6 @@ package com.gis.gdal;
 import org.gdal.gdal.Dataset;
 import org.gdal.gdal.DEMProcessingOptions;
 import org.gdal.gdal.gdal;
-import org.gdal.gdalconst.gdalconstConstants;
 import org.springframework.stereotype.Component;
 
 import java.util.Vector;
@@ -18,81 +17,17 @@ public class SlopeAnalysis {
      * @return 二维数组表示坡度值
      */
     public double[][] getSlopeDataFromAsc(String inputAscPath) {
-        // 注册所有GDAL驱动
-        gdal.AllRegister();
-
-        try {
-            // 临时存储计算的坡度结果
-            String tempSlopePath = "temp_slope.tif";
-
-            // 打开ASC数据集
-            Dataset demDataset = gdal.Open(inputAscPath, gdalconstConstants.GA_ReadOnly);
-            if (demDataset == null) {
-                System.err.println("无法打开ASC文件: " + inputAscPath);
-                return null;
-            }
-
-            // 创建坡度计算选项
-            Vector<String> slopeOptions = new Vector<>();
-            slopeOptions.add("-alg");
-            slopeOptions.add("Horn");
-            slopeOptions.add("-compute_edges");
-
-            // 使用正确的比例参数
-            slopeOptions.add("-scale");
-            slopeOptions.add("1.0");
-
-            // 将坡度值设定为角度（不使用错误的 -s 参数）
-            slopeOptions.add("-of");
-            slopeOptions.add("GTiff");
-
-            DEMProcessingOptions options = new DEMProcessingOptions(slopeOptions);
-
-            // 计算坡度
-            Dataset slopeDataset = gdal.DEMProcessing(
-                    tempSlopePath,
-                    demDataset,
-                    "slope",
-                    null,  // 不使用颜色文件
-                    options
-            );
-
-            if (slopeDataset == null) {
-                System.err.println("坡度计算失败");
-                demDataset.delete();
-                return null;
-            }
-
-            // 获取尺寸
-            int width = slopeDataset.getRasterXSize();
-            int height = slopeDataset.getRasterYSize();
-
-            // 创建数组存储坡度数据
-            double[][] slopeData = new double[height][width];
-
-            // 读取坡度数据
-            double[] buffer = new double[width];
-            for (int y = 0; y < height; y++) {
-                slopeDataset.GetRasterBand(1).ReadRaster(0, y, width, 1, buffer);
-                for (int x = 0; x < width; x++) {
-                    slopeData[y][x] = buffer[x];
-                }
-            }
-
-            // 关闭数据集
-            demDataset.delete();
-            slopeDataset.delete();
+        // 创建坡度计算选项
+        Vector<String> slopeOptions = new Vector<>();
+        slopeOptions.add("-alg");
+        slopeOptions.add("Horn");
+        slopeOptions.add("-compute_edges");
 
-            // 删除临时文件
-            new java.io.File(tempSlopePath).delete();
+        // 使用正确的比例参数
+        slopeOptions.add("-scale");
+        slopeOptions.add("1.0");
 
-            return slopeData;
-
-        } catch (Exception e) {
-            System.err.println("处理ASC文件时出错: " + e.getMessage());
-            e.printStackTrace();
-            return null;
-        }
+        return demProcessing(inputAscPath, "slope", slopeOptions, "坡度");
     }
 
     /**
@@ -102,161 +37,148 @@ public class SlopeAnalysis {
      * @return 二维数组表示坡向值（0-360度）
      */
     public double[][] getAspectDataFromAsc(String inputAscPath) {
-        gdal.AllRegister();
+        // 创建坡向计算选项
+        Vector<String> aspectOptions = new Vector<>();
+        aspectOptions.add("-alg");
+        aspectOptions.add("Horn");
+        aspectOptions.add("-compute_edges");
+        aspectOptions.add("-zero_for_flat");
+
+        return demProcessing(inputAscPath, "aspect", aspectOptions, "坡向");
+    }
+
+    /**
+     * 计算ASC文件的TPI(地形位置指数)数据
+     *
+     * @param inputAscPath ASC输入文件路径
+     * @return 二维数组表示TPI值
+     */
+    public double[][] getTPIDataFromAsc(String inputAscPath) {
+        // 创建TPI计算选项
+        Vector<String> tpiOptions = new Vector<>();
+        tpiOptions.add("-compute_edges");
 
-        try {
-            // 临时存储计算的坡向结果
-            String tempAspectPath = "temp_aspect.tif";
+        return demProcessing(inputAscPath, "TPI", tpiOptions, "TPI");
+    }
 
-            // 打开ASC数据集
-            Dataset demDataset = gdal.Open(inputAscPath, gdalconstConstants.GA_ReadOnly);
+    /**
+     * 调用 gdal.DEMProcessing 计算一种地形因子并读回为二维数组
+     * 结果写入每次调用唯一的 /vsimem/ 内存文件，并发请求互不覆盖，也没有磁盘读写；
+     * 数据集和内存文件由 ScopedDataset 在返回前释放。
+     *
+     * @param inputAscPath ASC输入文件路径
+     * @param processing DEMProcessing 的处理类型（slope、aspect、TPI）
+     * @param processingOptions gdaldem 选项，不含输出格式
+     * @param label 日志中的名称
+     * @return 二维数组，失败时返回 null
+     */
+    private double[][] demProcessing(String inputAscPath, String processing, Vector<String> processingOptions,
+                                     String label) {
+        // 注册所有GDAL驱动
+        gdal.AllRegister();
+
+        try (ScopedDataset demDataset = ScopedDataset.open(inputAscPath)) {
             if (demDataset == null) {
                 System.err.println("无法打开ASC文件: " + inputAscPath);
                 return null;
             }
 
-            // 创建坡向计算选项
-            Vector<String> aspectOptions = new Vector<>();
-            aspectOptions.add("-alg");
-            aspectOptions.add("Horn");
-            aspectOptions.add("-compute_edges");
-            aspectOptions.add("-zero_for_flat");
-            aspectOptions.add("-of");
-            aspectOptions.add("GTiff");
-
-            DEMProcessingOptions options = new DEMProcessingOptions(aspectOptions);
-
-            // 计算坡向
-            Dataset aspectDataset = gdal.DEMProcessing(
-                    tempAspectPath,
-                    demDataset,
-                    "aspect",
-                    null,  // 不使用颜色文件
-                    options
-            );
-
-            if (aspectDataset == null) {
-                System.err.println("坡向计算失败");
-                demDataset.delete();
-                return null;
-            }
+            Vector<String> options = new Vector<>(processingOptions);
+            options.add("-of");
+            options.add("GTiff");
 
-            // 获取尺寸
-            int width = aspectDataset.getRasterXSize();
-            int height = aspectDataset.getRasterYSize();
+            String tempPath = ScopedDataset.tempPath("temp_" + processing.toLowerCase(), "tif");
+            try (ScopedDataset resultDataset = ScopedDataset.of(gdal.DEMProcessing(
+                    tempPath,
+                    demDataset.get(),
+                    processing,
+                    null,  // 不使用颜色文件
+                    new DEMProcessingOptions(options)
+            ), tempPath)) {
+                if (!resultDataset.isValid()) {
+                    System.err.println(label + "计算失败");
+                    return null;
+                }
 
-            // 创建数组存储坡向数据
-            double[][] aspectData = new double[height][width];
+                // 获取尺寸
+                Dataset dataset = resultDataset.get();
+                int width = dataset.getRasterXSize();
+                int height = dataset.getRasterYSize();
 
-            // 读取坡向数据
-            double[] buffer = new double[width];
-            for (int y = 0; y < height; y++) {
-                aspectDataset.GetRasterBand(1).ReadRaster(0, y, width, 1, buffer);
-                for (int x = 0; x < width; x++) {
-                    aspectData[y][x] = buffer[x];
+                // 逐行读取结果
+                double[][] data = new double[height][width];
+                for (int y = 0; y < height; y++) {
+                    dataset.GetRasterBand(1).ReadRaster(0, y, width, 1, data[y]);
                 }
+                return data;
             }
-
-            // 关闭数据集
-            demDataset.delete();
-            aspectDataset.delete();
-
-            // 删除临时文件
-            new java.io.File(tempAspectPath).delete();
-
-            return aspectData;
         } catch (Exception e) {
-            System.err.println("处理ASC坡向数据时出错: " + e.getMessage());
+            System.err.println("计算" + label + "时出错: " + e.getMessage());
             e.printStackTrace();
             return null;
         }
     }
 
     /**
-     * 计算ASC文件的TPI(地形位置指数)数据
+     * 一次读取DEM，同时计算坡度、坡向和TPI
+     * 使用 TerrainKernel 在内存中按三行滑动窗口计算，不调用 gdal.DEMProcessing，也不产生临时文件；
+     * 结果与 getSlopeDataFromAsc/getAspectDataFromAsc/getTPIDataFromAsc 在 Float32 精度内一致。
      *
-     * @param inputAscPath ASC输入文件路径
-     * @return 二维数组表示TPI值
+     * @param inputAscPath DEM文件路径
+     * @return 扁平数组形式的坡度、坡向和TPI，失败时返回 null
      */
-    public double[][] getTPIDataFromAsc(String inputAscPath) {
+    public TerrainDerivatives calculateTerrainDerivatives(String inputAscPath) {
         gdal.AllRegister();
 
-        try {
-            // 临时存储计算的TPI结果
-            String tempTpiPath = "temp_tpi.tif";
-
-            // 打开ASC数据集
-            Dataset demDataset = gdal.Open(inputAscPath, gdalconstConstants.GA_ReadOnly);
+        try (ScopedDataset demDataset = ScopedDataset.open(inputAscPath)) {
             if (demDataset == null) {
                 System.err.println("无法打开ASC文件: " + inputAscPath);
                 return null;
             }
-
-            // 创建TPI计算选项
-            Vector<String> tpiOptions = new Vector<>();
-            tpiOptions.add("-compute_edges");
-            tpiOptions.add("-of");
-            tpiOptions.add("GTiff");
-
-            DEMProcessingOptions options = new DEMProcessingOptions(tpiOptions);
-
-            // 计算TPI
-            Dataset tpiDataset = gdal.DEMProcessing(
-                    tempTpiPath,
-                    demDataset,
-                    "TPI",  // 使用TPI算法
-                    null,   // 不使用颜色文件
-                    options
-            );
-
-            if (tpiDataset == null) {
-                System.err.println("TPI计算失败");
-                demDataset.delete();
-                return null;
-            }
-
-            // 获取尺寸
-            int width = tpiDataset.getRasterXSize();
-            int height = tpiDataset.getRasterYSize();
-
-            // 创建数组存储TPI数据
-            double[][] tpiData = new double[height][width];
-
-            // 读取TPI数据
-            double[] buffer = new double[width];
-            for (int y = 0; y < height; y++) {
-                tpiDataset.GetRasterBand(1).ReadRaster(0, y, width, 1, buffer);
-                for (int x = 0; x < width; x++) {
-                    tpiData[y][x] = buffer[x];
-                }
-            }
-
-            // 关闭数据集
-            demDataset.delete();
-            tpiDataset.delete();
-
-            // 删除临时文件
-            new java.io.File(tempTpiPath).delete();
-
-            return tpiData;
-
+            return TerrainKernel.compute(demDataset.get());
         } catch (Exception e) {
-            System.err.println("计算TPI时出错: " + e.getMessage());
+            System.err.println("计算地形数据时出错: " + e.getMessage());
             e.printStackTrace();
             return null;
         }
     }
 
+    /**
+     * 在已读入内存的 DEM 栅格上计算坡度、坡向和TPI，供已持有栅格的分析流程复用，不再打开文件
+     *
+     * @param dem DEM 栅格
+     * @return 扁平数组形式的坡度、坡向和TPI
+     */
+    public TerrainDerivatives calculateTerrainDerivatives(RasterGrid dem) {
+        return TerrainKernel.compute(dem);
+    }
+
+    /**
+     * 分块多线程计算坡度、坡向和TPI，写入 3 波段分块 GeoTIFF（1 坡度、2 坡向、3 TPI）
+     * 适用于无法整幅放入内存的大范围 DEM，内存占用只与块大小和线程数有关。
+     *
+     * @param inputPath DEM文件路径
+     * @param outputPath 输出 GeoTIFF 路径
+     * @param tileSize 块边长（像元）
+     * @param threads 并行线程数
+     * @return 是否成功
+     */
+    public boolean exportTerrainDerivatives(String inputPath, String outputPath, int tileSize, int threads) {
+        return new TiledTerrainProcessor(tileSize, threads).process(inputPath, outputPath);
+    }
+
     /**
      * 同时计算ASC文件的坡度和坡向
      * @param inputAscPath ASC输入文件路径
      * @return 包含坡度和坡向数据的对象
      */
     public SlopeAspectData calculateSlopeAndAspect(String inputAscPath) {
-        double[][] slopeData = getSlopeDataFromAsc(inputAscPath);
-        double[][] aspectData = getAspectDataFromAsc(inputAscPath);
-
-        return new SlopeAspectData(slopeData, aspectData);
+        TerrainDerivatives derivatives = calculateTerrainDerivatives(inputAscPath);
+        if (derivatives == null) {
+            return new SlopeAspectData(null, null);
+        }
+        return new SlopeAspectData(derivatives.toRows(derivatives.getSlope()),
+                derivatives.toRows(derivatives.getAspect()));
     }
 
     /**
@@ -265,11 +187,12 @@ public class SlopeAnalysis {
      * @return 包含坡度、坡向和TPI数据的对象
      */
     public TerrainAnalysisData calculateTerrainData(String inputAscPath) {
-        double[][] slopeData = getSlopeDataFromAsc(inputAscPath);
-        double[][] aspectData = getAspectDataFromAsc(inputAscPath);
-        double[][] tpiData = getTPIDataFromAsc(inputAscPath);
-
-        return new TerrainAnalysisData(slopeData, aspectData, tpiData);
+        TerrainDerivatives derivatives = calculateTerrainDerivatives(inputAscPath);
+        if (derivatives == null) {
+            return new TerrainAnalysisData(null, null, null);
+        }
+        return new TerrainAnalysisData(derivatives.toRows(derivatives.getSlope()),
+                derivatives.toRows(derivatives.getAspect()), derivatives.toRows(derivatives.getTpi()));
     }
 
     /**
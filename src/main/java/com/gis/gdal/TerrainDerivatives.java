@@ -0,0 +1,114 @@
+package com.gis.gdal;
+
+/**
+ * 坡度、坡向和 TPI 的计算结果
+ * 三个波段都是按行存放的扁平 float 数组（下标 y * width + x），与 gdaldem 输出的 Float32 精度相同。
+ */
+public class TerrainDerivatives {
+
+    private final int width;
+    private final int height;
+    private final double[] geoTransform;
+    private final boolean hasNoData;
+    private final float[] slope;
+    private final float[] aspect;
+    private final float[] tpi;
+
+    public TerrainDerivatives(int width, int height, double[] geoTransform, boolean hasNoData) {
+        this.width = width;
+        this.height = height;
+        this.geoTransform = geoTransform;
+        this.hasNoData = hasNoData;
+        int size = Math.multiplyExact(width, height);
+        this.slope = new float[size];
+        this.aspect = new float[size];
+        this.tpi = new float[size];
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public double[] getGeoTransform() {
+        return geoTransform;
+    }
+
+    /**
+     * 输入 DEM 有无效值时，无效像元的输出为 TerrainKernel.DST_NODATA
+     */
+    public boolean hasNoData() {
+        return hasNoData;
+    }
+
+    /**
+     * 坡度（度）
+     */
+    public float[] getSlope() {
+        return slope;
+    }
+
+    /**
+     * 坡向（以正北为 0、顺时针的方位角，平地为 0）
+     */
+    public float[] getAspect() {
+        return aspect;
+    }
+
+    /**
+     * 地形位置指数：中心高程减去 8 个邻居的平均高程
+     */
+    public float[] getTpi() {
+        return tpi;
+    }
+
+    /**
+     * 以下三个方法返回共享底层数组的 RasterGrid 视图，不复制数据
+     */
+    public FloatRasterGrid getSlopeGrid() {
+        return grid(slope);
+    }
+
+    public FloatRasterGrid getAspectGrid() {
+        return grid(aspect);
+    }
+
+    public FloatRasterGrid getTpiGrid() {
+        return grid(tpi);
+    }
+
+    private FloatRasterGrid grid(float[] band) {
+        return FloatRasterGrid.wrap(band, width, height, geoTransform,
+                hasNoData ? (double) TerrainKernel.DST_NODATA : null);
+    }
+
+    public float slopeAt(int x, int y) {
+        return slope[y * width + x];
+    }
+
+    public float aspectAt(int x, int y) {
+        return aspect[y * width + x];
+    }
+
+    public float tpiAt(int x, int y) {
+        return tpi[y * width + x];
+    }
+
+    /**
+     * 转为 double[行][列]，兼容以二维数组为参数的旧接口
+     */
+    public double[][] toRows(float[] band) {
+        double[][] rows = new double[height][width];
+        for (int y = 0; y < height; y++) {
+            double[] row = rows[y];
+            int offset = y * width;
+            for (int x = 0; x < width; x++) {
+                row[x] = band[offset + x];
+            }
+        }
+        return rows;
+    }
+}
@@ -1,6 +1,5 @@
 package com.gis.gdal;
 
-import org.gdal.gdal.Band;
 import org.gdal.gdal.Dataset;
 import org.gdal.gdal.gdal;
 import org.gdal.gdalconst.gdalconstConstants;
@@ -27,13 +26,39 @@ public class TerrainGeoJSONExporter {
      *
      * @param inputAscPath ASC文件路径
      * @param outputGeoJSONPath 输出的GeoJSON文件路径
-     * @param terrainType 要导出的地形类型
      * @return 是否成功导出
      */
+    public boolean exportTerrainToGeoJSON(String inputAscPath, String outputGeoJSONPath) {
+        gdal.AllRegister();
+
+        // 打开DEM数据集，一次读入扁平栅格（含地理参考）
+        Dataset demDataset = gdal.Open(inputAscPath, gdalconstConstants.GA_ReadOnly);
+        if (demDataset == null) {
+            System.err.println("无法打开ASC文件: " + inputAscPath);
+            return false;
+        }
+        RasterGrid elevation;
+        try {
+            elevation = RasterGrid.read(demDataset);
+        } catch (Exception e) {
+            System.err.println("读取DEM时出错: " + e.getMessage());
+            e.printStackTrace();
+            return false;
+        } finally {
+            demDataset.delete();
+        }
+        return exportTerrainToGeoJSON(elevation, outputGeoJSONPath);
+    }
+
     /**
-     * 将ASC文件中的指定地形类型导出为GeoJSON
+     * 将已读入内存的DEM栅格导出为地形分类GeoJSON
+     * 栅格可以来自 MappedDemCache.readGrid()，重复处理同一DEM时不再经过GDAL解码。
+     *
+     * @param elevation DEM 栅格
+     * @param outputGeoJSONPath 输出的GeoJSON文件路径
+     * @return 是否成功导出
      */
-    public boolean exportTerrainToGeoJSON(String inputAscPath, String outputGeoJSONPath) {
+    public boolean exportTerrainToGeoJSON(RasterGrid elevation, String outputGeoJSONPath) {
         // 注册所有GDAL/OGR驱动
         gdal.AllRegister();
         ogr.RegisterAll();
@@ -41,57 +66,35 @@ public class TerrainGeoJSONExporter {
         gdal.SetConfigOption("OGR_GEOJSON_MAX_OBJ_SIZE", "500");
 
         try {
-            // 1. 计算坡度
-            double[][] slopeData = slopeAnalysis.getSlopeDataFromAsc(inputAscPath);
-            if (slopeData == null) {
-                System.err.println("坡度计算失败");
-                return false;
-            }
-
-            // 2. 打开ASC数据集获取地理参考
-            Dataset demDataset = gdal.Open(inputAscPath, gdalconstConstants.GA_ReadOnly);
-            // 1. 首先读取DEM数据
-            Band band = demDataset.GetRasterBand(1);
-            double[] elevationData = new double[band.getXSize() * band.getYSize()];
-            band.ReadRaster(0, 0, band.getXSize(), band.getYSize(), band.getXSize(), band.getYSize(), gdalconstConstants.GDT_Float64, elevationData);
+            // 1. 栅格尺寸和地理参考
+            int width = elevation.getWidth();
+            int height = elevation.getHeight();
+            double[] geoTransform = elevation.getGeoTransform();
 
+            // 2. 在同一栅格上计算坡度
+            FloatRasterGrid slope = slopeAnalysis.calculateTerrainDerivatives(elevation).getSlopeGrid();
 
             DepressionAnalysis analysis = new DepressionAnalysis();
 
             double threshold = analysis.calculateDepressionThreshold(
-                    demDataset, DepressionAnalysis.ThresholdMethod.PERCENTILE, 0.05);
+                    elevation, DepressionAnalysis.ThresholdMethod.PERCENTILE, 0.05);
 
             //洼地阈值
             System.out.println("洼地阈值: " + threshold);
 
-            if (demDataset == null) {
-                System.err.println("无法打开ASC文件: " + inputAscPath);
-                return false;
-            }
-
-            int width = demDataset.getRasterXSize();
-            int height = demDataset.getRasterYSize();
-            double[] geoTransform = demDataset.GetGeoTransform();
-
             // 3. 根据坡度对地形进行分类并创建临时栅格
             org.gdal.gdal.Driver memDriver = gdal.GetDriverByName("MEM");
             Dataset classifiedDS = memDriver.Create("", width, height, 1, gdalconstConstants.GDT_Byte);
-            classifiedDS.SetGeoTransform(geoTransform);
-
-            // 分类并写入数据 - 使用普通byte数组替代DirectByteBuffer
-            byte[] classifiedData = new byte[width * height];
-            for (int y = 0; y < height; y++) {
-                for (int x = 0; x < width; x++) {
-                    double slope = slopeData[y][x];
-                    //读取高程值
-                    double elevation = elevationData[y * width + x];
-
-                    TerrainType type = classifyTerrain(slope,elevation,threshold);
-                    classifiedData[y * width + x] = (byte)type.getValue();
-                }
+
+            // 分类并写入数据
+            ByteRasterGrid classified = ByteRasterGrid.allocate(width, height, geoTransform, null);
+            byte[] classifiedData = classified.array();
+            int size = elevation.getSize();
+            for (int i = 0; i < size; i++) {
+                TerrainType type = classifyTerrain(slope.get(i), elevation.getDouble(i), threshold);
+                classifiedData[i] = (byte) type.getValue();
             }
-            classifiedDS.GetRasterBand(1).WriteRaster(0, 0, width, height, width, height,
-                    gdalconstConstants.GDT_Byte, classifiedData);
+            classified.writeTo(classifiedDS);
 
             // 使用SieveFilter过滤小联通区域
             Dataset filteredDS = memDriver.Create("", width, height, 1, gdalconstConstants.GDT_Byte);
@@ -134,7 +137,6 @@ public class TerrainGeoJSONExporter {
             classifiedDS.delete();
             filteredDS.delete(); // 释放过滤后的数据集
             dataSource.delete();
-            demDataset.delete();
             srs.delete();
 
 
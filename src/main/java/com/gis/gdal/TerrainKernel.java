@@ -0,0 +1,282 @@
+package com.gis.gdal;
+
+import org.gdal.gdal.Band;
+import org.gdal.gdal.Dataset;
+import org.gdal.gdalconst.gdalconstConstants;
+
+import java.nio.FloatBuffer;
+
+/**
+ * 坡度/坡向/TPI 一次遍历计算核
+ * 按行读取 DEM，用三行滑动窗口同时计算 Horn 坡度（度）、Horn 坡向（方位角，平地为 0）和 TPI，
+ * 结果写入扁平的 float 数组，取代三次 gdal.DEMProcessing 生成临时 GeoTIFF 再读回的流程。
+ * 计算规则与 gdaldem 的 -alg Horn -compute_edges -zero_for_flat -scale 1.0 一致：
+ * <ul>
+ *     <li>边缘像元缺少的邻居按 2*a - b 线性外推，首行/末行的左右邻居取自身列（与 GDAL 相同）</li>
+ *     <li>中心为无效值时输出无效值，邻居为无效值时用中心值代替</li>
+ *     <li>输入有无效值时输出无效值为 -9999，与 gdaldem 默认值相同</li>
+ * </ul>
+ */
+public class TerrainKernel {
+
+    /**
+     * 输出的无效值，与 gdaldem 相同
+     */
+    public static final float DST_NODATA = -9999f;
+
+    private static final double RADIANS_TO_DEGREES = 180.0 / Math.PI;
+
+    private final double ewres;
+    private final double nsres;
+    private final boolean hasNoData;
+    private final float noData;
+    // 3x3 窗口，按行存放：0 1 2 / 3 4 5 / 6 7 8
+    private final double[] window = new double[9];
+
+    /**
+     * @param ewres 东西向分辨率（地理变换的第 1 项）
+     * @param nsres 南北向分辨率（地理变换的第 5 项）
+     * @param noData 输入的无效值，为 null 时没有无效值
+     */
+    public TerrainKernel(double ewres, double nsres, Double noData) {
+        this.ewres = ewres;
+        this.nsres = nsres;
+        this.hasNoData = noData != null;
+        this.noData = noData == null ? Float.NaN : noData.floatValue();
+    }
+
+    /**
+     * 读取数据集的第一个波段并计算，整个 DEM 只读取一遍，每次只在内存中保留三行高程
+     */
+    public static TerrainDerivatives compute(Dataset dem) {
+        Band band = dem.GetRasterBand(1);
+        int width = dem.getRasterXSize();
+        Double[] noDataValue = new Double[1];
+        band.GetNoDataValue(noDataValue);
+        return compute(width, dem.getRasterYSize(), dem.GetGeoTransform(), noDataValue[0],
+                (y, row) -> band.ReadRaster(0, y, width, 1, width, 1, gdalconstConstants.GDT_Float32, row));
+    }
+
+    /**
+     * 在 RasterGrid 上计算，堆内 Float32 栅格直接使用其数组，其余栅格按行转为 float
+     */
+    public static TerrainDerivatives compute(RasterGrid dem) {
+        int width = dem.getWidth();
+        if (dem instanceof FloatRasterGrid) {
+            FloatRasterGrid grid = (FloatRasterGrid) dem;
+            if (grid.hasArray()) {
+                return compute(grid.array(), width, dem.getHeight(), dem.getGeoTransform(), dem.getNoData());
+            }
+            return compute(width, dem.getHeight(), dem.getGeoTransform(), dem.getNoData(), (y, row) -> {
+                FloatBuffer source = grid.buffer();
+                source.position(y * width);
+                source.get(row);
+            });
+        }
+        return compute(width, dem.getHeight(), dem.getGeoTransform(), dem.getNoData(), (y, row) -> {
+            int offset = y * width;
+            for (int x = 0; x < width; x++) {
+                row[x] = (float) dem.getDouble(offset + x);
+            }
+        });
+    }
+
+    /**
+     * 按行读取高程
+     */
+    private interface RowReader {
+        void read(int y, float[] row);
+    }
+
+    private static TerrainDerivatives compute(int width, int height, double[] geoTransform, Double noData,
+                                              RowReader reader) {
+        TerrainKernel kernel = new TerrainKernel(geoTransform[1], geoTransform[5], noData);
+        TerrainDerivatives result = new TerrainDerivatives(width, height, geoTransform, noData != null);
+
+        float[] above = null;
+        float[] row = new float[width];
+        float[] below = new float[width];
+        float[] spare = new float[width];
+        reader.read(0, row);
+        for (int y = 0; y < height; y++) {
+            boolean last = y == height - 1;
+            if (!last) {
+                reader.read(y + 1, below);
+            }
+            kernel.computeRow(above, row, last ? null : below, width, 0, width,
+                    result.getSlope(), result.getAspect(), result.getTpi(), y * width);
+            // 滑动窗口：上一行的缓冲区留作下一次读取
+            float[] recycled = above != null ? above : spare;
+            above = row;
+            row = below;
+            below = recycled;
+        }
+        return result;
+    }
+
+    /**
+     * 在内存中的 DEM 上计算
+     *
+     * @param dem 按行存放的高程，长度为 width * height
+     * @param geoTransform 地理变换
+     * @param noData 输入的无效值，为 null 时没有无效值
+     */
+    public static TerrainDerivatives compute(float[] dem, int width, int height, double[] geoTransform, Double noData) {
+        TerrainKernel kernel = new TerrainKernel(geoTransform[1], geoTransform[5], noData);
+        TerrainDerivatives result = new TerrainDerivatives(width, height, geoTransform, noData != null);
+        for (int y = 0; y < height; y++) {
+            kernel.computeRow(y > 0 ? dem : null, (y - 1) * width, dem, y * width,
+                    y < height - 1 ? dem : null, (y + 1) * width, width, 0, width,
+                    result.getSlope(), result.getAspect(), result.getTpi(), y * width);
+        }
+        return result;
+    }
+
+    /**
+     * 计算一行中 [xFrom, xTo) 的像元
+     * 行数组的两端视为栅格边缘；above/below 为 null 表示该行是栅格的首行/末行。
+     *
+     * @param length 行数组中有效元素的个数
+     * @param outOffset xFrom 对应的输出下标
+     */
+    public void computeRow(float[] above, float[] row, float[] below, int length, int xFrom, int xTo,
+                           float[] slope, float[] aspect, float[] tpi, int outOffset) {
+        computeRow(above, 0, row, 0, below, 0, length, xFrom, xTo, slope, aspect, tpi, outOffset);
+    }
+
+    /**
+     * 计算一行中 [xFrom, xTo) 的像元，三行可以位于同一个扁平缓冲区的不同偏移处
+     * 行的第 x 个元素为 row[rowOffset + x]，行的两端（x 为 0 或 length - 1）视为栅格边缘。
+     * 分块计算时行只需覆盖块及其 1 像元的光晕，光晕之外没有像元的一侧才是栅格边缘。
+     *
+     * @param above 上一行，为 null 表示该行是栅格的首行
+     * @param below 下一行，为 null 表示该行是栅格的末行
+     * @param length 每行的元素个数
+     * @param outOffset xFrom 对应的输出下标
+     */
+    public void computeRow(float[] above, int aboveOffset, float[] row, int rowOffset, float[] below, int belowOffset,
+                           int length, int xFrom, int xTo, float[] slope, float[] aspect, float[] tpi, int outOffset) {
+        for (int x = xFrom; x < xTo; x++) {
+            int out = outOffset + x - xFrom;
+            float center = row[rowOffset + x];
+            if (isNoData(center) || (above == null && below == null) || length < 2) {
+                // 中心无效，或者单行/单列栅格无法外推
+                slope[out] = DST_NODATA;
+                aspect[out] = DST_NODATA;
+                tpi[out] = DST_NODATA;
+                continue;
+            }
+            fillWindow(above, aboveOffset, row, rowOffset, below, belowOffset, length, x);
+            slope[out] = slope();
+            aspect[out] = aspect();
+            tpi[out] = tpi();
+        }
+    }
+
+    private void fillWindow(float[] above, int a, float[] row, int r, float[] below, int b, int length, int x) {
+        double[] w = window;
+        if (above == null || below == null) {
+            // 首行或末行：缺少的一行按相邻两行外推，左右邻居在边缘处取自身列
+            int left = x == 0 ? x : x - 1;
+            int right = x == length - 1 ? x : x + 1;
+            if (above == null) {
+                w[0] = interpolate(row[r + left], below[b + left]);
+                w[1] = interpolate(row[r + x], below[b + x]);
+                w[2] = interpolate(row[r + right], below[b + right]);
+                w[3] = row[r + left];
+                w[4] = row[r + x];
+                w[5] = row[r + right];
+                w[6] = below[b + left];
+                w[7] = below[b + x];
+                w[8] = below[b + right];
+            } else {
+                w[0] = above[a + left];
+                w[1] = above[a + x];
+                w[2] = above[a + right];
+                w[3] = row[r + left];
+                w[4] = row[r + x];
+                w[5] = row[r + right];
+                w[6] = interpolate(row[r + left], above[a + left]);
+                w[7] = interpolate(row[r + x], above[a + x]);
+                w[8] = interpolate(row[r + right], above[a + right]);
+            }
+        } else if (x == 0) {
+            w[0] = interpolate(above[a], above[a + 1]);
+            w[1] = above[a];
+            w[2] = above[a + 1];
+            w[3] = interpolate(row[r], row[r + 1]);
+            w[4] = row[r];
+            w[5] = row[r + 1];
+            w[6] = interpolate(below[b], below[b + 1]);
+            w[7] = below[b];
+            w[8] = below[b + 1];
+        } else if (x == length - 1) {
+            w[0] = above[a + x - 1];
+            w[1] = above[a + x];
+            w[2] = interpolate(above[a + x], above[a + x - 1]);
+            w[3] = row[r + x - 1];
+            w[4] = row[r + x];
+            w[5] = interpolate(row[r + x], row[r + x - 1]);
+            w[6] = below[b + x - 1];
+            w[7] = below[b + x];
+            w[8] = interpolate(below[b + x], below[b + x - 1]);
+        } else {
+            w[0] = above[a + x - 1];
+            w[1] = above[a + x];
+            w[2] = above[a + x + 1];
+            w[3] = row[r + x - 1];
+            w[4] = row[r + x];
+            w[5] = row[r + x + 1];
+            w[6] = below[b + x - 1];
+            w[7] = below[b + x];
+            w[8] = below[b + x + 1];
+        }
+        if (hasNoData) {
+            // 无效的邻居用中心值代替
+            for (int k = 0; k < 9; k++) {
+                if (isNoData((float) w[k])) {
+                    w[k] = w[4];
+                }
+            }
+        }
+    }
+
+    /**
+     * 线性外推 2*a - b，任一值无效时结果无效
+     */
+    private double interpolate(float a, float b) {
+        if (isNoData(a) || isNoData(b)) {
+            return noData;
+        }
+        return 2.0 * a - b;
+    }
+
+    private boolean isNoData(float value) {
+        return hasNoData && (value == noData || (Float.isNaN(noData) && Float.isNaN(value)));
+    }
+
+    private float slope() {
+        double[] w = window;
+        double dx = ((w[0] + w[3] + w[3] + w[6]) - (w[2] + w[5] + w[5] + w[8])) / ewres;
+        double dy = ((w[6] + w[7] + w[7] + w[8]) - (w[0] + w[1] + w[1] + w[2])) / nsres;
+        return (float) (Math.atan(Math.sqrt(dx * dx + dy * dy) / 8) * RADIANS_TO_DEGREES);
+    }
+
+    private float aspect() {
+        double[] w = window;
+        double dx = (w[2] + w[5] + w[5] + w[8]) - (w[0] + w[3] + w[3] + w[6]);
+        double dy = (w[6] + w[7] + w[7] + w[8]) - (w[0] + w[1] + w[1] + w[2]);
+        if (dx == 0 && dy == 0) {
+            return 0f; // 平地
+        }
+        float aspect = (float) (Math.atan2(dy, -dx) * RADIANS_TO_DEGREES);
+        // 转为以正北为 0、顺时针的方位角
+        aspect = aspect > 90.0f ? 450.0f - aspect : 90.0f - aspect;
+        return aspect == 360.0f ? 0f : aspect;
+    }
+
+    private float tpi() {
+        double[] w = window;
+        return (float) (w[4] - (w[0] + w[1] + w[2] + w[3] + w[5] + w[6] + w[7] + w[8]) / 8);
+    }
+}
@@ -0,0 +1,243 @@
+package com.gis.gdal;
+
+import org.gdal.gdal.Band;
+import org.gdal.gdal.Dataset;
+import org.gdal.gdal.gdal;
+import org.gdal.gdalconst.gdalconstConstants;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Vector;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * 分块多线程地形因子计算 - 适用于省级 DEM
+ * 把栅格按输出 GeoTIFF 的块大小切分，每块连同 1 像元光晕读入，用 TerrainKernel 计算坡度、坡向和 TPI，
+ * 在 ForkJoinPool 上并行处理，结果直接写入分块（TILED）的 3 波段 Float32 GeoTIFF：1 坡度、2 坡向、3 TPI。
+ * 任何时候内存中只有 线程数 ×（块大小 + 2）² 的高程和 线程数 × 3 × 块大小² 的结果（另加 GDAL 块缓存），
+ * 与栅格总大小无关；光晕保证块边缘的结果与整幅计算完全一致。
+ * GDAL 数据集句柄不是线程安全的：每个工作线程各自打开一个只读句柄，写出结果时对输出数据集加锁。
+ */
+public class TiledTerrainProcessor {
+
+    public static final int DEFAULT_TILE_SIZE = 512;
+
+    private final int tileSize;
+    private final int parallelism;
+
+    public TiledTerrainProcessor() {
+        this(DEFAULT_TILE_SIZE, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param tileSize 块边长（像元），向上取整为 16 的倍数（GeoTIFF 块大小的要求）
+     * @param parallelism 并行线程数
+     */
+    public TiledTerrainProcessor(int tileSize, int parallelism) {
+        if (tileSize <= 0) {
+            throw new IllegalArgumentException("块边长必须大于0: " + tileSize);
+        }
+        this.tileSize = (tileSize + 15) / 16 * 16;
+        this.parallelism = Math.max(1, parallelism);
+    }
+
+    public int getTileSize() {
+        return tileSize;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * 计算 DEM 的坡度、坡向和 TPI，写入分块 GeoTIFF
+     *
+     * @param demPath 输入 DEM 路径（第一个波段）
+     * @param outputPath 输出 GeoTIFF 路径，已存在时覆盖
+     * @return 是否成功
+     */
+    public boolean process(String demPath, String outputPath) {
+        gdal.AllRegister();
+        long startTime = System.currentTimeMillis();
+
+        Dataset demDataset = gdal.Open(demPath, gdalconstConstants.GA_ReadOnly);
+        if (demDataset == null) {
+            System.err.println("无法打开DEM文件: " + demPath);
+            return false;
+        }
+        int width = demDataset.getRasterXSize();
+        int height = demDataset.getRasterYSize();
+        double[] geoTransform = demDataset.GetGeoTransform();
+        Double[] noDataValue = new Double[1];
+        demDataset.GetRasterBand(1).GetNoDataValue(noDataValue);
+
+        Vector<String> createOptions = new Vector<>();
+        createOptions.add("TILED=YES");
+        createOptions.add("BLOCKXSIZE=" + tileSize);
+        createOptions.add("BLOCKYSIZE=" + tileSize);
+        createOptions.add("COMPRESS=LZW");
+        createOptions.add("BIGTIFF=IF_SAFER");
+        Dataset output = gdal.GetDriverByName("GTiff").Create(outputPath, width, height, 3,
+                gdalconstConstants.GDT_Float32, createOptions);
+        if (output == null) {
+            System.err.println("无法创建输出文件: " + outputPath);
+            demDataset.delete();
+            return false;
+        }
+        output.SetGeoTransform(geoTransform);
+        output.SetProjection(demDataset.GetProjection());
+        String[] names = {"slope", "aspect", "tpi"};
+        for (int b = 0; b < names.length; b++) {
+            Band band = output.GetRasterBand(b + 1);
+            band.SetDescription(names[b]);
+            if (noDataValue[0] != null) {
+                band.SetNoDataValue(TerrainKernel.DST_NODATA);
+            }
+        }
+        demDataset.delete();
+
+        int tilesX = (width + tileSize - 1) / tileSize;
+        int tilesY = (height + tileSize - 1) / tileSize;
+        TileContext context = new TileContext(demPath, output, width, height, tilesX, geoTransform, noDataValue[0]);
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            pool.invoke(new TileRangeTask(context, 0, tilesX * tilesY));
+            output.FlushCache();
+            System.out.println("分块地形因子计算完成: " + width + "x" + height + ", " + tilesX * tilesY + " 块, "
+                    + parallelism + " 线程, 耗时 " + (System.currentTimeMillis() - startTime) + "ms");
+            return true;
+        } catch (RuntimeException e) {
+            System.err.println("分块地形因子计算出错: " + e.getMessage());
+            e.printStackTrace();
+            return false;
+        } finally {
+            pool.shutdown();
+            context.close();
+            output.delete();
+        }
+    }
+
+    /**
+     * 一次计算共享的数据：输出数据集和每个线程的读句柄、缓冲区
+     */
+    private final class TileContext {
+        final String demPath;
+        final Dataset output;
+        final int width;
+        final int height;
+        final int tilesX;
+        final double[] geoTransform;
+        final Double noData;
+        final ThreadLocal<Worker> workers;
+        final ConcurrentLinkedQueue<Worker> allWorkers = new ConcurrentLinkedQueue<>();
+
+        TileContext(String demPath, Dataset output, int width, int height, int tilesX, double[] geoTransform,
+                    Double noData) {
+            this.demPath = demPath;
+            this.output = output;
+            this.width = width;
+            this.height = height;
+            this.tilesX = tilesX;
+            this.geoTransform = geoTransform;
+            this.noData = noData;
+            this.workers = ThreadLocal.withInitial(() -> {
+                Worker worker = new Worker(this);
+                allWorkers.add(worker);
+                return worker;
+            });
+        }
+
+        void close() {
+            for (Worker worker : allWorkers) {
+                worker.dem.delete();
+            }
+            allWorkers.clear();
+        }
+    }
+
+    /**
+     * 每个工作线程的 DEM 句柄、计算核和缓冲区，块之间复用
+     */
+    private final class Worker {
+        final Dataset dem;
+        final Band band;
+        final TerrainKernel kernel;
+        final float[] elevation = new float[(tileSize + 2) * (tileSize + 2)];
+        final float[] slope = new float[tileSize * tileSize];
+        final float[] aspect = new float[tileSize * tileSize];
+        final float[] tpi = new float[tileSize * tileSize];
+
+        Worker(TileContext context) {
+            this.dem = gdal.Open(context.demPath, gdalconstConstants.GA_ReadOnly);
+            if (dem == null) {
+                throw new IllegalStateException("无法打开DEM文件: " + context.demPath);
+            }
+            this.band = dem.GetRasterBand(1);
+            this.kernel = new TerrainKernel(context.geoTransform[1], context.geoTransform[5], context.noData);
+        }
+
+        void process(TileContext context, int tile) {
+            int x0 = (tile % context.tilesX) * tileSize;
+            int y0 = (tile / context.tilesX) * tileSize;
+            int tileWidth = Math.min(tileSize, context.width - x0);
+            int tileHeight = Math.min(tileSize, context.height - y0);
+
+            // 连同光晕读取，光晕在栅格边缘处截断
+            int readX0 = Math.max(0, x0 - 1);
+            int readY0 = Math.max(0, y0 - 1);
+            int readWidth = Math.min(context.width, x0 + tileWidth + 1) - readX0;
+            int readHeight = Math.min(context.height, y0 + tileHeight + 1) - readY0;
+            band.ReadRaster(readX0, readY0, readWidth, readHeight, readWidth, readHeight,
+                    gdalconstConstants.GDT_Float32, elevation);
+
+            int xFrom = x0 - readX0;
+            for (int ty = 0; ty < tileHeight; ty++) {
+                int y = y0 + ty;
+                int local = y - readY0;
+                kernel.computeRow(y > 0 ? elevation : null, (local - 1) * readWidth,
+                        elevation, local * readWidth,
+                        y < context.height - 1 ? elevation : null, (local + 1) * readWidth,
+                        readWidth, xFrom, xFrom + tileWidth, slope, aspect, tpi, ty * tileWidth);
+            }
+
+            synchronized (context.output) {
+                context.output.GetRasterBand(1).WriteRaster(x0, y0, tileWidth, tileHeight, tileWidth, tileHeight,
+                        gdalconstConstants.GDT_Float32, slope);
+                context.output.GetRasterBand(2).WriteRaster(x0, y0, tileWidth, tileHeight, tileWidth, tileHeight,
+                        gdalconstConstants.GDT_Float32, aspect);
+                context.output.GetRasterBand(3).WriteRaster(x0, y0, tileWidth, tileHeight, tileWidth, tileHeight,
+                        gdalconstConstants.GDT_Float32, tpi);
+            }
+        }
+    }
+
+    /**
+     * 处理 [from, to) 范围内的块，对半拆分直到单个块
+     */
+    private final class TileRangeTask extends RecursiveAction {
+        private final TileContext context;
+        private final int from;
+        private final int to;
+
+        TileRangeTask(TileContext context, int from, int to) {
+            this.context = context;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                context.workers.get().process(context, from);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            List<TileRangeTask> halves = new ArrayList<>(2);
+            halves.add(new TileRangeTask(context, from, mid));
+            halves.add(new TileRangeTask(context, mid, to));
+            invokeAll(halves);
+        }
+    }
+}
@@ -0,0 +1,353 @@
+package com.gis.hangar;
+
+import com.google.ortools.linearsolver.MPConstraint;
+import com.google.ortools.linearsolver.MPObjective;
+import com.google.ortools.linearsolver.MPSolver;
+import com.google.ortools.linearsolver.MPVariable;
+
+import java.util.Arrays;
+
+/**
+ * 带容量和复巡频次的机巢布置 MIP 模型
+ * 在集合覆盖的基础上增加：
+ * <ul>
+ *     <li>分配变量 a[p][c] ∈ [0, 1]：巡检点 p 的巡检次数由候选 c 承担的比例，每个点的比例之和为 1</li>
+ *     <li>容量约束：Σ visits[p]·a[p][c] ≤ capacity[c]·x[c]，容量为无人机型号每周期的架次数（DroneModel.getSortieCapacity）</li>
+ *     <li>型号固定成本（可选）：固定成本大于 0 的型号有一个 0-1 变量 z[d]，x[c] ≤ z[d]，目标函数加 fixedCost[d]·z[d]</li>
+ * </ul>
+ * 分配变量只为倒排索引中真正能覆盖该点的候选创建，变量数等于覆盖关系的非零元素个数。
+ * 给定 x 后分配部分是运输问题，约束矩阵全单模，点的巡检次数只在容量不足时才会被拆分到多个机巢。
+ * 可选的强连接约束 a[p][c] ≤ x[c] 使 LP 松弛更紧，代价是约束数增加一倍以上。
+ */
+public class CapacitatedCoverModel {
+
+    private static final double EPSILON = 1e-6;
+
+    private final MPSolver solver;
+    private final CoverageMatrix matrix;
+    // 有变量的候选（升序）及其变量
+    private final int[] candidates;
+    private final MPVariable[] variables;
+    // 候选编号 -> 变量下标，没有变量时为 -1
+    private final int[] variableIndex;
+    // 需要服务的点及其分配变量（按点连续存放，assignStart 为每个点的起始位置）
+    private final int[] points;
+    private final int[] assignStart;
+    private final int[] assignCandidate;
+    private final MPVariable[] assignVariables;
+    // 每个型号的使用变量，没有固定成本时为 null
+    private final MPVariable[] modelVariables;
+
+    private final int constraintCount;
+    private final long nonZeroCount;
+    private final long jniCalls;
+    private final long buildNanos;
+
+    private CapacitatedCoverModel(MPSolver solver, CoverageMatrix matrix, int[] candidates, MPVariable[] variables,
+                                  int[] variableIndex, int[] points, int[] assignStart, int[] assignCandidate,
+                                  MPVariable[] assignVariables, MPVariable[] modelVariables, int constraintCount,
+                                  long nonZeroCount, long jniCalls, long buildNanos) {
+        this.solver = solver;
+        this.matrix = matrix;
+        this.candidates = candidates;
+        this.variables = variables;
+        this.variableIndex = variableIndex;
+        this.points = points;
+        this.assignStart = assignStart;
+        this.assignCandidate = assignCandidate;
+        this.assignVariables = assignVariables;
+        this.modelVariables = modelVariables;
+        this.constraintCount = constraintCount;
+        this.nonZeroCount = nonZeroCount;
+        this.jniCalls = jniCalls;
+        this.buildNanos = buildNanos;
+    }
+
+    /**
+     * 为所有可覆盖且需要巡检的点建模
+     * 容量、固定成本取自无人机型号，巡检次数取自巡检点
+     *
+     * @param solver 求解器
+     * @param matrix 覆盖关系
+     * @param cost 每个候选的成本，下标为候选编号
+     * @param strongLinking 是否为每个分配变量加 a[p][c] ≤ x[c]
+     */
+    public static CapacitatedCoverModel build(MPSolver solver, CoverageMatrix matrix, double[] cost,
+                                              boolean strongLinking) {
+        long start = System.nanoTime();
+        int candidateCount = matrix.getCandidateCount();
+        int droneCount = matrix.getDroneCount();
+
+        // 第一遍（纯 Java）：需要服务的点、用到的候选、每个候选可能承担的最大巡检次数
+        int[] points = new int[matrix.getPointCount()];
+        int pointCount = 0;
+        int assignCount = 0;
+        boolean[] used = new boolean[candidateCount];
+        long[] reachableVisits = new long[candidateCount];
+        for (int pi = 0; pi < matrix.getPointCount(); pi++) {
+            int visits = matrix.getPoint(pi).getVisitsPerCycle();
+            if (visits <= 0 || !matrix.isCoverable(pi)) {
+                continue;
+            }
+            points[pointCount++] = pi;
+            for (int k = 0; k < matrix.coveringCount(pi); k++) {
+                int c = matrix.coveringCandidate(pi, k);
+                used[c] = true;
+                reachableVisits[c] += visits;
+                assignCount++;
+            }
+        }
+        points = Arrays.copyOf(points, pointCount);
+
+        // 只为用到的候选创建变量，按候选编号升序
+        int[] variableIndex = new int[candidateCount];
+        Arrays.fill(variableIndex, -1);
+        int variableCount = 0;
+        for (int c = 0; c < candidateCount; c++) {
+            if (used[c]) {
+                variableIndex[c] = variableCount++;
+            }
+        }
+        int[] candidates = new int[variableCount];
+        MPVariable[] variables = new MPVariable[variableCount];
+        long jniCalls = 0;
+        long nonZeros = 0;
+        int constraints = 0;
+
+        MPObjective objective = solver.objective();
+        jniCalls++;
+        for (int c = 0; c < candidateCount; c++) {
+            int v = variableIndex[c];
+            if (v < 0) {
+                continue;
+            }
+            candidates[v] = c;
+            variables[v] = solver.makeBoolVar("x_" + matrix.hangarOf(c) + "_" + matrix.droneOf(c));
+            objective.setCoefficient(variables[v], cost[c]);
+            jniCalls += 2;
+        }
+
+        // 型号固定成本：x[c] - z[d] ≤ 0
+        MPVariable[] modelVariables = new MPVariable[droneCount];
+        for (int di = 0; di < droneCount; di++) {
+            double fixedCost = matrix.getDroneModel(di).getFixedCost();
+            if (fixedCost <= 0) {
+                continue;
+            }
+            for (int v = 0; v < variableCount; v++) {
+                if (matrix.droneOf(candidates[v]) != di) {
+                    continue;
+                }
+                if (modelVariables[di] == null) {
+                    modelVariables[di] = solver.makeBoolVar("z_" + di);
+                    objective.setCoefficient(modelVariables[di], fixedCost);
+                    jniCalls += 2;
+                }
+                MPConstraint link = solver.makeConstraint(Double.NEGATIVE_INFINITY, 0);
+                link.setCoefficient(variables[v], 1.0);
+                link.setCoefficient(modelVariables[di], -1.0);
+                jniCalls += 3;
+                nonZeros += 2;
+                constraints++;
+            }
+        }
+        objective.setMinimization();
+        jniCalls++;
+
+        // 容量约束：Σ visits[p]·a[p][c] - capacity[c]·x[c] ≤ 0，容量不限时用可能承担的最大巡检次数
+        MPConstraint[] capacityRows = new MPConstraint[variableCount];
+        for (int v = 0; v < variableCount; v++) {
+            int c = candidates[v];
+            double capacity = Math.min(matrix.getDroneModel(matrix.droneOf(c)).getSortieCapacity(), reachableVisits[c]);
+            capacityRows[v] = solver.makeConstraint(Double.NEGATIVE_INFINITY, 0);
+            capacityRows[v].setCoefficient(variables[v], -capacity);
+            jniCalls += 2;
+            nonZeros++;
+            constraints++;
+        }
+
+        // 分配约束：每个点的分配比例之和为 1，只为能覆盖它的候选创建分配变量
+        int[] assignStart = new int[pointCount + 1];
+        int[] assignCandidate = new int[assignCount];
+        MPVariable[] assignVariables = new MPVariable[assignCount];
+        int a = 0;
+        for (int k = 0; k < pointCount; k++) {
+            int pi = points[k];
+            int visits = matrix.getPoint(pi).getVisitsPerCycle();
+            assignStart[k] = a;
+            MPConstraint assignment = solver.makeConstraint(1.0, 1.0);
+            jniCalls++;
+            constraints++;
+            for (int j = 0; j < matrix.coveringCount(pi); j++) {
+                int c = matrix.coveringCandidate(pi, j);
+                int v = variableIndex[c];
+                MPVariable variable = solver.makeNumVar(0.0, 1.0, "a_" + pi + "_" + c);
+                assignment.setCoefficient(variable, 1.0);
+                capacityRows[v].setCoefficient(variable, visits);
+                jniCalls += 3;
+                nonZeros += 2;
+                if (strongLinking) {
+                    MPConstraint link = solver.makeConstraint(Double.NEGATIVE_INFINITY, 0);
+                    link.setCoefficient(variable, 1.0);
+                    link.setCoefficient(variables[v], -1.0);
+                    jniCalls += 3;
+                    nonZeros += 2;
+                    constraints++;
+                }
+                assignCandidate[a] = c;
+                assignVariables[a] = variable;
+                a++;
+            }
+        }
+        assignStart[pointCount] = a;
+
+        return new CapacitatedCoverModel(solver, matrix, candidates, variables, variableIndex, points, assignStart,
+                assignCandidate, assignVariables, modelVariables, constraints, nonZeros, jniCalls,
+                System.nanoTime() - start);
+    }
+
+    /**
+     * 所有候选的容量之和不足以完成所有巡检时，模型一定无解
+     * 只是一个快速的必要条件检查，通过检查不代表有解
+     */
+    public static boolean hasEnoughCapacity(CoverageMatrix matrix) {
+        long demand = 0;
+        for (int pi = 0; pi < matrix.getPointCount(); pi++) {
+            if (matrix.isCoverable(pi)) {
+                demand += Math.max(0, matrix.getPoint(pi).getVisitsPerCycle());
+            }
+        }
+        long capacity = 0;
+        for (int c = 0; c < matrix.getCandidateCount() && capacity < demand; c++) {
+            capacity += Math.min(matrix.getDroneModel(matrix.droneOf(c)).getSortieCapacity(), demand);
+        }
+        return capacity >= demand;
+    }
+
+    // ---------------------------------------------------------------- 结果
+
+    public MPSolver getSolver() {
+        return solver;
+    }
+
+    public CoverageMatrix getMatrix() {
+        return matrix;
+    }
+
+    /**
+     * 有变量的候选编号（升序）
+     */
+    public int[] getCandidates() {
+        return candidates;
+    }
+
+    /**
+     * 求解后取值为 1 的候选（升序）
+     */
+    public int[] selectedCandidates() {
+        int[] selected = new int[variables.length];
+        int count = 0;
+        for (int v = 0; v < variables.length; v++) {
+            if (variables[v].solutionValue() > 0.5) { // 解为1时
+                selected[count++] = candidates[v];
+            }
+        }
+        return Arrays.copyOf(selected, count);
+    }
+
+    /**
+     * 求解后每个点的主要承担候选（分配比例最大的），下标为点编号，未建模的点为 -1
+     */
+    public int[] assignment() {
+        int[] assigned = new int[matrix.getPointCount()];
+        Arrays.fill(assigned, -1);
+        for (int k = 0; k < points.length; k++) {
+            double best = EPSILON;
+            for (int a = assignStart[k]; a < assignStart[k + 1]; a++) {
+                double value = assignVariables[a].solutionValue();
+                if (value > best) {
+                    best = value;
+                    assigned[points[k]] = assignCandidate[a];
+                }
+            }
+        }
+        return assigned;
+    }
+
+    /**
+     * 求解后每个候选承担的巡检次数，下标为候选编号
+     */
+    public double[] loads() {
+        double[] loads = new double[matrix.getCandidateCount()];
+        for (int k = 0; k < points.length; k++) {
+            int visits = matrix.getPoint(points[k]).getVisitsPerCycle();
+            for (int a = assignStart[k]; a < assignStart[k + 1]; a++) {
+                loads[assignCandidate[a]] += visits * assignVariables[a].solutionValue();
+            }
+        }
+        return loads;
+    }
+
+    /**
+     * 求解后是否使用了某个型号（有固定成本的型号看 z 变量，其余看是否有选中的候选）
+     */
+    public boolean isModelUsed(int droneIndex) {
+        if (modelVariables[droneIndex] != null) {
+            return modelVariables[droneIndex].solutionValue() > 0.5;
+        }
+        for (int v = 0; v < variables.length; v++) {
+            if (matrix.droneOf(candidates[v]) == droneIndex && variables[v].solutionValue() > 0.5) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 候选对应的变量，没有变量时返回 null
+     */
+    public MPVariable variableOf(int candidate) {
+        int v = variableIndex[candidate];
+        return v < 0 ? null : variables[v];
+    }
+
+    public int getVariableCount() {
+        return variables.length + assignVariables.length;
+    }
+
+    public int getAssignmentVariableCount() {
+        return assignVariables.length;
+    }
+
+    public int getConstraintCount() {
+        return constraintCount;
+    }
+
+    public long getNonZeroCount() {
+        return nonZeroCount;
+    }
+
+    /**
+     * 构建模型时跨越 JNI 的调用次数
+     */
+    public long getJniCalls() {
+        return jniCalls;
+    }
+
+    public long getBuildNanos() {
+        return buildNanos;
+    }
+
+    /**
+     * 模型规模和构建耗时，用于日志
+     */
+    public String describe() {
+        return "开设变量 " + variables.length + " (全部候选 " + matrix.getCandidateCount() + ")"
+                + ", 分配变量 " + assignVariables.length
+                + ", 需服务点 " + points.length
+                + ", 约束 " + constraintCount
+                + ", 非零系数 " + nonZeroCount
+                + ", JNI 调用 " + jniCalls
+                + ", 构建耗时 " + String.format("%.1f", buildNanos / 1e6) + "ms";
+    }
+}
@@ -0,0 +1,41 @@
+package com.gis.hangar;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 带容量约束的机巢布置结果
+ * 除选中的机巢外，还包含每个巡检点由哪个机巢负责（分配比例最大的一个）以及每个机巢承担的巡检次数。
+ */
+public class CapacitatedPlacementSolution extends PlacementSolution {
+
+    private final Map<String, SelectedHangar> assignments;
+    private final double[] loads;
+
+    public CapacitatedPlacementSolution(List<SelectedHangar> hangars, double objectiveValue, double lowerBound,
+                                        Status status, long solveTimeMs,
+                                        Map<String, SelectedHangar> assignments, double[] loads) {
+        super(hangars, objectiveValue, lowerBound, status, solveTimeMs);
+        this.assignments = Collections.unmodifiableMap(assignments);
+        this.loads = loads;
+    }
+
+    /**
+     * 巡检点编号 -> 负责该点的机巢
+     */
+    public Map<String, SelectedHangar> getAssignments() {
+        return assignments;
+    }
+
+    public SelectedHangar getAssignedHangar(String pointId) {
+        return assignments.get(pointId);
+    }
+
+    /**
+     * 每个选中机巢承担的巡检次数，与 getHangars() 的顺序一致
+     */
+    public double[] getLoads() {
+        return loads.clone();
+    }
+}
@@ -0,0 +1,464 @@
+package com.gis.hangar;
+import com.gis.hangar.coverage.CoverageModel;
+import com.gis.hangar.coverage.EuclideanCoverageModel;
+import org.locationtech.jts.geom.Coordinate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 机巢覆盖关系矩阵 - 位图实现
+ * 每个 (机巢位置, 无人机型号) 组合（下称"候选"）对应一个 long[] 位图，第 pi 位表示能否覆盖第 pi 个巡检点。
+ * 取代各算法中的 boolean[巡检点][巡检点][无人机] 三维数组：
+ * 第一维只保留可建机巢的位置，每个单元只占 1 bit，统计/更新覆盖时一次处理 64 个点。
+ * 候选编号 c = hi * droneCount + di
+ */
+public class CoverageMatrix {
+
+    private final List<InspectionPoint> potentialHangars;
+    private final List<InspectionPoint> points;
+    private final List<DroneModel> droneModels;
+
+    private final int hangarCount;
+    private final int droneCount;
+    private final int pointCount;
+    private final int wordCount;
+
+    // [候选][字] 覆盖位图，不覆盖任何点的候选共享同一个全零数组
+    private final long[][] coverage;
+    // 每个候选能覆盖的点数
+    private final int[] coverageSize;
+    // 每个巡检点能被多少个候选覆盖
+    private final int[] coveringCount;
+    // 倒排索引（CSR）：巡检点 pi 的候选编号为 pointCandidates[candidateStart[pi] .. candidateStart[pi+1])
+    private final int[] candidateStart;
+    private final int[] pointCandidates;
+
+    private CoverageMatrix(List<InspectionPoint> potentialHangars, List<InspectionPoint> points,
+                           List<DroneModel> droneModels, long[][] coverage) {
+        this.potentialHangars = Collections.unmodifiableList(new ArrayList<>(potentialHangars));
+        this.points = Collections.unmodifiableList(new ArrayList<>(points));
+        this.droneModels = Collections.unmodifiableList(new ArrayList<>(droneModels));
+        this.hangarCount = potentialHangars.size();
+        this.droneCount = droneModels.size();
+        this.pointCount = points.size();
+        this.wordCount = wordsFor(pointCount);
+        this.coverage = coverage;
+
+        this.coverageSize = new int[coverage.length];
+        this.coveringCount = new int[pointCount];
+        for (int c = 0; c < coverage.length; c++) {
+            long[] row = coverage[c];
+            int size = 0;
+            for (int w = 0; w < wordCount; w++) {
+                long word = row[w];
+                size += Long.bitCount(word);
+                while (word != 0) {
+                    int pi = (w << 6) + Long.numberOfTrailingZeros(word);
+                    coveringCount[pi]++;
+                    word &= word - 1;
+                }
+            }
+            coverageSize[c] = size;
+        }
+
+        this.candidateStart = new int[pointCount + 1];
+        for (int pi = 0; pi < pointCount; pi++) {
+            candidateStart[pi + 1] = candidateStart[pi] + coveringCount[pi];
+        }
+        this.pointCandidates = new int[candidateStart[pointCount]];
+        int[] next = Arrays.copyOf(candidateStart, pointCount);
+        for (int c = 0; c < coverage.length; c++) {
+            long[] row = coverage[c];
+            for (int w = 0; w < wordCount; w++) {
+                long word = row[w];
+                while (word != 0) {
+                    int pi = (w << 6) + Long.numberOfTrailingZeros(word);
+                    pointCandidates[next[pi]++] = c;
+                    word &= word - 1;
+                }
+            }
+        }
+    }
+
+    /**
+     * 预计算覆盖关系
+     * 对巡检点建立网格索引，每个机巢位置只按最大无人机半径查询一次，
+     * 邻近点按距离排序后，较小半径的覆盖集合直接取前缀，
+     * 距离是经墨卡托比例因子校正的地面距离（见 MercatorScale），
+     * 预计算开销与实际覆盖对数近似线性，而不是 机巢数×点数×型号数。
+     *
+     * @param potentialHangars 潜在机巢位置
+     * @param points 需要覆盖的巡检点
+     * @param droneModels 无人机型号
+     */
+    public static CoverageMatrix build(List<InspectionPoint> potentialHangars, List<InspectionPoint> points,
+                                      List<DroneModel> droneModels) {
+        return build(potentialHangars, points, droneModels, EuclideanCoverageModel.INSTANCE);
+    }
+
+    /**
+     * 按覆盖模型预计算覆盖关系
+     * 网格索引先给出地面距离不超过半径的点对，非纯距离模型再逐对判定；
+     * 同一点对按型号连续判定，模型可以复用对该点对的计算（如地形剖面）。
+     *
+     * @param coverageModel 覆盖判定模型
+     */
+    public static CoverageMatrix build(List<InspectionPoint> potentialHangars, List<InspectionPoint> points,
+                                      List<DroneModel> droneModels, CoverageModel coverageModel) {
+        int droneCount = droneModels.size();
+        int wordCount = wordsFor(points.size());
+        long[] empty = new long[wordCount];
+        long[][] coverage = new long[potentialHangars.size() * droneCount][];
+        Arrays.fill(coverage, empty);
+
+        double maxRangeMeters = 0;
+        for (DroneModel drone : droneModels) {
+            maxRangeMeters = Math.max(maxRangeMeters, drone.getRangeKm() * 1000); // 转换为米
+        }
+        if (points.isEmpty() || droneCount == 0 || maxRangeMeters < 0) {
+            return new CoverageMatrix(potentialHangars, points, droneModels, coverage);
+        }
+
+        // 网格边长取最高纬度机巢处的墨卡托搜索半径，每次查询只需检查 3x3 个网格
+        double maxAbsY = 0;
+        for (InspectionPoint hangar : potentialHangars) {
+            maxAbsY = Math.max(maxAbsY, Math.abs(hangar.getCoordinate().y));
+        }
+        double cellSize = MercatorScale.searchRadius(Math.max(maxRangeMeters, 1.0), maxAbsY);
+        PointGridIndex index = PointGridIndex.of(points, cellSize);
+        PointGridIndex.Neighbors neighbors = new PointGridIndex.Neighbors();
+
+        for (int hi = 0; hi < potentialHangars.size(); hi++) {
+            Coordinate hangar = potentialHangars.get(hi).getCoordinate();
+            neighbors.clear();
+            if (index.queryWithin(hangar.x, hangar.y, maxRangeMeters, neighbors) == 0) {
+                continue;
+            }
+            neighbors.sortByDistance();
+
+            if (!coverageModel.isDistanceOnly()) {
+                applyModel(coverageModel, hangar, points, droneModels, neighbors, wordCount,
+                        coverage, hi * droneCount);
+                continue;
+            }
+
+            for (int di = 0; di < droneCount; di++) {
+                int within = neighbors.countWithin(droneModels.get(di).getRangeKm() * 1000);
+                if (within == 0) {
+                    continue;
+                }
+                long[] row = new long[wordCount];
+                for (int k = 0; k < within; k++) {
+                    set(row, neighbors.id(k));
+                }
+                coverage[hi * droneCount + di] = row;
+            }
+        }
+
+        return new CoverageMatrix(potentialHangars, points, droneModels, coverage);
+    }
+
+    /**
+     * 对一个机巢位置的邻近点逐对调用覆盖模型，外层按点、内层按型号
+     */
+    private static void applyModel(CoverageModel coverageModel, Coordinate hangar, List<InspectionPoint> points,
+                                   List<DroneModel> droneModels, PointGridIndex.Neighbors neighbors,
+                                   int wordCount, long[][] coverage, int firstCandidate) {
+        int droneCount = droneModels.size();
+        int[] within = new int[droneCount];
+        int maxWithin = 0;
+        for (int di = 0; di < droneCount; di++) {
+            within[di] = neighbors.countWithin(droneModels.get(di).getRangeKm() * 1000);
+            maxWithin = Math.max(maxWithin, within[di]);
+        }
+        long[][] rows = new long[droneCount][];
+        for (int k = 0; k < maxWithin; k++) {
+            int pi = neighbors.id(k);
+            Coordinate point = points.get(pi).getCoordinate();
+            double distance = neighbors.distance(k);
+            for (int di = 0; di < droneCount; di++) {
+                if (k >= within[di] || !coverageModel.covers(hangar, point, droneModels.get(di), distance)) {
+                    continue;
+                }
+                if (rows[di] == null) {
+                    rows[di] = new long[wordCount];
+                }
+                set(rows[di], pi);
+            }
+        }
+        for (int di = 0; di < droneCount; di++) {
+            if (rows[di] != null) {
+                coverage[firstCandidate + di] = rows[di];
+            }
+        }
+    }
+
+    // ---------------------------------------------------------------- 基本信息
+
+    public int getHangarCount() {
+        return hangarCount;
+    }
+
+    public int getDroneCount() {
+        return droneCount;
+    }
+
+    public int getPointCount() {
+        return pointCount;
+    }
+
+    public int getCandidateCount() {
+        return coverage.length;
+    }
+
+    public InspectionPoint getHangar(int hi) {
+        return potentialHangars.get(hi);
+    }
+
+    public InspectionPoint getPoint(int pi) {
+        return points.get(pi);
+    }
+
+    public DroneModel getDroneModel(int di) {
+        return droneModels.get(di);
+    }
+
+    public List<InspectionPoint> getPotentialHangars() {
+        return potentialHangars;
+    }
+
+    public List<InspectionPoint> getPoints() {
+        return points;
+    }
+
+    public List<DroneModel> getDroneModels() {
+        return droneModels;
+    }
+
+    public int candidateId(int hi, int di) {
+        return hi * droneCount + di;
+    }
+
+    public int hangarOf(int candidate) {
+        return candidate / droneCount;
+    }
+
+    public int droneOf(int candidate) {
+        return candidate % droneCount;
+    }
+
+    /**
+     * 将候选转换为选定机巢
+     */
+    public SelectedHangar toSelectedHangar(int candidate) {
+        InspectionPoint hangar = potentialHangars.get(hangarOf(candidate));
+        return new SelectedHangar(hangar.getId(), droneModels.get(droneOf(candidate)).getModelName(), hangar.getCoordinate());
+    }
+
+    // ---------------------------------------------------------------- 覆盖查询
+
+    public boolean canCover(int hi, int pi, int di) {
+        return get(coverage[candidateId(hi, di)], pi);
+    }
+
+    public boolean canCover(int candidate, int pi) {
+        return get(coverage[candidate], pi);
+    }
+
+    /**
+     * 候选的覆盖位图（只读，不要修改）
+     */
+    public long[] coverageOf(int candidate) {
+        return coverage[candidate];
+    }
+
+    /**
+     * 候选能覆盖的总点数
+     */
+    public int coverageSize(int candidate) {
+        return coverageSize[candidate];
+    }
+
+    /**
+     * 能覆盖该点的候选数量
+     */
+    public int coveringCount(int pi) {
+        return coveringCount[pi];
+    }
+
+    /**
+     * 能覆盖该点的所有候选编号（升序）
+     */
+    public int[] candidatesCovering(int pi) {
+        return Arrays.copyOfRange(pointCandidates, candidateStart[pi], candidateStart[pi + 1]);
+    }
+
+    /**
+     * 能覆盖该点的第 k 个候选（按编号升序，0 <= k < coveringCount(pi)），不复制数组
+     */
+    public int coveringCandidate(int pi, int k) {
+        return pointCandidates[candidateStart[pi] + k];
+    }
+
+    /**
+     * 候选 a 的覆盖集合是否为候选 b 的子集
+     */
+    public boolean isSubsetOf(int a, int b) {
+        long[] rowA = coverage[a];
+        long[] rowB = coverage[b];
+        for (int w = 0; w < wordCount; w++) {
+            if ((rowA[w] & ~rowB[w]) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 该点能否被任何候选覆盖
+     */
+    public boolean isCoverable(int pi) {
+        return coveringCount[pi] > 0;
+    }
+
+    // ---------------------------------------------------------------- 覆盖状态运算
+
+    /**
+     * 创建一个空的巡检点集合位图（全部未覆盖）
+     */
+    public long[] newPointSet() {
+        return new long[wordCount];
+    }
+
+    /**
+     * 计算一个候选能新覆盖多少未覆盖的点
+     */
+    public int countNewlyCovered(int candidate, long[] covered) {
+        long[] row = coverage[candidate];
+        int count = 0;
+        for (int w = 0; w < wordCount; w++) {
+            count += Long.bitCount(row[w] & ~covered[w]);
+        }
+        return count;
+    }
+
+    /**
+     * 应用候选的覆盖，新增覆盖的点写入 delta 以便回溯
+     *
+     * @return 新增覆盖的点数
+     */
+    public int applyCover(int candidate, long[] covered, long[] delta) {
+        long[] row = coverage[candidate];
+        int count = 0;
+        for (int w = 0; w < wordCount; w++) {
+            long added = row[w] & ~covered[w];
+            delta[w] = added;
+            covered[w] |= added;
+            count += Long.bitCount(added);
+        }
+        return count;
+    }
+
+    /**
+     * 应用候选的覆盖（无需回溯时使用）
+     *
+     * @return 新增覆盖的点数
+     */
+    public int applyCover(int candidate, long[] covered) {
+        long[] row = coverage[candidate];
+        int count = 0;
+        for (int w = 0; w < wordCount; w++) {
+            long added = row[w] & ~covered[w];
+            covered[w] |= added;
+            count += Long.bitCount(added);
+        }
+        return count;
+    }
+
+    /**
+     * 撤销 applyCover 产生的覆盖
+     */
+    public void undoCover(long[] covered, long[] delta) {
+        for (int w = 0; w < wordCount; w++) {
+            covered[w] &= ~delta[w];
+        }
+    }
+
+    /**
+     * 所有候选中单个候选能新覆盖的最大点数
+     */
+    public int getMaxNewlyCovered(long[] covered) {
+        int max = 0;
+        for (int c = 0; c < coverage.length; c++) {
+            if (coverageSize[c] <= max) {
+                continue; // 总覆盖数都不超过当前最大值，不可能更优
+            }
+            max = Math.max(max, countNewlyCovered(c, covered));
+        }
+        return max;
+    }
+
+    /**
+     * 将所有无法被覆盖的点标记为已覆盖，返回这些点的索引
+     */
+    public List<Integer> markUncoverable(long[] covered) {
+        List<Integer> uncoverable = new ArrayList<>();
+        for (int pi = 0; pi < pointCount; pi++) {
+            if (coveringCount[pi] == 0) {
+                set(covered, pi);
+                uncoverable.add(pi);
+            }
+        }
+        return uncoverable;
+    }
+
+    /**
+     * 未覆盖点数
+     */
+    public int countUncovered(long[] covered) {
+        return pointCount - cardinality(covered);
+    }
+
+    /**
+     * 第一个未覆盖的点，全部覆盖时返回 -1
+     */
+    public int firstUncovered(long[] covered) {
+        for (int w = 0; w < wordCount; w++) {
+            long free = ~covered[w];
+            if (free != 0) {
+                int pi = (w << 6) + Long.numberOfTrailingZeros(free);
+                return pi < pointCount ? pi : -1;
+            }
+        }
+        return -1;
+    }
+
+    // ---------------------------------------------------------------- 位图工具
+
+    static int wordsFor(int bitCount) {
+        return (bitCount + 63) >>> 6;
+    }
+
+    public static void set(long[] bits, int index) {
+        bits[index >>> 6] |= 1L << index;
+    }
+
+    public static void clear(long[] bits, int index) {
+        bits[index >>> 6] &= ~(1L << index);
+    }
+
+    public static boolean get(long[] bits, int index) {
+        return (bits[index >>> 6] & (1L << index)) != 0;
+    }
+
+    public static int cardinality(long[] bits) {
+        int count = 0;
+        for (long word : bits) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+}
@@ -0,0 +1,147 @@
+package com.gis.hangar;
+
+import org.locationtech.jts.geom.Coordinate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 布置方案的覆盖校验
+ * 对巡检点建立与 CoverageMatrix 相同的网格索引，每个选中的机巢按其无人机型号的半径查询一次，
+ * 统计每个点被多少个机巢覆盖（冗余度）。开销与实际覆盖对数近似线性，而不是 机巢数×点数，
+ * 结果都存放在基本类型数组中，适合在每次响应时对大规模方案做校验。
+ * 与求解时一致，距离是经墨卡托比例因子校正的地面距离。
+ */
+public class CoverageVerifier {
+
+    private final List<InspectionPoint> points;
+    private final PointGridIndex index;
+    // 型号名称 -> 覆盖半径（米）
+    private final Map<String, Double> rangeMeters = new HashMap<>();
+
+    /**
+     * @param points 需要覆盖的巡检点，点编号即列表下标
+     * @param droneModels 无人机型号，按名称匹配选中机巢的型号
+     */
+    public CoverageVerifier(List<InspectionPoint> points, List<DroneModel> droneModels) {
+        this.points = points;
+        double maxRangeMeters = 0;
+        for (DroneModel drone : droneModels) {
+            rangeMeters.putIfAbsent(drone.getModelName(), drone.getRangeKm() * 1000); // 同名型号以第一个为准
+            maxRangeMeters = Math.max(maxRangeMeters, drone.getRangeKm() * 1000);
+        }
+        double maxAbsY = 0;
+        for (InspectionPoint point : points) {
+            maxAbsY = Math.max(maxAbsY, Math.abs(point.getCoordinate().y));
+        }
+        this.index = PointGridIndex.of(points, MercatorScale.searchRadius(Math.max(maxRangeMeters, 1.0), maxAbsY));
+    }
+
+    /**
+     * 校验方案的覆盖情况，型号未知的机巢不覆盖任何点
+     */
+    public Report verify(List<SelectedHangar> hangars) {
+        int[] redundancy = new int[points.size()];
+        PointGridIndex.Neighbors neighbors = new PointGridIndex.Neighbors();
+        for (SelectedHangar hangar : hangars) {
+            Double range = rangeMeters.get(hangar.getDroneModelName());
+            if (range == null) {
+                continue;
+            }
+            Coordinate coordinate = hangar.getHangarCoordinate();
+            neighbors.clear();
+            int found = index.queryWithin(coordinate.x, coordinate.y, range, neighbors);
+            for (int k = 0; k < found; k++) {
+                redundancy[neighbors.id(k)]++;
+            }
+        }
+        return new Report(points, redundancy);
+    }
+
+    /**
+     * 覆盖校验结果
+     */
+    public static final class Report {
+        private final List<InspectionPoint> points;
+        private final int[] redundancy;
+        private final int coveredCount;
+        private final int redundantCount;
+        private final int maxRedundancy;
+
+        Report(List<InspectionPoint> points, int[] redundancy) {
+            this.points = points;
+            this.redundancy = redundancy;
+            int covered = 0;
+            int redundant = 0;
+            int max = 0;
+            for (int r : redundancy) {
+                if (r > 0) {
+                    covered++;
+                }
+                if (r > 1) {
+                    redundant++;
+                }
+                max = Math.max(max, r);
+            }
+            this.coveredCount = covered;
+            this.redundantCount = redundant;
+            this.maxRedundancy = max;
+        }
+
+        public int getTotalCount() {
+            return redundancy.length;
+        }
+
+        public int getCoveredCount() {
+            return coveredCount;
+        }
+
+        public int getUncoveredCount() {
+            return redundancy.length - coveredCount;
+        }
+
+        public double getCoverageRate() {
+            return redundancy.length == 0 ? 0 : (double) coveredCount / redundancy.length;
+        }
+
+        /**
+         * 被不止一个机巢覆盖的点数
+         */
+        public int getRedundantCount() {
+            return redundantCount;
+        }
+
+        public int getMaxRedundancy() {
+            return maxRedundancy;
+        }
+
+        /**
+         * 第 pi 个点被多少个机巢覆盖
+         */
+        public int redundancyOf(int pi) {
+            return redundancy[pi];
+        }
+
+        /**
+         * 每个点的冗余度，下标为点编号
+         */
+        public int[] getRedundancy() {
+            return redundancy.clone();
+        }
+
+        /**
+         * 未覆盖点的编号，按点的顺序
+         */
+        public List<String> uncoveredIds() {
+            List<String> ids = new ArrayList<>(getUncoveredCount());
+            for (int pi = 0; pi < redundancy.length; pi++) {
+                if (redundancy[pi] == 0) {
+                    ids.add(points.get(pi).getId());
+                }
+            }
+            return ids;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.gis.hangar;
+
+/**
+ * 候选支配关系
+ * 若候选 a 的覆盖集合是候选 b 的子集，则任何使用 a 的解都可以把 a 换成 b 而不变差
+ * （目标为机巢数量时），a 可以从搜索中删除。覆盖集合完全相同的候选只保留编号最小的一个。
+ * 包含 a 的候选必然覆盖 a 的第一个点，因此只需在该点的候选列表中查找。
+ */
+public final class DominanceFilter {
+
+    private DominanceFilter() {
+    }
+
+    /**
+     * @return dominated[c] 为 true 表示候选 c 被支配（不覆盖任何点的候选也视为被支配）
+     */
+    public static boolean[] findDominated(CoverageMatrix matrix) {
+        int candidateCount = matrix.getCandidateCount();
+        boolean[] dominated = new boolean[candidateCount];
+
+        for (int c = 0; c < candidateCount; c++) {
+            int size = matrix.coverageSize(c);
+            if (size == 0) {
+                dominated[c] = true;
+                continue;
+            }
+            int anchor = firstPoint(matrix.coverageOf(c));
+            for (int other : matrix.candidatesCovering(anchor)) {
+                if (other == c) {
+                    continue;
+                }
+                int otherSize = matrix.coverageSize(other);
+                if (otherSize < size || (otherSize == size && other > c)) {
+                    continue;
+                }
+                if (matrix.isSubsetOf(c, other)) {
+                    dominated[c] = true;
+                    break;
+                }
+            }
+        }
+        return dominated;
+    }
+
+    /**
+     * 被支配的候选数
+     */
+    public static int count(boolean[] dominated) {
+        int count = 0;
+        for (boolean d : dominated) {
+            if (d) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static int firstPoint(long[] row) {
+        for (int w = 0; w < row.length; w++) {
+            if (row[w] != 0) {
+                return (w << 6) + Long.numberOfTrailingZeros(row[w]);
+            }
+        }
+        return -1;
+    }
+}
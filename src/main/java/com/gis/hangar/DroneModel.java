@@ -4,10 +4,18 @@ package com.gis.hangar;
 public class DroneModel {
     private String modelName;
     private double rangeKm;  // 覆盖半径（公里）
+    private double ceilingMeters;  // 相对机巢地面的最大飞行高度（米），不限时为正无穷
+    private int sortieCapacity = Integer.MAX_VALUE;  // 每个机巢每个巡检周期能完成的巡检次数，默认不限
+    private double fixedCost;  // 方案中使用该型号的一次性固定成本（采购、培训等），默认 0
 
     public DroneModel(String modelName, double rangeKm) {
+        this(modelName, rangeKm, Double.POSITIVE_INFINITY);
+    }
+
+    public DroneModel(String modelName, double rangeKm, double ceilingMeters) {
         this.modelName = modelName;
         this.rangeKm = rangeKm;
+        this.ceilingMeters = ceilingMeters;
     }
 
     public String getModelName() {
@@ -18,11 +26,38 @@ public class DroneModel {
         return rangeKm;
     }
 
+    public double getCeilingMeters() {
+        return ceilingMeters;
+    }
+
+    public int getSortieCapacity() {
+        return sortieCapacity;
+    }
+
+    public void setSortieCapacity(int sortieCapacity) {
+        this.sortieCapacity = sortieCapacity;
+    }
+
+    public boolean hasSortieCapacity() {
+        return sortieCapacity != Integer.MAX_VALUE;
+    }
+
+    public double getFixedCost() {
+        return fixedCost;
+    }
+
+    public void setFixedCost(double fixedCost) {
+        this.fixedCost = fixedCost;
+    }
+
     @Override
     public String toString() {
         return "DroneModel{" +
                 "modelName='" + modelName + '\'' +
                 ", rangeKm=" + rangeKm +
+                ", ceilingMeters=" + ceilingMeters +
+                ", sortieCapacity=" + sortieCapacity +
+                ", fixedCost=" + fixedCost +
                 '}';
     }
 }
@@ -1,109 +1,53 @@
 package com.gis.hangar;
 
-import com.alibaba.fastjson.JSONArray;
-import com.alibaba.fastjson.JSONObject;
-import org.locationtech.jts.geom.Coordinate;
-
+import java.io.ByteArrayOutputStream;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.List;
 
 /**
- * GeoJSON工具类 - 使用Alibaba FastJSON实现GeoJSON格式输出
+ * GeoJSON工具类 - 通过 GeoJSONWriter 流式输出 GeoJSON
  */
 public class GeoJSONUtils {
 
     /**
      * 将算法结果转换为GeoJSON格式
+     * 需要完整字符串时使用；大规模方案优先用 writeGeoJSON 直接写入输出流
      */
     public static String convertToGeoJSON(List<SelectedHangar> hangars, List<DroneModel> droneModels, List<InspectionPoint> inspectionPoints) {
-        JSONObject geoJSON = new JSONObject();
-        geoJSON.put("type", "FeatureCollection");
-        JSONArray features = new JSONArray();
-        
-        // 添加所有巡检点
-        for (InspectionPoint point : inspectionPoints) {
-            JSONObject pointFeature = new JSONObject();
-            pointFeature.put("type", "Feature");
-            
-            JSONObject pointGeometry = new JSONObject();
-            pointGeometry.put("type", "Point");
-            
-            JSONArray pointCoordinates = new JSONArray();
-            pointCoordinates.add(point.getCoordinate().x);
-            pointCoordinates.add(point.getCoordinate().y);
-            
-            pointGeometry.put("coordinates", pointCoordinates);
-            pointFeature.put("geometry", pointGeometry);
-            
-            JSONObject pointProps = new JSONObject();
-            pointProps.put("id", point.getId());
-            pointProps.put("type", "inspectionPoint");
-            pointProps.put("canBuildHangar", point.canBuildHangar());
-            
-            pointFeature.put("properties", pointProps);
-            features.add(pointFeature);
+        ByteArrayOutputStream out = new ByteArrayOutputStream(4096);
+        try {
+            writeGeoJSON(hangars, droneModels, inspectionPoints, out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // 写入内存不会失败
         }
+        return new String(out.toByteArray(), StandardCharsets.UTF_8);
+    }
 
-        // 添加所有机巢和覆盖范围
-        for (SelectedHangar hangar : hangars) {
-            // 添加机巢点
-            JSONObject pointFeature = new JSONObject();
-            pointFeature.put("type", "Feature");
-            
-            JSONObject pointGeometry = new JSONObject();
-            pointGeometry.put("type", "Point");
-            
-            JSONArray pointCoordinates = new JSONArray();
-            pointCoordinates.add(hangar.getHangarCoordinate().x);
-            pointCoordinates.add(hangar.getHangarCoordinate().y);
-            
-            pointGeometry.put("coordinates", pointCoordinates);
-            pointFeature.put("geometry", pointGeometry);
-            
-            JSONObject pointProps = new JSONObject();
-            pointProps.put("hangarLocationId", hangar.getHangarLocationId());
-            pointProps.put("droneModelName", hangar.getDroneModelName());
-            pointProps.put("type", "hangar");
-            
-            pointFeature.put("properties", pointProps);
-            features.add(pointFeature);
+    /**
+     * 将算法结果以GeoJSON格式流式写入输出流（如 Servlet 响应），不关闭输出流
+     */
+    public static void writeGeoJSON(List<SelectedHangar> hangars, List<DroneModel> droneModels,
+                                    List<InspectionPoint> inspectionPoints, OutputStream out) throws IOException {
+        new GeoJSONWriter(out).writeFeatureCollection(hangars, droneModels, inspectionPoints);
+    }
 
-            // 添加无人机覆盖范围（圆形面）
-            DroneModel droneModel = null;
-            for (DroneModel dm : droneModels) {
-                if (dm.getModelName().equals(hangar.getDroneModelName())) {
-                    droneModel = dm;
-                    break;
-                }
-            }
-            
-            if (droneModel != null) {
-                JSONObject polygonFeature = new JSONObject();
-                polygonFeature.put("type", "Feature");
-                
-                JSONObject polygonGeometry = new JSONObject();
-                polygonGeometry.put("type", "Polygon");
-                
-                JSONArray polygonCoordinates = new JSONArray();
-                polygonCoordinates.add(generateCircle(hangar.getHangarCoordinate(), droneModel.getRangeKm()));
-                
-                polygonGeometry.put("coordinates", polygonCoordinates);
-                polygonFeature.put("geometry", polygonGeometry);
-                
-                JSONObject polygonProps = new JSONObject();
-                polygonProps.put("hangarLocationId", hangar.getHangarLocationId());
-                polygonProps.put("droneModelName", hangar.getDroneModelName());
-                polygonProps.put("rangeKm", droneModel.getRangeKm());
-                polygonProps.put("type", "coverage");
-                
-                polygonFeature.put("properties", polygonProps);
-                features.add(polygonFeature);
-            }
+    /**
+     * 将算法结果以GeoJSON格式流式写入文件，文件已存在时覆盖
+     */
+    public static void writeGeoJSONToFile(List<SelectedHangar> hangars, List<DroneModel> droneModels,
+                                          List<InspectionPoint> inspectionPoints, Path filePath) throws IOException {
+        try (FileChannel channel = FileChannel.open(filePath, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            writeGeoJSON(hangars, droneModels, inspectionPoints, Channels.newOutputStream(channel));
         }
-
-        geoJSON.put("features", features);
-        return geoJSON.toJSONString(); // 使用FastJSON的toJSONString方法
     }
 
     /**
@@ -117,29 +61,4 @@ public class GeoJSONUtils {
             System.err.println("写入GeoJSON文件时出错: " + e.getMessage());
         }
     }
-
-    /**
-     * 生成圆形多边形（以指定坐标为中心，指定半径）
-     * 在墨卡托坐标系中使用欧几里得距离生成圆
-     */
-    private static JSONArray generateCircle(Coordinate center, double radiusKm) {
-        int points = 64; // 圆的分段数
-        double radiusMeters = radiusKm * 1000;
-        JSONArray coordinates = new JSONArray();
-
-        for (int i = 0; i <= points; i++) {
-            double angle = Math.toRadians((360.0 / points) * i);
-            // 在墨卡托坐标系中，直接使用平面几何计算即可
-            double x = center.x + radiusMeters * Math.cos(angle);
-            double y = center.y + radiusMeters * Math.sin(angle);
-            
-            JSONArray point = new JSONArray();
-            point.add(x);
-            point.add(y);
-            
-            coordinates.add(point);
-        }
-
-        return coordinates;
-    }
 }
@@ -0,0 +1,292 @@
+package com.gis.hangar;
+
+import org.locationtech.jts.geom.Coordinate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 流式 GeoJSON 输出 - 直接把要素编码为 UTF-8 字节写入输出流
+ * 不构建 JSON 对象树，也不生成整个文档的字符串：坐标按定点小数直接写成 ASCII 数字，不装箱、不分配对象，
+ * 内存占用只有一个固定大小的缓冲区，第一个要素写完缓冲区即可发出。
+ * 要素内容与 GeoJSONUtils.convertToGeoJSON 相同：巡检点、机巢点和机巢覆盖范围（圆形面）。
+ * 不关闭底层输出流，写完后由调用方决定是否关闭。
+ */
+public class GeoJSONWriter {
+
+    // 圆的分段数
+    private static final int CIRCLE_SEGMENTS = 64;
+    private static final double[] CIRCLE_COS = new double[CIRCLE_SEGMENTS];
+    private static final double[] CIRCLE_SIN = new double[CIRCLE_SEGMENTS];
+    // 墨卡托坐标（米）保留到毫米，半径等属性保留 6 位小数
+    private static final int COORDINATE_DECIMALS = 3;
+    private static final int PROPERTY_DECIMALS = 6;
+    private static final long[] POW10 = {1L, 10L, 100L, 1000L, 10000L, 100000L, 1000000L};
+    // 超过该值时定点表示会溢出 long，退回 Double.toString
+    private static final double MAX_FIXED = 9e15;
+
+    static {
+        for (int i = 0; i < CIRCLE_SEGMENTS; i++) {
+            double angle = Math.toRadians((360.0 / CIRCLE_SEGMENTS) * i);
+            CIRCLE_COS[i] = Math.cos(angle);
+            CIRCLE_SIN[i] = Math.sin(angle);
+        }
+    }
+
+    private final OutputStream out;
+    private final byte[] buffer;
+    private int position;
+    private final byte[] digits = new byte[20];
+    private boolean firstFeature = true;
+
+    public GeoJSONWriter(OutputStream out) {
+        this(out, 8192);
+    }
+
+    public GeoJSONWriter(OutputStream out, int bufferSize) {
+        this.out = out;
+        this.buffer = new byte[Math.max(64, bufferSize)];
+    }
+
+    /**
+     * 写出完整的 FeatureCollection 并刷新输出流
+     */
+    public void writeFeatureCollection(List<SelectedHangar> hangars, List<DroneModel> droneModels,
+                                       List<InspectionPoint> inspectionPoints) throws IOException {
+        beginFeatureCollection();
+        for (InspectionPoint point : inspectionPoints) {
+            writeInspectionPoint(point);
+        }
+        Map<String, DroneModel> models = new HashMap<>();
+        for (DroneModel droneModel : droneModels) {
+            models.putIfAbsent(droneModel.getModelName(), droneModel);
+        }
+        for (SelectedHangar hangar : hangars) {
+            writeHangar(hangar);
+            DroneModel droneModel = models.get(hangar.getDroneModelName());
+            if (droneModel != null) {
+                writeCoverage(hangar, droneModel);
+            }
+        }
+        endFeatureCollection();
+        flush();
+    }
+
+    public void beginFeatureCollection() throws IOException {
+        writeAscii("{\"type\":\"FeatureCollection\",\"features\":[");
+        firstFeature = true;
+    }
+
+    public void endFeatureCollection() throws IOException {
+        writeAscii("]}");
+    }
+
+    /**
+     * 巡检点要素
+     */
+    public void writeInspectionPoint(InspectionPoint point) throws IOException {
+        beginFeature("Point");
+        writePosition(point.getCoordinate().x, point.getCoordinate().y);
+        writeAscii("},\"properties\":{\"id\":");
+        writeString(point.getId());
+        writeAscii(",\"type\":\"inspectionPoint\",\"canBuildHangar\":");
+        writeAscii(point.canBuildHangar() ? "true" : "false");
+        writeAscii("}}");
+    }
+
+    /**
+     * 机巢点要素
+     */
+    public void writeHangar(SelectedHangar hangar) throws IOException {
+        beginFeature("Point");
+        writePosition(hangar.getHangarCoordinate().x, hangar.getHangarCoordinate().y);
+        writeAscii("},\"properties\":{\"hangarLocationId\":");
+        writeString(hangar.getHangarLocationId());
+        writeAscii(",\"droneModelName\":");
+        writeString(hangar.getDroneModelName());
+        writeAscii(",\"type\":\"hangar\"}}");
+    }
+
+    /**
+     * 机巢覆盖范围要素：以机巢为中心的圆形面
+     * 地面半径换算为圆心纬度处的墨卡托平面半径，首尾顶点完全相同以闭合环
+     */
+    public void writeCoverage(SelectedHangar hangar, DroneModel droneModel) throws IOException {
+        Coordinate center = hangar.getHangarCoordinate();
+        double radius = droneModel.getRangeKm() * 1000 / MercatorScale.scaleAt(center.y);
+        beginFeature("Polygon");
+        writeByte('[');
+        for (int i = 0; i <= CIRCLE_SEGMENTS; i++) {
+            if (i > 0) {
+                writeByte(',');
+            }
+            int k = i % CIRCLE_SEGMENTS;
+            writePosition(center.x + radius * CIRCLE_COS[k], center.y + radius * CIRCLE_SIN[k]);
+        }
+        writeByte(']');
+        writeAscii("},\"properties\":{\"hangarLocationId\":");
+        writeString(hangar.getHangarLocationId());
+        writeAscii(",\"droneModelName\":");
+        writeString(hangar.getDroneModelName());
+        writeAscii(",\"rangeKm\":");
+        writeNumber(droneModel.getRangeKm(), PROPERTY_DECIMALS);
+        writeAscii(",\"type\":\"coverage\"}}");
+    }
+
+    /**
+     * 把缓冲区写入输出流并刷新
+     */
+    public void flush() throws IOException {
+        drain();
+        out.flush();
+    }
+
+    // ---------------------------------------------------------------- 编码
+
+    private void beginFeature(String geometryType) throws IOException {
+        if (!firstFeature) {
+            writeByte(',');
+        }
+        firstFeature = false;
+        writeAscii("{\"type\":\"Feature\",\"geometry\":{\"type\":\"");
+        writeAscii(geometryType);
+        writeAscii("\",\"coordinates\":");
+    }
+
+    private void writePosition(double x, double y) throws IOException {
+        writeByte('[');
+        writeNumber(x, COORDINATE_DECIMALS);
+        writeByte(',');
+        writeNumber(y, COORDINATE_DECIMALS);
+        writeByte(']');
+    }
+
+    /**
+     * 按定点小数写出数字，去掉小数部分末尾的 0；NaN 和无穷写为 null
+     */
+    private void writeNumber(double value, int decimals) throws IOException {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            writeAscii("null");
+            return;
+        }
+        double scaled = Math.abs(value) * POW10[decimals];
+        if (scaled >= MAX_FIXED) {
+            writeAscii(Double.toString(value));
+            return;
+        }
+        long units = Math.round(scaled);
+        if (value < 0 && units != 0) {
+            writeByte('-');
+        }
+        writeDigits(units / POW10[decimals], 1);
+        long fraction = units % POW10[decimals];
+        if (fraction != 0) {
+            int width = decimals;
+            while (fraction % 10 == 0) {
+                fraction /= 10;
+                width--;
+            }
+            writeByte('.');
+            writeDigits(fraction, width);
+        }
+    }
+
+    /**
+     * 写出非负整数，不足 minWidth 位时前面补 0
+     */
+    private void writeDigits(long value, int minWidth) throws IOException {
+        int count = 0;
+        do {
+            digits[count++] = (byte) ('0' + (value % 10));
+            value /= 10;
+        } while (value != 0);
+        while (count < minWidth) {
+            digits[count++] = '0';
+        }
+        ensure(count);
+        while (count > 0) {
+            buffer[position++] = digits[--count];
+        }
+    }
+
+    /**
+     * 写出 JSON 字符串（含引号），按 UTF-8 编码
+     */
+    private void writeString(String value) throws IOException {
+        if (value == null) {
+            writeAscii("null");
+            return;
+        }
+        writeByte('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                ensure(2);
+                buffer[position++] = '\\';
+                buffer[position++] = (byte) c;
+            } else if (c < 0x20) {
+                ensure(6);
+                buffer[position++] = '\\';
+                buffer[position++] = 'u';
+                buffer[position++] = '0';
+                buffer[position++] = '0';
+                buffer[position++] = (byte) Character.forDigit(c >> 4, 16);
+                buffer[position++] = (byte) Character.forDigit(c & 0xF, 16);
+            } else if (c < 0x80) {
+                ensure(1);
+                buffer[position++] = (byte) c;
+            } else if (c < 0x800) {
+                ensure(2);
+                buffer[position++] = (byte) (0xC0 | (c >> 6));
+                buffer[position++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < value.length()
+                    && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                ensure(4);
+                buffer[position++] = (byte) (0xF0 | (codePoint >> 18));
+                buffer[position++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                buffer[position++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                buffer[position++] = (byte) (0x80 | (codePoint & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                // 不成对的代理字符，与 String.getBytes(UTF_8) 一样替换为 '?'
+                ensure(1);
+                buffer[position++] = '?';
+            } else {
+                ensure(3);
+                buffer[position++] = (byte) (0xE0 | (c >> 12));
+                buffer[position++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                buffer[position++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+        writeByte('"');
+    }
+
+    private void writeAscii(String text) throws IOException {
+        for (int i = 0; i < text.length(); i++) {
+            writeByte(text.charAt(i));
+        }
+    }
+
+    private void writeByte(int b) throws IOException {
+        if (position == buffer.length) {
+            drain();
+        }
+        buffer[position++] = (byte) b;
+    }
+
+    private void ensure(int bytes) throws IOException {
+        if (position + bytes > buffer.length) {
+            drain();
+        }
+    }
+
+    private void drain() throws IOException {
+        if (position > 0) {
+            out.write(buffer, 0, position);
+            position = 0;
+        }
+    }
+}
@@ -0,0 +1,307 @@
+package com.gis.hangar;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * 多起点随机贪心（GRASP）集合覆盖求解器
+ * 每次重启独立构造一个解：每步计算所有候选的 新覆盖点数/成本，
+ * 从不低于 最大值×(1-alpha) 的受限候选列表（RCL）中随机选一个，直到覆盖所有可覆盖的点，
+ * 然后用 LocalSearchOptimizer 改进。各次重启在 ForkJoinPool 中并行执行，返回成本最低的解以及各次重启的成本分布。
+ * 第 k 次重启使用种子 seed + k，第 0 次重启的 alpha 为 0（确定性贪心），结果与线程调度无关。
+ */
+public class GraspSolver {
+
+    public static final int DEFAULT_RESTARTS = 32;
+    public static final double DEFAULT_ALPHA = 0.2;
+
+    private final CoverageMatrix matrix;
+    private final double[] cost;
+
+    private int restarts = DEFAULT_RESTARTS;
+    private double alpha = DEFAULT_ALPHA;
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+    private long seed = 0x5DEECE66DL;
+    private boolean allowSiteReuse = true;
+    // 每次重启的局部搜索时间预算（毫秒），小于 0 表示不做局部搜索，0 表示直到收敛
+    private long localSearchBudgetMillis;
+    // 是否已请求取消，以及正在运行的局部搜索（取消时一并通知）
+    private volatile boolean cancelled;
+    private final Set<LocalSearchOptimizer> activeOptimizers = new HashSet<>();
+
+    /**
+     * @param matrix 覆盖关系
+     * @param cost 每个候选的成本，下标为候选编号
+     */
+    public GraspSolver(CoverageMatrix matrix, double[] cost) {
+        this.matrix = matrix;
+        this.cost = cost;
+    }
+
+    public GraspSolver setRestarts(int restarts) {
+        if (restarts < 1) {
+            throw new IllegalArgumentException("重启次数必须大于0: " + restarts);
+        }
+        this.restarts = restarts;
+        return this;
+    }
+
+    /**
+     * RCL 参数：0 为纯贪心，1 为在所有有收益的候选中均匀随机
+     */
+    public GraspSolver setAlpha(double alpha) {
+        if (alpha < 0 || alpha > 1) {
+            throw new IllegalArgumentException("alpha 必须在 0 到 1 之间: " + alpha);
+        }
+        this.alpha = alpha;
+        return this;
+    }
+
+    public GraspSolver setParallelism(int parallelism) {
+        this.parallelism = Math.max(1, parallelism);
+        return this;
+    }
+
+    public GraspSolver setSeed(long seed) {
+        this.seed = seed;
+        return this;
+    }
+
+    public GraspSolver setAllowSiteReuse(boolean allowSiteReuse) {
+        this.allowSiteReuse = allowSiteReuse;
+        return this;
+    }
+
+    public GraspSolver setLocalSearchBudgetMillis(long localSearchBudgetMillis) {
+        this.localSearchBudgetMillis = localSearchBudgetMillis;
+        return this;
+    }
+
+    /**
+     * 并行执行所有重启
+     */
+    public Result solve() {
+        long start = System.nanoTime();
+        List<Callable<int[]>> tasks = new ArrayList<>(restarts);
+        for (int k = 0; k < restarts; k++) {
+            final int restart = k;
+            tasks.add(() -> construct(restart));
+        }
+
+        int[][] solutions = new int[restarts][];
+        ForkJoinPool pool = new ForkJoinPool(Math.min(parallelism, restarts));
+        try {
+            List<Future<int[]>> futures = pool.invokeAll(tasks);
+            for (int k = 0; k < restarts; k++) {
+                solutions[k] = futures.get(k).get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("GRASP求解被中断", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof CancellationException) {
+                throw (CancellationException) e.getCause();
+            }
+            throw new IllegalStateException("GRASP求解失败", e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+
+        double[] costs = new double[restarts];
+        int best = 0;
+        for (int k = 0; k < restarts; k++) {
+            costs[k] = SetCoverModel.costOf(solutions[k], cost);
+            if (costs[k] < costs[best] - 1e-9) {
+                best = k;
+            }
+        }
+        return new Result(solutions[best], best, costs, System.nanoTime() - start);
+    }
+
+    /**
+     * 请求取消：正在构造的重启在下一步抛出 CancellationException，正在进行的局部搜索一并取消，
+     * 正在进行的 solve 抛出 CancellationException
+     */
+    public void cancel() {
+        cancelled = true;
+        synchronized (activeOptimizers) {
+            for (LocalSearchOptimizer optimizer : activeOptimizers) {
+                optimizer.cancel();
+            }
+        }
+    }
+
+    private void checkCancelled() {
+        if (cancelled) {
+            throw new CancellationException("GRASP求解已取消");
+        }
+    }
+
+    /**
+     * 第 k 次重启：随机贪心构造加局部搜索
+     */
+    private int[] construct(int restart) {
+        Random random = new Random(seed + restart);
+        double restartAlpha = restart == 0 ? 0 : alpha;
+        int candidateCount = matrix.getCandidateCount();
+
+        // 增量维护每个候选的新覆盖点数：点被覆盖时，覆盖它的所有候选收益减 1
+        long[] covered = matrix.newPointSet();
+        matrix.markUncoverable(covered);
+        int[] gain = new int[candidateCount];
+        for (int c = 0; c < candidateCount; c++) {
+            gain[c] = matrix.countNewlyCovered(c, covered);
+        }
+        int uncovered = matrix.countUncovered(covered);
+
+        int[] solution = new int[Math.max(uncovered, 1)];
+        int size = 0;
+        int[] rcl = new int[candidateCount];
+        while (uncovered > 0) {
+            checkCancelled();
+            double maxRatio = 0;
+            for (int c = 0; c < candidateCount; c++) {
+                if (gain[c] > 0) {
+                    maxRatio = Math.max(maxRatio, gain[c] / cost[c]);
+                }
+            }
+            if (maxRatio == 0) {
+                break; // 剩余的点只能由已用过的机巢位置覆盖
+            }
+            double threshold = maxRatio * (1 - restartAlpha) - 1e-12;
+            int rclSize = 0;
+            for (int c = 0; c < candidateCount; c++) {
+                if (gain[c] > 0 && gain[c] / cost[c] >= threshold) {
+                    rcl[rclSize++] = c;
+                }
+            }
+            int chosen = rcl[rclSize == 1 ? 0 : random.nextInt(rclSize)];
+            solution[size++] = chosen;
+
+            long[] row = matrix.coverageOf(chosen);
+            for (int w = 0; w < row.length; w++) {
+                long added = row[w] & ~covered[w];
+                covered[w] |= added;
+                while (added != 0) {
+                    int pi = (w << 6) + Long.numberOfTrailingZeros(added);
+                    for (int k = 0; k < matrix.coveringCount(pi); k++) {
+                        gain[matrix.coveringCandidate(pi, k)]--;
+                    }
+                    uncovered--;
+                    added &= added - 1;
+                }
+            }
+            if (!allowSiteReuse) {
+                // 已选用的机巢位置不再重复选择
+                int hi = matrix.hangarOf(chosen);
+                for (int di = 0; di < matrix.getDroneCount(); di++) {
+                    gain[matrix.candidateId(hi, di)] = 0;
+                }
+            }
+        }
+
+        int[] constructed = Arrays.copyOf(solution, size);
+        if (localSearchBudgetMillis < 0) {
+            Arrays.sort(constructed);
+            return constructed;
+        }
+        LocalSearchOptimizer optimizer = new LocalSearchOptimizer(matrix, cost, allowSiteReuse);
+        synchronized (activeOptimizers) {
+            activeOptimizers.add(optimizer);
+        }
+        try {
+            checkCancelled();
+            return optimizer.improve(constructed, localSearchBudgetMillis).getCandidates();
+        } finally {
+            synchronized (activeOptimizers) {
+                activeOptimizers.remove(optimizer);
+            }
+        }
+    }
+
+    /**
+     * 最优解以及各次重启的成本分布
+     */
+    public static final class Result {
+        private final int[] candidates;
+        private final int bestRestart;
+        private final double[] costs;
+        private final long elapsedNanos;
+
+        Result(int[] candidates, int bestRestart, double[] costs, long elapsedNanos) {
+            this.candidates = candidates;
+            this.bestRestart = bestRestart;
+            this.costs = costs;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        /**
+         * 成本最低的解（候选编号，升序）
+         */
+        public int[] getCandidates() {
+            return candidates;
+        }
+
+        public int getBestRestart() {
+            return bestRestart;
+        }
+
+        public double getBestCost() {
+            return costs[bestRestart];
+        }
+
+        /**
+         * 每次重启得到的成本，下标为重启序号
+         */
+        public double[] getCosts() {
+            return costs.clone();
+        }
+
+        public double getWorstCost() {
+            double worst = costs[0];
+            for (double c : costs) {
+                worst = Math.max(worst, c);
+            }
+            return worst;
+        }
+
+        public double getMeanCost() {
+            double sum = 0;
+            for (double c : costs) {
+                sum += c;
+            }
+            return sum / costs.length;
+        }
+
+        public double getStdDevCost() {
+            double mean = getMeanCost();
+            double sum = 0;
+            for (double c : costs) {
+                sum += (c - mean) * (c - mean);
+            }
+            return Math.sqrt(sum / costs.length);
+        }
+
+        public long getElapsedNanos() {
+            return elapsedNanos;
+        }
+
+        @Override
+        public String toString() {
+            return "GRASP: " + costs.length + " 次重启, 最优 " + String.format("%.2f", getBestCost())
+                    + " (第 " + bestRestart + " 次), 最差 " + String.format("%.2f", getWorstCost())
+                    + ", 平均 " + String.format("%.2f", getMeanCost())
+                    + ", 标准差 " + String.format("%.2f", getStdDevCost())
+                    + ", 耗时 " + String.format("%.1f", elapsedNanos / 1e6) + "ms";
+        }
+    }
+}
@@ -1,11 +1,13 @@
 package com.gis.hangar;
-import com.google.ortools.linearsolver.MPConstraint;
-import com.google.ortools.linearsolver.MPObjective;
+import com.gis.hangar.bound.CoverageRatioBound;
+import com.gis.hangar.bound.DisjointPointsBound;
+import com.gis.hangar.bound.MaxLowerBound;
+import com.gis.hangar.coverage.CoverageModel;
+import com.gis.hangar.coverage.EuclideanCoverageModel;
 import com.google.ortools.linearsolver.MPSolver;
-import com.google.ortools.linearsolver.MPVariable;
-import org.locationtech.jts.geom.Coordinate;
 
 import java.util.*;
+import java.util.concurrent.CancellationException;
 import java.util.stream.Collectors;
 
 /**
@@ -16,6 +18,11 @@ public class HangarPlacementAlgorithm {
 
     private final List<InspectionPoint> allInspectionPoints;
     private final List<DroneModel> availableDroneModels;
+    // 覆盖判定模型，默认只按平面距离
+    private CoverageModel coverageModel = EuclideanCoverageModel.INSTANCE;
+    // 取消标志，以及正在运行的局部搜索/GRASP 的取消回调
+    private volatile boolean cancelled;
+    private volatile Runnable activeCanceller;
 
     public HangarPlacementAlgorithm(List<InspectionPoint> inspectionPoints, List<DroneModel> droneModels) {
         this.allInspectionPoints = new ArrayList<>(inspectionPoints);
@@ -23,33 +30,39 @@ public class HangarPlacementAlgorithm {
     }
 
     /**
-     * 计算两点间的欧几里得距离（米）
-     * 在墨卡托坐标系中可直接计算欧几里得距离
+     * 设置覆盖判定模型（如基于 DEM 的视线模型）
      */
-    private double calculateDistanceMeters(Coordinate c1, Coordinate c2) {
-        double dx = c1.x - c2.x;
-        double dy = c1.y - c2.y;
-        return Math.sqrt(dx * dx + dy * dy); // 单位是米
+    public void setCoverageModel(CoverageModel coverageModel) {
+        this.coverageModel = Objects.requireNonNull(coverageModel);
     }
+
     /**
-     * 计算两点间的欧几里得距离（米）
-     * 在墨卡托坐标系中可直接计算欧几里得距离
+     * 请求取消：正在进行的 solveImproved/solveGrasp 抛出 CancellationException
      */
+    public void cancel() {
+        cancelled = true;
+        Runnable canceller = activeCanceller;
+        if (canceller != null) {
+            canceller.run();
+        }
+    }
 
-    private void branchAndBound(List<InspectionPoint> potentialHangars, List<DroneModel> drones,
-                                boolean[][][] canCover, List<int[]> currentSolution,
-                                boolean[] covered, int depth, List<int[]> bestSolution, int[] bestCost) {
-        // 检查是否所有点都已覆盖
-        boolean allCovered = true;
-        for (boolean isCovered : covered) {
-            if (!isCovered) {
-                allCovered = false;
-                break;
-            }
+    private void checkCancelled() {
+        if (cancelled) {
+            throw new CancellationException("机巢规划已取消");
         }
+    }
+
+    /**
+     * 分支定界法求解集合覆盖问题（基于覆盖位图）
+     */
+    private void branchAndBound(CoverageMatrix matrix, List<int[]> currentSolution,
+                                long[] covered, int depth, List<int[]> bestSolution, int[] bestCost) {
+        // 找到第一个未覆盖的点
+        int uncoveredPoint = matrix.firstUncovered(covered);
 
         // 找到一个解
-        if (allCovered) {
+        if (uncoveredPoint == -1) {
             if (currentSolution.size() < bestCost[0]) {
                 bestCost[0] = currentSolution.size();
                 bestSolution.clear();
@@ -63,42 +76,23 @@ public class HangarPlacementAlgorithm {
             return;
         }
 
-        // 找到第一个未覆盖的点
-        int uncoveredPoint = -1;
-        for (int i = 0; i < covered.length; i++) {
-            if (!covered[i]) {
-                uncoveredPoint = i;
-                break;
-            }
-        }
-
         // 尝试所有可能覆盖该点的机巢-无人机组合
-        for (int hi = 0; hi < potentialHangars.size(); hi++) {
-            for (int di = 0; di < drones.size(); di++) {
-                if (canCover[hi][uncoveredPoint][di]) {
-                    // 记录新增覆盖的点
-                    List<Integer> newlyCovered = new ArrayList<>();
-
-                    // 更新覆盖状态
-                    for (int pi = 0; pi < covered.length; pi++) {
-                        if (!covered[pi] && canCover[hi][pi][di]) {
-                            covered[pi] = true;
-                            newlyCovered.add(pi);
-                        }
-                    }
+        long[] newlyCovered = matrix.newPointSet();
+        for (int hi = 0; hi < matrix.getHangarCount(); hi++) {
+            for (int di = 0; di < matrix.getDroneCount(); di++) {
+                if (matrix.canCover(hi, uncoveredPoint, di)) {
+                    // 更新覆盖状态，记录新增覆盖的点
+                    matrix.applyCover(matrix.candidateId(hi, di), covered, newlyCovered);
 
                     // 添加当前选择到解
                     currentSolution.add(new int[]{hi, di});
 
                     // 递归搜索
-                    branchAndBound(potentialHangars, drones, canCover, currentSolution,
-                            covered, depth + 1, bestSolution, bestCost);
+                    branchAndBound(matrix, currentSolution, covered, depth + 1, bestSolution, bestCost);
 
                     // 回溯
                     currentSolution.remove(currentSolution.size() - 1);
-                    for (int pi : newlyCovered) {
-                        covered[pi] = false;
-                    }
+                    matrix.undoCover(covered, newlyCovered);
                 }
             }
         }
@@ -106,81 +100,149 @@ public class HangarPlacementAlgorithm {
 
     /**
      * 贪心算法找出最优机巢布置方案
+     * 使用延迟贪心(CELF)：只重新计算堆顶候选的边际收益，结果与逐轮全量扫描一致
      * @return 选中的机巢和无人机列表
      */
     public List<SelectedHangar> findOptimalHangars() {
         List<SelectedHangar> selectedHangars = new ArrayList<>();
-        Set<InspectionPoint> uncoveredPoints = new HashSet<>(allInspectionPoints);
-
-        while (!uncoveredPoints.isEmpty()) {
-            InspectionPoint bestHangarLocation = null;
-            DroneModel bestDroneModel = null;
-            Set<InspectionPoint> bestCoveredByThisChoice = new HashSet<>();
-            int maxCoveredCount = -1;
-
-            // 1. 遍历所有巡检点作为潜在机巢位置（跳过不可建机巢的点）
-            for (InspectionPoint potentialHangarSite : allInspectionPoints) {
-                // 如果该点不能建机巢，则跳过
-                if (!potentialHangarSite.canBuildHangar()) {
-                    continue;
-                }
 
-                // 2. 遍历所有无人机型号
-                for (DroneModel drone : availableDroneModels) {
-                    Set<InspectionPoint> currentCoveredPoints = new HashSet<>();
-                    int currentCoveredCount = 0;
-
-                    // 3. 计算此 "机巢-无人机" 组合能覆盖多少 *未覆盖* 的点
-                    for (InspectionPoint targetPoint : uncoveredPoints) {
-                        double distanceMeters = calculateDistanceMeters(potentialHangarSite.getCoordinate(), targetPoint.getCoordinate());
-                        if (distanceMeters <= drone.getRangeKm() * 1000) { // 千米转米
-                            currentCoveredPoints.add(targetPoint);
-                            currentCoveredCount++;
-                        }
-                    }
-
-                    // 4. 如果当前组合更好，则更新最佳选择
-                    if (currentCoveredCount > maxCoveredCount) {
-                        maxCoveredCount = currentCoveredCount;
-                        bestHangarLocation = potentialHangarSite;
-                        bestDroneModel = drone;
-                        bestCoveredByThisChoice = new HashSet<>(currentCoveredPoints); // 复制一份
-                    }
-                    // 可选：如果覆盖数量相同，可以加入其他偏好，例如优先选择巡航半径小的无人机
-                    else if (currentCoveredCount == maxCoveredCount && currentCoveredCount > 0) {
-                        if (drone.getRangeKm() < bestDroneModel.getRangeKm()) {
-                            bestHangarLocation = potentialHangarSite;
-                            bestDroneModel = drone;
-                            bestCoveredByThisChoice = new HashSet<>(currentCoveredPoints);
-                        }
-                    }
+        // 可建机巢的点列表（跳过不可建机巢的点）
+        List<InspectionPoint> potentialHangars = allInspectionPoints.stream()
+                .filter(InspectionPoint::canBuildHangar)
+                .collect(Collectors.toList());
+
+        // 预计算覆盖关系
+        CoverageMatrix matrix = CoverageMatrix.build(potentialHangars, allInspectionPoints, availableDroneModels, coverageModel);
+        long[] covered = matrix.newPointSet();
+
+        // 覆盖数量相同时优先选择巡航半径小的无人机
+        LazyGreedySolver.Result greedy = new LazyGreedySolver(matrix).solve(covered);
+
+        int uncoveredCount = matrix.getPointCount();
+        for (int i = 0; i < greedy.getCandidates().length; i++) {
+            SelectedHangar chosen = matrix.toSelectedHangar(greedy.getCandidates()[i]);
+            selectedHangars.add(chosen);
+            uncoveredCount -= greedy.getGains()[i];
+
+            System.out.println("选定机巢位置: " + chosen.getHangarLocationId() +
+                    "，使用无人机型号: " + chosen.getDroneModelName() +
+                    "，覆盖了 " + greedy.getGains()[i] + " 个新点。" +
+                    "剩余未覆盖点数量: " + uncoveredCount);
+        }
+
+        // 如果没有找到任何可以覆盖未覆盖点的机巢，则退出（可能有些点无法覆盖）
+        if (greedy.getUncoveredCount() > 0) {
+            List<String> uncoveredIds = new ArrayList<>();
+            for (int pi = 0; pi < matrix.getPointCount(); pi++) {
+                if (!CoverageMatrix.get(covered, pi)) {
+                    uncoveredIds.add(matrix.getPoint(pi).getId());
                 }
             }
+            System.err.println("警告: 无法覆盖所有巡检点。剩余未覆盖点: " + uncoveredIds);
+        }
 
-            // 5. 如果没有找到任何可以覆盖未覆盖点的机巢，则退出（可能有些点无法覆盖）
-            if (maxCoveredCount <= 0) {
-                System.err.println("警告: 无法覆盖所有巡检点。剩余未覆盖点: " +
-                        uncoveredPoints.stream().map(InspectionPoint::getId).collect(Collectors.toList()));
-                break;
-            }
+        return selectedHangars;
+    }
 
-            // 6. 添加选中的机巢和无人机
-            selectedHangars.add(new SelectedHangar(
-                    bestHangarLocation.getId(),
-                    bestDroneModel.getModelName(),
-                    bestHangarLocation.getCoordinate()
-            ));
+    /**
+     * 贪心算法加局部搜索：先用延迟贪心求解，再在时间预算内做冗余消除、降级、1-swap 和 2-for-1 改进，
+     * 成本与 ILP 相同（1 + 半径/10）
+     * @param timeBudgetMillis 局部搜索的时间预算（毫秒），不大于 0 表示直到收敛
+     * @return 选中的机巢和无人机列表
+     */
+    public List<SelectedHangar> findImprovedHangars(long timeBudgetMillis) {
+        return solveImproved(timeBudgetMillis).getHangars();
+    }
 
-            // 7. 更新未覆盖的点集
-            uncoveredPoints.removeAll(bestCoveredByThisChoice);
+    /**
+     * 贪心算法加局部搜索，返回带目标值和下界的结果
+     * @param timeBudgetMillis 局部搜索的时间预算（毫秒），不大于 0 表示直到收敛
+     */
+    public PlacementSolution solveImproved(long timeBudgetMillis) {
+        long startTime = System.currentTimeMillis();
+        CoverageMatrix matrix = buildMatrix();
+        double[] cost = SetCoverModel.rangeWeightedCosts(matrix);
+
+        checkCancelled();
+        LazyGreedySolver.Result greedy = new LazyGreedySolver(matrix).solve(matrix.newPointSet());
+        LocalSearchOptimizer optimizer = new LocalSearchOptimizer(matrix, cost, true);
+        activeCanceller = optimizer::cancel;
+        LocalSearchOptimizer.Result improved;
+        try {
+            // 设置回调之前发出的取消不会通知到局部搜索，这里再检查一次
+            checkCancelled();
+            improved = optimizer.improve(greedy.getCandidates(), timeBudgetMillis);
+        } finally {
+            activeCanceller = null;
+        }
+        System.out.println("贪心解 " + greedy.getCandidates().length + " 个机巢，" + improved);
+        return heuristicSolution(matrix, cost, improved.getCandidates(), startTime);
+    }
+
+    /**
+     * 多起点随机贪心（GRASP）：并行执行多次随机贪心构造和局部搜索，返回成本最低的方案
+     * @param restarts 重启次数
+     * @param seed 随机种子，相同的种子得到相同的结果
+     * @return 选中的机巢和无人机列表
+     */
+    public List<SelectedHangar> findGraspHangars(int restarts, long seed) {
+        return solveGrasp(restarts, seed).getHangars();
+    }
 
-            System.out.println("选定机巢位置: " + bestHangarLocation.getId() +
-                    "，使用无人机型号: " + bestDroneModel.getModelName() +
-                    "，覆盖了 " + maxCoveredCount + " 个新点。" +
-                    "剩余未覆盖点数量: " + uncoveredPoints.size());
+    /**
+     * 多起点随机贪心（GRASP），返回带目标值和下界的结果
+     * @param restarts 重启次数
+     * @param seed 随机种子，相同的种子得到相同的结果
+     */
+    public PlacementSolution solveGrasp(int restarts, long seed) {
+        long startTime = System.currentTimeMillis();
+        CoverageMatrix matrix = buildMatrix();
+        double[] cost = SetCoverModel.rangeWeightedCosts(matrix);
+
+        checkCancelled();
+        GraspSolver solver = new GraspSolver(matrix, cost)
+                .setRestarts(restarts)
+                .setSeed(seed);
+        activeCanceller = solver::cancel;
+        GraspSolver.Result grasp;
+        try {
+            checkCancelled();
+            grasp = solver.solve();
+        } finally {
+            activeCanceller = null;
         }
+        System.out.println(grasp);
+        return heuristicSolution(matrix, cost, grasp.getCandidates(), startTime);
+    }
 
-        return selectedHangars;
+    private CoverageMatrix buildMatrix() {
+        List<InspectionPoint> potentialHangars = allInspectionPoints.stream()
+                .filter(InspectionPoint::canBuildHangar)
+                .collect(Collectors.toList());
+        return CoverageMatrix.build(potentialHangars, allInspectionPoints, availableDroneModels, coverageModel);
+    }
+
+    /**
+     * 启发式解的质量：目标值按 ILP 的成本计算，下界由覆盖比例与互斥难点的机巢数下界换算为成本，
+     * 目标值达到下界时才报告 OPTIMAL
+     */
+    private static PlacementSolution heuristicSolution(CoverageMatrix matrix, double[] cost, int[] candidates,
+                                                       long startTime) {
+        long[] covered = matrix.newPointSet();
+        matrix.markUncoverable(covered);
+        int hangarBound = new MaxLowerBound(new CoverageRatioBound(), new DisjointPointsBound())
+                .estimate(matrix, covered, Integer.MAX_VALUE);
+        double objective = SetCoverModel.costOf(candidates, cost);
+        double lowerBound = Math.min(SetCoverModel.lowerBoundCost(matrix, cost, hangarBound), objective);
+
+        List<SelectedHangar> selectedHangars = new ArrayList<>();
+        for (int candidate : candidates) {
+            selectedHangars.add(matrix.toSelectedHangar(candidate));
+        }
+        boolean optimal = objective - lowerBound <= 1e-9 * Math.max(1, objective);
+        return new PlacementSolution(selectedHangars, objective, lowerBound,
+                optimal ? PlacementSolution.Status.OPTIMAL : PlacementSolution.Status.FEASIBLE,
+                System.currentTimeMillis() - startTime);
     }
 
     /**
@@ -197,128 +259,47 @@ public class HangarPlacementAlgorithm {
             throw new RuntimeException("无法初始化OR-Tools，请确保正确安装", e);
         }
 
-        // 预计算覆盖关系矩阵
-        boolean[][][] canCover = new boolean[allInspectionPoints.size()][allInspectionPoints.size()][availableDroneModels.size()];
-
         // 可建机巢的点列表
         List<InspectionPoint> potentialHangars = allInspectionPoints.stream()
                 .filter(InspectionPoint::canBuildHangar)
                 .collect(Collectors.toList());
 
-        // 为点和无人机建立索引映射
-        Map<InspectionPoint, Integer> pointIndices = new HashMap<>();
-        for (int i = 0; i < allInspectionPoints.size(); i++) {
-            pointIndices.put(allInspectionPoints.get(i), i);
-        }
-
-        Map<InspectionPoint, Integer> hangarIndices = new HashMap<>();
-        for (int i = 0; i < potentialHangars.size(); i++) {
-            hangarIndices.put(potentialHangars.get(i), i);
-        }
-
         // 预计算覆盖关系
-        for (InspectionPoint hangar : potentialHangars) {
-            int hi = hangarIndices.get(hangar);
-            for (int di = 0; di < availableDroneModels.size(); di++) {
-                DroneModel drone = availableDroneModels.get(di);
-                double range = drone.getRangeKm() * 1000; // 转换为米
-
-                for (InspectionPoint point : allInspectionPoints) {
-                    int pi = pointIndices.get(point);
-                    double distance = calculateDistanceMeters(hangar.getCoordinate(), point.getCoordinate());
-                    canCover[hi][pi][di] = distance <= range;
-                }
-            }
-        }
-
-        // 创建ILP求解器
-        MPSolver solver = MPSolver.createSolver("SCIP");
-        if (solver == null) {
-            System.err.println("无法创建SCIP求解器，尝试使用SAT");
-            solver = MPSolver.createSolver("SAT");
-            if (solver == null) {
-                throw new IllegalStateException("无法创建求解器。请确保OR-Tools库正确安装。");
-            }
-        }
-
-        // 决策变量：x[h][d] = 1 表示在位置h建机巢并使用无人机型号d
-        MPVariable[][] x = new MPVariable[potentialHangars.size()][availableDroneModels.size()];
-        for (int hi = 0; hi < potentialHangars.size(); hi++) {
-            for (int di = 0; di < availableDroneModels.size(); di++) {
-                x[hi][di] = solver.makeBoolVar("x_" + hi + "_" + di);
-            }
-        }
+        CoverageMatrix matrix = CoverageMatrix.build(potentialHangars, allInspectionPoints, availableDroneModels, coverageModel);
 
         // 预先识别不可覆盖点
-        Set<Integer> uncoverablePoints = new HashSet<>();
         for (int pi = 0; pi < allInspectionPoints.size(); pi++) {
-            boolean canBeCovered = false;
-            for (int hi = 0; hi < potentialHangars.size() && !canBeCovered; hi++) {
-                for (int di = 0; di < availableDroneModels.size() && !canBeCovered; di++) {
-                    if (canCover[hi][pi][di]) {
-                        canBeCovered = true;
-                    }
-                }
-            }
-            if (!canBeCovered) {
-                uncoverablePoints.add(pi);
+            if (!matrix.isCoverable(pi)) {
                 System.out.println("警告: 点 " + allInspectionPoints.get(pi).getId() + " 无法被任何机巢-无人机组合覆盖");
             }
         }
 
-        // 修改约束1: 只约束可覆盖的点
-        for (int pi = 0; pi < allInspectionPoints.size(); pi++) {
-            if (!uncoverablePoints.contains(pi)) {
-                MPConstraint coverage = solver.makeConstraint(1.0, Double.POSITIVE_INFINITY);
-                for (int hi = 0; hi < potentialHangars.size(); hi++) {
-                    for (int di = 0; di < availableDroneModels.size(); di++) {
-                        if (canCover[hi][pi][di]) {
-                            coverage.setCoefficient(x[hi][di], 1.0);
-                        }
-                    }
-                }
-            }
-        }
-
-        // 目标函数: 最小化机巢数量并优先选择半径小的无人机
-        MPObjective objective = solver.objective();
-        for (int hi = 0; hi < potentialHangars.size(); hi++) {
-            for (int di = 0; di < availableDroneModels.size(); di++) {
-                DroneModel drone = availableDroneModels.get(di);
-                // 基础成本为1，加上与半径相关的额外权重
-                double radiusWeight = drone.getRangeKm() / 10.0; // 调整系数使权重适当
-                objective.setCoefficient(x[hi][di], 1.0 + radiusWeight);
-            }
-        }
-        objective.setMinimization();
+        // 创建ILP求解器，按倒排索引稀疏建模：只约束可覆盖的点，只为覆盖到点的候选建变量
+        MPSolver solver = SetCoverModel.createMipSolver();
+        SetCoverModel model = SetCoverModel.build(solver, matrix, SetCoverModel.rangeWeightedCosts(matrix));
+        System.out.println("ILP模型: " + model.describe());
 
         // 求解
+        long solveStart = System.nanoTime();
         MPSolver.ResultStatus status = solver.solve();
+        System.out.println("ILP求解耗时: " + String.format("%.1f", (System.nanoTime() - solveStart) / 1e6) + "ms");
 
         // 处理结果
         List<SelectedHangar> selectedHangars = new ArrayList<>();
         if (status == MPSolver.ResultStatus.OPTIMAL || status == MPSolver.ResultStatus.FEASIBLE) {
-            System.out.println("目标函数值 (机巢总数): " + objective.value());
+            System.out.println("目标函数值 (加权成本): " + solver.objective().value());
 
             // 提取结果
-            for (int hi = 0; hi < potentialHangars.size(); hi++) {
-                for (int di = 0; di < availableDroneModels.size(); di++) {
-                    if (x[hi][di].solutionValue() > 0.5) { // 解为1时
-                        InspectionPoint hangar = potentialHangars.get(hi);
-                        DroneModel drone = availableDroneModels.get(di);
-                        selectedHangars.add(new SelectedHangar(
-                                hangar.getId(),
-                                drone.getModelName(),
-                                hangar.getCoordinate()
-                        ));
-                        System.out.println("选定机巢位置: " + hangar.getId() +
-                                "，使用无人机型号: " + drone.getModelName());
-                    }
-                }
+            for (int c : model.selectedCandidates()) {
+                SelectedHangar hangar = matrix.toSelectedHangar(c);
+                selectedHangars.add(hangar);
+                System.out.println("选定机巢位置: " + hangar.getHangarLocationId() +
+                        "，使用无人机型号: " + hangar.getDroneModelName());
             }
         } else {
             System.err.println("没有找到可行解");
         }
+        solver.delete();
 
         return selectedHangars;
     }
@@ -1,9 +1,10 @@
 package com.gis.hangar;
+import com.gis.hangar.coverage.CoverageModel;
+import com.gis.hangar.coverage.EuclideanCoverageModel;
 import com.google.ortools.linearsolver.MPConstraint;
 import com.google.ortools.linearsolver.MPObjective;
 import com.google.ortools.linearsolver.MPSolver;
 import com.google.ortools.linearsolver.MPVariable;
-import org.locationtech.jts.geom.Coordinate;
 
 import java.util.*;
 import java.util.stream.Collectors;
@@ -14,8 +15,13 @@ import java.util.stream.Collectors;
  */
 public class HangarPlacementAlgorithm2 {
 
+    // 贪心回退解的局部搜索时间预算（毫秒）
+    private static final long LOCAL_SEARCH_BUDGET_MS = 1000;
+
     private final List<InspectionPoint> allInspectionPoints;
     private final List<DroneModel> availableDroneModels;
+    // 覆盖判定模型，默认只按平面距离
+    private CoverageModel coverageModel = EuclideanCoverageModel.INSTANCE;
     private final boolean enableLogging;
 
     public HangarPlacementAlgorithm2(List<InspectionPoint> inspectionPoints, List<DroneModel> droneModels) {
@@ -29,15 +35,12 @@ public class HangarPlacementAlgorithm2 {
     }
 
     /**
-     * 计算两点间的欧几里得距离（米）
-     * 在墨卡托坐标系中可直接计算欧几里得距离
+     * 设置覆盖判定模型（如基于 DEM 的视线模型）
      */
-    private double calculateDistanceMeters(Coordinate c1, Coordinate c2) {
-        double dx = c1.x - c2.x;
-        double dy = c1.y - c2.y;
-        return Math.sqrt(dx * dx + dy * dy); // 单位是米
+    public void setCoverageModel(CoverageModel coverageModel) {
+        this.coverageModel = Objects.requireNonNull(coverageModel);
     }
-    
+
     /**
      * 日志记录方法
      */
@@ -89,48 +92,12 @@ public class HangarPlacementAlgorithm2 {
         }
 
         // 预计算覆盖关系矩阵
-        boolean[][][] canCover = new boolean[potentialHangars.size()][pointsRequiringCoverage.size()][availableDroneModels.size()];
-
-        // 为点和无人机建立索引映射
-        Map<InspectionPoint, Integer> pointIndices = new HashMap<>();
-        for (int i = 0; i < pointsRequiringCoverage.size(); i++) {
-            pointIndices.put(pointsRequiringCoverage.get(i), i);
-        }
+        CoverageMatrix matrix = CoverageMatrix.build(potentialHangars, pointsRequiringCoverage, availableDroneModels, coverageModel);
 
-        Map<InspectionPoint, Integer> hangarSiteIndices = new HashMap<>();
-        for (int i = 0; i < potentialHangars.size(); i++) {
-            hangarSiteIndices.put(potentialHangars.get(i), i);
-        }
-        
-        // 预计算覆盖关系和检查每个点可以被覆盖的可能性
-        Set<Integer> uncoverablePoints = new HashSet<>();
-        
-        for (int hi = 0; hi < potentialHangars.size(); hi++) {
-            InspectionPoint hangarSite = potentialHangars.get(hi);
-            for (int di = 0; di < availableDroneModels.size(); di++) {
-                DroneModel drone = availableDroneModels.get(di);
-                double range = drone.getRangeKm() * 1000; // 转换为米
-
-                for (int pi = 0; pi < pointsRequiringCoverage.size(); pi++) {
-                    InspectionPoint pointToCover = pointsRequiringCoverage.get(pi);
-                    double distance = calculateDistanceMeters(hangarSite.getCoordinate(), pointToCover.getCoordinate());
-                    canCover[hi][pi][di] = distance <= range;
-                }
-            }
-        }
-        
         // 检查哪些点不可覆盖
+        Set<Integer> uncoverablePoints = new HashSet<>();
         for (int pi = 0; pi < pointsRequiringCoverage.size(); pi++) {
-            boolean canBeCovered = false;
-            for (int hi = 0; hi < potentialHangars.size() && !canBeCovered; hi++) {
-                for (int di = 0; di < availableDroneModels.size() && !canBeCovered; di++) {
-                    if (canCover[hi][pi][di]) {
-                        canBeCovered = true;
-                    }
-                }
-            }
-            
-            if (!canBeCovered) {
+            if (!matrix.isCoverable(pi)) {
                 uncoverablePoints.add(pi);
                 log("警告: 点 " + pointsRequiringCoverage.get(pi).getId() + " 无法被任何机巢-无人机组合覆盖");
             }
@@ -139,7 +106,7 @@ public class HangarPlacementAlgorithm2 {
         log("不可覆盖点数: " + uncoverablePoints.size() + " / " + pointsRequiringCoverage.size());
         
         // 首先尝试完全覆盖
-        List<SelectedHangar> completeResult = tryCompleteILPSolution(potentialHangars, pointsRequiringCoverage, canCover, pointIndices);
+        List<SelectedHangar> completeResult = tryCompleteILPSolution(potentialHangars, pointsRequiringCoverage, matrix);
         
         if (!completeResult.isEmpty()) {
             log("找到完全覆盖解决方案！");
@@ -149,7 +116,7 @@ public class HangarPlacementAlgorithm2 {
         log("无法找到完全覆盖解决方案，尝试部分覆盖...");
         
         // 如果完全覆盖不可能，尝试部分覆盖
-        List<SelectedHangar> partialResult = tryPartialILPSolution(potentialHangars, pointsRequiringCoverage, canCover, pointIndices, uncoverablePoints);
+        List<SelectedHangar> partialResult = tryPartialILPSolution(potentialHangars, pointsRequiringCoverage, matrix, uncoverablePoints);
         
         if (!partialResult.isEmpty()) {
             log("找到部分覆盖解决方案！");
@@ -167,8 +134,7 @@ public class HangarPlacementAlgorithm2 {
     private List<SelectedHangar> tryCompleteILPSolution(
             List<InspectionPoint> potentialHangars, 
             List<InspectionPoint> pointsRequiringCoverage, 
-            boolean[][][] canCover,
-            Map<InspectionPoint, Integer> pointIndices) {
+            CoverageMatrix matrix) {
             
         // 创建ILP求解器
         MPSolver solver = MPSolver.createSolver("SCIP");
@@ -198,7 +164,7 @@ public class HangarPlacementAlgorithm2 {
             
             for (int hi = 0; hi < potentialHangars.size(); hi++) {
                 for (int di = 0; di < availableDroneModels.size(); di++) {
-                    if (canCover[hi][pi][di]) {
+                    if (matrix.canCover(hi, pi, di)) {
                         coverageConstraint.setCoefficient(x[hi][di], 1.0);
                         canBeCovered = true;
                     }
@@ -256,8 +222,7 @@ public class HangarPlacementAlgorithm2 {
     private List<SelectedHangar> tryPartialILPSolution(
             List<InspectionPoint> potentialHangars, 
             List<InspectionPoint> pointsRequiringCoverage, 
-            boolean[][][] canCover,
-            Map<InspectionPoint, Integer> pointIndices,
+            CoverageMatrix matrix,
             Set<Integer> uncoverablePoints) {
             
         // 创建ILP求解器
@@ -298,7 +263,7 @@ public class HangarPlacementAlgorithm2 {
             
             for (int hi = 0; hi < potentialHangars.size(); hi++) {
                 for (int di = 0; di < availableDroneModels.size(); di++) {
-                    if (canCover[hi][pi][di]) {
+                    if (matrix.canCover(hi, pi, di)) {
                         linkConstraint.setCoefficient(x[hi][di], 1);
                     }
                 }
@@ -384,7 +349,7 @@ public class HangarPlacementAlgorithm2 {
         List<SelectedHangar> selectedHangars = new ArrayList<>();
         
         // 考虑所有巡检点，不仅仅是canBuildHangar=true的点
-        Set<InspectionPoint> pointsRequiringCoverage = new HashSet<>(allInspectionPoints);
+        List<InspectionPoint> pointsRequiringCoverage = new ArrayList<>(allInspectionPoints);
 
         if (pointsRequiringCoverage.isEmpty()) {
             log("贪心算法: 没有需要覆盖的巡检点。");
@@ -400,65 +365,44 @@ public class HangarPlacementAlgorithm2 {
             return selectedHangars; // 无法放置任何机巢
         }
 
-        // 已选用的机巢位置，避免重复选择同一位置
-        Set<String> usedHangarSiteIds = new HashSet<>();
+        // 预计算覆盖关系
+        CoverageMatrix matrix = CoverageMatrix.build(potentialHangarSites, pointsRequiringCoverage, this.availableDroneModels, coverageModel);
+        long[] covered = matrix.newPointSet();
+        int uncoveredCount = pointsRequiringCoverage.size();
 
-        while (!pointsRequiringCoverage.isEmpty()) {
-            InspectionPoint bestHangarSite = null;
-            DroneModel bestDroneModel = null;
-            Set<InspectionPoint> bestCoverageSet = new HashSet<>();
-            int maxCoveredCount = 0;
-
-            for (InspectionPoint hangarSite : potentialHangarSites) {
-                if (usedHangarSiteIds.contains(hangarSite.getId())) {
-                    continue; // 跳过已用地点
-                }
+        // 已选用的机巢位置不再重复选择
+        LazyGreedySolver.Result greedy = new LazyGreedySolver(matrix, false).solve(covered);
+        for (int i = 0; i < greedy.getCandidates().length; i++) {
+            SelectedHangar chosen = matrix.toSelectedHangar(greedy.getCandidates()[i]);
+            uncoveredCount -= greedy.getGains()[i];
 
-                for (DroneModel drone : this.availableDroneModels) {
-                    Set<InspectionPoint> currentCoverageSet = new HashSet<>();
-                    double rangeMeters = drone.getRangeKm() * 1000;
-
-                    for (InspectionPoint pointToCover : pointsRequiringCoverage) {
-                        if (calculateDistanceMeters(hangarSite.getCoordinate(), pointToCover.getCoordinate()) <= rangeMeters) {
-                            currentCoverageSet.add(pointToCover);
-                        }
-                    }
+            log("贪心算法选定机巢: " + chosen.getHangarLocationId() +
+                    " 使用无人机: " + chosen.getDroneModelName() +
+                    ", 覆盖了 " + greedy.getGains()[i] + " 个点。剩余未覆盖点: " + uncoveredCount);
+        }
 
-                    if (currentCoverageSet.size() > maxCoveredCount) {
-                        maxCoveredCount = currentCoverageSet.size();
-                        bestHangarSite = hangarSite;
-                        bestDroneModel = drone;
-                        bestCoverageSet = currentCoverageSet;
-                    }
-                }
-            }
+        // 局部搜索改进贪心解，保持已覆盖的点仍被覆盖
+        LocalSearchOptimizer.Result improved = new LocalSearchOptimizer(matrix, SetCoverModel.rangeWeightedCosts(matrix), false)
+                .improve(greedy.getCandidates(), LOCAL_SEARCH_BUDGET_MS);
+        log("贪心算法" + improved);
+        for (int candidate : improved.getCandidates()) {
+            selectedHangars.add(matrix.toSelectedHangar(candidate));
+        }
 
-            if (maxCoveredCount > 0 && bestHangarSite != null && bestDroneModel != null) {
-                SelectedHangar chosen = new SelectedHangar(
-                        bestHangarSite.getId(),
-                        bestDroneModel.getModelName(),
-                        bestHangarSite.getCoordinate()
-                );
-                selectedHangars.add(chosen);
-                pointsRequiringCoverage.removeAll(bestCoverageSet);
-                usedHangarSiteIds.add(bestHangarSite.getId()); // 标记此机巢点已使用
-
-                log("贪心算法选定机巢: " + chosen.getHangarLocationId() +
-                        " 使用无人机: " + chosen.getDroneModelName() +
-                        ", 覆盖了 " + maxCoveredCount + " 个点。剩余未覆盖点: " + pointsRequiringCoverage.size());
-            } else {
-                // 没有机巢可以覆盖任何剩余的强制巡检点
-                if (!pointsRequiringCoverage.isEmpty()) {
-                    log("贪心算法: 无法覆盖所有巡检点。剩余未覆盖: " +
-                            pointsRequiringCoverage.stream().map(InspectionPoint::getId).collect(Collectors.toList()));
+        if (uncoveredCount > 0) {
+            // 没有机巢可以覆盖任何剩余的强制巡检点
+            List<String> uncoveredIds = new ArrayList<>();
+            for (int pi = 0; pi < pointsRequiringCoverage.size(); pi++) {
+                if (!CoverageMatrix.get(covered, pi)) {
+                    uncoveredIds.add(pointsRequiringCoverage.get(pi).getId());
                 }
-                break; // 退出循环
             }
+            log("贪心算法: 无法覆盖所有巡检点。剩余未覆盖: " + uncoveredIds);
         }
         
         // 计算覆盖率
         int totalPoints = allInspectionPoints.size();
-        int coveredPoints = totalPoints - pointsRequiringCoverage.size();
+        int coveredPoints = totalPoints - uncoveredCount;
         log("贪心算法覆盖率: " + coveredPoints + "/" + totalPoints + " (" + 
             String.format("%.2f%%", (double)coveredPoints/totalPoints*100) + ")");
             
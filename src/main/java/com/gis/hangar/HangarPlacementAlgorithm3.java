@@ -1,23 +1,67 @@
 package com.gis.hangar;
-import org.locationtech.jts.geom.Coordinate;
+
+import com.gis.hangar.bound.CoverageRatioBound;
+import com.gis.hangar.bound.DisjointPointsBound;
+import com.gis.hangar.bound.LowerBound;
+import com.gis.hangar.bound.LpRelaxationBound;
+import com.gis.hangar.bound.MaxLowerBound;
+import com.gis.hangar.coverage.CoverageModel;
+import com.gis.hangar.coverage.EuclideanCoverageModel;
 
 import java.util.*;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 /**
  * 机巢布置算法 - 使用增强的分支定界法实现集合覆盖问题
  * 基于墨卡托坐标系统 (EPSG:3857)
+ * 搜索树的前几层拆分为 Fork/Join 任务并行搜索，各线程通过原子引用共享当前最优解（上界）
+ * 下界策略可替换：根节点默认使用 LP 松弛下界，搜索节点默认使用覆盖比例与互斥难点下界的最大值；
+ * 被其他候选支配的 (机巢, 无人机) 组合不参与分支。
  */
 public class HangarPlacementAlgorithm3 {
 
     private final List<InspectionPoint> allInspectionPoints;
     private final List<DroneModel> availableDroneModels;
+    // 覆盖判定模型，默认只按平面距离
+    private CoverageModel coverageModel = EuclideanCoverageModel.INSTANCE;
     private final boolean enableLogging;
+    // 并行线程数
+    private final int parallelism;
+    // 搜索树前 splitDepth 层拆分为并行任务，更深的层在任务内顺序搜索
+    private final int splitDepth;
+    // 置换表（记忆化表）容量
+    private final int memoCapacity;
+    // 置换表命中时是否逐位校验完整覆盖状态
+    private final boolean verifyMemo;
 
     // 性能监控变量
-    private int nodesExplored = 0;
-    private int nodesPruned = 0;
+    private final LongAdder nodesExplored = new LongAdder();
+    private final LongAdder nodesPruned = new LongAdder();
     private long startTime;
+    // 进度监听器（找到更优解时通知），可以为 null
+    private Consumer<PlanningProgress> progressListener;
+    // 是否已请求取消，搜索节点中检查
+    private volatile boolean cancelled;
+    // 搜索截止时间（毫秒时间戳），Long.MAX_VALUE 表示不限时；到达后停止搜索，返回当前最优解
+    private volatile long deadline = Long.MAX_VALUE;
+    private volatile boolean timedOut;
+    // 最近一次求解证明的机巢数下界：搜索完成时等于最优解的机巢数，超时时为根节点下界
+    private int provenLowerBound;
+    // 最近一次求解的覆盖关系和最优解（候选编号），用于换算成本
+    private CoverageMatrix lastMatrix;
+    private int[] lastSolution = new int[0];
+
+    // 下界策略
+    private LowerBound nodeBound = new MaxLowerBound(new CoverageRatioBound(), new DisjointPointsBound());
+    private LowerBound rootBound;
+    private TranspositionTable lastMemo;
     
     // 添加跟踪未覆盖点的变量
     private Set<Integer> uncoverablePoints;
@@ -27,19 +71,61 @@ public class HangarPlacementAlgorithm3 {
     }
 
     public HangarPlacementAlgorithm3(List<InspectionPoint> inspectionPoints, List<DroneModel> droneModels, boolean enableLogging) {
+        this(inspectionPoints, droneModels, enableLogging, Runtime.getRuntime().availableProcessors(), 3, 1_000_000);
+    }
+
+    public HangarPlacementAlgorithm3(List<InspectionPoint> inspectionPoints, List<DroneModel> droneModels, boolean enableLogging,
+                                     int parallelism, int splitDepth, int memoCapacity) {
+        this(inspectionPoints, droneModels, enableLogging, parallelism, splitDepth, memoCapacity, false);
+    }
+
+    /**
+     * @param parallelism 并行线程数，1 表示单线程搜索
+     * @param splitDepth 拆分为并行任务的搜索树层数
+     * @param memoCapacity 置换表容量（固定大小，满后按替换策略覆盖旧条目）
+     * @param verifyMemo 置换表命中时是否校验完整覆盖位图，排除哈希冲突
+     */
+    public HangarPlacementAlgorithm3(List<InspectionPoint> inspectionPoints, List<DroneModel> droneModels, boolean enableLogging,
+                                     int parallelism, int splitDepth, int memoCapacity, boolean verifyMemo) {
         this.allInspectionPoints = new ArrayList<>(inspectionPoints);
         this.availableDroneModels = new ArrayList<>(droneModels);
         this.enableLogging = enableLogging;
+        this.parallelism = Math.max(1, parallelism);
+        this.splitDepth = parallelism > 1 ? Math.max(0, splitDepth) : 0;
+        this.memoCapacity = memoCapacity;
+        this.verifyMemo = verifyMemo;
         this.uncoverablePoints = new HashSet<>();
     }
 
     /**
-     * 计算两点间的欧几里得距离（米）
+     * 设置覆盖判定模型（如基于 DEM 的视线模型）
+     */
+    public void setCoverageModel(CoverageModel coverageModel) {
+        this.coverageModel = Objects.requireNonNull(coverageModel);
+    }
+
+    /**
+     * 限时求解：到达时间限制时停止搜索，返回当前最优解
+     * 目标值与 ILP 使用同一成本（SetCoverModel.rangeWeightedCosts，1 + 半径/10）。
+     * 分支定界最小化的是机巢数，成本下界为证明的机巢数下界 × 最小候选成本，
+     * 只有搜索完成且目标值达到该下界时（例如只有一种型号）才报告 OPTIMAL。
+     *
+     * @param timeLimitMillis 时间限制（毫秒），不大于 0 表示不限时
+     * @return 布置方案、目标值、下界和间隙
      */
-    private double calculateDistanceMeters(Coordinate c1, Coordinate c2) {
-        double dx = c1.x - c2.x;
-        double dy = c1.y - c2.y;
-        return Math.sqrt(dx * dx + dy * dy); // 单位是米
+    public PlacementSolution solve(long timeLimitMillis) {
+        long start = System.currentTimeMillis();
+        List<SelectedHangar> hangars = findOptimalHangars(timeLimitMillis);
+        long duration = System.currentTimeMillis() - start;
+        if (lastMatrix == null) {
+            return new PlacementSolution(hangars, 0, 0, PlacementSolution.Status.OPTIMAL, duration);
+        }
+        double[] cost = SetCoverModel.rangeWeightedCosts(lastMatrix);
+        double objective = SetCoverModel.costOf(lastSolution, cost);
+        double lowerBound = Math.min(SetCoverModel.lowerBoundCost(lastMatrix, cost, provenLowerBound), objective);
+        boolean optimal = !timedOut && objective - lowerBound <= 1e-9 * Math.max(1, objective);
+        return new PlacementSolution(hangars, objective, lowerBound,
+                optimal ? PlacementSolution.Status.OPTIMAL : PlacementSolution.Status.FEASIBLE, duration);
     }
 
     /**
@@ -47,14 +133,28 @@ public class HangarPlacementAlgorithm3 {
      * @return 选中的机巢和无人机列表
      */
     public List<SelectedHangar> findOptimalHangars() {
+        return findOptimalHangars(0);
+    }
+
+    /**
+     * 使用增强的分支定界法找到机巢数最少的布置方案
+     * 所有巡检点（包括不可建机巢的点）都需要覆盖，无法被任何候选覆盖的点除外。
+     *
+     * @param timeLimitMillis 时间限制（毫秒），不大于 0 表示不限时；超时时返回当前最优解
+     * @return 选中的机巢和无人机列表
+     */
+    public List<SelectedHangar> findOptimalHangars(long timeLimitMillis) {
         log("开始执行增强分支定界算法...");
         startTime = System.currentTimeMillis();
+        deadline = timeLimitMillis > 0 ? startTime + timeLimitMillis : Long.MAX_VALUE;
+        timedOut = false;
+        provenLowerBound = 0;
+        lastMatrix = null;
+        lastSolution = new int[0];
         uncoverablePoints = new HashSet<>(); // 重置不可覆盖点集合
 
-        // 只考虑必须覆盖的点（canBuildHangar为true的点）
-        List<InspectionPoint> pointsRequiringCoverage = allInspectionPoints.stream()
-                .filter(InspectionPoint::canBuildHangar)
-                .collect(Collectors.toList());
+        // 所有巡检点都需要覆盖，不可建机巢的点只是不能作为机巢位置
+        List<InspectionPoint> pointsRequiringCoverage = allInspectionPoints;
 
         // 如果没有需要覆盖的点，直接返回空列表
         if (pointsRequiringCoverage.isEmpty()) {
@@ -75,61 +175,82 @@ public class HangarPlacementAlgorithm3 {
         log("需要覆盖的巡检点数量: " + pointsRequiringCoverage.size());
         log("可用于建造机巢的位置数量: " + potentialHangars.size());
 
-        // 预计算覆盖关系矩阵 [机巢位置][巡检点][无人机型号]
-        boolean[][][] canCover = precomputeCoverageMatrix(potentialHangars, pointsRequiringCoverage);
-        
+        // 预计算覆盖关系位图 [机巢位置×无人机型号] -> 巡检点集合
+        CoverageMatrix matrix = CoverageMatrix.build(potentialHangars, pointsRequiringCoverage, availableDroneModels, coverageModel);
+        lastMatrix = matrix;
+
         // 预先标记不可覆盖点
-        identifyUncoverablePoints(canCover, pointsRequiringCoverage);
+        identifyUncoverablePoints(matrix);
 
         // 使用贪心算法获取初始上界
-        List<SelectedHangar> greedySolution = findGreedyHangars(potentialHangars, pointsRequiringCoverage);
-        int initialUpperBound = greedySolution.size();
+        int[] greedySolution = findGreedyHangars(matrix);
+        int initialUpperBound = greedySolution.length;
         log("贪心算法初始上界: " + initialUpperBound + " 个机巢");
+        reportProgress("greedy", "贪心算法初始上界", (double) initialUpperBound, null);
 
         // 如果贪心算法找到了解，但最终结果为空，直接返回贪心结果
         if (initialUpperBound > 0) {
             log("使用贪心算法结果作为备选方案");
         }
 
-        // 准备分支定界相关数据结构
-        List<int[]> bestSolution = new ArrayList<>();
-        int[] bestCost = {initialUpperBound}; // 使用贪心解作为初始上界
-        boolean[] covered = new boolean[pointsRequiringCoverage.size()];
+        // 删除被支配的候选
+        boolean[] dominated = DominanceFilter.findDominated(matrix);
+        log("被支配的机巢-无人机组合: " + DominanceFilter.count(dominated) + "/" + matrix.getCandidateCount());
+
+        // 准备分支定界相关数据结构，使用贪心解作为初始上界
+        nodesExplored.reset();
+        nodesPruned.reset();
+        long[] covered = matrix.newPointSet();
         
         // 将不可覆盖点标记为已覆盖，这样算法不会尝试去覆盖它们
         for (Integer pointIndex : uncoverablePoints) {
-            covered[pointIndex] = true;
+            CoverageMatrix.set(covered, pointIndex);
         }
-        
-        // 跟踪当前最大覆盖点数
-        int[] maxPointsCovered = {0};
-        int[] currentPointsCovered = {0};
+
+        // 根节点下界：与贪心上界相等时贪心解即为最优解，无需搜索
+        int rootLowerBound = computeRootBound(matrix, covered, dominated, initialUpperBound);
+        log("根节点下界: " + rootLowerBound);
+        reportProgress("bound", "根节点下界", (double) initialUpperBound, (double) rootLowerBound);
+        SearchState state = new SearchState(matrix, initialUpperBound, dominated, rootLowerBound);
 
         // 开始分支定界
-        branchAndBound(
-                potentialHangars, pointsRequiringCoverage, canCover,
-                new ArrayList<>(), covered, 0, bestSolution, bestCost,
-                new HashMap<>(), // 记忆化搜索表
-                maxPointsCovered, currentPointsCovered
-        );
-
-        // 构建最终结果
+        if (cancelled) {
+            throw new CancellationException("分支定界已取消");
+        }
+        if (rootLowerBound < initialUpperBound) {
+            ForkJoinPool pool = new ForkJoinPool(parallelism);
+            try {
+                pool.invoke(new BranchTask(state, covered, state.memo.hashOf(covered), new int[0]));
+            } finally {
+                pool.shutdown();
+            }
+        } else {
+            log("贪心解已达到下界，即为最优解");
+        }
+
+        // 搜索完成时最优解的机巢数即为下界；超时时只有根节点下界
+        provenLowerBound = timedOut ? rootLowerBound : state.bestCost();
+        if (timedOut) {
+            log("到达时间限制，返回当前最优解");
+        }
+
+        // 构建最终结果，分支定界没有找到更优解时使用贪心解
         List<SelectedHangar> result = new ArrayList<>();
-        for (int[] choice : bestSolution) {
-            int hi = choice[0];
-            int di = choice[1];
-            InspectionPoint hangarLocation = potentialHangars.get(hi);
-            DroneModel droneModel = availableDroneModels.get(di);
-            result.add(new SelectedHangar(
-                    hangarLocation.getId(),
-                    droneModel.getModelName(),
-                    hangarLocation.getCoordinate()
-            ));
-            log("选定机巢位置: " + hangarLocation.getId() + "，使用无人机型号: " + droneModel.getModelName());
+        int[] bestSolution = state.incumbent.get().solution;
+        if (bestSolution == null) {
+            bestSolution = greedySolution;
+        }
+        lastSolution = bestSolution;
+        for (int candidate : bestSolution) {
+            SelectedHangar hangar = matrix.toSelectedHangar(candidate);
+            result.add(hangar);
+            log("选定机巢位置: " + hangar.getHangarLocationId() + "，使用无人机型号: " + hangar.getDroneModelName());
         }
 
         long duration = System.currentTimeMillis() - startTime;
         log("分支定界算法完成。探索节点数: " + nodesExplored + ", 剪枝节点数: " + nodesPruned);
+        log("置换表: 命中 " + state.memo.getHits() + ", 未命中 " + state.memo.getMisses()
+                + ", 淘汰 " + state.memo.getEvictions() + ", 冲突 " + state.memo.getCollisions());
         log("算法执行时间: " + duration + "ms，找到最优解: " + result.size() + " 个机巢");
         
         // 报告覆盖情况
@@ -145,228 +266,153 @@ public class HangarPlacementAlgorithm3 {
             log("警告: 无法覆盖的巡检点: " + uncoverableIds);
         }
 
-        // 如果分支定界没有找到解但贪心找到了，则返回贪心结果
-        if (result.isEmpty() && !greedySolution.isEmpty()) {
-            log("分支定界未找到解，返回贪心算法结果");
-            return greedySolution;
-        }
-
         return result;
     }
     
     /**
-     * 预先识别无法被任何机巢-无人机组合覆盖的点
+     * 计算根节点下界，LP 求解失败时退回到节点下界
      */
-    private void identifyUncoverablePoints(boolean[][][] canCover, List<InspectionPoint> pointsRequiringCoverage) {
-        for (int pi = 0; pi < pointsRequiringCoverage.size(); pi++) {
-            boolean canBeCovered = false;
-            for (int hi = 0; hi < canCover.length && !canBeCovered; hi++) {
-                for (int di = 0; di < canCover[0][0].length && !canBeCovered; di++) {
-                    if (canCover[hi][pi][di]) {
-                        canBeCovered = true;
-                    }
-                }
-            }
-            
-            if (!canBeCovered) {
-                uncoverablePoints.add(pi);
-                log("警告: 点 " + pointsRequiringCoverage.get(pi).getId() + " 无法被任何机巢-无人机组合覆盖");
-            }
+    private int computeRootBound(CoverageMatrix matrix, long[] covered, boolean[] dominated, int upperBound) {
+        LowerBound bound = rootBound != null ? rootBound : new LpRelaxationBound(dominated);
+        int lower = 0;
+        try {
+            lower = bound.estimate(matrix, covered, upperBound);
+        } catch (RuntimeException | UnsatisfiedLinkError e) {
+            log("根节点下界 " + bound.name() + " 计算失败: " + e.getMessage());
         }
+        return Math.max(lower, nodeBound.estimate(matrix, covered, upperBound));
     }
 
     /**
-     * 预计算覆盖关系矩阵
+     * 预先识别无法被任何机巢-无人机组合覆盖的点
      */
-    private boolean[][][] precomputeCoverageMatrix(List<InspectionPoint> potentialHangars,
-                                                   List<InspectionPoint> pointsRequiringCoverage) {
-        boolean[][][] canCover = new boolean[potentialHangars.size()][pointsRequiringCoverage.size()][availableDroneModels.size()];
-
-        for (int hi = 0; hi < potentialHangars.size(); hi++) {
-            InspectionPoint hangar = potentialHangars.get(hi);
-            for (int di = 0; di < availableDroneModels.size(); di++) {
-                DroneModel drone = availableDroneModels.get(di);
-                double rangeMeters = drone.getRangeKm() * 1000; // 转换为米
-
-                for (int pi = 0; pi < pointsRequiringCoverage.size(); pi++) {
-                    InspectionPoint point = pointsRequiringCoverage.get(pi);
-                    double distance = calculateDistanceMeters(hangar.getCoordinate(), point.getCoordinate());
-                    canCover[hi][pi][di] = distance <= rangeMeters;
-                }
+    private void identifyUncoverablePoints(CoverageMatrix matrix) {
+        for (int pi = 0; pi < matrix.getPointCount(); pi++) {
+            if (!matrix.isCoverable(pi)) {
+                uncoverablePoints.add(pi);
+                log("警告: 点 " + matrix.getPoint(pi).getId() + " 无法被任何机巢-无人机组合覆盖");
             }
         }
-
-        return canCover;
     }
 
     /**
      * 递归的分支定界核心函数，加强版
+     * covered 为巡检点覆盖位图，hash 为其 Zobrist 哈希（随覆盖/回溯增量更新），path 为当前已选候选编号。
+     * 前 splitDepth 层为每个分支复制状态并拆分为并行任务，之后在当前线程内通过增量位图回溯。
+     *
+     * @return 该子树中找到的最小机巢数，未找到更优解时返回 Integer.MAX_VALUE
      */
-    private void branchAndBound(
-            List<InspectionPoint> potentialHangars,
-            List<InspectionPoint> pointsRequiringCoverage,
-            boolean[][][] canCover,
-            List<int[]> currentSolution,
-            boolean[] covered,
-            int depth,
-            List<int[]> bestSolution,
-            int[] bestCost,
-            Map<String, Integer> memo,
-            int[] maxPointsCovered,
-            int[] currentPointsCovered) {
-
-        nodesExplored++;
-        
-        // 计算当前已覆盖的点数
-        int coveredCount = 0;
-        for (int i = 0; i < covered.length; i++) {
-            if (covered[i] && !uncoverablePoints.contains(i)) {
-                coveredCount++;
-            }
+    private int branchAndBound(SearchState state, long[] covered, long hash, int[] path, int depth) {
+        CoverageMatrix matrix = state.matrix;
+        nodesExplored.increment();
+        if (cancelled) {
+            throw new CancellationException("分支定界已取消");
         }
-        currentPointsCovered[0] = coveredCount;
-
-        // 检查是否所有可覆盖点都已覆盖
-        boolean allCoverable = true;
-        for (int i = 0; i < covered.length; i++) {
-            if (!covered[i] && !uncoverablePoints.contains(i)) {
-                allCoverable = false;
-                break;
-            }
+        if (deadline != Long.MAX_VALUE && System.currentTimeMillis() > deadline) {
+            timedOut = true;
+            nodesPruned.increment();
+            return Integer.MAX_VALUE;
         }
 
-        // 找到一个有效解
-        if (allCoverable) {
-            // 如果当前解覆盖的点数更多或相同但机巢数更少，则更新最佳解
-            if ((currentPointsCovered[0] > maxPointsCovered[0]) || 
-                (currentPointsCovered[0] == maxPointsCovered[0] && currentSolution.size() < bestCost[0])) {
-                maxPointsCovered[0] = currentPointsCovered[0];
-                bestCost[0] = currentSolution.size();
-                bestSolution.clear();
-                bestSolution.addAll(currentSolution);
-                log("找到更优解，覆盖点数: " + maxPointsCovered[0] + "，机巢数: " + bestCost[0]);
-            }
-            return;
+        // 检查是否所有可覆盖点都已覆盖（不可覆盖点已预先标记为已覆盖），找到一个有效解
+        if (matrix.firstUncovered(covered) == -1) {
+            return state.offer(path, depth) ? depth : Integer.MAX_VALUE;
         }
 
-        // 剪枝1: 当前解的大小已经超过或等于最优解，则放弃
-        if (currentSolution.size() >= bestCost[0]) {
-            nodesPruned++;
-            return;
+        // 剪枝1: 当前解的大小已经超过或等于最优解，或最优解已达到根节点下界，则放弃
+        if (depth >= state.bestCost() || state.bestCost() <= state.rootLowerBound) {
+            nodesPruned.increment();
+            return Integer.MAX_VALUE;
         }
 
         // 剪枝2: 通过记忆化搜索避免重复状态
-        String stateKey = getStateKey(covered);
-        if (memo.containsKey(stateKey) && memo.get(stateKey) <= currentSolution.size()) {
-            nodesPruned++;
-            return;
-        }
-        memo.put(stateKey, currentSolution.size());
-
-        // 剪枝3: 乐观估计 - 如果当前未覆盖的点数除以单个机巢-无人机能覆盖的最大点数
-        // 加上当前机巢数已经大于等于已知的最优解，则剪枝
-        int uncoveredCount = 0;
-        for (int i = 0; i < covered.length; i++) {
-            if (!covered[i] && !uncoverablePoints.contains(i)) uncoveredCount++;
-        }
-
-        int maxPointsCoveredByOne = getMaxPointsCoveredByOne(potentialHangars, pointsRequiringCoverage, canCover, covered);
-        if (maxPointsCoveredByOne > 0) {
-            int optimisticEstimate = currentSolution.size() + (int)Math.ceil((double)uncoveredCount / maxPointsCoveredByOne);
-            if (optimisticEstimate >= bestCost[0]) {
-                nodesPruned++;
-                return;
-            }
+        if (state.memo.probeAndStore(hash, covered, depth)) {
+            nodesPruned.increment();
+            return Integer.MAX_VALUE;
+        }
+
+        // 剪枝3: 乐观估计 - 当前机巢数加上剩余点至少还需要的机巢数已经大于等于已知的最优解，则剪枝
+        int budget = state.bestCost() - depth;
+        if (nodeBound.estimate(matrix, covered, budget) >= budget) {
+            nodesPruned.increment();
+            return Integer.MAX_VALUE;
         }
 
         // 选择最难覆盖的点（被最少机巢-无人机组合覆盖的点）
-        int hardestPoint = selectHardestPoint(potentialHangars, pointsRequiringCoverage, canCover, covered);
+        int hardestPoint = selectHardestPoint(matrix, covered);
         if (hardestPoint == -1) {
             // 剩余的点都无法覆盖，此分支已达到最大覆盖
-            // 检查当前解是否比最优解更好
-            if ((currentPointsCovered[0] > maxPointsCovered[0]) || 
-                (currentPointsCovered[0] == maxPointsCovered[0] && currentSolution.size() < bestCost[0])) {
-                maxPointsCovered[0] = currentPointsCovered[0];
-                bestCost[0] = currentSolution.size();
-                bestSolution.clear();
-                bestSolution.addAll(currentSolution);
-                log("找到部分覆盖解，覆盖点数: " + maxPointsCovered[0] + "，机巢数: " + bestCost[0]);
-            }
-            return;
+            return state.offer(path, depth) ? depth : Integer.MAX_VALUE;
         }
 
         // 获取并排序所有可以覆盖这个难点的机巢-无人机组合
-        List<int[]> candidates = getCandidatesForPoint(
-                potentialHangars, pointsRequiringCoverage, canCover, covered, hardestPoint);
+        List<int[]> candidates = getCandidatesForPoint(matrix, hardestPoint, state.dominated);
 
-        // 按照每个组合能覆盖的未覆盖点数量降序排序
-        candidates.sort((a, b) -> {
-            int coveredByA = countAdditionalCoverage(potentialHangars, pointsRequiringCoverage, canCover, covered, a[0], a[1]);
-            int coveredByB = countAdditionalCoverage(potentialHangars, pointsRequiringCoverage, canCover, covered, b[0], b[1]);
-            return Integer.compare(coveredByB, coveredByA); // 降序
-        });
+        // 按照每个组合能覆盖的未覆盖点数量降序排序（先计算一次，避免比较时重复统计）
+        for (int[] candidate : candidates) {
+            candidate[2] = countAdditionalCoverage(matrix, covered, candidate[0], candidate[1]);
+        }
+        candidates.sort((a, b) -> Integer.compare(b[2], a[2])); // 降序
+
+        int best = Integer.MAX_VALUE;
+
+        if (depth < splitDepth) {
+            // 并行：每个分支复制覆盖状态，作为独立任务提交
+            List<BranchTask> tasks = new ArrayList<>(candidates.size());
+            long[] delta = matrix.newPointSet();
+            for (int[] candidate : candidates) {
+                int c = matrix.candidateId(candidate[0], candidate[1]);
+                long[] childCovered = covered.clone();
+                matrix.applyCover(c, childCovered, delta);
+                tasks.add(new BranchTask(state, childCovered, state.memo.toggle(hash, delta), append(path, depth, c)));
+            }
+            for (BranchTask task : ForkJoinTask.invokeAll(tasks)) {
+                best = Math.min(best, task.join());
+            }
+            return best;
+        }
+
+        // 顺序：本层新增覆盖的点，用于回溯
+        long[] newlyCovered = matrix.newPointSet();
+        int[] childPath = Arrays.copyOf(path, Math.max(path.length, depth + 1));
 
         // 尝试所有候选组合
         for (int[] candidate : candidates) {
-            int hi = candidate[0];
-            int di = candidate[1];
+            int c = matrix.candidateId(candidate[0], candidate[1]);
 
-            // 记录新增覆盖的点
-            List<Integer> newlyCovered = new ArrayList<>();
-
-            // 更新覆盖状态
-            for (int pi = 0; pi < covered.length; pi++) {
-                if (!covered[pi] && canCover[hi][pi][di]) {
-                    covered[pi] = true;
-                    newlyCovered.add(pi);
-                }
-            }
+            // 更新覆盖状态，记录新增覆盖的点
+            matrix.applyCover(c, covered, newlyCovered);
 
             // 添加当前选择到解
-            currentSolution.add(new int[]{hi, di});
+            childPath[depth] = c;
 
-            // 递归搜索
-            branchAndBound(potentialHangars, pointsRequiringCoverage, canCover,
-                    currentSolution, covered, depth + 1, bestSolution, bestCost, memo,
-                    maxPointsCovered, currentPointsCovered);
+            // 递归搜索，子状态哈希只需异或新增覆盖的点
+            best = Math.min(best, branchAndBound(state, covered, state.memo.toggle(hash, newlyCovered), childPath, depth + 1));
 
             // 回溯
-            currentSolution.remove(currentSolution.size() - 1);
-            for (int pi : newlyCovered) {
-                covered[pi] = false;
-            }
+            matrix.undoCover(covered, newlyCovered);
         }
+        return best;
+    }
+
+    private static int[] append(int[] path, int length, int candidate) {
+        int[] result = Arrays.copyOf(path, length + 1);
+        result[length] = candidate;
+        return result;
     }
 
     /**
      * 选择最难覆盖的点（被最少机巢-无人机组合覆盖的点）
-     * 修改为跳过不可覆盖的点
+     * 不可覆盖的点已预先标记为已覆盖，这里不会再选中
      */
-    private int selectHardestPoint(List<InspectionPoint> potentialHangars,
-                                   List<InspectionPoint> pointsRequiringCoverage,
-                                   boolean[][][] canCover, boolean[] covered) {
+    private int selectHardestPoint(CoverageMatrix matrix, long[] covered) {
         int hardestPoint = -1;
         int minCoverageOptions = Integer.MAX_VALUE;
 
-        for (int pi = 0; pi < covered.length; pi++) {
-            if (covered[pi]) continue; // 跳过已覆盖的点
-
-            int coverageOptions = 0;
-            for (int hi = 0; hi < potentialHangars.size(); hi++) {
-                for (int di = 0; di < availableDroneModels.size(); di++) {
-                    if (canCover[hi][pi][di]) {
-                        coverageOptions++;
-                    }
-                }
-            }
-
-            // 如果这个点无法被任何机巢-无人机组合覆盖，标记为不可覆盖并跳过
-            if (coverageOptions == 0) {
-                uncoverablePoints.add(pi);
-                covered[pi] = true; // 将不可覆盖点标记为已覆盖，避免再次考虑
-                continue;
-            }
+        for (int pi = 0; pi < matrix.getPointCount(); pi++) {
+            if (CoverageMatrix.get(covered, pi)) continue; // 跳过已覆盖的点
 
+            int coverageOptions = matrix.coveringCount(pi);
             if (coverageOptions < minCoverageOptions) {
                 minCoverageOptions = coverageOptions;
                 hardestPoint = pi;
@@ -377,18 +423,15 @@ public class HangarPlacementAlgorithm3 {
     }
 
     /**
-     * 获取可以覆盖指定点的所有机巢-无人机组合
+     * 获取可以覆盖指定点的所有未被支配的机巢-无人机组合
+     * 返回 {hi, di, 新增覆盖数} 三元组，新增覆盖数由调用方填充
      */
-    private List<int[]> getCandidatesForPoint(List<InspectionPoint> potentialHangars,
-                                              List<InspectionPoint> pointsRequiringCoverage,
-                                              boolean[][][] canCover, boolean[] covered, int pointIndex) {
+    private List<int[]> getCandidatesForPoint(CoverageMatrix matrix, int pointIndex, boolean[] dominated) {
         List<int[]> candidates = new ArrayList<>();
 
-        for (int hi = 0; hi < potentialHangars.size(); hi++) {
-            for (int di = 0; di < availableDroneModels.size(); di++) {
-                if (canCover[hi][pointIndex][di]) {
-                    candidates.add(new int[]{hi, di});
-                }
+        for (int c : matrix.candidatesCovering(pointIndex)) {
+            if (!dominated[c]) {
+                candidates.add(new int[]{matrix.hangarOf(c), matrix.droneOf(c), 0});
             }
         }
 
@@ -396,102 +439,164 @@ public class HangarPlacementAlgorithm3 {
     }
 
     /**
-     * 计算一个机巢-无人机组合能新覆盖多少未覆盖的点
+     * 计算一个机巢-无人机组合能新覆盖多少未覆盖的点（按64位字并行统计）
      */
-    private int countAdditionalCoverage(List<InspectionPoint> potentialHangars,
-                                        List<InspectionPoint> pointsRequiringCoverage,
-                                        boolean[][][] canCover, boolean[] covered, int hi, int di) {
-        int count = 0;
-        for (int pi = 0; pi < covered.length; pi++) {
-            if (!covered[pi] && canCover[hi][pi][di]) {
-                count++;
-            }
-        }
-        return count;
+    private int countAdditionalCoverage(CoverageMatrix matrix, long[] covered, int hi, int di) {
+        return matrix.countNewlyCovered(matrix.candidateId(hi, di), covered);
     }
 
     /**
-     * 获取单个机巢-无人机能覆盖的最大点数
+     * 使用贪心算法生成初始解（候选编号），作为分支定界的上界
      */
-    private int getMaxPointsCoveredByOne(List<InspectionPoint> potentialHangars,
-                                         List<InspectionPoint> pointsRequiringCoverage,
-                                         boolean[][][] canCover, boolean[] covered) {
-        int max = 0;
-        for (int hi = 0; hi < potentialHangars.size(); hi++) {
-            for (int di = 0; di < availableDroneModels.size(); di++) {
-                int count = countAdditionalCoverage(potentialHangars, pointsRequiringCoverage, canCover, covered, hi, di);
-                max = Math.max(max, count);
-            }
+    private int[] findGreedyHangars(CoverageMatrix matrix) {
+        // 只考虑可覆盖的点：不可覆盖点直接标记为已覆盖
+        long[] covered = matrix.newPointSet();
+        for (Integer pointIndex : uncoverablePoints) {
+            CoverageMatrix.set(covered, pointIndex);
         }
-        return max;
+        return new LazyGreedySolver(matrix).solve(covered).getCandidates();
     }
 
     /**
-     * 获取当前覆盖状态的唯一标识符，用于记忆化搜索
+     * 当前最优解：机巢数和对应的候选编号，作为整体原子替换
      */
-    private String getStateKey(boolean[] covered) {
-        StringBuilder sb = new StringBuilder();
-        for (boolean b : covered) {
-            sb.append(b ? '1' : '0');
+    private static final class Incumbent {
+        final int cost;
+        final int[] solution;
+
+        Incumbent(int cost, int[] solution) {
+            this.cost = cost;
+            this.solution = solution;
         }
-        return sb.toString();
     }
 
     /**
-     * 使用贪心算法生成初始解，作为分支定界的上界
+     * 分支定界的共享状态，所有并行任务共用
      */
-    private List<SelectedHangar> findGreedyHangars(List<InspectionPoint> potentialHangars,
-                                                   List<InspectionPoint> pointsRequiringCoverage) {
-        List<SelectedHangar> selectedHangars = new ArrayList<>();
-        Set<InspectionPoint> uncoveredPoints = new HashSet<>();
-        
-        // 只添加可覆盖的点到未覆盖集合
-        for (int i = 0; i < pointsRequiringCoverage.size(); i++) {
-            if (!uncoverablePoints.contains(i)) {
-                uncoveredPoints.add(pointsRequiringCoverage.get(i));
-            }
+    private final class SearchState {
+        final CoverageMatrix matrix;
+        final AtomicReference<Incumbent> incumbent;
+        final TranspositionTable memo;
+        final boolean[] dominated;
+        final int rootLowerBound;
+
+        SearchState(CoverageMatrix matrix, int initialUpperBound, boolean[] dominated, int rootLowerBound) {
+            this.matrix = matrix;
+            this.dominated = dominated;
+            this.rootLowerBound = rootLowerBound;
+            this.incumbent = new AtomicReference<>(new Incumbent(initialUpperBound, null));
+            this.memo = new TranspositionTable(matrix.getPointCount(), memoCapacity, verifyMemo, 0x9E3779B97F4A7C15L);
+            lastMemo = memo;
+        }
+
+        int bestCost() {
+            return incumbent.get().cost;
         }
 
-        while (!uncoveredPoints.isEmpty()) {
-            InspectionPoint bestHangarSite = null;
-            DroneModel bestDroneModel = null;
-            Set<InspectionPoint> bestCoveredPoints = null;
-            int maxCovered = -1;
-
-            for (InspectionPoint hangarSite : potentialHangars) {
-                for (DroneModel drone : availableDroneModels) {
-                    Set<InspectionPoint> coveredPoints = new HashSet<>();
-                    double rangeMeters = drone.getRangeKm() * 1000;
-
-                    for (InspectionPoint point : uncoveredPoints) {
-                        double distance = calculateDistanceMeters(hangarSite.getCoordinate(), point.getCoordinate());
-                        if (distance <= rangeMeters) {
-                            coveredPoints.add(point);
-                        }
-                    }
-
-                    if (coveredPoints.size() > maxCovered) {
-                        maxCovered = coveredPoints.size();
-                        bestHangarSite = hangarSite;
-                        bestDroneModel = drone;
-                        bestCoveredPoints = coveredPoints;
-                    }
+        /**
+         * 提交一个可行解，比当前最优解更好时替换
+         */
+        boolean offer(int[] path, int size) {
+            Incumbent candidate = new Incumbent(size, Arrays.copyOf(path, size));
+            while (true) {
+                Incumbent current = incumbent.get();
+                if (size >= current.cost) {
+                    return false;
+                }
+                if (incumbent.compareAndSet(current, candidate)) {
+                    log("找到更优解，机巢数: " + size);
+                    reportProgress("incumbent", "找到更优解", (double) size, (double) rootLowerBound);
+                    return true;
                 }
             }
+        }
+    }
 
-            if (maxCovered > 0) {
-                selectedHangars.add(new SelectedHangar(
-                        bestHangarSite.getId(),
-                        bestDroneModel.getModelName(),
-                        bestHangarSite.getCoordinate()
-                ));
-                uncoveredPoints.removeAll(bestCoveredPoints);
-            } else {
-                break; // 无法继续覆盖更多点
-            }
+    /**
+     * 分支定界的并行任务：从给定覆盖状态开始搜索一棵子树
+     */
+    private final class BranchTask extends RecursiveTask<Integer> {
+        private final SearchState state;
+        private final long[] covered;
+        private final long hash;
+        private final int[] path;
+
+        BranchTask(SearchState state, long[] covered, long hash, int[] path) {
+            this.state = state;
+            this.covered = covered;
+            this.hash = hash;
+            this.path = path;
+        }
+
+        @Override
+        protected Integer compute() {
+            return branchAndBound(state, covered, hash, path, path.length);
         }
+    }
 
-        return selectedHangars;
+    /**
+     * 设置搜索节点使用的下界策略
+     */
+    public void setNodeBound(LowerBound nodeBound) {
+        this.nodeBound = Objects.requireNonNull(nodeBound);
+    }
+
+    /**
+     * 设置根节点使用的下界策略，为 null 时使用排除被支配候选的 LP 松弛下界
+     */
+    public void setRootBound(LowerBound rootBound) {
+        this.rootBound = rootBound;
+    }
+
+    /**
+     * 设置进度监听器，得到初始上界、根节点下界和每个更优解时回调（可能在工作线程中调用）
+     */
+    public void setProgressListener(Consumer<PlanningProgress> progressListener) {
+        this.progressListener = progressListener;
+    }
+
+    /**
+     * 请求取消求解，正在进行的 findOptimalHangars 会在下一个搜索节点抛出 CancellationException
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    private void reportProgress(String phase, String message, Double incumbent, Double lowerBound) {
+        Consumer<PlanningProgress> listener = progressListener;
+        if (listener != null) {
+            listener.accept(new PlanningProgress(phase, message, incumbent, lowerBound,
+                    System.currentTimeMillis() - startTime));
+        }
+    }
+
+    /**
+     * 最近一次求解是否因时间限制提前停止
+     */
+    public boolean isTimedOut() {
+        return timedOut;
+    }
+
+    /**
+     * 最近一次求解证明的机巢数下界
+     */
+    public int getLowerBound() {
+        return provenLowerBound;
+    }
+
+    public long getNodesExplored() {
+        return nodesExplored.sum();
+    }
+
+    public long getNodesPruned() {
+        return nodesPruned.sum();
+    }
+
+    /**
+     * 最近一次求解使用的置换表，用于查看命中/未命中/淘汰统计
+     */
+    public TranspositionTable getTranspositionTable() {
+        return lastMemo;
     }
 
     /**
@@ -1,5 +1,11 @@
 package com.gis.hangar;
-import org.locationtech.jts.geom.Coordinate;
+
+import com.gis.hangar.bound.CoverageRatioBound;
+import com.gis.hangar.bound.DisjointPointsBound;
+import com.gis.hangar.bound.LowerBound;
+import com.gis.hangar.bound.MaxLowerBound;
+import com.gis.hangar.coverage.CoverageModel;
+import com.gis.hangar.coverage.EuclideanCoverageModel;
 
 import java.util.*;
 import java.util.stream.Collectors;
@@ -12,6 +18,9 @@ public class HangarPlacementAlgorithm4 {
 
     private final List<InspectionPoint> allInspectionPoints;
     private final List<DroneModel> availableDroneModels;
+    // 覆盖判定模型，默认只按平面距离
+    private CoverageModel coverageModel = EuclideanCoverageModel.INSTANCE;
+    private LowerBound lowerBound = new MaxLowerBound(new CoverageRatioBound(), new DisjointPointsBound());
 
     public HangarPlacementAlgorithm4(List<InspectionPoint> inspectionPoints, List<DroneModel> droneModels) {
         this.allInspectionPoints = new ArrayList<>(inspectionPoints);
@@ -19,58 +28,51 @@ public class HangarPlacementAlgorithm4 {
     }
 
     /**
-     * 计算两点间的欧几里得距离（米）
-     * 在墨卡托坐标系中可直接计算欧几里得距离
+     * 设置覆盖判定模型（如基于 DEM 的视线模型）
+     */
+    public void setCoverageModel(CoverageModel coverageModel) {
+        this.coverageModel = Objects.requireNonNull(coverageModel);
+    }
+
+    /**
+     * 设置剪枝使用的下界策略
      */
-    private double calculateDistanceMeters(Coordinate c1, Coordinate c2) {
-        double dx = c1.x - c2.x;
-        double dy = c1.y - c2.y;
-        return Math.sqrt(dx * dx + dy * dy); // 单位是米
+    public void setLowerBound(LowerBound lowerBound) {
+        this.lowerBound = Objects.requireNonNull(lowerBound);
     }
 
     /**
      * 查找最优机巢布置方案
      * 使用分支定界法求解集合覆盖问题
+     * 以贪心解作为初始上界，用下界策略剪枝，被支配的候选不参与分支
      */
 
     public List<SelectedHangar> findOptimalHangars() {
-        // 预计算覆盖关系矩阵
-        boolean[][][] canCover = new boolean[allInspectionPoints.size()][allInspectionPoints.size()][availableDroneModels.size()];
-
         // 可建机巢的点列表
         List<InspectionPoint> potentialHangars = allInspectionPoints.stream()
                 .filter(InspectionPoint::canBuildHangar)
                 .collect(Collectors.toList());
 
-        // 计算点索引映射
-        Map<InspectionPoint, Integer> pointIndices = new HashMap<>();
-        for (int i = 0; i < allInspectionPoints.size(); i++) {
-            pointIndices.put(allInspectionPoints.get(i), i);
-        }
-
-        // 预计算覆盖关系
-        for (int hi = 0; hi < potentialHangars.size(); hi++) {
-            InspectionPoint hangar = potentialHangars.get(hi);
-            for (int di = 0; di < availableDroneModels.size(); di++) {
-                DroneModel drone = availableDroneModels.get(di);
-                double range = drone.getRangeKm() * 1000; // 转换为米
-
-                for (int pi = 0; pi < allInspectionPoints.size(); pi++) {
-                    InspectionPoint point = allInspectionPoints.get(pi);
-                    double distance = calculateDistanceMeters(hangar.getCoordinate(), point.getCoordinate());
-                    canCover[hi][pi][di] = distance <= range;
-                }
-            }
-        }
+        // 预计算覆盖关系位图
+        CoverageMatrix matrix = CoverageMatrix.build(potentialHangars, allInspectionPoints, availableDroneModels, coverageModel);
 
         // 保存当前最优解
         List<int[]> bestSolution = new ArrayList<>();
         int[] bestCost = {Integer.MAX_VALUE};
-        boolean[] covered = new boolean[allInspectionPoints.size()];
+        long[] covered = matrix.newPointSet();
+
+        // 贪心解能覆盖所有点时作为初始上界
+        LazyGreedySolver.Result greedy = new LazyGreedySolver(matrix).solve(matrix.newPointSet());
+        if (greedy.getUncoveredCount() == 0) {
+            for (int candidate : greedy.getCandidates()) {
+                bestSolution.add(new int[]{matrix.hangarOf(candidate), matrix.droneOf(candidate)});
+            }
+            bestCost[0] = bestSolution.size();
+        }
 
         // 开始分支定界求解
-        branchAndBound(potentialHangars, availableDroneModels, canCover,
-                new ArrayList<>(), covered, 0, bestSolution, bestCost);
+        boolean[] dominated = DominanceFilter.findDominated(matrix);
+        branchAndBound(matrix, dominated, new ArrayList<>(), covered, 0, bestSolution, bestCost);
 
         // 构建结果
         List<SelectedHangar> selectedHangars = new ArrayList<>();
@@ -89,20 +91,13 @@ public class HangarPlacementAlgorithm4 {
         return selectedHangars;
     }
 
-    private void branchAndBound(List<InspectionPoint> potentialHangars, List<DroneModel> drones,
-                                boolean[][][] canCover, List<int[]> currentSolution,
-                                boolean[] covered, int depth, List<int[]> bestSolution, int[] bestCost) {
-        // 检查是否所有点都已覆盖
-        boolean allCovered = true;
-        for (boolean isCovered : covered) {
-            if (!isCovered) {
-                allCovered = false;
-                break;
-            }
-        }
+    private void branchAndBound(CoverageMatrix matrix, boolean[] dominated, List<int[]> currentSolution,
+                                long[] covered, int depth, List<int[]> bestSolution, int[] bestCost) {
+        // 找到第一个未覆盖的点
+        int uncoveredPoint = matrix.firstUncovered(covered);
 
         // 找到一个解
-        if (allCovered) {
+        if (uncoveredPoint == -1) {
             if (currentSolution.size() < bestCost[0]) {
                 bestCost[0] = currentSolution.size();
                 bestSolution.clear();
@@ -111,49 +106,35 @@ public class HangarPlacementAlgorithm4 {
             return;
         }
 
-        // 剪枝：如果当前解的大小已经超过了最优解，则放弃
+        // 剪枝：如果当前解的大小加上剩余点至少还需要的机巢数已经达到最优解，则放弃
         if (currentSolution.size() >= bestCost[0]) {
             return;
         }
-
-        // 找到第一个未覆盖的点
-        int uncoveredPoint = -1;
-        for (int i = 0; i < covered.length; i++) {
-            if (!covered[i]) {
-                uncoveredPoint = i;
-                break;
+        if (bestCost[0] != Integer.MAX_VALUE) {
+            int budget = bestCost[0] - currentSolution.size();
+            if (lowerBound.estimate(matrix, covered, budget) >= budget) {
+                return;
             }
         }
 
-        // 尝试所有可能覆盖该点的机巢-无人机组合
-        for (int hi = 0; hi < potentialHangars.size(); hi++) {
-            for (int di = 0; di < drones.size(); di++) {
-                if (canCover[hi][uncoveredPoint][di]) {
-                    // 记录新增覆盖的点
-                    List<Integer> newlyCovered = new ArrayList<>();
-
-                    // 更新覆盖状态
-                    for (int pi = 0; pi < covered.length; pi++) {
-                        if (!covered[pi] && canCover[hi][pi][di]) {
-                            covered[pi] = true;
-                            newlyCovered.add(pi);
-                        }
-                    }
-
-                    // 添加当前选择到解
-                    currentSolution.add(new int[]{hi, di});
-
-                    // 递归搜索
-                    branchAndBound(potentialHangars, drones, canCover, currentSolution,
-                            covered, depth + 1, bestSolution, bestCost);
-
-                    // 回溯
-                    currentSolution.remove(currentSolution.size() - 1);
-                    for (int pi : newlyCovered) {
-                        covered[pi] = false;
-                    }
-                }
+        // 尝试所有可能覆盖该点且未被支配的机巢-无人机组合
+        long[] newlyCovered = matrix.newPointSet();
+        for (int c : matrix.candidatesCovering(uncoveredPoint)) {
+            if (dominated[c]) {
+                continue;
             }
+            // 更新覆盖状态，记录新增覆盖的点
+            matrix.applyCover(c, covered, newlyCovered);
+
+            // 添加当前选择到解
+            currentSolution.add(new int[]{matrix.hangarOf(c), matrix.droneOf(c)});
+
+            // 递归搜索
+            branchAndBound(matrix, dominated, currentSolution, covered, depth + 1, bestSolution, bestCost);
+
+            // 回溯
+            currentSolution.remove(currentSolution.size() - 1);
+            matrix.undoCover(covered, newlyCovered);
         }
     }
 
@@ -1,11 +1,18 @@
 package com.gis.hangar;
-import com.google.ortools.linearsolver.MPConstraint;
-import com.google.ortools.linearsolver.MPObjective;
+import com.gis.hangar.bound.DisjointPointsBound;
+import com.gis.hangar.coverage.CoverageModel;
+import com.gis.hangar.coverage.EuclideanCoverageModel;
 import com.google.ortools.linearsolver.MPSolver;
-import com.google.ortools.linearsolver.MPVariable;
-import org.locationtech.jts.geom.Coordinate;
+import com.google.ortools.linearsolver.MPSolverParameters;
 
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.function.DoubleSupplier;
 import java.util.stream.Collectors;
 
 /**
@@ -17,6 +24,13 @@ public class HangarPlacementAlgorithm5 {
     private final List<InspectionPoint> allInspectionPoints;
     // 可用的无人机型号
     private final List<DroneModel> availableDroneModels;
+    // 覆盖判定模型，默认只按平面距离
+    private CoverageModel coverageModel = EuclideanCoverageModel.INSTANCE;
+    // 进度监听器（约简完成、每个连通分量求解完成时通知），可以为 null
+    private Consumer<PlanningProgress> progressListener;
+    // 是否已请求取消，以及正在求解的求解器（取消时中断）
+    private volatile boolean cancelled;
+    private final Set<MPSolver> activeSolvers = new HashSet<>();
 
     public HangarPlacementAlgorithm5(List<InspectionPoint> inspectionPoints, List<DroneModel> droneModels) {
         this.allInspectionPoints = new ArrayList<>(inspectionPoints);
@@ -24,14 +38,12 @@ public class HangarPlacementAlgorithm5 {
     }
 
     /**
-     * 计算两点间的欧几里得距离（米）
-     * 在墨卡托坐标系中可直接计算欧几里得距离
+     * 设置覆盖判定模型（如基于 DEM 的视线模型）
      */
-    private double calculateDistanceMeters(Coordinate c1, Coordinate c2) {
-        double dx = c1.x - c2.x;
-        double dy = c1.y - c2.y;
-        return Math.sqrt(dx * dx + dy * dy); // 单位是米
+    public void setCoverageModel(CoverageModel coverageModel) {
+        this.coverageModel = Objects.requireNonNull(coverageModel);
     }
+
     /**
      * 计算两点间的欧几里得距离（米）
      * 在墨卡托坐标系中可直接计算欧几里得距离
@@ -110,6 +122,20 @@ public class HangarPlacementAlgorithm5 {
      * @return 选中的机巢和无人机列表
      */
     public List<SelectedHangar> findOptimalHangars() {
+        return solve(0, 0).getHangars();
+    }
+
+    /**
+     * 限时求解（anytime）：以贪心解热启动，达到时间限制或相对间隙后返回当前最好的可行解及其下界
+     *
+     * @param timeLimitMillis 总的墙钟时间限制（毫秒），不大于 0 表示不限时
+     * @param relativeGap 可接受的相对间隙，不大于 0 表示使用求解器默认值
+     * @return 布置方案、目标值、下界和间隙
+     */
+    public PlacementSolution solve(long timeLimitMillis, double relativeGap) {
+        long startTime = System.currentTimeMillis();
+        long deadline = timeLimitMillis > 0 ? startTime + timeLimitMillis : Long.MAX_VALUE;
+
         // 加载原生库
         // 静态加载原生库
         try {
@@ -119,130 +145,386 @@ public class HangarPlacementAlgorithm5 {
             throw new RuntimeException("无法初始化OR-Tools，请确保正确安装", e);
         }
 
-        // 预计算覆盖关系矩阵
-        boolean[][][] canCover = new boolean[allInspectionPoints.size()][allInspectionPoints.size()][availableDroneModels.size()];
-
         // 可建机巢的点列表
         List<InspectionPoint> potentialHangars = allInspectionPoints.stream()
                 .filter(InspectionPoint::canBuildHangar)
                 .collect(Collectors.toList());
 
-        // 为点和无人机建立索引映射
-        Map<InspectionPoint, Integer> pointIndices = new HashMap<>();
-        for (int i = 0; i < allInspectionPoints.size(); i++) {
-            pointIndices.put(allInspectionPoints.get(i), i);
-        }
-        // 为机巢建立索引映射
-        Map<InspectionPoint, Integer> hangarIndices = new HashMap<>();
-        for (int i = 0; i < potentialHangars.size(); i++) {
-            hangarIndices.put(potentialHangars.get(i), i);
+        // 预计算覆盖关系位图
+        CoverageMatrix matrix = CoverageMatrix.build(potentialHangars, allInspectionPoints, availableDroneModels, coverageModel);
+
+        // 预先识别不可覆盖点
+        for (int pi = 0; pi < allInspectionPoints.size(); pi++) {
+            if (!matrix.isCoverable(pi)) {
+                System.out.println("警告: 点 " + allInspectionPoints.get(pi).getId() + " 无法被任何机巢-无人机组合覆盖");
+            }
         }
 
-        // 预计算覆盖关系
-        for (InspectionPoint hangar : potentialHangars) {
-            int hi = hangarIndices.get(hangar);
-            for (int di = 0; di < availableDroneModels.size(); di++) {
-                DroneModel drone = availableDroneModels.get(di);
-                double range = drone.getRangeKm() * 1000; // 转换为米
+        // 目标函数系数: 基础成本为1，加上与半径相关的额外权重，优先选择半径小的无人机
+        double[] cost = SetCoverModel.rangeWeightedCosts(matrix);
 
-                for (InspectionPoint point : allInspectionPoints) {
-                    int pi = pointIndices.get(point);
-                    double distance = calculateDistanceMeters(hangar.getCoordinate(), point.getCoordinate());
-                    canCover[hi][pi][di] = distance <= range;
+        // 问题约简：删除被支配的行/列，固定必选列，拆分为独立的连通分量
+        ProblemReducer.Reduction reduction = new ProblemReducer(matrix, cost).reduce();
+        System.out.println("问题约简: " + reduction);
+        reportProgress("reduction", "问题约简: " + reduction, null, null, startTime);
+        checkCancelled();
+
+        // 必选候选的成本是确定的，同时计入目标值和下界
+        List<Integer> chosen = new ArrayList<>();
+        double objectiveValue = 0;
+        double lowerBound = 0;
+        boolean optimal = true;
+        for (int c : reduction.getFixedCandidates()) {
+            chosen.add(c);
+            objectiveValue += cost[c];
+            lowerBound += cost[c];
+        }
+
+        // 各连通分量相互独立，并行求解
+        List<Callable<ComponentResult>> tasks = new ArrayList<>();
+        for (ProblemReducer.Component component : reduction.getComponents()) {
+            tasks.add(() -> solveComponent(matrix, component, cost, deadline, relativeGap));
+        }
+        ForkJoinPool pool = new ForkJoinPool(Math.max(1, Math.min(tasks.size(), Runtime.getRuntime().availableProcessors())));
+        try {
+            for (Future<ComponentResult> future : pool.invokeAll(tasks)) {
+                ComponentResult result = future.get();
+                if (result == null) {
+                    System.err.println("没有找到可行解");
+                    return new PlacementSolution(new ArrayList<>(), 0, 0, PlacementSolution.Status.NOT_SOLVED,
+                            System.currentTimeMillis() - startTime);
+                }
+                for (int c : result.solution) {
+                    chosen.add(c);
                 }
+                objectiveValue += result.objective;
+                lowerBound += result.bound;
+                optimal &= result.optimal;
+                reportProgress("component", "连通分量求解完成", objectiveValue, lowerBound, startTime);
             }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("ILP求解被中断", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof CancellationException) {
+                throw (CancellationException) e.getCause();
+            }
+            throw new IllegalStateException("ILP求解失败", e.getCause());
+        } finally {
+            pool.shutdown();
         }
 
-        // 创建求解器
-        MPSolver solver = MPSolver.createSolver("SCIP");
-        if (solver == null) {
-            System.err.println("无法创建SCIP求解器，尝试使用SAT");
-            solver = MPSolver.createSolver("SAT");
-            if (solver == null) {
-                throw new IllegalStateException("无法创建求解器。请确保OR-Tools库正确安装。");
-            }
+        // 提取结果，按机巢位置、无人机型号顺序输出；目标值按所选候选的成本重新求和，与其他算法一致
+        Collections.sort(chosen);
+        objectiveValue = SetCoverModel.costOf(chosen.stream().mapToInt(Integer::intValue).toArray(), cost);
+        System.out.println("目标函数值 (加权成本): " + objectiveValue + "，下界: " + lowerBound);
+
+        List<SelectedHangar> selectedHangars = new ArrayList<>();
+        for (int c : chosen) {
+            SelectedHangar hangar = matrix.toSelectedHangar(c);
+            selectedHangars.add(hangar);
+            System.out.println("选定机巢位置: " + hangar.getHangarLocationId() +
+                    "，使用无人机型号: " + hangar.getDroneModelName());
         }
 
-        // 决策变量：x[h][d] = 1 表示在位置h建机巢并使用无人机型号d
-        MPVariable[][] x = new MPVariable[potentialHangars.size()][availableDroneModels.size()];
-        for (int hi = 0; hi < potentialHangars.size(); hi++) {
-            for (int di = 0; di < availableDroneModels.size(); di++) {
-                x[hi][di] = solver.makeBoolVar("x_" + hi + "_" + di);
-            }
+        return new PlacementSolution(selectedHangars, objectiveValue, Math.min(lowerBound, objectiveValue),
+                optimal ? PlacementSolution.Status.OPTIMAL : PlacementSolution.Status.FEASIBLE,
+                System.currentTimeMillis() - startTime);
+    }
+
+    /**
+     * 带容量和复巡频次约束的限时求解
+     * 每个机巢-型号组合每周期最多完成 DroneModel.getSortieCapacity() 次巡检，每个点需要 getVisitsPerCycle() 次，
+     * 型号有固定成本时计入目标函数。容量约束使问题不再是纯集合覆盖，因此不做问题约简和贪心热启动，整体建模求解。
+     *
+     * @param timeLimitMillis 时间限制（毫秒），不大于 0 表示不限时
+     * @param relativeGap 可接受的相对间隙，不大于 0 表示使用求解器默认值
+     * @return 布置方案、每个点的分配以及每个机巢的负载
+     */
+    public CapacitatedPlacementSolution solveCapacitated(long timeLimitMillis, double relativeGap) {
+        return solveCapacitated(timeLimitMillis, relativeGap, true);
+    }
+
+    /**
+     * 带容量和复巡频次约束的限时求解，可选择连接约束的强弱
+     * 强连接为每个分配变量加 a[p][c] ≤ x[c]，LP 松弛更紧、分支节点更少，但行数随分配变量增长；
+     * 弱连接只靠容量约束连接，模型更小，容量宽松时可能更快。两种方式的最优值相同，
+     * 实际差异可以用 CapacitatedModelBenchmark（JMH 配置）在目标规模上比较。
+     *
+     * @param timeLimitMillis 时间限制（毫秒），不大于 0 表示不限时
+     * @param relativeGap 可接受的相对间隙，不大于 0 表示使用求解器默认值
+     * @param strongLinking 是否使用强连接约束
+     * @return 布置方案、每个点的分配以及每个机巢的负载
+     */
+    public CapacitatedPlacementSolution solveCapacitated(long timeLimitMillis, double relativeGap,
+                                                         boolean strongLinking) {
+        long startTime = System.currentTimeMillis();
+        try {
+            com.google.ortools.Loader.loadNativeLibraries();
+        } catch (Exception e) {
+            System.err.println("无法加载OR-Tools原生库: " + e.getMessage());
+            throw new RuntimeException("无法初始化OR-Tools，请确保正确安装", e);
         }
 
-        // 预先识别不可覆盖点
-        Set<Integer> uncoverablePoints = new HashSet<>();
-        for (int pi = 0; pi < allInspectionPoints.size(); pi++) {
-            boolean canBeCovered = false;
-            for (int hi = 0; hi < potentialHangars.size() && !canBeCovered; hi++) {
-                for (int di = 0; di < availableDroneModels.size() && !canBeCovered; di++) {
-                    if (canCover[hi][pi][di]) {
-                        canBeCovered = true;
-                    }
+        List<InspectionPoint> potentialHangars = allInspectionPoints.stream()
+                .filter(InspectionPoint::canBuildHangar)
+                .collect(Collectors.toList());
+        CoverageMatrix matrix = CoverageMatrix.build(potentialHangars, allInspectionPoints, availableDroneModels, coverageModel);
+        double[] cost = SetCoverModel.rangeWeightedCosts(matrix);
+        if (!CapacitatedCoverModel.hasEnoughCapacity(matrix)) {
+            System.err.println("所有机巢的容量之和不足以完成全部巡检");
+            return new CapacitatedPlacementSolution(new ArrayList<>(), 0, 0, PlacementSolution.Status.NOT_SOLVED,
+                    System.currentTimeMillis() - startTime, new HashMap<>(), new double[0]);
+        }
+        checkCancelled();
+        MPSolver solver = SetCoverModel.createMipSolver();
+        registerSolver(solver);
+        try {
+            CapacitatedCoverModel model = CapacitatedCoverModel.build(solver, matrix, cost, strongLinking);
+            System.out.println("容量约束MIP模型: " + model.describe());
+            reportProgress("model", "容量约束MIP模型: " + model.describe(), null, null, startTime);
+
+            MPSolverParameters parameters = new MPSolverParameters();
+            if (relativeGap > 0) {
+                parameters.setDoubleParam(MPSolverParameters.DoubleParam.RELATIVE_MIP_GAP, relativeGap);
+            }
+            if (timeLimitMillis > 0) {
+                solver.setTimeLimit(Math.max(1, startTime + timeLimitMillis - System.currentTimeMillis()));
+            }
+
+            // 建模期间发出的取消
+            checkCancelled();
+            long solveStart = System.nanoTime();
+            MPSolver.ResultStatus status = solver.solve(parameters);
+            System.out.println("容量约束MIP求解耗时: " + String.format("%.1f", (System.nanoTime() - solveStart) / 1e6) + "ms，状态: " + status);
+            checkCancelled();
+
+            if (status != MPSolver.ResultStatus.OPTIMAL && status != MPSolver.ResultStatus.FEASIBLE) {
+                System.err.println("没有找到满足容量约束的可行解");
+                return new CapacitatedPlacementSolution(new ArrayList<>(), 0, 0, PlacementSolution.Status.NOT_SOLVED,
+                        System.currentTimeMillis() - startTime, new HashMap<>(), new double[0]);
+            }
+            double objective = solver.objective().value();
+            double bound = solver.objective().bestBound();
+            if (Double.isNaN(bound) || Math.abs(bound) >= 1e19) {
+                bound = 0;
+            }
+            boolean optimal = status == MPSolver.ResultStatus.OPTIMAL
+                    && (relativeGap <= 0 || objective - bound <= 1e-6 * Math.max(1, Math.abs(objective)));
+
+            int[] selected = model.selectedCandidates();
+            double[] candidateLoads = model.loads();
+            List<SelectedHangar> hangars = new ArrayList<>();
+            Map<Integer, SelectedHangar> byCandidate = new HashMap<>();
+            double[] loads = new double[selected.length];
+            for (int i = 0; i < selected.length; i++) {
+                SelectedHangar hangar = matrix.toSelectedHangar(selected[i]);
+                hangars.add(hangar);
+                byCandidate.put(selected[i], hangar);
+                loads[i] = candidateLoads[selected[i]];
+                System.out.println("选定机巢位置: " + hangar.getHangarLocationId() +
+                        "，使用无人机型号: " + hangar.getDroneModelName() +
+                        "，承担巡检次数: " + String.format("%.1f", loads[i]));
+            }
+            Map<String, SelectedHangar> assignments = new HashMap<>();
+            int[] assignment = model.assignment();
+            for (int pi = 0; pi < assignment.length; pi++) {
+                if (assignment[pi] >= 0) {
+                    assignments.put(allInspectionPoints.get(pi).getId(), byCandidate.get(assignment[pi]));
                 }
             }
-            if (!canBeCovered) {
-                uncoverablePoints.add(pi);
-                System.out.println("警告: 点 " + allInspectionPoints.get(pi).getId() + " 无法被任何机巢-无人机组合覆盖");
+            return new CapacitatedPlacementSolution(hangars, objective, optimal ? objective : Math.min(bound, objective),
+                    optimal ? PlacementSolution.Status.OPTIMAL : PlacementSolution.Status.FEASIBLE,
+                    System.currentTimeMillis() - startTime, assignments, loads);
+        } finally {
+            synchronized (activeSolvers) {
+                activeSolvers.remove(solver);
             }
+            solver.delete();
         }
+    }
 
-        // 修改约束1: 只约束可覆盖的点
-        for (int pi = 0; pi < allInspectionPoints.size(); pi++) {
-            if (!uncoverablePoints.contains(pi)) {
-                MPConstraint coverage = solver.makeConstraint(1.0, Double.POSITIVE_INFINITY);
-                for (int hi = 0; hi < potentialHangars.size(); hi++) {
-                    for (int di = 0; di < availableDroneModels.size(); di++) {
-                        if (canCover[hi][pi][di]) {
-                            coverage.setCoefficient(x[hi][di], 1.0);
-                        }
-                    }
-                }
+    /**
+     * 设置进度监听器
+     */
+    public void setProgressListener(Consumer<PlanningProgress> progressListener) {
+        this.progressListener = progressListener;
+    }
+
+    /**
+     * 请求取消求解：中断正在求解的连通分量，正在进行的 solve 抛出 CancellationException
+     */
+    public void cancel() {
+        cancelled = true;
+        synchronized (activeSolvers) {
+            for (MPSolver solver : activeSolvers) {
+                solver.interruptSolve();
             }
         }
+    }
 
-        // 目标函数: 最小化机巢数量并优先选择半径小的无人机
-        MPObjective objective = solver.objective();
-        for (int hi = 0; hi < potentialHangars.size(); hi++) {
-            for (int di = 0; di < availableDroneModels.size(); di++) {
-                DroneModel drone = availableDroneModels.get(di);
-                // 基础成本为1，加上与半径相关的额外权重
-                double radiusWeight = drone.getRangeKm() / 10.0; // 调整系数使权重适当
-                objective.setCoefficient(x[hi][di], 1.0 + radiusWeight);
+    private void checkCancelled() {
+        if (cancelled) {
+            throw new CancellationException("ILP求解已取消");
+        }
+    }
+
+    /**
+     * 登记正在求解的求解器，登记后再检查取消标志：cancel 在登记之前执行时遍历不到这个求解器，
+     * 只能由这里发现；之后执行的 cancel 一定能中断它。已取消时删除求解器并抛出 CancellationException
+     */
+    private void registerSolver(MPSolver solver) {
+        synchronized (activeSolvers) {
+            activeSolvers.add(solver);
+            if (!cancelled) {
+                return;
             }
+            activeSolvers.remove(solver);
         }
-        objective.setMinimization();
+        solver.delete();
+        throw new CancellationException("ILP求解已取消");
+    }
 
-        // 求解
-        MPSolver.ResultStatus status = solver.solve();
+    private void reportProgress(String phase, String message, Double incumbent, Double lowerBound, long startTime) {
+        Consumer<PlanningProgress> listener = progressListener;
+        if (listener != null) {
+            listener.accept(new PlanningProgress(phase, message, incumbent, lowerBound,
+                    System.currentTimeMillis() - startTime));
+        }
+    }
 
-        // 处理结果
-        List<SelectedHangar> selectedHangars = new ArrayList<>();
+    /**
+     * 用 ILP 求解一个连通分量，以分量内的贪心解作为提示
+     * 到达截止时间仍没有可行解时，退回到贪心解
+     *
+     * @return 分量的解、目标值和下界，无可行解时返回 null
+     */
+    private ComponentResult solveComponent(CoverageMatrix matrix, ProblemReducer.Component component, double[] cost,
+                                           long deadline, double relativeGap) {
+        // 分量内的贪心解：分量外的点视为已覆盖，只允许使用分量内的候选
+        boolean[] allowed = new boolean[matrix.getCandidateCount()];
+        for (int c : component.getCandidates()) {
+            allowed[c] = true;
+        }
+        // solve 会把 covered 更新为最终覆盖状态，不能再用于下界
+        LazyGreedySolver.Result greedy = new LazyGreedySolver(matrix, true, allowed)
+                .solve(componentMask(matrix, component));
+        int[] greedySolution = greedy.getUncoveredCount() == 0 ? greedy.getCandidates() : null;
+
+        // 创建求解器，按倒排索引稀疏建模
+        checkCancelled();
+        MPSolver solver = SetCoverModel.createMipSolver();
+        registerSolver(solver);
+        try {
+            SetCoverModel model = SetCoverModel.build(solver, matrix, cost, component.getPoints(), component.getCandidates());
+            System.out.println("ILP模型: " + model.describe());
+            if (greedySolution != null) {
+                model.setHint(greedySolution);
+            }
+
+            MPSolverParameters parameters = new MPSolverParameters();
+            if (relativeGap > 0) {
+                parameters.setDoubleParam(MPSolverParameters.DoubleParam.RELATIVE_MIP_GAP, relativeGap);
+            }
+            if (deadline != Long.MAX_VALUE) {
+                solver.setTimeLimit(Math.max(1, deadline - System.currentTimeMillis()));
+            }
+
+            // 求解，先检查建模期间发出的取消
+            checkCancelled();
+            long solveStart = System.nanoTime();
+            MPSolver.ResultStatus status = solver.solve(parameters);
+            System.out.println("ILP求解耗时: " + String.format("%.1f", (System.nanoTime() - solveStart) / 1e6) + "ms，状态: " + status);
+            checkCancelled();
+
+            boolean solved = status == MPSolver.ResultStatus.OPTIMAL || status == MPSolver.ResultStatus.FEASIBLE;
+            if (!solved && greedySolution != null) {
+                System.out.println("ILP在时间限制内未找到可行解，使用贪心解");
+            }
+            return componentResult(status,
+                    solved ? model.selectedCandidates() : null,
+                    solved ? solver.objective().value() : Double.NaN,
+                    solved ? solver.objective().bestBound() : Double.NaN,
+                    relativeGap, greedySolution, cost, () -> fallbackBound(matrix, component, cost));
+        } finally {
+            synchronized (activeSolvers) {
+                activeSolvers.remove(solver);
+            }
+            solver.delete();
+        }
+    }
+
+    /**
+     * 由求解器的状态、目标值和下界确定分量结果
+     * 有可行解时取求解器的解；求解器没有给出下界（在根节点 LP 之前就停止）时使用 fallbackBound；
+     * 到达时间限制仍没有可行解时退回到贪心解，此时结果不是最优解。
+     *
+     * @param selected 求解器取值为 1 的候选，没有可行解时为 null
+     * @param greedySolution 分量内的贪心解，贪心未能覆盖全部点时为 null
+     * @return 分量结果，既没有可行解也没有贪心解时返回 null
+     */
+    static ComponentResult componentResult(MPSolver.ResultStatus status, int[] selected, double objective,
+                                           double bound, double relativeGap, int[] greedySolution, double[] cost,
+                                           DoubleSupplier fallbackBound) {
         if (status == MPSolver.ResultStatus.OPTIMAL || status == MPSolver.ResultStatus.FEASIBLE) {
-            System.out.println("目标函数值 (机巢总数): " + objective.value());
-
-            // 提取结果
-            for (int hi = 0; hi < potentialHangars.size(); hi++) {
-                for (int di = 0; di < availableDroneModels.size(); di++) {
-                    if (x[hi][di].solutionValue() > 0.5) { // 解为1时
-                        InspectionPoint hangar = potentialHangars.get(hi);
-                        DroneModel drone = availableDroneModels.get(di);
-                        selectedHangars.add(new SelectedHangar(
-                                hangar.getId(),
-                                drone.getModelName(),
-                                hangar.getCoordinate()
-                        ));
-                        System.out.println("选定机巢位置: " + hangar.getId() +
-                                "，使用无人机型号: " + drone.getModelName());
-                    }
-                }
+            if (Double.isNaN(bound) || Math.abs(bound) >= 1e19) {
+                bound = fallbackBound.getAsDouble();
             }
-        } else {
-            System.err.println("没有找到可行解");
+            // 未设置间隙时 OPTIMAL 即为最优；设置了间隙时按实际间隙判断
+            boolean optimal = status == MPSolver.ResultStatus.OPTIMAL
+                    && (relativeGap <= 0 || objective - bound <= 1e-6 * Math.max(1, Math.abs(objective)));
+            return new ComponentResult(selected, objective, optimal ? objective : Math.min(bound, objective), optimal);
         }
+        if (greedySolution != null) {
+            double greedyCost = SetCoverModel.costOf(greedySolution, cost);
+            return new ComponentResult(greedySolution, greedyCost,
+                    Math.min(fallbackBound.getAsDouble(), greedyCost), false);
+        }
+        return null;
+    }
 
-        return selectedHangars;
+    /**
+     * 分量外的点视为已覆盖、分量内的点未覆盖的覆盖状态
+     */
+    private static long[] componentMask(CoverageMatrix matrix, ProblemReducer.Component component) {
+        long[] covered = matrix.newPointSet();
+        for (int pi = 0; pi < matrix.getPointCount(); pi++) {
+            CoverageMatrix.set(covered, pi);
+        }
+        for (int pi : component.getPoints()) {
+            CoverageMatrix.clear(covered, pi);
+        }
+        return covered;
     }
-}
 
+    /**
+     * 求解器没有给出下界时使用的简单下界：分量内互斥难点数 × 分量内的最小成本
+     */
+    static double fallbackBound(CoverageMatrix matrix, ProblemReducer.Component component, double[] cost) {
+        double minCost = Double.POSITIVE_INFINITY;
+        for (int c : component.getCandidates()) {
+            minCost = Math.min(minCost, cost[c]);
+        }
+        if (Double.isInfinite(minCost)) {
+            return 0;
+        }
+        return new DisjointPointsBound().estimate(matrix, componentMask(matrix, component), Integer.MAX_VALUE) * minCost;
+    }
+
+    /**
+     * 单个连通分量的求解结果
+     */
+    static final class ComponentResult {
+        final int[] solution;
+        final double objective;
+        final double bound;
+        final boolean optimal;
+
+        ComponentResult(int[] solution, double objective, double bound, boolean optimal) {
+            this.solution = solution;
+            this.objective = objective;
+            this.bound = bound;
+            this.optimal = optimal;
+        }
+    }
+}
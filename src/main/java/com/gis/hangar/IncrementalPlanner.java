@@ -0,0 +1,549 @@
+package com.gis.hangar;
+
+import org.locationtech.jts.geom.Coordinate;
+
+import java.util.*;
+
+/**
+ * 增量机巢规划会话 - 基于墨卡托坐标系统 (EPSG:3857)
+ * 保存巡检点和机巢位置的网格索引、当前选中的机巢以及每个巡检点被覆盖的次数。
+ * 增删巡检点时不重新预计算覆盖关系，只查询变化点附近的机巢位置，更新受影响的覆盖计数，
+ * 然后局部修复：为新出现的未覆盖点贪心增加机巢，删除因变化而变得多余的机巢。
+ * 完整的重新优化（HangarPlacementAlgorithm5）只在调用 reoptimize() 时执行。
+ * 与 HangarPlacementAlgorithm5 一致，所有巡检点都需要覆盖，成本为 1 + 半径/10。
+ * 非线程安全，同一会话的调用需要由调用方串行化。
+ */
+public class IncrementalPlanner {
+
+    private final List<DroneModel> droneModels;
+    private final int droneCount;
+    private final double[] rangeMeters;
+    private final double[] droneCost;
+    private final double maxRangeMeters;
+
+    // 巡检点按槽位存储，删除后的槽位被复用
+    private final List<InspectionPoint> pointsBySlot = new ArrayList<>();
+    private final Map<String, Integer> slotById = new HashMap<>();
+    private final Deque<Integer> freeSlots = new ArrayDeque<>();
+    // 全部巡检点、可建机巢位置的网格索引，编号为槽位
+    private final PointGridIndex pointIndex;
+    private final PointGridIndex siteIndex;
+
+    // 每个槽位上选中的无人机型号（位掩码）和每个巡检点被选中机巢覆盖的次数
+    private long[] selectedDrones = new long[16];
+    private int[] coverCount = new int[16];
+    private int selectedCount;
+
+    private final PointGridIndex.Neighbors neighbors = new PointGridIndex.Neighbors();
+    private final PointGridIndex.Neighbors siteNeighbors = new PointGridIndex.Neighbors();
+
+    public IncrementalPlanner(List<InspectionPoint> inspectionPoints, List<DroneModel> droneModels) {
+        if (droneModels.isEmpty() || droneModels.size() > Long.SIZE) {
+            throw new IllegalArgumentException("无人机型号数量必须在 1 到 " + Long.SIZE + " 之间: " + droneModels.size());
+        }
+        this.droneModels = Collections.unmodifiableList(new ArrayList<>(droneModels));
+        this.droneCount = droneModels.size();
+        this.rangeMeters = new double[droneCount];
+        this.droneCost = new double[droneCount];
+        double maxRange = 0;
+        for (int di = 0; di < droneCount; di++) {
+            rangeMeters[di] = droneModels.get(di).getRangeKm() * 1000; // 转换为米
+            droneCost[di] = 1.0 + droneModels.get(di).getRangeKm() / 10.0;
+            maxRange = Math.max(maxRange, rangeMeters[di]);
+        }
+        this.maxRangeMeters = maxRange;
+        // 网格边长按初始点的最高纬度取墨卡托搜索半径，之后加入的更高纬度的点只是多查几个网格
+        double maxAbsY = 0;
+        for (InspectionPoint point : inspectionPoints) {
+            maxAbsY = Math.max(maxAbsY, Math.abs(point.getCoordinate().y));
+        }
+        double cellSize = MercatorScale.searchRadius(Math.max(maxRange, 1.0), maxAbsY);
+        this.pointIndex = new PointGridIndex(cellSize);
+        this.siteIndex = new PointGridIndex(cellSize);
+
+        for (InspectionPoint point : inspectionPoints) {
+            insertPoint(point);
+        }
+    }
+
+    // ---------------------------------------------------------------- 对外接口
+
+    /**
+     * 使用已有的方案（例如之前的完整优化结果）作为当前解，并修复其中未覆盖的点
+     * 不存在的机巢位置或型号会被忽略
+     */
+    public Repair setSolution(List<SelectedHangar> hangars) {
+        long start = System.nanoTime();
+        clearSelection();
+        Repair repair = new Repair();
+        for (SelectedHangar hangar : hangars) {
+            int candidate = candidateOf(hangar);
+            if (candidate >= 0 && !isSelected(candidate)) {
+                select(candidate);
+            }
+        }
+        repairAll(repair, start);
+        return repair;
+    }
+
+    /**
+     * 应用巡检点变化并局部修复
+     * 新增点的编号已存在时视为移动（先删除旧点）；删除不存在的编号会被忽略。
+     *
+     * @param added 新增的巡检点
+     * @param removedIds 删除的巡检点编号
+     * @return 本次修复的统计
+     */
+    public Repair applyDelta(Collection<InspectionPoint> added, Collection<String> removedIds) {
+        long start = System.nanoTime();
+        Repair repair = new Repair();
+        Set<Integer> dirtyPoints = new LinkedHashSet<>();
+        Set<Integer> affectedCandidates = new HashSet<>();
+
+        for (String id : removedIds) {
+            removePoint(id, dirtyPoints, affectedCandidates, repair);
+        }
+        for (InspectionPoint point : added) {
+            if (slotById.containsKey(point.getId())) {
+                removePoint(point.getId(), dirtyPoints, affectedCandidates, repair);
+            }
+            int slot = insertPoint(point);
+            if (coverCount[slot] == 0) {
+                dirtyPoints.add(slot);
+            }
+            if (point.canBuildHangar()) {
+                // 新的机巢位置可能使附近原来无法覆盖的点变得可以覆盖
+                collectUncoveredNear(slot, dirtyPoints);
+            }
+        }
+
+        repair(dirtyPoints, affectedCandidates, repair);
+        repair.elapsedNanos = System.nanoTime() - start;
+        return repair;
+    }
+
+    /**
+     * 完整重新优化：对当前所有巡检点运行 ILP，并以其结果替换当前解
+     */
+    public PlacementSolution reoptimize() {
+        List<InspectionPoint> points = getPoints();
+        PlacementSolution solution = new HangarPlacementAlgorithm5(points, droneModels).solve(0, 0);
+        if (solution.getStatus() != PlacementSolution.Status.NOT_SOLVED) {
+            setSolution(solution.getHangars());
+        }
+        return solution;
+    }
+
+    /**
+     * 当前选中的机巢，按巡检点槽位和型号排序
+     */
+    public List<SelectedHangar> getSelectedHangars() {
+        List<SelectedHangar> result = new ArrayList<>(selectedCount);
+        for (int slot = 0; slot < pointsBySlot.size(); slot++) {
+            long mask = selectedDrones[slot];
+            while (mask != 0) {
+                int di = Long.numberOfTrailingZeros(mask);
+                InspectionPoint site = pointsBySlot.get(slot);
+                result.add(new SelectedHangar(site.getId(), droneModels.get(di).getModelName(), site.getCoordinate()));
+                mask &= mask - 1;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 当前所有巡检点，按槽位排序
+     */
+    public List<InspectionPoint> getPoints() {
+        List<InspectionPoint> points = new ArrayList<>(slotById.size());
+        for (InspectionPoint point : pointsBySlot) {
+            if (point != null) {
+                points.add(point);
+            }
+        }
+        return points;
+    }
+
+    public List<DroneModel> getDroneModels() {
+        return droneModels;
+    }
+
+    public int getPointCount() {
+        return slotById.size();
+    }
+
+    public int getSelectedCount() {
+        return selectedCount;
+    }
+
+    /**
+     * 当前解的总成本（1 + 半径/10 之和）
+     */
+    public double getObjectiveValue() {
+        double total = 0;
+        for (long mask : selectedDrones) {
+            while (mask != 0) {
+                total += droneCost[Long.numberOfTrailingZeros(mask)];
+                mask &= mask - 1;
+            }
+        }
+        return total;
+    }
+
+    /**
+     * 当前未被覆盖的巡检点编号（包括无法被任何机巢覆盖的点）
+     */
+    public List<String> getUncoveredPoints() {
+        List<String> uncovered = new ArrayList<>();
+        for (int slot = 0; slot < pointsBySlot.size(); slot++) {
+            if (pointsBySlot.get(slot) != null && coverCount[slot] == 0) {
+                uncovered.add(pointsBySlot.get(slot).getId());
+            }
+        }
+        return uncovered;
+    }
+
+    // ---------------------------------------------------------------- 增删点
+
+    private int insertPoint(InspectionPoint point) {
+        if (slotById.containsKey(point.getId())) {
+            throw new IllegalArgumentException("巡检点编号重复: " + point.getId());
+        }
+        int slot;
+        if (freeSlots.isEmpty()) {
+            slot = pointsBySlot.size();
+            pointsBySlot.add(point);
+            ensureCapacity(slot + 1);
+        } else {
+            slot = freeSlots.pop();
+            pointsBySlot.set(slot, point);
+        }
+        slotById.put(point.getId(), slot);
+
+        Coordinate c = point.getCoordinate();
+        pointIndex.insert(slot, c.x, c.y);
+        if (point.canBuildHangar()) {
+            siteIndex.insert(slot, c.x, c.y);
+        }
+
+        // 只统计附近已选中的机巢
+        int count = 0;
+        siteNeighbors.clear();
+        siteIndex.queryWithin(c.x, c.y, maxRangeMeters, siteNeighbors);
+        for (int k = 0; k < siteNeighbors.size(); k++) {
+            long mask = selectedDrones[siteNeighbors.id(k)];
+            double distance = siteNeighbors.distance(k);
+            while (mask != 0) {
+                int di = Long.numberOfTrailingZeros(mask);
+                if (distance <= rangeMeters[di]) {
+                    count++;
+                }
+                mask &= mask - 1;
+            }
+        }
+        coverCount[slot] = count;
+        return slot;
+    }
+
+    private void removePoint(String id, Set<Integer> dirtyPoints, Set<Integer> affectedCandidates, Repair repair) {
+        Integer boxed = slotById.remove(id);
+        if (boxed == null) {
+            return;
+        }
+        int slot = boxed;
+        Coordinate c = pointsBySlot.get(slot).getCoordinate();
+
+        // 覆盖该点的机巢可能变得多余
+        siteNeighbors.clear();
+        siteIndex.queryWithin(c.x, c.y, maxRangeMeters, siteNeighbors);
+        for (int k = 0; k < siteNeighbors.size(); k++) {
+            long mask = selectedDrones[siteNeighbors.id(k)];
+            double distance = siteNeighbors.distance(k);
+            while (mask != 0) {
+                int di = Long.numberOfTrailingZeros(mask);
+                if (distance <= rangeMeters[di]) {
+                    affectedCandidates.add(siteNeighbors.id(k) * droneCount + di);
+                }
+                mask &= mask - 1;
+            }
+        }
+
+        // 删除该位置上的机巢，失去覆盖的点需要修复
+        long mask = selectedDrones[slot];
+        while (mask != 0) {
+            int candidate = slot * droneCount + Long.numberOfTrailingZeros(mask);
+            affectedCandidates.remove(candidate);
+            dirtyPoints.addAll(deselect(candidate));
+            repair.removedHangars++;
+            mask &= mask - 1;
+        }
+
+        pointIndex.remove(slot);
+        siteIndex.remove(slot);
+        pointsBySlot.set(slot, null);
+        coverCount[slot] = 0;
+        dirtyPoints.remove(slot);
+        freeSlots.push(slot);
+    }
+
+    // ---------------------------------------------------------------- 局部修复
+
+    private void repairAll(Repair repair, long start) {
+        Set<Integer> dirtyPoints = new LinkedHashSet<>();
+        for (int slot = 0; slot < pointsBySlot.size(); slot++) {
+            if (pointsBySlot.get(slot) != null && coverCount[slot] == 0) {
+                dirtyPoints.add(slot);
+            }
+        }
+        Set<Integer> affectedCandidates = new HashSet<>();
+        for (int slot = 0; slot < pointsBySlot.size(); slot++) {
+            long mask = selectedDrones[slot];
+            while (mask != 0) {
+                affectedCandidates.add(slot * droneCount + Long.numberOfTrailingZeros(mask));
+                mask &= mask - 1;
+            }
+        }
+        repair(dirtyPoints, affectedCandidates, repair);
+        repair.elapsedNanos = System.nanoTime() - start;
+    }
+
+    /**
+     * 局部修复：先为未覆盖点贪心增加机巢，再删除受影响范围内多余的机巢
+     */
+    private void repair(Set<Integer> dirtyPoints, Set<Integer> affectedCandidates, Repair repair) {
+        // 未覆盖点 -> 能覆盖它的候选；没有候选的点无法覆盖
+        Map<Integer, int[]> uncovered = new LinkedHashMap<>();
+        Map<Integer, Integer> gains = new HashMap<>();
+        for (int slot : dirtyPoints) {
+            if (pointsBySlot.get(slot) == null || coverCount[slot] > 0) {
+                continue;
+            }
+            int[] candidates = candidatesCovering(slot);
+            if (candidates.length == 0) {
+                repair.uncoverablePoints++;
+                continue;
+            }
+            uncovered.put(slot, candidates);
+            for (int candidate : candidates) {
+                gains.merge(candidate, 1, Integer::sum);
+            }
+        }
+        repair.uncoveredPoints = uncovered.size();
+
+        // 贪心：每次选择 新覆盖点数/成本 最大的候选
+        while (!uncovered.isEmpty()) {
+            int best = -1;
+            double bestRatio = 0;
+            for (Map.Entry<Integer, Integer> entry : gains.entrySet()) {
+                int candidate = entry.getKey();
+                double ratio = entry.getValue() / droneCost[candidate % droneCount];
+                if (ratio > bestRatio || (ratio == bestRatio && candidate < best)) {
+                    best = candidate;
+                    bestRatio = ratio;
+                }
+            }
+            select(best);
+            repair.addedHangars++;
+            affectedCandidates.add(best);
+            // 新机巢附近已有的机巢可能因此变得多余
+            collectSelectedNear(best, affectedCandidates);
+
+            for (int slot : coveredPoints(best)) {
+                int[] candidates = uncovered.remove(slot);
+                if (candidates == null) {
+                    continue;
+                }
+                for (int candidate : candidates) {
+                    gains.computeIfPresent(candidate, (k, v) -> v > 1 ? v - 1 : null);
+                }
+            }
+        }
+
+        // 删除多余机巢：它覆盖的每个点都还被其他机巢覆盖，优先删除成本高的
+        List<Integer> affected = new ArrayList<>();
+        for (int candidate : affectedCandidates) {
+            if (isSelected(candidate)) {
+                affected.add(candidate);
+            }
+        }
+        affected.sort((a, b) -> {
+            int byCost = Double.compare(droneCost[b % droneCount], droneCost[a % droneCount]);
+            return byCost != 0 ? byCost : Integer.compare(a, b);
+        });
+        for (int candidate : affected) {
+            if (isRedundant(candidate)) {
+                deselect(candidate);
+                repair.removedHangars++;
+            }
+        }
+    }
+
+    private boolean isRedundant(int candidate) {
+        for (int slot : coveredPoints(candidate)) {
+            if (coverCount[slot] < 2) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 能覆盖该点的所有候选（附近的机巢位置 × 半径足够的型号）
+     */
+    private int[] candidatesCovering(int slot) {
+        Coordinate c = pointsBySlot.get(slot).getCoordinate();
+        siteNeighbors.clear();
+        siteIndex.queryWithin(c.x, c.y, maxRangeMeters, siteNeighbors);
+        int[] candidates = new int[siteNeighbors.size() * droneCount];
+        int count = 0;
+        for (int k = 0; k < siteNeighbors.size(); k++) {
+            double distance = siteNeighbors.distance(k);
+            for (int di = 0; di < droneCount; di++) {
+                if (distance <= rangeMeters[di]) {
+                    candidates[count++] = siteNeighbors.id(k) * droneCount + di;
+                }
+            }
+        }
+        return Arrays.copyOf(candidates, count);
+    }
+
+    /**
+     * 覆盖范围与给定候选重叠的已选中候选
+     */
+    private void collectSelectedNear(int candidate, Set<Integer> out) {
+        Coordinate c = pointsBySlot.get(candidate / droneCount).getCoordinate();
+        siteNeighbors.clear();
+        siteIndex.queryWithin(c.x, c.y, rangeMeters[candidate % droneCount] + maxRangeMeters, siteNeighbors);
+        for (int k = 0; k < siteNeighbors.size(); k++) {
+            long mask = selectedDrones[siteNeighbors.id(k)];
+            while (mask != 0) {
+                out.add(siteNeighbors.id(k) * droneCount + Long.numberOfTrailingZeros(mask));
+                mask &= mask - 1;
+            }
+        }
+    }
+
+    private void collectUncoveredNear(int slot, Set<Integer> out) {
+        Coordinate c = pointsBySlot.get(slot).getCoordinate();
+        neighbors.clear();
+        pointIndex.queryWithin(c.x, c.y, maxRangeMeters, neighbors);
+        for (int k = 0; k < neighbors.size(); k++) {
+            if (coverCount[neighbors.id(k)] == 0) {
+                out.add(neighbors.id(k));
+            }
+        }
+    }
+
+    // ---------------------------------------------------------------- 选中/取消
+
+    private int[] coveredPoints(int candidate) {
+        Coordinate c = pointsBySlot.get(candidate / droneCount).getCoordinate();
+        neighbors.clear();
+        pointIndex.queryWithin(c.x, c.y, rangeMeters[candidate % droneCount], neighbors);
+        int[] slots = new int[neighbors.size()];
+        for (int k = 0; k < slots.length; k++) {
+            slots[k] = neighbors.id(k);
+        }
+        return slots;
+    }
+
+    private boolean isSelected(int candidate) {
+        return (selectedDrones[candidate / droneCount] & (1L << (candidate % droneCount))) != 0;
+    }
+
+    private void select(int candidate) {
+        selectedDrones[candidate / droneCount] |= 1L << (candidate % droneCount);
+        selectedCount++;
+        for (int slot : coveredPoints(candidate)) {
+            coverCount[slot]++;
+        }
+    }
+
+    /**
+     * @return 因此失去覆盖的点
+     */
+    private List<Integer> deselect(int candidate) {
+        selectedDrones[candidate / droneCount] &= ~(1L << (candidate % droneCount));
+        selectedCount--;
+        List<Integer> lost = new ArrayList<>();
+        for (int slot : coveredPoints(candidate)) {
+            if (--coverCount[slot] == 0) {
+                lost.add(slot);
+            }
+        }
+        return lost;
+    }
+
+    private void clearSelection() {
+        Arrays.fill(selectedDrones, 0);
+        Arrays.fill(coverCount, 0);
+        selectedCount = 0;
+    }
+
+    private int candidateOf(SelectedHangar hangar) {
+        Integer slot = slotById.get(hangar.getHangarLocationId());
+        if (slot == null || !pointsBySlot.get(slot).canBuildHangar()) {
+            return -1;
+        }
+        for (int di = 0; di < droneCount; di++) {
+            if (droneModels.get(di).getModelName().equals(hangar.getDroneModelName())) {
+                return slot * droneCount + di;
+            }
+        }
+        return -1;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > coverCount.length) {
+            int newLength = Math.max(capacity, coverCount.length * 2);
+            coverCount = Arrays.copyOf(coverCount, newLength);
+            selectedDrones = Arrays.copyOf(selectedDrones, newLength);
+        }
+    }
+
+    /**
+     * 一次局部修复的统计
+     */
+    public static final class Repair {
+        private int uncoveredPoints;
+        private int uncoverablePoints;
+        private int addedHangars;
+        private int removedHangars;
+        private long elapsedNanos;
+
+        /**
+         * 修复前需要重新覆盖的点数（不含无法覆盖的点）
+         */
+        public int getUncoveredPoints() {
+            return uncoveredPoints;
+        }
+
+        public int getUncoverablePoints() {
+            return uncoverablePoints;
+        }
+
+        public int getAddedHangars() {
+            return addedHangars;
+        }
+
+        /**
+         * 删除的机巢数，包括随机巢位置一起删除的和多余的
+         */
+        public int getRemovedHangars() {
+            return removedHangars;
+        }
+
+        public long getElapsedNanos() {
+            return elapsedNanos;
+        }
+
+        @Override
+        public String toString() {
+            return "局部修复: 未覆盖点 " + uncoveredPoints
+                    + ", 无法覆盖 " + uncoverablePoints
+                    + ", 新增机巢 " + addedHangars
+                    + ", 删除机巢 " + removedHangars
+                    + ", 耗时 " + String.format("%.2f", elapsedNanos / 1e6) + "ms";
+        }
+    }
+}
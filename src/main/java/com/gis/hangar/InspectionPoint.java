@@ -6,6 +6,7 @@ public class InspectionPoint {
     private String id;
     private Coordinate coordinate;
     private boolean canBuildHangar; // 标识是否可以建机巢
+    private int visitsPerCycle = 1; // 每个巡检周期需要的巡检次数（复巡频次）
 
     public InspectionPoint(String id, double x, double y) {
         this.id = id;
@@ -35,12 +36,21 @@ public class InspectionPoint {
         this.canBuildHangar = canBuildHangar;
     }
 
+    public int getVisitsPerCycle() {
+        return visitsPerCycle;
+    }
+
+    public void setVisitsPerCycle(int visitsPerCycle) {
+        this.visitsPerCycle = visitsPerCycle;
+    }
+
     @Override
     public String toString() {
         return "InspectionPoint{" +
                 "id='" + id + '\'' +
                 ", coordinate=" + coordinate +
                 ", canBuildHangar=" + canBuildHangar +
+                ", visitsPerCycle=" + visitsPerCycle +
                 '}';
     }
 
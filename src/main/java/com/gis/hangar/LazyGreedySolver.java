@@ -0,0 +1,210 @@
+package com.gis.hangar;
+
+/**
+ * 延迟贪心 (CELF) 集合覆盖求解器
+ * 覆盖函数是子模的：一个候选的边际收益（新增覆盖点数）只会随已选集合增大而减小，
+ * 因此堆中缓存的收益总是真实收益的上界。每轮只需重新计算堆顶候选，
+ * 若重新计算后仍在堆顶即可直接选中，不必像普通贪心那样每轮扫描所有候选和所有点。
+ *
+ * 选择顺序与普通贪心完全一致：新增覆盖点数多者优先，相同时巡航半径小者优先，
+ * 再相同时按候选编号（机巢位置、无人机型号的遍历顺序）靠前者优先。
+ */
+public class LazyGreedySolver {
+
+    private final CoverageMatrix matrix;
+    private final boolean allowSiteReuse;
+    // 允许使用的候选，为 null 时不限
+    private final boolean[] allowed;
+
+    // 统计信息：计算边际收益的次数
+    private long evaluations;
+
+    /**
+     * @param matrix 覆盖关系
+     * @param allowSiteReuse 同一机巢位置能否被多次选中（使用不同无人机型号）
+     */
+    public LazyGreedySolver(CoverageMatrix matrix, boolean allowSiteReuse) {
+        this(matrix, allowSiteReuse, null);
+    }
+
+    /**
+     * @param allowed 允许使用的候选（下标为候选编号），为 null 时不限
+     */
+    public LazyGreedySolver(CoverageMatrix matrix, boolean allowSiteReuse, boolean[] allowed) {
+        this.matrix = matrix;
+        this.allowSiteReuse = allowSiteReuse;
+        this.allowed = allowed;
+    }
+
+    public LazyGreedySolver(CoverageMatrix matrix) {
+        this(matrix, true);
+    }
+
+    /**
+     * 从全部未覆盖开始求解
+     */
+    public Result solve() {
+        return solve(matrix.newPointSet());
+    }
+
+    /**
+     * 从给定的覆盖状态开始求解，covered 会被更新为最终覆盖状态
+     */
+    public Result solve(long[] covered) {
+        evaluations = 0;
+        int candidateCount = matrix.getCandidateCount();
+        int[] gain = new int[candidateCount];
+        int[] stamp = new int[candidateCount];
+        boolean[] siteUsed = new boolean[matrix.getHangarCount()];
+
+        // 初始化堆：收益为0的候选以后也不可能有收益，直接丢弃
+        int[] heap = new int[candidateCount];
+        int heapSize = 0;
+        for (int c = 0; c < candidateCount; c++) {
+            if (matrix.coverageSize(c) == 0 || (allowed != null && !allowed[c])) {
+                continue;
+            }
+            gain[c] = matrix.countNewlyCovered(c, covered);
+            evaluations++;
+            if (gain[c] > 0) {
+                heap[heapSize++] = c;
+            }
+        }
+        for (int i = (heapSize >>> 1) - 1; i >= 0; i--) {
+            siftDown(heap, heapSize, i, gain);
+        }
+
+        int uncoveredCount = matrix.countUncovered(covered);
+        int[] selected = new int[Math.min(candidateCount, Math.max(uncoveredCount, 0))];
+        int[] selectedGains = new int[selected.length];
+        int selectedCount = 0;
+        int round = 0;
+
+        while (uncoveredCount > 0 && heapSize > 0) {
+            int top = heap[0];
+
+            if (!allowSiteReuse && siteUsed[matrix.hangarOf(top)]) {
+                heapSize = removeTop(heap, heapSize, gain);
+                continue;
+            }
+
+            if (stamp[top] == round) {
+                // 缓存收益是最新的，且所有其他候选的缓存收益都是上界，直接选中
+                heapSize = removeTop(heap, heapSize, gain);
+                matrix.applyCover(top, covered);
+                uncoveredCount -= gain[top];
+                selected[selectedCount] = top;
+                selectedGains[selectedCount] = gain[top];
+                selectedCount++;
+                siteUsed[matrix.hangarOf(top)] = true;
+                round++;
+                continue;
+            }
+
+            // 缓存收益已过期，重新计算后下沉到正确位置
+            gain[top] = matrix.countNewlyCovered(top, covered);
+            stamp[top] = round;
+            evaluations++;
+            if (gain[top] == 0) {
+                heapSize = removeTop(heap, heapSize, gain);
+            } else {
+                siftDown(heap, heapSize, 0, gain);
+            }
+        }
+
+        int[] candidates = new int[selectedCount];
+        int[] gains = new int[selectedCount];
+        System.arraycopy(selected, 0, candidates, 0, selectedCount);
+        System.arraycopy(selectedGains, 0, gains, 0, selectedCount);
+        return new Result(candidates, gains, uncoveredCount, evaluations);
+    }
+
+    public long getEvaluations() {
+        return evaluations;
+    }
+
+    /**
+     * 候选 a 是否优于候选 b
+     */
+    private boolean better(int a, int b, int[] gain) {
+        if (gain[a] != gain[b]) {
+            return gain[a] > gain[b];
+        }
+        double rangeA = matrix.getDroneModel(matrix.droneOf(a)).getRangeKm();
+        double rangeB = matrix.getDroneModel(matrix.droneOf(b)).getRangeKm();
+        if (rangeA != rangeB) {
+            return rangeA < rangeB;
+        }
+        return a < b;
+    }
+
+    private int removeTop(int[] heap, int heapSize, int[] gain) {
+        heapSize--;
+        heap[0] = heap[heapSize];
+        if (heapSize > 0) {
+            siftDown(heap, heapSize, 0, gain);
+        }
+        return heapSize;
+    }
+
+    private void siftDown(int[] heap, int heapSize, int i, int[] gain) {
+        int item = heap[i];
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= heapSize) {
+                break;
+            }
+            if (child + 1 < heapSize && better(heap[child + 1], heap[child], gain)) {
+                child++;
+            }
+            if (!better(heap[child], item, gain)) {
+                break;
+            }
+            heap[i] = heap[child];
+            i = child;
+        }
+        heap[i] = item;
+    }
+
+    /**
+     * 求解结果
+     */
+    public static class Result {
+        private final int[] candidates;
+        private final int[] gains;
+        private final int uncoveredCount;
+        private final long evaluations;
+
+        Result(int[] candidates, int[] gains, int uncoveredCount, long evaluations) {
+            this.candidates = candidates;
+            this.gains = gains;
+            this.uncoveredCount = uncoveredCount;
+            this.evaluations = evaluations;
+        }
+
+        /**
+         * 按选择顺序排列的候选编号
+         */
+        public int[] getCandidates() {
+            return candidates;
+        }
+
+        /**
+         * 每个候选被选中时新增覆盖的点数
+         */
+        public int[] getGains() {
+            return gains;
+        }
+
+        /**
+         * 最终仍未覆盖的点数
+         */
+        public int getUncoveredCount() {
+            return uncoveredCount;
+        }
+
+        public long getEvaluations() {
+            return evaluations;
+        }
+    }
+}
@@ -0,0 +1,415 @@
+package com.gis.hangar;
+
+import java.util.Arrays;
+import java.util.concurrent.CancellationException;
+
+/**
+ * 贪心解的局部搜索改进
+ * 在 CoverageMatrix 的位图表示上维护每个点被已选候选覆盖的次数（count）
+ * 以及覆盖它的已选候选编号的异或（owner，count 为 1 时就是唯一覆盖它的候选），
+ * 每个移动只增量更新被涉及候选覆盖的点：
+ * <ul>
+ *     <li>冗余消除：候选覆盖的点都被其他候选覆盖时删除，优先删除成本高的</li>
+ *     <li>降级：同一机巢位置换成更便宜（半径更小）的型号，只由它覆盖的点仍被覆盖</li>
+ *     <li>1-swap：换成另一个更便宜的候选</li>
+ *     <li>2-for-1：换成另一个候选后，某个已选候选变得冗余，一并删除</li>
+ * </ul>
+ * 只接受使总成本严格下降的移动，因此一定收敛；覆盖约束为初始解覆盖的所有点保持覆盖。
+ */
+public class LocalSearchOptimizer {
+
+    private static final double EPSILON = 1e-9;
+
+    private final CoverageMatrix matrix;
+    private final double[] cost;
+    private final boolean allowSiteReuse;
+
+    // 需要保持覆盖的点
+    private long[] required;
+    private int[] count;
+    private int[] owner;
+    // 已选候选及其在 members 中的位置
+    private int[] members;
+    private int memberCount;
+    private int[] position;
+    private int[] siteUse;
+    // 是否已请求取消，每个移动之前检查
+    private volatile boolean cancelled;
+
+    /**
+     * @param matrix 覆盖关系
+     * @param cost 每个候选的成本，下标为候选编号
+     * @param allowSiteReuse 同一机巢位置能否同时使用多个无人机型号
+     */
+    public LocalSearchOptimizer(CoverageMatrix matrix, double[] cost, boolean allowSiteReuse) {
+        this.matrix = matrix;
+        this.cost = cost;
+        this.allowSiteReuse = allowSiteReuse;
+    }
+
+    /**
+     * 局部搜索
+     *
+     * @param initial 初始解（候选编号）
+     * @param timeBudgetMillis 时间预算（毫秒），不大于 0 表示直到收敛
+     */
+    public Result improve(int[] initial, long timeBudgetMillis) {
+        long start = System.nanoTime();
+        long deadline = timeBudgetMillis > 0 ? start + timeBudgetMillis * 1_000_000L : Long.MAX_VALUE;
+        init(initial);
+        Result result = new Result();
+        result.initialCost = totalCost();
+
+        boolean improved = true;
+        while (improved && System.nanoTime() < deadline) {
+            improved = false;
+            result.passes++;
+            for (int candidate : membersByCostDescending()) {
+                if (position[candidate] < 0) {
+                    continue; // 本轮中已被删除
+                }
+                if (cancelled) {
+                    throw new CancellationException("局部搜索已取消");
+                }
+                if (System.nanoTime() >= deadline) {
+                    result.timedOut = true;
+                    break;
+                }
+                if (isRedundant(candidate)) {
+                    remove(candidate);
+                    result.redundantRemoved++;
+                    improved = true;
+                } else if (tryDowngrade(candidate)) {
+                    result.downgrades++;
+                    improved = true;
+                } else {
+                    int removed = trySwap(candidate);
+                    if (removed == 1) {
+                        result.swaps++;
+                        improved = true;
+                    } else if (removed == 2) {
+                        result.twoForOneSwaps++;
+                        improved = true;
+                    }
+                }
+            }
+        }
+        if (improved && System.nanoTime() >= deadline) {
+            result.timedOut = true;
+        }
+
+        int[] solution = Arrays.copyOf(members, memberCount);
+        Arrays.sort(solution);
+        result.candidates = solution;
+        result.finalCost = totalCost();
+        result.elapsedNanos = System.nanoTime() - start;
+        return result;
+    }
+
+    /**
+     * 请求取消，正在进行的 improve 会在下一个移动之前抛出 CancellationException
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    // ---------------------------------------------------------------- 移动
+
+    /**
+     * 降级：换成同一位置上成本更低且仍能覆盖只由它覆盖的点的型号
+     */
+    private boolean tryDowngrade(int candidate) {
+        int[] unique = uniquePoints(candidate);
+        int hi = matrix.hangarOf(candidate);
+        int best = -1;
+        for (int di = 0; di < matrix.getDroneCount(); di++) {
+            int replacement = matrix.candidateId(hi, di);
+            if (replacement == candidate || position[replacement] >= 0
+                    || cost[replacement] >= cost[candidate] - EPSILON
+                    || (best >= 0 && cost[replacement] >= cost[best])) {
+                continue;
+            }
+            if (coversAll(replacement, unique)) {
+                best = replacement;
+            }
+        }
+        if (best < 0) {
+            return false;
+        }
+        remove(candidate);
+        add(best);
+        return true;
+    }
+
+    /**
+     * 1-swap / 2-for-1：用另一个候选替换，替换后若有已选候选变得冗余则一并删除
+     *
+     * @return 删除的候选数（1 或 2），没有改进时返回 0
+     */
+    private int trySwap(int candidate) {
+        int[] unique = uniquePoints(candidate);
+        if (unique.length == 0) {
+            return 0;
+        }
+        int hi = matrix.hangarOf(candidate);
+        // 替换者必须覆盖只由 candidate 覆盖的第一个点
+        int anchor = unique[0];
+        for (int k = 0; k < matrix.coveringCount(anchor); k++) {
+            int replacement = matrix.coveringCandidate(anchor, k);
+            if (replacement == candidate || position[replacement] >= 0) {
+                continue;
+            }
+            int replacementSite = matrix.hangarOf(replacement);
+            if (!allowSiteReuse && replacementSite != hi && siteUse[replacementSite] > 0) {
+                continue;
+            }
+            if (!coversAll(replacement, unique)) {
+                continue;
+            }
+
+            remove(candidate);
+            add(replacement);
+            int extra = bestRedundantNeighbor(replacement);
+            double delta = cost[replacement] - cost[candidate] - (extra >= 0 ? cost[extra] : 0);
+            if (delta < -EPSILON) {
+                if (extra >= 0) {
+                    remove(extra);
+                    return 2;
+                }
+                return 1;
+            }
+            // 没有改进，回退
+            remove(replacement);
+            add(candidate);
+        }
+        return 0;
+    }
+
+    /**
+     * 加入 candidate 之后变得冗余的已选候选中成本最高的一个
+     * 只有与 candidate 共同覆盖某个点（该点覆盖次数为 2）的候选才可能因它变得冗余
+     */
+    private int bestRedundantNeighbor(int candidate) {
+        int best = -1;
+        long[] row = matrix.coverageOf(candidate);
+        for (int w = 0; w < row.length; w++) {
+            long word = row[w] & required[w];
+            while (word != 0) {
+                int pi = (w << 6) + Long.numberOfTrailingZeros(word);
+                word &= word - 1;
+                if (count[pi] != 2) {
+                    continue;
+                }
+                int other = owner[pi] ^ candidate;
+                if (other != best && (best < 0 || cost[other] > cost[best]) && isRedundant(other)) {
+                    best = other;
+                }
+            }
+        }
+        return best;
+    }
+
+    // ---------------------------------------------------------------- 覆盖计数
+
+    private void init(int[] initial) {
+        int candidateCount = matrix.getCandidateCount();
+        required = matrix.newPointSet();
+        count = new int[matrix.getPointCount()];
+        owner = new int[matrix.getPointCount()];
+        members = new int[Math.max(initial.length, 16)];
+        memberCount = 0;
+        position = new int[candidateCount];
+        Arrays.fill(position, -1);
+        siteUse = new int[matrix.getHangarCount()];
+        for (int candidate : initial) {
+            if (position[candidate] < 0) {
+                add(candidate);
+            }
+        }
+        for (int pi = 0; pi < count.length; pi++) {
+            if (count[pi] > 0) {
+                CoverageMatrix.set(required, pi);
+            }
+        }
+    }
+
+    private void add(int candidate) {
+        if (memberCount == members.length) {
+            members = Arrays.copyOf(members, memberCount * 2);
+        }
+        position[candidate] = memberCount;
+        members[memberCount++] = candidate;
+        siteUse[matrix.hangarOf(candidate)]++;
+        long[] row = matrix.coverageOf(candidate);
+        for (int w = 0; w < row.length; w++) {
+            long word = row[w];
+            while (word != 0) {
+                int pi = (w << 6) + Long.numberOfTrailingZeros(word);
+                count[pi]++;
+                owner[pi] ^= candidate;
+                word &= word - 1;
+            }
+        }
+    }
+
+    private void remove(int candidate) {
+        int index = position[candidate];
+        int last = members[--memberCount];
+        members[index] = last;
+        position[last] = index;
+        position[candidate] = -1;
+        siteUse[matrix.hangarOf(candidate)]--;
+        long[] row = matrix.coverageOf(candidate);
+        for (int w = 0; w < row.length; w++) {
+            long word = row[w];
+            while (word != 0) {
+                int pi = (w << 6) + Long.numberOfTrailingZeros(word);
+                count[pi]--;
+                owner[pi] ^= candidate;
+                word &= word - 1;
+            }
+        }
+    }
+
+    private boolean isRedundant(int candidate) {
+        long[] row = matrix.coverageOf(candidate);
+        for (int w = 0; w < row.length; w++) {
+            long word = row[w] & required[w];
+            while (word != 0) {
+                if (count[(w << 6) + Long.numberOfTrailingZeros(word)] < 2) {
+                    return false;
+                }
+                word &= word - 1;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 只由该候选覆盖的需要覆盖的点
+     */
+    private int[] uniquePoints(int candidate) {
+        long[] row = matrix.coverageOf(candidate);
+        int[] unique = new int[matrix.coverageSize(candidate)];
+        int size = 0;
+        for (int w = 0; w < row.length; w++) {
+            long word = row[w] & required[w];
+            while (word != 0) {
+                int pi = (w << 6) + Long.numberOfTrailingZeros(word);
+                if (count[pi] == 1) {
+                    unique[size++] = pi;
+                }
+                word &= word - 1;
+            }
+        }
+        return Arrays.copyOf(unique, size);
+    }
+
+    private boolean coversAll(int candidate, int[] points) {
+        long[] row = matrix.coverageOf(candidate);
+        for (int pi : points) {
+            if (!CoverageMatrix.get(row, pi)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int[] membersByCostDescending() {
+        Integer[] order = new Integer[memberCount];
+        for (int i = 0; i < memberCount; i++) {
+            order[i] = members[i];
+        }
+        Arrays.sort(order, (a, b) -> {
+            int byCost = Double.compare(cost[b], cost[a]);
+            return byCost != 0 ? byCost : Integer.compare(a, b);
+        });
+        int[] result = new int[memberCount];
+        for (int i = 0; i < memberCount; i++) {
+            result[i] = order[i];
+        }
+        return result;
+    }
+
+    private double totalCost() {
+        double total = 0;
+        for (int i = 0; i < memberCount; i++) {
+            total += cost[members[i]];
+        }
+        return total;
+    }
+
+    /**
+     * 局部搜索结果和各类移动的次数
+     */
+    public static final class Result {
+        private int[] candidates;
+        private double initialCost;
+        private double finalCost;
+        private int passes;
+        private int redundantRemoved;
+        private int downgrades;
+        private int swaps;
+        private int twoForOneSwaps;
+        private boolean timedOut;
+        private long elapsedNanos;
+
+        /**
+         * 改进后的解（候选编号，升序）
+         */
+        public int[] getCandidates() {
+            return candidates;
+        }
+
+        public double getInitialCost() {
+            return initialCost;
+        }
+
+        public double getFinalCost() {
+            return finalCost;
+        }
+
+        public int getPasses() {
+            return passes;
+        }
+
+        public int getRedundantRemoved() {
+            return redundantRemoved;
+        }
+
+        public int getDowngrades() {
+            return downgrades;
+        }
+
+        public int getSwaps() {
+            return swaps;
+        }
+
+        public int getTwoForOneSwaps() {
+            return twoForOneSwaps;
+        }
+
+        /**
+         * 是否因时间预算用完而停止（未收敛）
+         */
+        public boolean isTimedOut() {
+            return timedOut;
+        }
+
+        public long getElapsedNanos() {
+            return elapsedNanos;
+        }
+
+        @Override
+        public String toString() {
+            return "局部搜索: 成本 " + String.format("%.2f", initialCost) + " -> " + String.format("%.2f", finalCost)
+                    + ", 冗余删除 " + redundantRemoved
+                    + ", 降级 " + downgrades
+                    + ", 1-swap " + swaps
+                    + ", 2-for-1 " + twoForOneSwaps
+                    + ", 轮数 " + passes
+                    + (timedOut ? "（时间预算用完）" : "")
+                    + ", 耗时 " + String.format("%.1f", elapsedNanos / 1e6) + "ms";
+        }
+    }
+}
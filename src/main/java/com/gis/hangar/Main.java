@@ -126,9 +126,7 @@ public class Main {
     }
     
     private static double calculateDistance(Coordinate c1, Coordinate c2) {
-        // 在Web墨卡托坐标系中，直接计算欧几里得距离
-        double dx = c1.x - c2.x;
-        double dy = c1.y - c2.y;
-        return Math.sqrt(dx*dx + dy*dy); // 单位已经是米
+        // Web墨卡托平面距离按纬度比例因子校正为地面距离
+        return MercatorScale.groundDistance(c1, c2);
     }
 }
@@ -0,0 +1,88 @@
+package com.gis.hangar;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 带质量信息的机巢布置结果
+ * 限时求解时返回的可能只是当前最好的可行解（incumbent），
+ * lowerBound 为求解器证明的目标函数下界，gap = (目标值 - 下界) / 目标值。
+ */
+public class PlacementSolution {
+
+    /**
+     * 求解状态
+     */
+    public enum Status {
+        /** 已证明最优 */
+        OPTIMAL,
+        /** 有可行解，但因时间限制或相对间隙限制未证明最优 */
+        FEASIBLE,
+        /** 没有找到可行解 */
+        NOT_SOLVED
+    }
+
+    private final List<SelectedHangar> hangars;
+    private final double objectiveValue;
+    private final double lowerBound;
+    private final Status status;
+    private final long solveTimeMs;
+
+    public PlacementSolution(List<SelectedHangar> hangars, double objectiveValue, double lowerBound,
+                             Status status, long solveTimeMs) {
+        this.hangars = Collections.unmodifiableList(hangars);
+        this.objectiveValue = objectiveValue;
+        this.lowerBound = lowerBound;
+        this.status = status;
+        this.solveTimeMs = solveTimeMs;
+    }
+
+    public List<SelectedHangar> getHangars() {
+        return hangars;
+    }
+
+    public double getObjectiveValue() {
+        return objectiveValue;
+    }
+
+    public double getLowerBound() {
+        return lowerBound;
+    }
+
+    /**
+     * 相对间隙，已证明最优时为 0，没有可行解时为 1
+     */
+    public double getGap() {
+        if (status == Status.NOT_SOLVED) {
+            return 1.0;
+        }
+        if (objectiveValue <= 0) {
+            return 0;
+        }
+        return Math.max(0, (objectiveValue - lowerBound) / objectiveValue);
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public boolean isOptimal() {
+        return status == Status.OPTIMAL;
+    }
+
+    public long getSolveTimeMs() {
+        return solveTimeMs;
+    }
+
+    @Override
+    public String toString() {
+        return "PlacementSolution{" +
+                "hangars=" + hangars.size() +
+                ", objective=" + objectiveValue +
+                ", lowerBound=" + lowerBound +
+                ", gap=" + String.format("%.4f", getGap()) +
+                ", status=" + status +
+                ", solveTimeMs=" + solveTimeMs +
+                '}';
+    }
+}
@@ -0,0 +1,56 @@
+package com.gis.hangar;
+
+/**
+ * 求解过程中的进度事件：阶段、当前最好解的目标值和已知下界
+ * 目标值和下界未知时为 null
+ */
+public class PlanningProgress {
+
+    private final String phase;
+    private final String message;
+    private final Double incumbent;
+    private final Double lowerBound;
+    private final long elapsedMs;
+
+    public PlanningProgress(String phase, String message, Double incumbent, Double lowerBound, long elapsedMs) {
+        this.phase = phase;
+        this.message = message;
+        this.incumbent = incumbent;
+        this.lowerBound = lowerBound;
+        this.elapsedMs = elapsedMs;
+    }
+
+    /**
+     * 阶段，例如 greedy、bound、incumbent、reduction、component
+     */
+    public String getPhase() {
+        return phase;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public Double getIncumbent() {
+        return incumbent;
+    }
+
+    public Double getLowerBound() {
+        return lowerBound;
+    }
+
+    public long getElapsedMs() {
+        return elapsedMs;
+    }
+
+    @Override
+    public String toString() {
+        return "PlanningProgress{" +
+                "phase='" + phase + '\'' +
+                ", message='" + message + '\'' +
+                ", incumbent=" + incumbent +
+                ", lowerBound=" + lowerBound +
+                ", elapsedMs=" + elapsedMs +
+                '}';
+    }
+}
@@ -0,0 +1,289 @@
+package com.gis.hangar;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 巡检点网格哈希索引 - 基于墨卡托坐标 (EPSG:3857)
+ * 按固定边长把平面划分为网格，每个网格记录落在其中的巡检点编号。
+ * 以最大无人机半径对应的墨卡托搜索半径作为网格边长时，一次半径查询只需检查 3x3 个网格。
+ * 查询半径和返回的距离都是经比例因子校正的地面距离（米），每个点的比例因子在插入时算好。
+ * 支持增删点，便于增量维护。
+ */
+public class PointGridIndex {
+
+    private final double cellSize;
+    private final Map<Long, Cell> cells = new HashMap<>();
+
+    // 按点编号存储的坐标，用于距离计算和删除
+    private double[] xs = new double[16];
+    private double[] ys = new double[16];
+    private double[] scales = new double[16];
+    private boolean[] present = new boolean[16];
+    private int size;
+
+    public PointGridIndex(double cellSize) {
+        if (!(cellSize > 0)) {
+            throw new IllegalArgumentException("网格边长必须大于0: " + cellSize);
+        }
+        this.cellSize = cellSize;
+    }
+
+    /**
+     * 用巡检点列表构建索引，点编号即列表下标
+     *
+     * @param cellSize 网格边长（墨卡托平面单位）
+     */
+    public static PointGridIndex of(List<InspectionPoint> points, double cellSize) {
+        PointGridIndex index = new PointGridIndex(cellSize);
+        for (int i = 0; i < points.size(); i++) {
+            index.insert(i, points.get(i).getCoordinate().x, points.get(i).getCoordinate().y);
+        }
+        return index;
+    }
+
+    public double getCellSize() {
+        return cellSize;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean contains(int id) {
+        return id < present.length && present[id];
+    }
+
+    /**
+     * 插入点，编号已存在时先移除旧位置
+     */
+    public void insert(int id, double x, double y) {
+        if (contains(id)) {
+            remove(id);
+        }
+        ensureCapacity(id + 1);
+        xs[id] = x;
+        ys[id] = y;
+        scales[id] = MercatorScale.scaleAt(y);
+        present[id] = true;
+        size++;
+        cells.computeIfAbsent(key(cellOf(x), cellOf(y)), k -> new Cell()).add(id);
+    }
+
+    /**
+     * 移除点
+     *
+     * @return 点是否存在
+     */
+    public boolean remove(int id) {
+        if (!contains(id)) {
+            return false;
+        }
+        long key = key(cellOf(xs[id]), cellOf(ys[id]));
+        Cell cell = cells.get(key);
+        cell.remove(id);
+        if (cell.size == 0) {
+            cells.remove(key);
+        }
+        present[id] = false;
+        size--;
+        return true;
+    }
+
+    /**
+     * 查询地面距离 (x, y) 不超过 radius 米的所有点，结果追加到 out（不排序）
+     *
+     * @return 找到的点数
+     */
+    public int queryWithin(double x, double y, double radius, Neighbors out) {
+        double scale = MercatorScale.scaleAt(y);
+        double radiusSq = radius * radius;
+        // 先用略放宽的距离平方粗筛，再精确计算地面距离，保证与逐点调用 MercatorScale.groundDistance 的结果一致
+        double looseRadiusSq = radiusSq * (1 + 1e-9);
+        int span = (int) Math.ceil(MercatorScale.searchRadius(radius, y) / cellSize);
+        long cx = cellOf(x);
+        long cy = cellOf(y);
+        int found = 0;
+
+        for (long gx = cx - span; gx <= cx + span; gx++) {
+            for (long gy = cy - span; gy <= cy + span; gy++) {
+                Cell cell = cells.get(key(gx, gy));
+                if (cell == null) {
+                    continue;
+                }
+                for (int k = 0; k < cell.size; k++) {
+                    int id = cell.ids[k];
+                    double dx = xs[id] - x;
+                    double dy = ys[id] - y;
+                    double factor = (scale + scales[id]) * 0.5;
+                    if ((dx * dx + dy * dy) * (factor * factor) > looseRadiusSq) {
+                        continue;
+                    }
+                    double distance = MercatorScale.groundDistance(dx, dy, scale, scales[id]);
+                    if (distance <= radius) {
+                        out.add(id, distance);
+                        found++;
+                    }
+                }
+            }
+        }
+        return found;
+    }
+
+    private long cellOf(double v) {
+        return (long) Math.floor(v / cellSize);
+    }
+
+    private static long key(long cx, long cy) {
+        return (cx << 32) ^ (cy & 0xffffffffL);
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > xs.length) {
+            int newLength = Math.max(capacity, xs.length * 2);
+            xs = Arrays.copyOf(xs, newLength);
+            ys = Arrays.copyOf(ys, newLength);
+            scales = Arrays.copyOf(scales, newLength);
+            present = Arrays.copyOf(present, newLength);
+        }
+    }
+
+    /**
+     * 单个网格中的点编号
+     */
+    private static final class Cell {
+        int[] ids = new int[4];
+        int size;
+
+        void add(int id) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            ids[size++] = id;
+        }
+
+        void remove(int id) {
+            for (int k = 0; k < size; k++) {
+                if (ids[k] == id) {
+                    ids[k] = ids[--size];
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * 半径查询结果缓冲区：点编号和地面距离的平行数组，可重复使用
+     */
+    public static final class Neighbors {
+        private int[] ids = new int[64];
+        private double[] distance = new double[64];
+        private int size;
+
+        void add(int id, double d) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+                distance = Arrays.copyOf(distance, size * 2);
+            }
+            ids[size] = id;
+            distance[size] = d;
+            size++;
+        }
+
+        public void clear() {
+            size = 0;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public int id(int k) {
+            return ids[k];
+        }
+
+        /**
+         * 第 k 个结果到查询中心的地面距离（米）
+         */
+        public double distance(int k) {
+            return distance[k];
+        }
+
+        /**
+         * 按距离升序排序，之后较小半径的覆盖集合就是结果的前缀
+         */
+        public void sortByDistance() {
+            sort(0, size - 1);
+        }
+
+        /**
+         * 距离不超过 radius 的结果个数（需先排序）
+         * 与逐点用 MercatorScale.groundDistance 比较的结果完全一致
+         */
+        public int countWithin(double radius) {
+            int lo = 0;
+            int hi = size;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (distance[mid] <= radius) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            return lo;
+        }
+
+        private void sort(int left, int right) {
+            while (left < right) {
+                if (right - left < 16) {
+                    // 小区间用插入排序
+                    for (int i = left + 1; i <= right; i++) {
+                        double d = distance[i];
+                        int id = ids[i];
+                        int j = i - 1;
+                        while (j >= left && distance[j] > d) {
+                            distance[j + 1] = distance[j];
+                            ids[j + 1] = ids[j];
+                            j--;
+                        }
+                        distance[j + 1] = d;
+                        ids[j + 1] = id;
+                    }
+                    return;
+                }
+                double pivot = distance[(left + right) >>> 1];
+                int i = left;
+                int j = right;
+                while (i <= j) {
+                    while (distance[i] < pivot) i++;
+                    while (distance[j] > pivot) j--;
+                    if (i <= j) {
+                        swap(i, j);
+                        i++;
+                        j--;
+                    }
+                }
+                // 先递归较短的一边，控制栈深度
+                if (j - left < right - i) {
+                    sort(left, j);
+                    left = i;
+                } else {
+                    sort(i, right);
+                    right = j;
+                }
+            }
+        }
+
+        private void swap(int a, int b) {
+            double d = distance[a];
+            distance[a] = distance[b];
+            distance[b] = d;
+            int id = ids[a];
+            ids[a] = ids[b];
+            ids[b] = id;
+        }
+    }
+}
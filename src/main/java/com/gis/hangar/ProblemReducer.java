@@ -0,0 +1,486 @@
+package com.gis.hangar;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 加权集合覆盖问题的预处理（问题约简）
+ * 行为巡检点（覆盖约束），列为候选 (机巢位置, 无人机型号)，每列有成本。
+ * 反复应用以下规则直到不再变化：
+ * <ul>
+ *     <li>必选列：某个点只剩一个候选能覆盖它，该候选必须选中，其覆盖的点全部移除；</li>
+ *     <li>被支配行：点 p 的候选集合包含点 q 的候选集合，覆盖 q 必然覆盖 p，删除 p 的约束；</li>
+ *     <li>被支配列：候选 a 覆盖的（剩余）点是候选 b 的子集且成本不低于 b，删除 a。
+ *     同一位置半径较大的型号若覆盖集合与较小型号相同，成本更高，即在此规则下删除；</li>
+ *     <li>不覆盖任何剩余点的列直接删除。</li>
+ * </ul>
+ * 最后按共享候选的关系把剩余的点划分为互不相关的连通分量，各分量可以分别（并行）求解。
+ */
+public class ProblemReducer {
+
+    private final CoverageMatrix matrix;
+    private final double[] cost;
+    private final int pointCount;
+    private final int candidateCount;
+
+    private final boolean[] rowActive;
+    private final boolean[] colActive;
+    // 剩余行的位图，用于把列的覆盖集合限制到剩余行上
+    private final long[] rowMask;
+    // 每行的全部候选（升序）和剩余候选数
+    private final int[][] rowCandidates;
+    private final int[] rowDegree;
+    private final List<Integer> fixed = new ArrayList<>();
+
+    // 统计信息
+    private int removedRows;
+    private int removedColumns;
+    private int rounds;
+
+    /**
+     * @param matrix 覆盖关系
+     * @param cost 每个候选的成本，下标为候选编号
+     */
+    public ProblemReducer(CoverageMatrix matrix, double[] cost) {
+        if (cost.length != matrix.getCandidateCount()) {
+            throw new IllegalArgumentException("成本数组长度与候选数不一致: " + cost.length);
+        }
+        this.matrix = matrix;
+        this.cost = cost;
+        this.pointCount = matrix.getPointCount();
+        this.candidateCount = matrix.getCandidateCount();
+        this.rowActive = new boolean[pointCount];
+        this.colActive = new boolean[candidateCount];
+        this.rowMask = matrix.newPointSet();
+        this.rowCandidates = new int[pointCount][];
+        this.rowDegree = new int[pointCount];
+
+        for (int pi = 0; pi < pointCount; pi++) {
+            rowCandidates[pi] = matrix.candidatesCovering(pi);
+            rowDegree[pi] = rowCandidates[pi].length;
+            // 不可覆盖点不参与建模
+            if (rowDegree[pi] > 0) {
+                rowActive[pi] = true;
+                CoverageMatrix.set(rowMask, pi);
+            }
+        }
+        for (int c = 0; c < candidateCount; c++) {
+            colActive[c] = matrix.coverageSize(c) > 0;
+        }
+    }
+
+    /**
+     * 执行约简
+     */
+    public Reduction reduce() {
+        int initialRows = countActive(rowActive);
+        int initialColumns = countActive(colActive);
+
+        boolean changed = true;
+        while (changed) {
+            rounds++;
+            changed = fixEssentialColumns();
+            changed |= removeDominatedRows();
+            changed |= removeDominatedColumns();
+        }
+
+        List<Component> components = splitComponents();
+        int[] fixedCandidates = new int[fixed.size()];
+        for (int i = 0; i < fixedCandidates.length; i++) {
+            fixedCandidates[i] = fixed.get(i);
+        }
+        return new Reduction(fixedCandidates, components, initialRows, initialColumns,
+                removedRows, removedColumns, rounds);
+    }
+
+    // ---------------------------------------------------------------- 约简规则
+
+    /**
+     * 只剩一个候选的点：该候选必选
+     */
+    private boolean fixEssentialColumns() {
+        boolean changed = false;
+        for (int pi = 0; pi < pointCount; pi++) {
+            if (!rowActive[pi] || rowDegree[pi] != 1) {
+                continue;
+            }
+            for (int c : rowCandidates[pi]) {
+                if (colActive[c]) {
+                    fixed.add(c);
+                    removeColumn(c);
+                    // 该候选覆盖的点都已满足
+                    long[] row = matrix.coverageOf(c);
+                    for (int w = 0; w < row.length; w++) {
+                        long word = row[w] & rowMask[w];
+                        while (word != 0) {
+                            removeRow((w << 6) + Long.numberOfTrailingZeros(word));
+                            word &= word - 1;
+                        }
+                    }
+                    changed = true;
+                    break;
+                }
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * 候选集合包含其他点候选集合的点：约束冗余
+     * 只有被 p 的某个候选覆盖的点 q 才可能满足 cand(q) ⊆ cand(p)，因此只在这些点中查找
+     */
+    private boolean removeDominatedRows() {
+        boolean changed = false;
+        int[] mark = new int[candidateCount];
+        Arrays.fill(mark, -1);
+        long[] neighbours = matrix.newPointSet();
+
+        for (int p = 0; p < pointCount; p++) {
+            if (!rowActive[p]) {
+                continue;
+            }
+            Arrays.fill(neighbours, 0L);
+            for (int c : rowCandidates[p]) {
+                if (colActive[c]) {
+                    mark[c] = p;
+                    long[] row = matrix.coverageOf(c);
+                    for (int w = 0; w < neighbours.length; w++) {
+                        neighbours[w] |= row[w];
+                    }
+                }
+            }
+
+            search:
+            for (int w = 0; w < neighbours.length; w++) {
+                long word = neighbours[w] & rowMask[w];
+                while (word != 0) {
+                    int q = (w << 6) + Long.numberOfTrailingZeros(word);
+                    word &= word - 1;
+                    if (q == p || rowDegree[q] > rowDegree[p] || (rowDegree[q] == rowDegree[p] && q > p)) {
+                        continue;
+                    }
+                    if (isSubsetOfMarked(q, mark, p)) {
+                        removeRow(p);
+                        changed = true;
+                        break search;
+                    }
+                }
+            }
+        }
+        return changed;
+    }
+
+    private boolean isSubsetOfMarked(int q, int[] mark, int p) {
+        for (int c : rowCandidates[q]) {
+            if (colActive[c] && mark[c] != p) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 覆盖集合（限制到剩余点）是其他候选的子集且成本不低于它的候选：删除
+     * 覆盖集合相同且成本相同时保留编号较小的候选
+     */
+    private boolean removeDominatedColumns() {
+        boolean changed = false;
+        int[] activeSize = new int[candidateCount];
+        for (int c = 0; c < candidateCount; c++) {
+            if (colActive[c]) {
+                activeSize[c] = countActiveCoverage(c);
+                if (activeSize[c] == 0) {
+                    removeColumn(c);
+                    changed = true;
+                }
+            }
+        }
+
+        for (int c = 0; c < candidateCount; c++) {
+            if (!colActive[c]) {
+                continue;
+            }
+            int anchor = firstActivePoint(c);
+            for (int other : rowCandidates[anchor]) {
+                if (other == c || !colActive[other] || activeSize[other] < activeSize[c] || cost[other] > cost[c]) {
+                    continue;
+                }
+                boolean tie = activeSize[other] == activeSize[c] && cost[other] == cost[c];
+                if (tie && other > c) {
+                    continue;
+                }
+                if (isActiveSubset(c, other)) {
+                    removeColumn(c);
+                    changed = true;
+                    break;
+                }
+            }
+        }
+        return changed;
+    }
+
+    // ---------------------------------------------------------------- 连通分量
+
+    /**
+     * 以共享候选为边，用并查集划分剩余点
+     */
+    private List<Component> splitComponents() {
+        int[] parent = new int[pointCount];
+        for (int pi = 0; pi < pointCount; pi++) {
+            parent[pi] = pi;
+        }
+        for (int c = 0; c < candidateCount; c++) {
+            if (!colActive[c]) {
+                continue;
+            }
+            int first = -1;
+            long[] row = matrix.coverageOf(c);
+            for (int w = 0; w < row.length; w++) {
+                long word = row[w] & rowMask[w];
+                while (word != 0) {
+                    int pi = (w << 6) + Long.numberOfTrailingZeros(word);
+                    word &= word - 1;
+                    if (first == -1) {
+                        first = pi;
+                    } else {
+                        union(parent, first, pi);
+                    }
+                }
+            }
+        }
+
+        // 分量编号按其最小点编号的顺序分配
+        int[] componentOf = new int[pointCount];
+        Arrays.fill(componentOf, -1);
+        List<IntList> rows = new ArrayList<>();
+        List<IntList> columns = new ArrayList<>();
+        for (int pi = 0; pi < pointCount; pi++) {
+            if (!rowActive[pi]) {
+                continue;
+            }
+            int root = find(parent, pi);
+            if (componentOf[root] == -1) {
+                componentOf[root] = rows.size();
+                rows.add(new IntList());
+                columns.add(new IntList());
+            }
+            rows.get(componentOf[root]).add(pi);
+        }
+        for (int c = 0; c < candidateCount; c++) {
+            if (colActive[c]) {
+                int root = find(parent, firstActivePoint(c));
+                columns.get(componentOf[root]).add(c);
+            }
+        }
+
+        List<Component> components = new ArrayList<>(rows.size());
+        for (int k = 0; k < rows.size(); k++) {
+            components.add(new Component(rows.get(k).toArray(), columns.get(k).toArray()));
+        }
+        return components;
+    }
+
+    private static int find(int[] parent, int x) {
+        while (parent[x] != x) {
+            parent[x] = parent[parent[x]];
+            x = parent[x];
+        }
+        return x;
+    }
+
+    private static void union(int[] parent, int a, int b) {
+        int ra = find(parent, a);
+        int rb = find(parent, b);
+        if (ra != rb) {
+            parent[Math.max(ra, rb)] = Math.min(ra, rb);
+        }
+    }
+
+    // ---------------------------------------------------------------- 工具方法
+
+    private void removeRow(int pi) {
+        if (rowActive[pi]) {
+            rowActive[pi] = false;
+            CoverageMatrix.clear(rowMask, pi);
+            removedRows++;
+        }
+    }
+
+    private void removeColumn(int c) {
+        colActive[c] = false;
+        removedColumns++;
+        long[] row = matrix.coverageOf(c);
+        for (int w = 0; w < row.length; w++) {
+            long word = row[w];
+            while (word != 0) {
+                rowDegree[(w << 6) + Long.numberOfTrailingZeros(word)]--;
+                word &= word - 1;
+            }
+        }
+    }
+
+    private int countActiveCoverage(int c) {
+        long[] row = matrix.coverageOf(c);
+        int count = 0;
+        for (int w = 0; w < row.length; w++) {
+            count += Long.bitCount(row[w] & rowMask[w]);
+        }
+        return count;
+    }
+
+    private int firstActivePoint(int c) {
+        long[] row = matrix.coverageOf(c);
+        for (int w = 0; w < row.length; w++) {
+            long word = row[w] & rowMask[w];
+            if (word != 0) {
+                return (w << 6) + Long.numberOfTrailingZeros(word);
+            }
+        }
+        return -1;
+    }
+
+    private boolean isActiveSubset(int a, int b) {
+        long[] rowA = matrix.coverageOf(a);
+        long[] rowB = matrix.coverageOf(b);
+        for (int w = 0; w < rowA.length; w++) {
+            if ((rowA[w] & rowMask[w] & ~rowB[w]) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int countActive(boolean[] flags) {
+        int count = 0;
+        for (boolean flag : flags) {
+            if (flag) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * 简单的 int 动态数组
+     */
+    private static final class IntList {
+        int[] data = new int[8];
+        int size;
+
+        void add(int value) {
+            if (size == data.length) {
+                data = Arrays.copyOf(data, size * 2);
+            }
+            data[size++] = value;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(data, size);
+        }
+    }
+
+    /**
+     * 约简后的独立子问题：需要覆盖的点和可用的候选
+     */
+    public static final class Component {
+        private final int[] points;
+        private final int[] candidates;
+
+        Component(int[] points, int[] candidates) {
+            this.points = points;
+            this.candidates = candidates;
+        }
+
+        public int[] getPoints() {
+            return points;
+        }
+
+        public int[] getCandidates() {
+            return candidates;
+        }
+    }
+
+    /**
+     * 约简结果
+     */
+    public static final class Reduction {
+        private final int[] fixedCandidates;
+        private final List<Component> components;
+        private final int initialRows;
+        private final int initialColumns;
+        private final int removedRows;
+        private final int removedColumns;
+        private final int rounds;
+
+        Reduction(int[] fixedCandidates, List<Component> components, int initialRows, int initialColumns,
+                  int removedRows, int removedColumns, int rounds) {
+            this.fixedCandidates = fixedCandidates;
+            this.components = components;
+            this.initialRows = initialRows;
+            this.initialColumns = initialColumns;
+            this.removedRows = removedRows;
+            this.removedColumns = removedColumns;
+            this.rounds = rounds;
+        }
+
+        /**
+         * 必选的候选
+         */
+        public int[] getFixedCandidates() {
+            return fixedCandidates;
+        }
+
+        public List<Component> getComponents() {
+            return components;
+        }
+
+        public int getInitialRows() {
+            return initialRows;
+        }
+
+        public int getInitialColumns() {
+            return initialColumns;
+        }
+
+        public int getRemainingRows() {
+            int rows = 0;
+            for (Component component : components) {
+                rows += component.points.length;
+            }
+            return rows;
+        }
+
+        public int getRemainingColumns() {
+            int columns = 0;
+            for (Component component : components) {
+                columns += component.candidates.length;
+            }
+            return columns;
+        }
+
+        public int getRemovedRows() {
+            return removedRows;
+        }
+
+        /**
+         * 删除的列数（包括必选列）
+         */
+        public int getRemovedColumns() {
+            return removedColumns;
+        }
+
+        public int getRounds() {
+            return rounds;
+        }
+
+        @Override
+        public String toString() {
+            return "行 " + initialRows + " -> " + getRemainingRows()
+                    + ", 列 " + initialColumns + " -> " + getRemainingColumns()
+                    + ", 必选 " + fixedCandidates.length
+                    + ", 连通分量 " + components.size()
+                    + ", 迭代 " + rounds + " 轮";
+        }
+    }
+}
@@ -0,0 +1,283 @@
+package com.gis.hangar;
+
+import com.google.ortools.linearsolver.MPConstraint;
+import com.google.ortools.linearsolver.MPObjective;
+import com.google.ortools.linearsolver.MPSolver;
+import com.google.ortools.linearsolver.MPVariable;
+
+import java.util.Arrays;
+
+/**
+ * 稀疏的集合覆盖 ILP 模型
+ * 通过 CoverageMatrix 的倒排索引（巡检点 -> 覆盖它的候选）建模：
+ * 只为至少覆盖一个需要约束的点的候选创建变量，每个约束只设置真正非零的系数，
+ * JNI 调用次数与覆盖关系的非零元素个数成正比，而不是 巡检点数×机巢数×型号数。
+ * 构建耗时和 JNI 调用次数会被记录下来，便于和求解耗时对比。
+ */
+public class SetCoverModel {
+
+    private final MPSolver solver;
+    private final CoverageMatrix matrix;
+    // 有变量的候选（升序）及其变量
+    private final int[] candidates;
+    private final MPVariable[] variables;
+    // 候选编号 -> 变量下标，没有变量时为 -1
+    private final int[] variableIndex;
+
+    private final int constraintCount;
+    private final long nonZeroCount;
+    private final long jniCalls;
+    private final long buildNanos;
+
+    private SetCoverModel(MPSolver solver, CoverageMatrix matrix, int[] candidates, MPVariable[] variables,
+                          int[] variableIndex, int constraintCount, long nonZeroCount, long jniCalls, long buildNanos) {
+        this.solver = solver;
+        this.matrix = matrix;
+        this.candidates = candidates;
+        this.variables = variables;
+        this.variableIndex = variableIndex;
+        this.constraintCount = constraintCount;
+        this.nonZeroCount = nonZeroCount;
+        this.jniCalls = jniCalls;
+        this.buildNanos = buildNanos;
+    }
+
+    /**
+     * 为所有可覆盖的点建模，候选不限
+     */
+    public static SetCoverModel build(MPSolver solver, CoverageMatrix matrix, double[] cost) {
+        int[] points = new int[matrix.getPointCount()];
+        int count = 0;
+        for (int pi = 0; pi < matrix.getPointCount(); pi++) {
+            if (matrix.isCoverable(pi)) {
+                points[count++] = pi;
+            }
+        }
+        return build(solver, matrix, cost, Arrays.copyOf(points, count), null);
+    }
+
+    /**
+     * 只为给定的点和候选建模
+     *
+     * @param solver 求解器
+     * @param matrix 覆盖关系
+     * @param cost 每个候选的成本，下标为候选编号
+     * @param points 需要覆盖约束的点，每个点至少要有一个允许的候选能覆盖
+     * @param allowedCandidates 允许使用的候选，为 null 时不限
+     */
+    public static SetCoverModel build(MPSolver solver, CoverageMatrix matrix, double[] cost,
+                                      int[] points, int[] allowedCandidates) {
+        long start = System.nanoTime();
+        int candidateCount = matrix.getCandidateCount();
+
+        // 允许使用的候选
+        boolean[] allowed = null;
+        if (allowedCandidates != null) {
+            allowed = new boolean[candidateCount];
+            for (int c : allowedCandidates) {
+                allowed[c] = true;
+            }
+        }
+
+        // 第一遍（纯 Java）：确定哪些候选实际出现在约束中
+        boolean[] used = new boolean[candidateCount];
+        int[][] rows = new int[points.length][];
+        for (int k = 0; k < points.length; k++) {
+            rows[k] = matrix.candidatesCovering(points[k]);
+            for (int c : rows[k]) {
+                if (allowed == null || allowed[c]) {
+                    used[c] = true;
+                }
+            }
+        }
+
+        // 只为用到的候选创建变量，按候选编号升序
+        int[] variableIndex = new int[candidateCount];
+        Arrays.fill(variableIndex, -1);
+        int variableCount = 0;
+        for (int c = 0; c < candidateCount; c++) {
+            if (used[c]) {
+                variableIndex[c] = variableCount++;
+            }
+        }
+        int[] candidates = new int[variableCount];
+        MPVariable[] variables = new MPVariable[variableCount];
+        long jniCalls = 0;
+
+        MPObjective objective = solver.objective();
+        jniCalls++;
+        for (int c = 0; c < candidateCount; c++) {
+            int v = variableIndex[c];
+            if (v < 0) {
+                continue;
+            }
+            candidates[v] = c;
+            variables[v] = solver.makeBoolVar("x_" + matrix.hangarOf(c) + "_" + matrix.droneOf(c));
+            objective.setCoefficient(variables[v], cost[c]);
+            jniCalls += 2;
+        }
+        objective.setMinimization();
+        jniCalls++;
+
+        // 约束：每个点至少被一个候选覆盖，只设置非零系数
+        long nonZeros = 0;
+        for (int k = 0; k < points.length; k++) {
+            MPConstraint coverage = solver.makeConstraint(1.0, Double.POSITIVE_INFINITY);
+            jniCalls++;
+            for (int c : rows[k]) {
+                int v = variableIndex[c];
+                if (v >= 0) {
+                    coverage.setCoefficient(variables[v], 1.0);
+                    jniCalls++;
+                    nonZeros++;
+                }
+            }
+        }
+
+        return new SetCoverModel(solver, matrix, candidates, variables, variableIndex,
+                points.length, nonZeros, jniCalls, System.nanoTime() - start);
+    }
+
+    /**
+     * 创建 MIP 求解器：优先 SCIP，不可用时使用 SAT
+     */
+    public static MPSolver createMipSolver() {
+        MPSolver solver = MPSolver.createSolver("SCIP");
+        if (solver == null) {
+            System.err.println("无法创建SCIP求解器，尝试使用SAT");
+            solver = MPSolver.createSolver("SAT");
+            if (solver == null) {
+                throw new IllegalStateException("无法创建求解器。请确保OR-Tools库正确安装。");
+            }
+        }
+        return solver;
+    }
+
+    /**
+     * 默认成本：基础成本为1，加上与半径相关的额外权重，优先选择半径小的无人机
+     */
+    public static double[] rangeWeightedCosts(CoverageMatrix matrix) {
+        double[] cost = new double[matrix.getCandidateCount()];
+        for (int c = 0; c < cost.length; c++) {
+            double radiusWeight = matrix.getDroneModel(matrix.droneOf(c)).getRangeKm() / 10.0; // 调整系数使权重适当
+            cost[c] = 1.0 + radiusWeight;
+        }
+        return cost;
+    }
+
+    /**
+     * 以给定候选集合（例如贪心解）作为初始解提示，热启动 MIP 求解
+     * 不在模型中的候选会被忽略
+     */
+    public void setHint(int[] hintCandidates) {
+        double[] values = new double[variables.length];
+        for (int c : hintCandidates) {
+            int v = variableIndex[c];
+            if (v >= 0) {
+                values[v] = 1.0;
+            }
+        }
+        solver.setHint(variables, values);
+    }
+
+    /**
+     * 一组候选的总成本
+     */
+    public static double costOf(int[] selected, double[] cost) {
+        double total = 0;
+        for (int c : selected) {
+            total += cost[c];
+        }
+        return total;
+    }
+
+    /**
+     * 把机巢数下界换算为成本下界：任何可行解至少有 hangarLowerBound 个候选，
+     * 每个候选的成本不低于至少覆盖一个点的候选中的最小成本
+     */
+    public static double lowerBoundCost(CoverageMatrix matrix, double[] cost, int hangarLowerBound) {
+        if (hangarLowerBound <= 0) {
+            return 0;
+        }
+        double minCost = Double.POSITIVE_INFINITY;
+        for (int c = 0; c < cost.length; c++) {
+            if (matrix.coverageSize(c) > 0) {
+                minCost = Math.min(minCost, cost[c]);
+            }
+        }
+        return Double.isInfinite(minCost) ? 0 : hangarLowerBound * minCost;
+    }
+
+    // ---------------------------------------------------------------- 结果
+
+    public MPSolver getSolver() {
+        return solver;
+    }
+
+    public CoverageMatrix getMatrix() {
+        return matrix;
+    }
+
+    /**
+     * 有变量的候选编号（升序）
+     */
+    public int[] getCandidates() {
+        return candidates;
+    }
+
+    /**
+     * 候选对应的变量，没有变量时返回 null
+     */
+    public MPVariable variableOf(int candidate) {
+        int v = variableIndex[candidate];
+        return v < 0 ? null : variables[v];
+    }
+
+    /**
+     * 求解后取值为 1 的候选（升序）
+     */
+    public int[] selectedCandidates() {
+        int[] selected = new int[variables.length];
+        int count = 0;
+        for (int v = 0; v < variables.length; v++) {
+            if (variables[v].solutionValue() > 0.5) { // 解为1时
+                selected[count++] = candidates[v];
+            }
+        }
+        return Arrays.copyOf(selected, count);
+    }
+
+    public int getVariableCount() {
+        return variables.length;
+    }
+
+    public int getConstraintCount() {
+        return constraintCount;
+    }
+
+    public long getNonZeroCount() {
+        return nonZeroCount;
+    }
+
+    /**
+     * 构建模型时跨越 JNI 的调用次数
+     */
+    public long getJniCalls() {
+        return jniCalls;
+    }
+
+    public long getBuildNanos() {
+        return buildNanos;
+    }
+
+    /**
+     * 模型规模和构建耗时，用于日志
+     */
+    public String describe() {
+        return "变量 " + getVariableCount() + " (全部候选 " + matrix.getCandidateCount() + ")"
+                + ", 约束 " + constraintCount
+                + ", 非零系数 " + nonZeroCount
+                + ", JNI 调用 " + jniCalls
+                + ", 构建耗时 " + String.format("%.1f", buildNanos / 1e6) + "ms";
+    }
+}
@@ -0,0 +1,191 @@
+package com.gis.hangar;
+
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 分支定界的置换表（记忆化表）
+ * 覆盖状态用 64 位 Zobrist 哈希表示：每个巡检点分配一个随机数，状态哈希为已覆盖点随机数的异或，
+ * 覆盖/撤销时只需异或新增覆盖的点，键的构造是增量 O(1)（相对于点数）的。
+ *
+ * 表大小固定（2 的幂），每个桶 2 个槽位：
+ * 槽位0 保留层次最浅的条目（剪枝价值最大），槽位1 总是替换为最新条目。
+ * 条目以 key^data / data 两个 long 存储，多线程并发读写无需加锁，撕裂的条目会被识别为未命中。
+ * 可选地保存完整覆盖位图，命中时逐位校验以排除哈希冲突。
+ */
+public class TranspositionTable {
+
+    private static final int WAYS = 2;
+
+    private final long[] zobrist;
+    private final int mask;
+    // [槽位*2] = key ^ data, [槽位*2+1] = data
+    private final AtomicLongArray entries;
+    // 可选的完整覆盖位图，用于校验
+    private final AtomicReferenceArray<long[]> verification;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder stores = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder collisions = new LongAdder();
+
+    /**
+     * @param pointCount 巡检点数量
+     * @param capacity 最大条目数，向上取整为 2 的幂
+     * @param verify 是否保存完整位图以校验哈希冲突
+     * @param seed Zobrist 随机数种子
+     */
+    public TranspositionTable(int pointCount, int capacity, boolean verify, long seed) {
+        Random random = new Random(seed);
+        this.zobrist = new long[pointCount];
+        for (int pi = 0; pi < pointCount; pi++) {
+            zobrist[pi] = random.nextLong();
+        }
+        int slots = capacity <= WAYS ? WAYS : Integer.highestOneBit(capacity - 1) << 1;
+        int buckets = slots / WAYS;
+        this.mask = buckets - 1;
+        this.entries = new AtomicLongArray(buckets * WAYS * 2);
+        this.verification = verify ? new AtomicReferenceArray<>(buckets * WAYS) : null;
+    }
+
+    public TranspositionTable(int pointCount, int capacity) {
+        this(pointCount, capacity, false, 0x9E3779B97F4A7C15L);
+    }
+
+    // ---------------------------------------------------------------- Zobrist 哈希
+
+    /**
+     * 计算覆盖位图的哈希
+     */
+    public long hashOf(long[] covered) {
+        return toggle(0L, covered);
+    }
+
+    /**
+     * 按增量位图更新哈希：覆盖与撤销都是同一个异或操作
+     */
+    public long toggle(long hash, long[] delta) {
+        for (int w = 0; w < delta.length; w++) {
+            long word = delta[w];
+            while (word != 0) {
+                hash ^= zobrist[(w << 6) + Long.numberOfTrailingZeros(word)];
+                word &= word - 1;
+            }
+        }
+        return hash;
+    }
+
+    // ---------------------------------------------------------------- 查询与存储
+
+    /**
+     * 该覆盖状态是否已在不更深的层次出现过；否则记录当前层次
+     *
+     * @param hash 覆盖状态哈希
+     * @param covered 覆盖位图（仅在开启校验时使用）
+     * @param depth 当前层次（已选机巢数）
+     * @return true 表示可以剪枝
+     */
+    public boolean probeAndStore(long hash, long[] covered, int depth) {
+        int bucket = (int) (hash ^ (hash >>> 32)) & mask;
+        int base = bucket * WAYS;
+
+        for (int way = 0; way < WAYS; way++) {
+            int slot = base + way;
+            long data = entries.get(slot * 2 + 1);
+            long key = entries.get(slot * 2) ^ data;
+            if (key != hash || data == 0) {
+                continue;
+            }
+            if (verification != null && !sameState(slot, covered)) {
+                collisions.increment();
+                continue;
+            }
+            int storedDepth = (int) data - 1;
+            if (storedDepth <= depth) {
+                hits.increment();
+                return true;
+            }
+            // 以更浅的层次更新已有条目
+            write(slot, hash, depth, covered);
+            misses.increment();
+            return false;
+        }
+
+        misses.increment();
+        // 槽位0 保留更浅的条目，否则写入槽位1
+        long data0 = entries.get(base * 2 + 1);
+        int slot = (data0 == 0 || (int) data0 - 1 > depth) ? base : base + 1;
+        if (entries.get(slot * 2 + 1) != 0) {
+            evictions.increment();
+        }
+        write(slot, hash, depth, covered);
+        return false;
+    }
+
+    private void write(int slot, long hash, int depth, long[] covered) {
+        long data = depth + 1L; // 0 表示空槽
+        if (verification != null) {
+            verification.set(slot, covered.clone());
+        }
+        entries.set(slot * 2 + 1, data);
+        entries.set(slot * 2, hash ^ data);
+        stores.increment();
+    }
+
+    private boolean sameState(int slot, long[] covered) {
+        long[] stored = verification.get(slot);
+        if (stored == null || stored.length != covered.length) {
+            return false;
+        }
+        for (int w = 0; w < covered.length; w++) {
+            if (stored[w] != covered[w]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // ---------------------------------------------------------------- 统计
+
+    public int getCapacity() {
+        return entries.length() / 2;
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getStores() {
+        return stores.sum();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    /**
+     * 开启校验时检测到的哈希冲突次数
+     */
+    public long getCollisions() {
+        return collisions.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "TranspositionTable{" +
+                "capacity=" + getCapacity() +
+                ", hits=" + getHits() +
+                ", misses=" + getMisses() +
+                ", stores=" + getStores() +
+                ", evictions=" + getEvictions() +
+                ", collisions=" + getCollisions() +
+                '}';
+    }
+}
@@ -0,0 +1,22 @@
+package com.gis.hangar.bound;
+
+import com.gis.hangar.CoverageMatrix;
+
+/**
+ * 覆盖比例下界：ceil(未覆盖点数 / 单个候选能新覆盖的最大点数)
+ */
+public class CoverageRatioBound implements LowerBound {
+
+    @Override
+    public int estimate(CoverageMatrix matrix, long[] covered, int budget) {
+        int uncovered = matrix.countUncovered(covered);
+        if (uncovered == 0) {
+            return 0;
+        }
+        int maxByOne = matrix.getMaxNewlyCovered(covered);
+        if (maxByOne == 0) {
+            return 0;
+        }
+        return (uncovered + maxByOne - 1) / maxByOne;
+    }
+}
@@ -0,0 +1,83 @@
+package com.gis.hangar.bound;
+
+import com.gis.hangar.CoverageMatrix;
+
+/**
+ * 互斥难点下界
+ * 贪心地选出一组未覆盖的点，任意两点都不能被同一个候选同时覆盖，
+ * 则每个点都需要一个不同的候选，点数即为下界。
+ * 按被覆盖的候选数从少到多选点（难点优先），选中一个点后，
+ * 所有能覆盖它的候选所覆盖的点都不能再选。
+ */
+public class DisjointPointsBound implements LowerBound {
+
+    // 按候选数升序排列的点顺序，按矩阵缓存
+    private volatile Order cached;
+
+    @Override
+    public int estimate(CoverageMatrix matrix, long[] covered, int budget) {
+        int[] order = orderFor(matrix);
+        long[] blocked = covered.clone();
+        int count = 0;
+
+        for (int pi : order) {
+            if (CoverageMatrix.get(blocked, pi)) {
+                continue;
+            }
+            count++;
+            if (count >= budget) {
+                return count;
+            }
+            for (int c : matrix.candidatesCovering(pi)) {
+                long[] row = matrix.coverageOf(c);
+                for (int w = 0; w < blocked.length; w++) {
+                    blocked[w] |= row[w];
+                }
+            }
+        }
+        return count;
+    }
+
+    private int[] orderFor(CoverageMatrix matrix) {
+        Order order = cached;
+        if (order == null || order.matrix != matrix) {
+            order = new Order(matrix);
+            cached = order;
+        }
+        return order.points;
+    }
+
+    /**
+     * 只包含可覆盖的点，按候选数计数排序
+     */
+    private static final class Order {
+        final CoverageMatrix matrix;
+        final int[] points;
+
+        Order(CoverageMatrix matrix) {
+            this.matrix = matrix;
+            int pointCount = matrix.getPointCount();
+            int maxCount = 0;
+            int coverable = 0;
+            for (int pi = 0; pi < pointCount; pi++) {
+                maxCount = Math.max(maxCount, matrix.coveringCount(pi));
+                if (matrix.isCoverable(pi)) {
+                    coverable++;
+                }
+            }
+            int[] start = new int[maxCount + 2];
+            for (int pi = 0; pi < pointCount; pi++) {
+                start[matrix.coveringCount(pi) + 1]++;
+            }
+            for (int k = 1; k < start.length; k++) {
+                start[k] += start[k - 1];
+            }
+            int[] sorted = new int[pointCount];
+            for (int pi = 0; pi < pointCount; pi++) {
+                sorted[start[matrix.coveringCount(pi)]++] = pi;
+            }
+            this.points = new int[coverable];
+            System.arraycopy(sorted, pointCount - coverable, points, 0, coverable);
+        }
+    }
+}
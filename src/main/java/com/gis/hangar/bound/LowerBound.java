@@ -0,0 +1,26 @@
+package com.gis.hangar.bound;
+
+import com.gis.hangar.CoverageMatrix;
+
+/**
+ * 分支定界的下界策略
+ * 给定当前覆盖状态，估计覆盖剩余所有点至少还需要多少个机巢（候选）。
+ * 实现必须是线程安全的，并行搜索时多个线程会同时调用。
+ */
+public interface LowerBound {
+
+    /**
+     * @param matrix 覆盖关系
+     * @param covered 当前覆盖位图（不可覆盖点已标记为已覆盖），不能修改
+     * @param budget 下界达到该值即可剪枝，实现可以在达到后提前返回
+     * @return 还需要的最少候选数
+     */
+    int estimate(CoverageMatrix matrix, long[] covered, int budget);
+
+    /**
+     * 策略名称，用于日志
+     */
+    default String name() {
+        return getClass().getSimpleName();
+    }
+}
@@ -0,0 +1,99 @@
+package com.gis.hangar.bound;
+
+import com.gis.hangar.CoverageMatrix;
+import com.google.ortools.Loader;
+import com.google.ortools.linearsolver.MPConstraint;
+import com.google.ortools.linearsolver.MPObjective;
+import com.google.ortools.linearsolver.MPSolver;
+import com.google.ortools.linearsolver.MPVariable;
+
+/**
+ * 线性规划松弛下界（OR-Tools GLOP）
+ * 对剩余未覆盖点建立集合覆盖模型，把 0/1 变量松弛为 [0,1] 连续变量，
+ * 最优目标值向上取整即为下界。只为至少覆盖一个未覆盖点的候选建变量，
+ * 覆盖集合被其他候选包含的候选（见 excluded）可以不建变量，不影响下界。
+ * 每次调用都要构建并求解一个 LP，代价较高，适合在根节点或浅层使用。
+ */
+public class LpRelaxationBound implements LowerBound {
+
+    private static volatile boolean nativeLoaded;
+
+    private final boolean[] excluded;
+
+    public LpRelaxationBound() {
+        this(null);
+    }
+
+    /**
+     * @param excluded 不参与建模的候选（例如被支配的候选），可以为 null
+     */
+    public LpRelaxationBound(boolean[] excluded) {
+        this.excluded = excluded;
+    }
+
+    @Override
+    public int estimate(CoverageMatrix matrix, long[] covered, int budget) {
+        double value = solve(matrix, covered);
+        if (Double.isNaN(value)) {
+            return 0;
+        }
+        // 去掉浮点误差后向上取整
+        return (int) Math.ceil(value - 1e-6);
+    }
+
+    /**
+     * 求解 LP 松弛，返回最优目标值，求解失败返回 NaN
+     */
+    public double solve(CoverageMatrix matrix, long[] covered) {
+        if (matrix.firstUncovered(covered) == -1) {
+            return 0;
+        }
+        loadNativeLibraries();
+        MPSolver solver = MPSolver.createSolver("GLOP");
+        if (solver == null) {
+            System.err.println("无法创建GLOP求解器，跳过LP松弛下界");
+            return Double.NaN;
+        }
+        try {
+            MPVariable[] x = new MPVariable[matrix.getCandidateCount()];
+            MPObjective objective = solver.objective();
+
+            for (int pi = 0; pi < matrix.getPointCount(); pi++) {
+                if (CoverageMatrix.get(covered, pi)) {
+                    continue;
+                }
+                MPConstraint constraint = solver.makeConstraint(1.0, Double.POSITIVE_INFINITY);
+                for (int c : matrix.candidatesCovering(pi)) {
+                    if (excluded != null && excluded[c]) {
+                        continue;
+                    }
+                    if (x[c] == null) {
+                        x[c] = solver.makeNumVar(0.0, 1.0, "x_" + c);
+                        objective.setCoefficient(x[c], 1.0);
+                    }
+                    constraint.setCoefficient(x[c], 1.0);
+                }
+            }
+            objective.setMinimization();
+
+            MPSolver.ResultStatus status = solver.solve();
+            if (status != MPSolver.ResultStatus.OPTIMAL) {
+                return Double.NaN;
+            }
+            return objective.value();
+        } finally {
+            solver.delete();
+        }
+    }
+
+    private static void loadNativeLibraries() {
+        if (!nativeLoaded) {
+            synchronized (LpRelaxationBound.class) {
+                if (!nativeLoaded) {
+                    Loader.loadNativeLibraries();
+                    nativeLoaded = true;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.gis.hangar.bound;
+
+import com.gis.hangar.CoverageMatrix;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 组合下界：依次计算各策略，取最大值
+ * 策略按代价从低到高排列，某个策略已达到 budget 时不再计算后面的策略
+ */
+public class MaxLowerBound implements LowerBound {
+
+    private final List<LowerBound> bounds;
+
+    public MaxLowerBound(LowerBound... bounds) {
+        this.bounds = Arrays.asList(bounds.clone());
+    }
+
+    @Override
+    public int estimate(CoverageMatrix matrix, long[] covered, int budget) {
+        int best = 0;
+        for (LowerBound bound : bounds) {
+            best = Math.max(best, bound.estimate(matrix, covered, budget));
+            if (best >= budget) {
+                break;
+            }
+        }
+        return best;
+    }
+
+    @Override
+    public String name() {
+        StringBuilder sb = new StringBuilder("max(");
+        for (int i = 0; i < bounds.size(); i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            sb.append(bounds.get(i).name());
+        }
+        return sb.append(')').toString();
+    }
+}
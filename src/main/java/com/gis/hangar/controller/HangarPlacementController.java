@@ -1,12 +1,23 @@
 package com.gis.hangar.controller;
 
 import com.gis.hangar.*;
+import com.gis.hangar.service.HangarPlanningService;
+import com.gis.hangar.service.PlanningJob;
 import org.locationtech.jts.geom.Coordinate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * 机巢布置算法的REST API
@@ -15,13 +26,26 @@ import java.util.stream.Collectors;
 @RequestMapping("/api/hangar")
 public class HangarPlacementController {
 
+    private final HangarPlanningService planningService;
+    // SSE 连接超时（毫秒）
+    private final long sseTimeoutMs;
+
+    public HangarPlacementController(HangarPlanningService planningService,
+                                     @Value("${hangar.planner.sse-timeout-ms:600000}") long sseTimeoutMs) {
+        this.planningService = planningService;
+        this.sseTimeoutMs = sseTimeoutMs;
+    }
+
     /**
      * 测试用的机巢布置优化API，使用硬编码的测试数据
      * 
+     * @param timeLimitMs 求解时间限制（毫秒），0 表示不限时
+     * @param relativeGap 可接受的相对间隙，0 表示使用求解器默认值
      * @return 最优机巢布置方案
      */
     @GetMapping("/test")
-    public ResponseEntity<?> optimizeHangarPlacementTest() {
+    public ResponseEntity<?> optimizeHangarPlacementTest(@RequestParam(defaultValue = "0") long timeLimitMs,
+                                                         @RequestParam(defaultValue = "0") double relativeGap) {
         try {
             // 使用与Main类相同的测试数据
             List<InspectionPoint> inspectionPoints = new ArrayList<>();
@@ -42,35 +66,10 @@ public class HangarPlacementController {
             
             // 使用分支定界算法计算
             HangarPlacementAlgorithm5 algorithm = new HangarPlacementAlgorithm5(inspectionPoints, droneModels);
-            List<SelectedHangar> result = algorithm.findOptimalHangars();
-            
-            // 计算覆盖统计
-            Map<String, Boolean> pointCoverage = calculateCoverage(result, inspectionPoints, droneModels);
+            PlacementSolution solution = algorithm.solve(timeLimitMs, relativeGap);
             
             // 构建响应
-            HangarPlacementResponse response = new HangarPlacementResponse();
-            response.setSelectedHangars(result.stream()
-                    .map(h -> new SelectedHangarDTO(
-                            h.getHangarLocationId(),
-                            h.getDroneModelName(),
-                            h.getHangarCoordinate().x,
-                            h.getHangarCoordinate().y))
-                    .collect(Collectors.toList()));
-            
-            int coveredCount = (int) pointCoverage.values().stream().filter(v -> v).count();
-            response.setTotalPoints(inspectionPoints.size());
-            response.setCoveredPoints(coveredCount);
-            response.setCoverageRate((double) coveredCount / inspectionPoints.size());
-            
-            List<String> uncoveredPoints = pointCoverage.entrySet().stream()
-                    .filter(e -> !e.getValue())
-                    .map(Map.Entry::getKey)
-                    .collect(Collectors.toList());
-            response.setUncoveredPoints(uncoveredPoints);
-            
-            // 生成GeoJSON表示
-            String geoJSON = GeoJSONUtils.convertToGeoJSON(result, droneModels, inspectionPoints);
-            response.setGeoJSON(geoJSON);
+            HangarPlacementResponse response = planningService.buildResponse(solution, inspectionPoints, droneModels);
             
             return ResponseEntity.ok(response);
         } catch (Exception e) {
@@ -78,38 +77,169 @@ public class HangarPlacementController {
             return ResponseEntity.internalServerError().body("处理测试请求时发生错误: " + e.getMessage());
         }
     }
-    
+
     /**
-     * 计算覆盖统计
+     * 机巢布置优化API
+     * 请求中的 algorithm 可选 greedy（贪心）、grasp（多起点随机贪心）、branchandbound（分支定界，最少机巢数）、ilp（整数线性规划，默认）。
+     * 各算法响应中的 objectiveValue / lowerBound 都是 1 + 半径/10 的加权成本。
+     * 计算在有界线程池中执行，不占用 Servlet 线程；线程池已满时返回 503。
+     *
+     * @param request 巡检点、无人机型号和算法
+     * @return 机巢布置方案
      */
-    private Map<String, Boolean> calculateCoverage(List<SelectedHangar> hangars, 
-            List<InspectionPoint> points, List<DroneModel> droneModels) {
-        Map<String, Boolean> coverage = new HashMap<>();
-        for (InspectionPoint point : points) {
-            coverage.put(point.getId(), false);
+    @PostMapping(value = "/optimize", produces = MediaType.APPLICATION_JSON_VALUE)
+    public CompletableFuture<ResponseEntity<?>> optimizeHangarPlacement(@RequestBody HangarPlacementRequest request) {
+        try {
+            return planningService.submit(request, null)
+                    .<ResponseEntity<?>>thenApply(ResponseEntity::ok)
+                    .exceptionally(this::errorResponse);
+        } catch (IllegalArgumentException e) {
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().body(e.getMessage()));
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.completedFuture(busyResponse());
         }
-        
-        for (SelectedHangar hangar : hangars) {
-            DroneModel droneModel = droneModels.stream()
-                .filter(dm -> dm.getModelName().equals(hangar.getDroneModelName()))
-                .findFirst().orElse(null);
-            
-            if (droneModel != null) {
-                for (InspectionPoint point : points) {
-                    double distance = calculateDistance(hangar.getHangarCoordinate(), point.getCoordinate());
-                    if (distance <= droneModel.getRangeKm() * 1000) {
-                        coverage.put(point.getId(), true);
-                    }
-                }
-            }
+    }
+
+    /**
+     * 机巢布置优化API（Server-Sent Events）
+     * 请求头 Accept: text/event-stream 时使用，求解过程中推送 progress 事件（当前最好解和下界），
+     * 完成后推送 result 事件，失败时推送 error 事件。
+     *
+     * @param request 巡检点、无人机型号和算法
+     * @return 事件流
+     */
+    @PostMapping(value = "/optimize", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> optimizeHangarPlacementStream(@RequestBody HangarPlacementRequest request) {
+        SseEmitter emitter = new SseEmitter(sseTimeoutMs);
+        try {
+            planningService.submit(request, progress -> sendEvent(emitter, "progress", progress))
+                    .whenComplete((response, error) -> {
+                        if (error == null) {
+                            sendEvent(emitter, "result", response);
+                            emitter.complete();
+                        } else {
+                            Throwable cause = error instanceof CompletionException && error.getCause() != null
+                                    ? error.getCause() : error;
+                            sendEvent(emitter, "error", "处理请求时发生错误: " + cause.getMessage());
+                            emitter.complete();
+                        }
+                    });
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+        return ResponseEntity.ok(emitter);
+    }
+
+    /**
+     * 机巢布置优化API（GeoJSON 流）
+     * 求解过程与 /optimize 相同，结果不再内嵌为字符串，而是把巡检点、机巢和覆盖范围要素直接流式写入响应体，
+     * 大规模方案不需要在内存中生成整个文档。
+     *
+     * @param request 巡检点、无人机型号和算法
+     * @return GeoJSON FeatureCollection；线程池已满时返回 503
+     */
+    @PostMapping(value = "/optimize/geojson", produces = "application/geo+json")
+    public CompletableFuture<ResponseEntity<StreamingResponseBody>> optimizeHangarPlacementGeoJSON(
+            @RequestBody HangarPlacementRequest request) {
+        try {
+            request.setIncludeGeoJSON(false);
+            return planningService.submit(request, null)
+                    .thenApply(response -> {
+                        List<SelectedHangar> hangars = new ArrayList<>(response.getSelectedHangars().size());
+                        for (SelectedHangarDTO dto : response.getSelectedHangars()) {
+                            hangars.add(new SelectedHangar(dto.getHangarLocationId(), dto.getDroneModelName(),
+                                    new Coordinate(dto.getX(), dto.getY())));
+                        }
+                        List<InspectionPoint> points = HangarPlanningService.toInspectionPoints(request.getInspectionPoints());
+                        List<DroneModel> drones = HangarPlanningService.toDroneModels(request.getDroneModels());
+                        StreamingResponseBody body = out -> GeoJSONUtils.writeGeoJSON(hangars, drones, points, out);
+                        return ResponseEntity.ok().contentType(MediaType.parseMediaType("application/geo+json")).body(body);
+                    })
+                    .exceptionally(error -> {
+                        ResponseEntity<?> failure = errorResponse(error);
+                        return textResponse(failure.getStatusCode(), String.valueOf(failure.getBody()));
+                    });
+        } catch (IllegalArgumentException e) {
+            return CompletableFuture.completedFuture(textResponse(HttpStatus.BAD_REQUEST, e.getMessage()));
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.completedFuture(textResponse(HttpStatus.SERVICE_UNAVAILABLE, "规划任务过多，请稍后重试"));
         }
-        
-        return coverage;
     }
-    
-    private double calculateDistance(Coordinate c1, Coordinate c2) {
-        double dx = c1.x - c2.x;
-        double dy = c1.y - c2.y;
-        return Math.sqrt(dx*dx + dy*dy);
+
+    /**
+     * 提交异步规划任务，立即返回任务编号
+     * 相同内容的请求命中结果缓存时，返回的任务已经是 SUCCEEDED 状态。
+     *
+     * @param request 巡检点、无人机型号和算法
+     * @return 202 和任务状态；线程池已满时返回 503
+     */
+    @PostMapping("/jobs")
+    public ResponseEntity<?> submitJob(@RequestBody HangarPlacementRequest request) {
+        try {
+            PlanningJob job = planningService.submitJob(request);
+            return ResponseEntity.accepted().body(PlanningJobResponse.of(job));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (RejectedExecutionException e) {
+            return busyResponse();
+        }
+    }
+
+    /**
+     * 查询异步规划任务的状态和结果
+     *
+     * @param id 任务编号
+     * @return 任务状态，完成后包含结果；任务不存在或已过期时返回 404
+     */
+    @GetMapping("/jobs/{id}")
+    public ResponseEntity<PlanningJobResponse> getJob(@PathVariable String id) {
+        PlanningJob job = planningService.getJob(id);
+        if (job == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(PlanningJobResponse.of(job));
+    }
+
+    /**
+     * 取消异步规划任务，已完成的任务不受影响
+     *
+     * @param id 任务编号
+     * @return 取消后的任务状态；任务不存在或已过期时返回 404
+     */
+    @PostMapping("/jobs/{id}/cancel")
+    public ResponseEntity<PlanningJobResponse> cancelJob(@PathVariable String id) {
+        PlanningJob job = planningService.cancelJob(id);
+        if (job == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(PlanningJobResponse.of(job));
+    }
+
+    private void sendEvent(SseEmitter emitter, String name, Object data) {
+        try {
+            emitter.send(SseEmitter.event().name(name).data(data, MediaType.APPLICATION_JSON));
+        } catch (IOException | IllegalStateException e) {
+            // 客户端已断开，忽略后续事件
+        }
+    }
+
+    private ResponseEntity<?> errorResponse(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (cause instanceof IllegalArgumentException) {
+            return ResponseEntity.badRequest().body(cause.getMessage());
+        }
+        cause.printStackTrace();
+        return ResponseEntity.internalServerError().body("处理请求时发生错误: " + cause.getMessage());
+    }
+
+    private ResponseEntity<StreamingResponseBody> textResponse(HttpStatus status, String message) {
+        byte[] bytes = String.valueOf(message).getBytes(StandardCharsets.UTF_8);
+        return ResponseEntity.status(status).contentType(MediaType.TEXT_PLAIN).body(out -> out.write(bytes));
+    }
+
+    private ResponseEntity<?> busyResponse() {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body("规划任务过多，请稍后重试");
     }
 }
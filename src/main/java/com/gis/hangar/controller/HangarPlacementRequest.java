@@ -8,7 +8,10 @@ import java.util.List;
 public class HangarPlacementRequest {
     private List<InspectionPointDTO> inspectionPoints;
     private List<DroneModelDTO> droneModels;
-    private String algorithm = "branchandbound"; // 默认使用分支定界算法
+    private String algorithm = "ilp"; // 默认使用整数线性规划，直接最小化响应中报告的成本
+    private long timeLimitMs; // 求解时间限制（毫秒），0 表示不限时
+    private double relativeGap; // 可接受的相对间隙，0 表示使用求解器默认值
+    private boolean includeGeoJSON = true; // 响应中是否内嵌 GeoJSON 字符串，大规模方案可关闭后改用 /optimize/geojson
 
     public List<InspectionPointDTO> getInspectionPoints() {
         return inspectionPoints;
@@ -34,6 +37,30 @@ public class HangarPlacementRequest {
         this.algorithm = algorithm;
     }
 
+    public long getTimeLimitMs() {
+        return timeLimitMs;
+    }
+
+    public void setTimeLimitMs(long timeLimitMs) {
+        this.timeLimitMs = timeLimitMs;
+    }
+
+    public double getRelativeGap() {
+        return relativeGap;
+    }
+
+    public void setRelativeGap(double relativeGap) {
+        this.relativeGap = relativeGap;
+    }
+
+    public boolean isIncludeGeoJSON() {
+        return includeGeoJSON;
+    }
+
+    public void setIncludeGeoJSON(boolean includeGeoJSON) {
+        this.includeGeoJSON = includeGeoJSON;
+    }
+
     /**
      * 巡检点DTO
      */
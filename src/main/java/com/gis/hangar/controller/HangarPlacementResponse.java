@@ -1,5 +1,6 @@
 package com.gis.hangar.controller;
 
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -11,7 +12,44 @@ public class HangarPlacementResponse {
     private int coveredPoints;
     private double coverageRate;
     private List<String> uncoveredPoints;
+    // 被不止一个机巢覆盖的点数，以及单个点最多被几个机巢覆盖
+    private int redundantPoints;
+    private int maxRedundancy;
     private String geoJSON;
+    // 求解质量：限时求解时可能只是当前最好的可行解
+    private String solveStatus;
+    private double objectiveValue;
+    private double lowerBound;
+    private double gap;
+    private long solveTimeMs;
+
+    /**
+     * 深拷贝：列表和其中的 SelectedHangarDTO 都会复制，修改副本不影响原响应
+     */
+    public HangarPlacementResponse copy() {
+        HangarPlacementResponse copy = new HangarPlacementResponse();
+        if (selectedHangars != null) {
+            List<SelectedHangarDTO> hangars = new ArrayList<>(selectedHangars.size());
+            for (SelectedHangarDTO hangar : selectedHangars) {
+                hangars.add(hangar == null ? null : new SelectedHangarDTO(hangar.getHangarLocationId(),
+                        hangar.getDroneModelName(), hangar.getX(), hangar.getY()));
+            }
+            copy.selectedHangars = hangars;
+        }
+        copy.totalPoints = totalPoints;
+        copy.coveredPoints = coveredPoints;
+        copy.coverageRate = coverageRate;
+        copy.uncoveredPoints = uncoveredPoints == null ? null : new ArrayList<>(uncoveredPoints);
+        copy.redundantPoints = redundantPoints;
+        copy.maxRedundancy = maxRedundancy;
+        copy.geoJSON = geoJSON;
+        copy.solveStatus = solveStatus;
+        copy.objectiveValue = objectiveValue;
+        copy.lowerBound = lowerBound;
+        copy.gap = gap;
+        copy.solveTimeMs = solveTimeMs;
+        return copy;
+    }
 
     public List<SelectedHangarDTO> getSelectedHangars() {
         return selectedHangars;
@@ -53,6 +91,22 @@ public class HangarPlacementResponse {
         this.uncoveredPoints = uncoveredPoints;
     }
 
+    public int getRedundantPoints() {
+        return redundantPoints;
+    }
+
+    public void setRedundantPoints(int redundantPoints) {
+        this.redundantPoints = redundantPoints;
+    }
+
+    public int getMaxRedundancy() {
+        return maxRedundancy;
+    }
+
+    public void setMaxRedundancy(int maxRedundancy) {
+        this.maxRedundancy = maxRedundancy;
+    }
+
     public String getGeoJSON() {
         return geoJSON;
     }
@@ -60,4 +114,44 @@ public class HangarPlacementResponse {
     public void setGeoJSON(String geoJSON) {
         this.geoJSON = geoJSON;
     }
+
+    public String getSolveStatus() {
+        return solveStatus;
+    }
+
+    public void setSolveStatus(String solveStatus) {
+        this.solveStatus = solveStatus;
+    }
+
+    public double getObjectiveValue() {
+        return objectiveValue;
+    }
+
+    public void setObjectiveValue(double objectiveValue) {
+        this.objectiveValue = objectiveValue;
+    }
+
+    public double getLowerBound() {
+        return lowerBound;
+    }
+
+    public void setLowerBound(double lowerBound) {
+        this.lowerBound = lowerBound;
+    }
+
+    public double getGap() {
+        return gap;
+    }
+
+    public void setGap(double gap) {
+        this.gap = gap;
+    }
+
+    public long getSolveTimeMs() {
+        return solveTimeMs;
+    }
+
+    public void setSolveTimeMs(long solveTimeMs) {
+        this.solveTimeMs = solveTimeMs;
+    }
 }
@@ -0,0 +1,115 @@
+package com.gis.hangar.controller;
+
+import com.gis.hangar.PlanningProgress;
+import com.gis.hangar.service.PlanningJob;
+
+/**
+ * 异步规划任务的状态响应模型
+ */
+public class PlanningJobResponse {
+    private String jobId;
+    private String status; // QUEUED, RUNNING, SUCCEEDED, FAILED, CANCELLED
+    private String algorithm;
+    private boolean cached; // 结果是否来自缓存
+    private long submittedAt;
+    private long startedAt;
+    private long finishedAt;
+    private PlanningProgress progress; // 最近一次进度
+    private HangarPlacementResponse result; // 完成后的结果
+    private String error;
+
+    public static PlanningJobResponse of(PlanningJob job) {
+        PlanningJobResponse response = new PlanningJobResponse();
+        response.setJobId(job.getId());
+        response.setStatus(job.getStatus().name());
+        response.setAlgorithm(job.getAlgorithm());
+        response.setCached(job.isCached());
+        response.setSubmittedAt(job.getSubmittedAt());
+        response.setStartedAt(job.getStartedAt());
+        response.setFinishedAt(job.getFinishedAt());
+        response.setProgress(job.getProgress());
+        response.setResult(job.getResult());
+        response.setError(job.getError());
+        return response;
+    }
+
+    public String getJobId() {
+        return jobId;
+    }
+
+    public void setJobId(String jobId) {
+        this.jobId = jobId;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public String getAlgorithm() {
+        return algorithm;
+    }
+
+    public void setAlgorithm(String algorithm) {
+        this.algorithm = algorithm;
+    }
+
+    public boolean isCached() {
+        return cached;
+    }
+
+    public void setCached(boolean cached) {
+        this.cached = cached;
+    }
+
+    public long getSubmittedAt() {
+        return submittedAt;
+    }
+
+    public void setSubmittedAt(long submittedAt) {
+        this.submittedAt = submittedAt;
+    }
+
+    public long getStartedAt() {
+        return startedAt;
+    }
+
+    public void setStartedAt(long startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    public long getFinishedAt() {
+        return finishedAt;
+    }
+
+    public void setFinishedAt(long finishedAt) {
+        this.finishedAt = finishedAt;
+    }
+
+    public PlanningProgress getProgress() {
+        return progress;
+    }
+
+    public void setProgress(PlanningProgress progress) {
+        this.progress = progress;
+    }
+
+    public HangarPlacementResponse getResult() {
+        return result;
+    }
+
+    public void setResult(HangarPlacementResponse result) {
+        this.result = result;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+}
@@ -0,0 +1,36 @@
+package com.gis.hangar.coverage;
+
+import com.gis.hangar.DroneModel;
+import org.locationtech.jts.geom.Coordinate;
+
+/**
+ * 机巢-巡检点覆盖判定模型
+ * CoverageMatrix 预计算时先用网格索引找出地面距离不超过无人机半径的点对，
+ * 再由覆盖模型逐对判定，因此模型只能在距离的基础上进一步收紧覆盖（例如地形遮挡），不能放宽。
+ * 实现必须是线程安全的。
+ */
+public interface CoverageModel {
+
+    /**
+     * @param hangar 机巢坐标（墨卡托，米）
+     * @param point 巡检点坐标（墨卡托，米）
+     * @param drone 无人机型号
+     * @param distanceMeters 两点的地面距离（经墨卡托比例因子校正），已保证不超过无人机半径
+     * @return 该型号无人机能否从机巢覆盖该点
+     */
+    boolean covers(Coordinate hangar, Coordinate point, DroneModel drone, double distanceMeters);
+
+    /**
+     * 是否只按距离判定，为 true 时预计算跳过逐对判定
+     */
+    default boolean isDistanceOnly() {
+        return false;
+    }
+
+    /**
+     * 模型名称，用于日志
+     */
+    default String name() {
+        return getClass().getSimpleName();
+    }
+}
@@ -0,0 +1,202 @@
+package com.gis.hangar.coverage;
+
+import com.gis.gdal.GdalDatasetUtil;
+import com.gis.gdal.MappedDemCache;
+import org.gdal.gdal.Band;
+import org.gdal.gdal.Dataset;
+import org.gdal.gdalconst.gdalconstConstants;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 高程栅格的分块内存缓存
+ * 栅格按 tileSize×tileSize 分块，按需读取为 float[]，最多保留 maxTiles 块（LRU 淘汰）。
+ * 视线判定沿线段采样时相邻采样点几乎总落在同一块中，每个点对只需极少的块读取。
+ * 采样使用最近邻像元；超出范围或等于 nodata 的像元返回 NaN。
+ */
+public class ElevationTileCache implements AutoCloseable {
+
+    /**
+     * 分块读取接口：读取 [x, x+width) × [y, y+height) 的像元，按行存入 out
+     */
+    public interface TileReader {
+        void read(int x, int y, int width, int height, float[] out);
+    }
+
+    public static final int DEFAULT_TILE_SIZE = 256;
+    public static final int DEFAULT_MAX_TILES = 256;
+
+    private final int width;
+    private final int height;
+    private final double[] geoTransform;
+    private final Double noData;
+    private final TileReader reader;
+    private final int tileSize;
+    private final int tilesX;
+    private final LinkedHashMap<Integer, float[]> tiles;
+    private final Runnable onClose;
+
+    private long hits;
+    private long misses;
+
+    /**
+     * @param width 栅格宽度（像元）
+     * @param height 栅格高度（像元）
+     * @param geoTransform GDAL 六参数仿射变换（不支持旋转项）
+     * @param noData 无效值，没有时为 null
+     * @param reader 分块读取
+     * @param tileSize 分块边长（像元）
+     * @param maxTiles 最多缓存的块数
+     */
+    public ElevationTileCache(int width, int height, double[] geoTransform, Double noData, TileReader reader,
+                              int tileSize, int maxTiles) {
+        this(width, height, geoTransform, noData, reader, tileSize, maxTiles, null);
+    }
+
+    private ElevationTileCache(int width, int height, double[] geoTransform, Double noData, TileReader reader,
+                               int tileSize, int maxTiles, Runnable onClose) {
+        if (geoTransform[2] != 0 || geoTransform[4] != 0) {
+            throw new IllegalArgumentException("不支持带旋转项的地理变换");
+        }
+        this.width = width;
+        this.height = height;
+        this.geoTransform = geoTransform.clone();
+        this.noData = noData;
+        this.reader = reader;
+        this.tileSize = tileSize;
+        this.tilesX = (width + tileSize - 1) / tileSize;
+        this.onClose = onClose;
+        this.tiles = new LinkedHashMap<Integer, float[]>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, float[]> eldest) {
+                return size() > maxTiles;
+            }
+        };
+    }
+
+    /**
+     * 通过 GdalDatasetUtil.openReadOnly 打开高程栅格（第 1 波段），关闭缓存时关闭数据集
+     * 栅格需与巡检点使用相同的投影坐标系（墨卡托，米）
+     */
+    public static ElevationTileCache open(String demPath, int tileSize, int maxTiles) {
+        Dataset dataset = GdalDatasetUtil.openReadOnly(demPath);
+        if (dataset == null) {
+            throw new IllegalArgumentException("无法打开高程栅格: " + demPath);
+        }
+        if (GdalDatasetUtil.isGeographicCoordinateSystem(dataset)) {
+            GdalDatasetUtil.closeDataset(dataset);
+            throw new IllegalArgumentException("高程栅格需为投影坐标系（EPSG:3857），请先重投影: " + demPath);
+        }
+        Band band = dataset.GetRasterBand(1);
+        Double[] noData = new Double[1];
+        band.GetNoDataValue(noData);
+        TileReader reader = (x, y, w, h, out) -> {
+            // GDAL 数据集不是线程安全的，读取在缓存锁内串行执行
+            band.ReadRaster(x, y, w, h, w, h, gdalconstConstants.GDT_Float32, out);
+        };
+        return new ElevationTileCache(dataset.GetRasterXSize(), dataset.GetRasterYSize(), dataset.GetGeoTransform(),
+                noData[0], reader, tileSize, maxTiles, () -> GdalDatasetUtil.closeDataset(dataset));
+    }
+
+    /**
+     * 从内存映射的 DEM 缓存读取分块，不经过 GDAL 解码；缓存本身线程安全，关闭时无需释放
+     * 栅格需与巡检点使用相同的投影坐标系（墨卡托，米）
+     */
+    public static ElevationTileCache open(MappedDemCache dem, int tileSize, int maxTiles) {
+        return new ElevationTileCache(dem.getWidth(), dem.getHeight(), dem.getGeoTransform(), dem.getNoData(),
+                dem::read, tileSize, maxTiles);
+    }
+
+    public static ElevationTileCache open(String demPath) {
+        return open(demPath, DEFAULT_TILE_SIZE, DEFAULT_MAX_TILES);
+    }
+
+    /**
+     * 某点的高程，超出范围或无效时返回 NaN
+     */
+    public synchronized double elevationAt(double x, double y) {
+        return sample(x, y);
+    }
+
+    /**
+     * 沿线段 (x0, y0) -> (x1, y1) 等间距采样 count 个点（含两端），结果写入 out
+     * 一次加锁完成整条线段的采样
+     */
+    public synchronized void profile(double x0, double y0, double x1, double y1, int count, double[] out) {
+        if (count == 1) {
+            out[0] = sample(x0, y0);
+            return;
+        }
+        for (int i = 0; i < count; i++) {
+            double t = (double) i / (count - 1);
+            out[i] = sample(x0 + (x1 - x0) * t, y0 + (y1 - y0) * t);
+        }
+    }
+
+    /**
+     * 像元边长（取 x、y 方向中较小者，米）
+     */
+    public double getPixelSize() {
+        return Math.min(Math.abs(geoTransform[1]), Math.abs(geoTransform[5]));
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    @Override
+    public synchronized void close() {
+        tiles.clear();
+        if (onClose != null) {
+            onClose.run();
+        }
+    }
+
+    private double sample(double x, double y) {
+        int col = (int) Math.floor((x - geoTransform[0]) / geoTransform[1]);
+        int row = (int) Math.floor((y - geoTransform[3]) / geoTransform[5]);
+        if (col < 0 || row < 0 || col >= width || row >= height) {
+            return Double.NaN;
+        }
+        int tx = col / tileSize;
+        int ty = row / tileSize;
+        float[] tile = tile(tx, ty);
+        int tileWidth = Math.min(tileSize, width - tx * tileSize);
+        float value = tile[(row - ty * tileSize) * tileWidth + (col - tx * tileSize)];
+        if (noData != null && value == noData.floatValue()) {
+            return Double.NaN;
+        }
+        return value;
+    }
+
+    private float[] tile(int tx, int ty) {
+        int key = ty * tilesX + tx;
+        float[] tile = tiles.get(key);
+        if (tile != null) {
+            hits++;
+            return tile;
+        }
+        misses++;
+        int x = tx * tileSize;
+        int y = ty * tileSize;
+        int w = Math.min(tileSize, width - x);
+        int h = Math.min(tileSize, height - y);
+        tile = new float[w * h];
+        reader.read(x, y, w, h, tile);
+        tiles.put(key, tile);
+        return tile;
+    }
+}
@@ -0,0 +1,25 @@
+package com.gis.hangar.coverage;
+
+import com.gis.hangar.DroneModel;
+import org.locationtech.jts.geom.Coordinate;
+
+/**
+ * 默认覆盖模型：地面距离（见 MercatorScale）不超过无人机半径即可覆盖
+ */
+public final class EuclideanCoverageModel implements CoverageModel {
+
+    public static final EuclideanCoverageModel INSTANCE = new EuclideanCoverageModel();
+
+    private EuclideanCoverageModel() {
+    }
+
+    @Override
+    public boolean covers(Coordinate hangar, Coordinate point, DroneModel drone, double distanceMeters) {
+        return distanceMeters <= drone.getRangeKm() * 1000;
+    }
+
+    @Override
+    public boolean isDistanceOnly() {
+        return true;
+    }
+}
@@ -0,0 +1,119 @@
+package com.gis.hangar.coverage;
+
+import com.gis.hangar.DroneModel;
+import org.locationtech.jts.geom.Coordinate;
+
+/**
+ * 基于 DEM 的视线覆盖模型
+ * 在地面距离不超过半径的基础上，沿 机巢 -> 巡检点 的线段按像元间距采样地形剖面：
+ * <ul>
+ *     <li>视线：机巢地面 + 天线高度 到 巡检点地面 + 巡检高度 的直线被中间任一采样点的地形挡住时不能覆盖</li>
+ *     <li>升限：航线上的最高地形 + 巡检高度 相对机巢地面的高差超过无人机升限时不能覆盖</li>
+ * </ul>
+ * 无效高程（nodata 或超出栅格范围）的采样点不遮挡；机巢或巡检点本身没有高程时退化为只按距离判定。
+ * 同一点对的剖面只计算一次，对不同型号的判定复用结果（每个线程缓存最近一个点对）。
+ */
+public class TerrainCoverageModel implements CoverageModel {
+
+    public static final double DEFAULT_OBSERVER_HEIGHT = 10.0;
+    public static final double DEFAULT_TARGET_HEIGHT = 50.0;
+    // 单条剖面的最大采样数，避免超长线段在高分辨率 DEM 上采样过多
+    private static final int MAX_SAMPLES = 8192;
+
+    private final ElevationTileCache dem;
+    private final double observerHeight;
+    private final double targetHeight;
+    private final double sampleSpacing;
+    private final ThreadLocal<Profile> lastProfile = ThreadLocal.withInitial(Profile::new);
+
+    public TerrainCoverageModel(ElevationTileCache dem) {
+        this(dem, DEFAULT_OBSERVER_HEIGHT, DEFAULT_TARGET_HEIGHT);
+    }
+
+    /**
+     * @param dem 高程栅格（与巡检点相同的墨卡托坐标系）
+     * @param observerHeight 机巢天线距地面高度（米）
+     * @param targetHeight 巡检时无人机距巡检点地面的高度（米）
+     */
+    public TerrainCoverageModel(ElevationTileCache dem, double observerHeight, double targetHeight) {
+        this.dem = dem;
+        this.observerHeight = observerHeight;
+        this.targetHeight = targetHeight;
+        this.sampleSpacing = dem.getPixelSize();
+    }
+
+    @Override
+    public boolean covers(Coordinate hangar, Coordinate point, DroneModel drone, double distanceMeters) {
+        if (distanceMeters > drone.getRangeKm() * 1000) {
+            return false;
+        }
+        Profile profile = lastProfile.get();
+        if (!profile.matches(hangar, point)) {
+            profile.compute(hangar, point);
+        }
+        return !profile.blocked && profile.requiredAltitude <= drone.getCeilingMeters();
+    }
+
+    @Override
+    public String name() {
+        return "terrain-los";
+    }
+
+    /**
+     * 一个点对的剖面判定结果
+     */
+    private final class Profile {
+        private boolean valid;
+        private double hx;
+        private double hy;
+        private double px;
+        private double py;
+        private boolean blocked;
+        // 航线所需的相对机巢地面的飞行高度（米）
+        private double requiredAltitude;
+        private double[] samples = new double[64];
+
+        boolean matches(Coordinate hangar, Coordinate point) {
+            return valid && hx == hangar.x && hy == hangar.y && px == point.x && py == point.y;
+        }
+
+        void compute(Coordinate hangar, Coordinate point) {
+            valid = true;
+            hx = hangar.x;
+            hy = hangar.y;
+            px = point.x;
+            py = point.y;
+            blocked = false;
+            requiredAltitude = Double.NEGATIVE_INFINITY;
+
+            // 像元间距是墨卡托平面单位，采样数按平面长度计算
+            double length = Math.hypot(px - hx, py - hy);
+            int count = (int) Math.min(MAX_SAMPLES, Math.max(2, Math.ceil(length / sampleSpacing) + 1));
+            if (samples.length < count) {
+                samples = new double[Math.max(count, samples.length * 2)];
+            }
+            dem.profile(hx, hy, px, py, count, samples);
+
+            double start = samples[0];
+            double end = samples[count - 1];
+            if (Double.isNaN(start) || Double.isNaN(end)) {
+                return;
+            }
+            double from = start + observerHeight;
+            double to = end + targetHeight;
+            double highest = Math.max(start, end);
+            for (int i = 1; i < count - 1; i++) {
+                double ground = samples[i];
+                if (Double.isNaN(ground)) {
+                    continue;
+                }
+                highest = Math.max(highest, ground);
+                double sight = from + (to - from) * i / (count - 1);
+                if (ground > sight) {
+                    blocked = true;
+                }
+            }
+            requiredAltitude = highest + targetHeight - start;
+        }
+    }
+}
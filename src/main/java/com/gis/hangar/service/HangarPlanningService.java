@@ -0,0 +1,376 @@
+package com.gis.hangar.service;
+
+import com.gis.hangar.*;
+import com.gis.hangar.controller.HangarPlacementRequest;
+import com.gis.hangar.controller.HangarPlacementResponse;
+import com.gis.hangar.controller.SelectedHangarDTO;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * 机巢布置规划服务
+ * 把请求 DTO 转换为巡检点/无人机型号，按 algorithm 分派到贪心、GRASP、分支定界或 ILP 算法，
+ * 并在有界线程池中执行，避免大规模规划任务占用 Servlet 线程。
+ * 线程池和等待队列都已满时拒绝新任务（RejectedExecutionException），由调用方返回 503。
+ * 相同内容的请求结果确定时，结果按请求内容哈希缓存在 LRU 缓存中（存取都是副本）；
+ * 异步任务（submitJob）可以轮询状态和取消，完成超过保留时间的任务会被清理。
+ */
+@Service
+public class HangarPlanningService implements DisposableBean {
+
+    public static final String ALGORITHM_GREEDY = "greedy";
+    public static final String ALGORITHM_GRASP = "grasp";
+    public static final String ALGORITHM_BRANCH_AND_BOUND = "branchandbound";
+    public static final String ALGORITHM_ILP = "ilp";
+
+    private final ThreadPoolExecutor executor;
+    private final PlanningResultCache cache;
+    private final Map<String, PlanningJob> jobs = new ConcurrentHashMap<>();
+    // 已完成任务的保留时间（毫秒）
+    private final long jobTtlMs;
+
+    public HangarPlanningService(@Value("${hangar.planner.threads:0}") int threads,
+                                 @Value("${hangar.planner.queue-capacity:16}") int queueCapacity,
+                                 @Value("${hangar.planner.cache-size:64}") int cacheSize,
+                                 @Value("${hangar.planner.job-ttl-ms:3600000}") long jobTtlMs) {
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+                r -> {
+                    Thread thread = new Thread(r, "hangar-planner-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.cache = new PlanningResultCache(cacheSize);
+        this.jobTtlMs = jobTtlMs;
+    }
+
+    @Override
+    public void destroy() {
+        for (PlanningJob job : jobs.values()) {
+            job.cancel();
+        }
+        executor.shutdownNow();
+    }
+
+    /**
+     * 提交规划任务到有界线程池，缓存命中时直接返回已完成的结果
+     *
+     * @param request 规划请求
+     * @param progressListener 进度监听器，可以为 null
+     * @throws RejectedExecutionException 线程池和等待队列都已满
+     */
+    public CompletableFuture<HangarPlacementResponse> submit(HangarPlacementRequest request,
+                                                             Consumer<PlanningProgress> progressListener) {
+        validate(request);
+        String key = PlanningResultCache.keyOf(request, normalizeAlgorithm(request.getAlgorithm()));
+        HangarPlacementResponse cached = cache.get(key);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+        return CompletableFuture.supplyAsync(() -> compute(request, key, progressListener, null), executor);
+    }
+
+    /**
+     * 在当前线程中执行规划，缓存命中时直接返回
+     */
+    public HangarPlacementResponse plan(HangarPlacementRequest request, Consumer<PlanningProgress> progressListener) {
+        validate(request);
+        String key = PlanningResultCache.keyOf(request, normalizeAlgorithm(request.getAlgorithm()));
+        HangarPlacementResponse cached = cache.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        return compute(request, key, progressListener, null);
+    }
+
+    // ---------------------------------------------------------------- 异步任务
+
+    /**
+     * 提交异步规划任务，立即返回任务（缓存命中时任务已完成）
+     *
+     * @throws RejectedExecutionException 线程池和等待队列都已满
+     */
+    public PlanningJob submitJob(HangarPlacementRequest request) {
+        validate(request);
+        purgeExpiredJobs();
+        String algorithm = normalizeAlgorithm(request.getAlgorithm());
+        String key = PlanningResultCache.keyOf(request, algorithm);
+        String id = UUID.randomUUID().toString();
+
+        HangarPlacementResponse cached = cache.get(key);
+        if (cached != null) {
+            PlanningJob job = PlanningJob.completedFromCache(id, key, algorithm, cached);
+            jobs.put(id, job);
+            return job;
+        }
+
+        PlanningJob job = new PlanningJob(id, key, algorithm);
+        jobs.put(id, job);
+        try {
+            job.setFuture(executor.submit(() -> runJob(job, request)));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(id);
+            throw e;
+        }
+        return job;
+    }
+
+    /**
+     * 查询任务，不存在或已过期时返回 null
+     */
+    public PlanningJob getJob(String id) {
+        return jobs.get(id);
+    }
+
+    /**
+     * 取消任务：排队中的任务从队列中移除，运行中的任务通知算法停止
+     *
+     * @return 取消后的任务，不存在时返回 null
+     */
+    public PlanningJob cancelJob(String id) {
+        PlanningJob job = jobs.get(id);
+        if (job == null) {
+            return null;
+        }
+        if (job.cancel() == PlanningJob.Status.QUEUED) {
+            Future<?> future = job.getFuture();
+            if (future instanceof Runnable) {
+                // 释放等待队列中的位置
+                executor.remove((Runnable) future);
+            }
+        }
+        return job;
+    }
+
+    public PlanningResultCache getCache() {
+        return cache;
+    }
+
+    private void runJob(PlanningJob job, HangarPlacementRequest request) {
+        if (!job.markRunning()) {
+            return;
+        }
+        try {
+            job.succeed(compute(request, job.getCacheKey(), job::setProgress, job));
+        } catch (CancellationException e) {
+            System.out.println("规划任务已取消: " + job.getId());
+        } catch (RuntimeException e) {
+            e.printStackTrace();
+            job.fail(e.getMessage());
+        }
+    }
+
+    private void purgeExpiredJobs() {
+        long expiredBefore = System.currentTimeMillis() - jobTtlMs;
+        jobs.values().removeIf(job -> job.getStatus().isFinished() && job.getFinishedAt() < expiredBefore);
+    }
+
+    /**
+     * 求解并构建响应；不限时或已证明最优的结果是确定的，放入缓存。
+     * 并行分支定界中同样机巢数的方案谁先被找到取决于线程调度，结果不确定，不放入缓存
+     */
+    private HangarPlacementResponse compute(HangarPlacementRequest request, String key,
+                                            Consumer<PlanningProgress> progressListener, PlanningJob job) {
+        List<InspectionPoint> points = toInspectionPoints(request.getInspectionPoints());
+        List<DroneModel> drones = toDroneModels(request.getDroneModels());
+        PlacementSolution solution = solve(points, drones, request, progressListener, job);
+        HangarPlacementResponse response = buildResponse(solution, points, drones, request.isIncludeGeoJSON());
+        boolean deterministic = !ALGORITHM_BRANCH_AND_BOUND.equals(normalizeAlgorithm(request.getAlgorithm()))
+                && (request.getTimeLimitMs() <= 0 || solution.isOptimal());
+        if (deterministic) {
+            cache.put(key, response);
+        }
+        return response;
+    }
+
+    /**
+     * 按算法名称分派
+     */
+    public PlacementSolution solve(List<InspectionPoint> points, List<DroneModel> drones,
+                                   HangarPlacementRequest request, Consumer<PlanningProgress> progressListener) {
+        return solve(points, drones, request, progressListener, null);
+    }
+
+    private PlacementSolution solve(List<InspectionPoint> points, List<DroneModel> drones,
+                                    HangarPlacementRequest request, Consumer<PlanningProgress> progressListener,
+                                    PlanningJob job) {
+        String algorithm = normalizeAlgorithm(request.getAlgorithm());
+        PlacementSolution solution;
+        switch (algorithm) {
+            case ALGORITHM_GREEDY: {
+                // 贪心加局部搜索，timeLimitMs 作为局部搜索的时间预算
+                HangarPlacementAlgorithm greedy = new HangarPlacementAlgorithm(points, drones);
+                if (job != null) {
+                    job.setCanceller(greedy::cancel);
+                }
+                solution = greedy.solveImproved(request.getTimeLimitMs());
+                break;
+            }
+            case ALGORITHM_GRASP: {
+                // 多起点随机贪心，固定种子保证相同请求得到相同结果
+                HangarPlacementAlgorithm grasp = new HangarPlacementAlgorithm(points, drones);
+                if (job != null) {
+                    job.setCanceller(grasp::cancel);
+                }
+                solution = grasp.solveGrasp(GraspSolver.DEFAULT_RESTARTS, 0);
+                break;
+            }
+            case ALGORITHM_BRANCH_AND_BOUND: {
+                HangarPlacementAlgorithm3 algorithm3 = new HangarPlacementAlgorithm3(points, drones, false);
+                algorithm3.setProgressListener(progressListener);
+                if (job != null) {
+                    job.setCanceller(algorithm3::cancel);
+                }
+                solution = algorithm3.solve(request.getTimeLimitMs());
+                break;
+            }
+            case ALGORITHM_ILP: {
+                HangarPlacementAlgorithm5 algorithm5 = new HangarPlacementAlgorithm5(points, drones);
+                algorithm5.setProgressListener(progressListener);
+                if (job != null) {
+                    job.setCanceller(algorithm5::cancel);
+                }
+                solution = algorithm5.solve(request.getTimeLimitMs(), request.getRelativeGap());
+                break;
+            }
+            default:
+                throw new IllegalArgumentException("不支持的算法: " + request.getAlgorithm());
+        }
+        return requireFullCoverage(solution, points, drones);
+    }
+
+    /**
+     * 各算法的目标值都是 SetCoverModel.rangeWeightedCosts 下的成本，但都忽略无法被任何候选覆盖的点；
+     * 只有覆盖了全部巡检点的方案才报告 OPTIMAL，否则降为 FEASIBLE
+     */
+    private static PlacementSolution requireFullCoverage(PlacementSolution solution, List<InspectionPoint> points,
+                                                         List<DroneModel> drones) {
+        if (!solution.isOptimal()) {
+            return solution;
+        }
+        CoverageVerifier.Report coverage = new CoverageVerifier(points, drones).verify(solution.getHangars());
+        if (coverage.getCoveredCount() == coverage.getTotalCount()) {
+            return solution;
+        }
+        return new PlacementSolution(solution.getHangars(), solution.getObjectiveValue(), solution.getLowerBound(),
+                PlacementSolution.Status.FEASIBLE, solution.getSolveTimeMs());
+    }
+
+    /**
+     * 构建响应：选中的机巢、覆盖统计、GeoJSON 和求解质量
+     */
+    public HangarPlacementResponse buildResponse(PlacementSolution solution, List<InspectionPoint> points,
+                                                 List<DroneModel> drones) {
+        return buildResponse(solution, points, drones, true);
+    }
+
+    /**
+     * 构建响应
+     *
+     * @param includeGeoJSON 是否生成内嵌的 GeoJSON 字符串；不生成时可以通过 GeoJSONUtils.writeGeoJSON 流式输出
+     */
+    public HangarPlacementResponse buildResponse(PlacementSolution solution, List<InspectionPoint> points,
+                                                 List<DroneModel> drones, boolean includeGeoJSON) {
+        List<SelectedHangar> result = solution.getHangars();
+
+        // 计算覆盖统计
+        CoverageVerifier.Report coverage = new CoverageVerifier(points, drones).verify(result);
+
+        // 构建响应
+        HangarPlacementResponse response = new HangarPlacementResponse();
+        response.setSelectedHangars(result.stream()
+                .map(h -> new SelectedHangarDTO(
+                        h.getHangarLocationId(),
+                        h.getDroneModelName(),
+                        h.getHangarCoordinate().x,
+                        h.getHangarCoordinate().y))
+                .collect(Collectors.toList()));
+
+        response.setTotalPoints(coverage.getTotalCount());
+        response.setCoveredPoints(coverage.getCoveredCount());
+        response.setCoverageRate(coverage.getCoverageRate());
+        response.setUncoveredPoints(coverage.uncoveredIds());
+        response.setRedundantPoints(coverage.getRedundantCount());
+        response.setMaxRedundancy(coverage.getMaxRedundancy());
+
+        // 生成GeoJSON表示
+        if (includeGeoJSON) {
+            response.setGeoJSON(GeoJSONUtils.convertToGeoJSON(result, drones, points));
+        }
+
+        // 求解质量
+        response.setSolveStatus(solution.getStatus().name());
+        response.setObjectiveValue(solution.getObjectiveValue());
+        response.setLowerBound(solution.getLowerBound());
+        response.setGap(solution.getGap());
+        response.setSolveTimeMs(solution.getSolveTimeMs());
+        return response;
+    }
+
+    // ---------------------------------------------------------------- DTO 转换
+
+    public static List<InspectionPoint> toInspectionPoints(List<HangarPlacementRequest.InspectionPointDTO> dtos) {
+        List<InspectionPoint> points = new ArrayList<>(dtos.size());
+        for (HangarPlacementRequest.InspectionPointDTO dto : dtos) {
+            points.add(new InspectionPoint(dto.getId(), dto.getX(), dto.getY(), dto.isCanBuildHangar()));
+        }
+        return points;
+    }
+
+    public static List<DroneModel> toDroneModels(List<HangarPlacementRequest.DroneModelDTO> dtos) {
+        List<DroneModel> drones = new ArrayList<>(dtos.size());
+        for (HangarPlacementRequest.DroneModelDTO dto : dtos) {
+            drones.add(new DroneModel(dto.getModelName(), dto.getRangeKm()));
+        }
+        return drones;
+    }
+
+    /**
+     * 统一算法名称，未指定时使用 ILP（直接最小化所报告的成本）
+     */
+    public static String normalizeAlgorithm(String algorithm) {
+        if (algorithm == null || algorithm.trim().isEmpty()) {
+            return ALGORITHM_ILP;
+        }
+        return algorithm.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private void validate(HangarPlacementRequest request) {
+        if (request == null) {
+            throw new IllegalArgumentException("请求不能为空");
+        }
+        if (request.getInspectionPoints() == null || request.getInspectionPoints().isEmpty()) {
+            throw new IllegalArgumentException("巡检点不能为空");
+        }
+        if (request.getDroneModels() == null || request.getDroneModels().isEmpty()) {
+            throw new IllegalArgumentException("无人机型号不能为空");
+        }
+        Set<String> ids = new HashSet<>();
+        for (HangarPlacementRequest.InspectionPointDTO point : request.getInspectionPoints()) {
+            if (point.getId() == null || !ids.add(point.getId())) {
+                throw new IllegalArgumentException("巡检点编号为空或重复: " + point.getId());
+            }
+        }
+        for (HangarPlacementRequest.DroneModelDTO drone : request.getDroneModels()) {
+            if (drone.getModelName() == null || !(drone.getRangeKm() > 0)) {
+                throw new IllegalArgumentException("无人机型号名称为空或覆盖半径无效: " + drone.getModelName());
+            }
+        }
+        String algorithm = normalizeAlgorithm(request.getAlgorithm());
+        if (!ALGORITHM_GREEDY.equals(algorithm) && !ALGORITHM_GRASP.equals(algorithm)
+                && !ALGORITHM_BRANCH_AND_BOUND.equals(algorithm) && !ALGORITHM_ILP.equals(algorithm)) {
+            throw new IllegalArgumentException("不支持的算法: " + request.getAlgorithm()
+                    + "，可选: greedy, grasp, branchandbound, ilp");
+        }
+    }
+}
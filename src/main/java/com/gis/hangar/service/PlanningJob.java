@@ -0,0 +1,191 @@
+package com.gis.hangar.service;
+
+import com.gis.hangar.PlanningProgress;
+import com.gis.hangar.controller.HangarPlacementResponse;
+
+import java.util.concurrent.Future;
+
+/**
+ * 异步规划任务
+ * 状态流转：QUEUED -> RUNNING -> SUCCEEDED / FAILED / CANCELLED，排队中的任务可以直接取消。
+ * 状态变更都在 synchronized 方法中完成，保证取消和开始执行之间没有竞争。
+ */
+public class PlanningJob {
+
+    /**
+     * 任务状态
+     */
+    public enum Status {
+        QUEUED,
+        RUNNING,
+        SUCCEEDED,
+        FAILED,
+        CANCELLED;
+
+        public boolean isFinished() {
+            return this == SUCCEEDED || this == FAILED || this == CANCELLED;
+        }
+    }
+
+    private final String id;
+    private final String cacheKey;
+    private final String algorithm;
+    private final long submittedAt;
+    private long startedAt;
+    private long finishedAt;
+    private Status status = Status.QUEUED;
+    private boolean cached;
+    private HangarPlacementResponse result;
+    private String error;
+    private volatile PlanningProgress progress;
+
+    // 排队中的任务，用于取消时从线程池队列中移除
+    private Future<?> future;
+    // 正在运行的算法的取消操作
+    private Runnable canceller;
+
+    PlanningJob(String id, String cacheKey, String algorithm) {
+        this.id = id;
+        this.cacheKey = cacheKey;
+        this.algorithm = algorithm;
+        this.submittedAt = System.currentTimeMillis();
+    }
+
+    /**
+     * 创建一个直接命中缓存、已完成的任务
+     */
+    static PlanningJob completedFromCache(String id, String cacheKey, String algorithm, HangarPlacementResponse result) {
+        PlanningJob job = new PlanningJob(id, cacheKey, algorithm);
+        job.startedAt = job.submittedAt;
+        job.finishedAt = job.submittedAt;
+        job.status = Status.SUCCEEDED;
+        job.cached = true;
+        job.result = result;
+        return job;
+    }
+
+    synchronized void setFuture(Future<?> future) {
+        this.future = future;
+    }
+
+    /**
+     * 开始执行，任务已被取消时返回 false
+     */
+    synchronized boolean markRunning() {
+        if (status != Status.QUEUED) {
+            return false;
+        }
+        status = Status.RUNNING;
+        startedAt = System.currentTimeMillis();
+        return true;
+    }
+
+    /**
+     * 注册正在运行的算法的取消操作，任务已被取消时立即执行
+     */
+    synchronized void setCanceller(Runnable canceller) {
+        this.canceller = canceller;
+        if (status == Status.CANCELLED && canceller != null) {
+            canceller.run();
+        }
+    }
+
+    synchronized void succeed(HangarPlacementResponse result) {
+        if (status == Status.RUNNING) {
+            this.result = result;
+            finish(Status.SUCCEEDED);
+        }
+    }
+
+    synchronized void fail(String error) {
+        if (status == Status.RUNNING) {
+            this.error = error;
+            finish(Status.FAILED);
+        }
+    }
+
+    /**
+     * 取消任务：排队中的任务从队列中移除，运行中的任务通知算法停止
+     *
+     * @return 原来的状态，用于判断是否需要从线程池队列中移除
+     */
+    synchronized Status cancel() {
+        Status previous = status;
+        if (status.isFinished()) {
+            return previous;
+        }
+        Runnable running = canceller;
+        finish(Status.CANCELLED);
+        if (running != null) {
+            running.run();
+        }
+        if (future != null) {
+            future.cancel(false);
+        }
+        return previous;
+    }
+
+    synchronized Future<?> getFuture() {
+        return future;
+    }
+
+    private void finish(Status finalStatus) {
+        status = finalStatus;
+        finishedAt = System.currentTimeMillis();
+        canceller = null;
+    }
+
+    void setProgress(PlanningProgress progress) {
+        this.progress = progress;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    String getCacheKey() {
+        return cacheKey;
+    }
+
+    public String getAlgorithm() {
+        return algorithm;
+    }
+
+    public synchronized Status getStatus() {
+        return status;
+    }
+
+    public long getSubmittedAt() {
+        return submittedAt;
+    }
+
+    public synchronized long getStartedAt() {
+        return startedAt;
+    }
+
+    public synchronized long getFinishedAt() {
+        return finishedAt;
+    }
+
+    /**
+     * 结果是否来自缓存
+     */
+    public synchronized boolean isCached() {
+        return cached;
+    }
+
+    public synchronized HangarPlacementResponse getResult() {
+        return result;
+    }
+
+    public synchronized String getError() {
+        return error;
+    }
+
+    /**
+     * 最近一次进度事件，没有时为 null
+     */
+    public PlanningProgress getProgress() {
+        return progress;
+    }
+}
@@ -0,0 +1,130 @@
+package com.gis.hangar.service;
+
+import com.gis.hangar.controller.HangarPlacementRequest;
+import com.gis.hangar.controller.HangarPlacementResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 规划结果的 LRU 缓存
+ * 以请求内容（巡检点、无人机型号、算法和求解参数）的 SHA-256 哈希为键，
+ * 相同的请求直接返回之前的 HangarPlacementResponse，不再重新求解。
+ * 响应是可变的 bean，存入和取出时都做深拷贝，调用方修改返回的响应不会影响缓存和其他请求。
+ */
+public class PlanningResultCache {
+
+    private final int capacity;
+    private final LinkedHashMap<String, HangarPlacementResponse> entries;
+    private long hits;
+    private long misses;
+
+    public PlanningResultCache(int capacity) {
+        this.capacity = capacity;
+        // accessOrder = true：按访问顺序排列，最久未访问的在最前面
+        this.entries = new LinkedHashMap<String, HangarPlacementResponse>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, HangarPlacementResponse> eldest) {
+                return size() > PlanningResultCache.this.capacity;
+            }
+        };
+    }
+
+    /**
+     * 查找缓存结果，未命中时返回 null；命中时返回副本
+     */
+    public synchronized HangarPlacementResponse get(String key) {
+        HangarPlacementResponse response = entries.get(key);
+        if (response == null) {
+            misses++;
+        } else {
+            hits++;
+        }
+        return response == null ? null : response.copy();
+    }
+
+    /**
+     * 存入结果的副本，之后修改 response 不影响缓存
+     */
+    public synchronized void put(String key, HangarPlacementResponse response) {
+        if (capacity > 0) {
+            entries.put(key, response.copy());
+        }
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    /**
+     * 计算请求内容的哈希键
+     * 巡检点和无人机型号按请求中的顺序参与计算（顺序会影响同成本方案之间的选择），
+     * 坐标和半径按 IEEE 754 位模式写入，避免字符串格式化带来的歧义。
+     *
+     * @param request 已校验的请求
+     * @param algorithm 规范化后的算法名称
+     */
+    public static String keyOf(HangarPlacementRequest request, String algorithm) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 不可用", e);
+        }
+        byte[] buffer = new byte[8];
+        updateString(digest, algorithm, buffer);
+        updateLong(digest, request.getTimeLimitMs(), buffer);
+        updateLong(digest, Double.doubleToLongBits(request.getRelativeGap()), buffer);
+        digest.update((byte) (request.isIncludeGeoJSON() ? 1 : 0));
+
+        updateLong(digest, request.getDroneModels().size(), buffer);
+        for (HangarPlacementRequest.DroneModelDTO drone : request.getDroneModels()) {
+            updateString(digest, drone.getModelName(), buffer);
+            updateLong(digest, Double.doubleToLongBits(drone.getRangeKm()), buffer);
+        }
+
+        updateLong(digest, request.getInspectionPoints().size(), buffer);
+        for (HangarPlacementRequest.InspectionPointDTO point : request.getInspectionPoints()) {
+            updateString(digest, point.getId(), buffer);
+            updateLong(digest, Double.doubleToLongBits(point.getX()), buffer);
+            updateLong(digest, Double.doubleToLongBits(point.getY()), buffer);
+            digest.update((byte) (point.isCanBuildHangar() ? 1 : 0));
+        }
+
+        StringBuilder hex = new StringBuilder(64);
+        for (byte b : digest.digest()) {
+            hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return hex.toString();
+    }
+
+    private static void updateString(MessageDigest digest, String value, byte[] buffer) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        // 先写长度，避免相邻字符串拼接产生相同的字节序列
+        updateLong(digest, bytes.length, buffer);
+        digest.update(bytes);
+    }
+
+    private static void updateLong(MessageDigest digest, long value, byte[] buffer) {
+        for (int i = 7; i >= 0; i--) {
+            buffer[i] = (byte) value;
+            value >>>= 8;
+        }
+        digest.update(buffer);
+    }
+}
@@ -9,6 +9,9 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.junit4.SpringRunner;
 
 import javax.annotation.Resource;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -50,13 +53,16 @@ public class GdalDatasetUtilTest {
      * 向量化
      */
     @Test
-    public void terrainGeoJSONExporterTest(){
+    public void terrainGeoJSONExporterTest() throws IOException {
         SlopeAnalysis slopeAnalysis = new SlopeAnalysis();
         TerrainGeoJSONExporter exporter = new TerrainGeoJSONExporter(slopeAnalysis);
         String path = "D:\\吉奥\\陕西\\out\\陕西地形tiff3857\\";
+        Path cacheDir = Paths.get(path, "cache");
         for (String city : citys) {
+            // 首次运行时把DEM转为内存映射缓存，之后重复导出不再解码GeoTIFF
+            RasterGrid elevation = MappedDemCache.openOrCreate(path + city + "3857.tiff", cacheDir).readGrid();
             // 导出平原区域
-            exporter.exportTerrainToGeoJSON(path +city +"3857.tiff",
+            exporter.exportTerrainToGeoJSON(elevation,
                     path + "geojson\\" + city + "3857.json");
         }
     }
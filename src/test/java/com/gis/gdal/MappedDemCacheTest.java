@@ -0,0 +1,137 @@
+package com.gis.gdal;
+
+import org.gdal.gdal.Dataset;
+import org.gdal.gdal.gdal;
+import org.gdal.gdalconst.gdalconstConstants;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+import static org.junit.Assert.*;
+
+public class MappedDemCacheTest {
+
+    private static final String DEM = new File("src/main/resources/input50x50.asc").getAbsolutePath();
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private FloatRasterGrid expected;
+
+    @Before
+    public void readDem() {
+        try {
+            gdal.AllRegister();
+        } catch (Throwable e) {
+            Assume.assumeNoException("GDAL 原生库不可用", e);
+        }
+        Dataset dataset = gdal.Open(DEM, gdalconstConstants.GA_ReadOnly);
+        Assume.assumeNotNull(dataset);
+        try {
+            expected = FloatRasterGrid.read(dataset);
+        } finally {
+            dataset.delete();
+        }
+    }
+
+    @Test
+    public void roundTripsThroughTiles() throws IOException {
+        // 50x50 按 16 分块，包含不完整的边缘块
+        MappedDemCache cache = MappedDemCache.create(DEM, folder.getRoot().toPath().resolve("dem.demcache"), 16);
+
+        assertEquals(50, cache.getWidth());
+        assertEquals(50, cache.getHeight());
+        assertEquals(4, cache.getTilesX());
+        assertArrayEquals(expected.getGeoTransform(), cache.getGeoTransform(), 0);
+        assertEquals(expected.getNoData(), cache.getNoData());
+        assertArrayEquals(expected.array(), cache.readGrid().array(), 0);
+        for (int y = 0; y < 50; y += 7) {
+            for (int x = 0; x < 50; x += 3) {
+                assertEquals(expected.get(x, y), cache.get(x, y), 0);
+            }
+        }
+
+        // 跨块窗口
+        float[] window = new float[20 * 10];
+        cache.read(10, 12, 20, 10, window);
+        for (int r = 0; r < 10; r++) {
+            for (int c = 0; c < 20; c++) {
+                assertEquals(expected.get(10 + c, 12 + r), window[r * 20 + c], 0);
+            }
+        }
+
+        // 边缘块的零拷贝视图
+        FloatRasterGrid tile = cache.tile(3, 3);
+        assertEquals(2, tile.getWidth());
+        assertEquals(2, tile.getHeight());
+        assertTrue(tile.isDirect());
+        assertEquals(expected.get(49, 49), tile.get(1, 1), 0);
+        double[] geoTransform = expected.getGeoTransform();
+        assertEquals(geoTransform[0] + 48 * geoTransform[1], tile.getGeoTransform()[0], 1e-9);
+        assertEquals(geoTransform[3] + 48 * geoTransform[5], tile.getGeoTransform()[3], 1e-9);
+    }
+
+    @Test
+    public void reusesUnchangedCache() throws IOException {
+        Path cacheDir = folder.getRoot().toPath().resolve("cache");
+        MappedDemCache first = MappedDemCache.openOrCreate(DEM, cacheDir);
+        long written = Files.getLastModifiedTime(first.getPath()).toMillis();
+
+        MappedDemCache second = MappedDemCache.openOrCreate(DEM, cacheDir);
+        assertEquals(first.getPath(), second.getPath());
+        assertEquals(written, Files.getLastModifiedTime(second.getPath()).toMillis());
+        assertArrayEquals(expected.array(), second.readGrid().array(), 0);
+    }
+
+    @Test
+    public void rebuildsStaleOrForeignCache() throws IOException {
+        Path dem = folder.getRoot().toPath().resolve("copy.asc");
+        Files.copy(new File(DEM).toPath(), dem);
+        // 在另一个目录生成缓存再复制过来，测试进程本身不映射将被替换的文件（Windows 上映射中的文件无法覆盖）
+        Path built = MappedDemCache.openOrCreate(dem.toString(), folder.getRoot().toPath().resolve("build")).getPath();
+        Path staleDir = folder.getRoot().toPath().resolve("stale");
+        Path foreignDir = folder.getRoot().toPath().resolve("foreign");
+        Files.createDirectories(staleDir);
+        Files.createDirectories(foreignDir);
+        Path stale = Files.copy(built, staleDir.resolve(built.getFileName()));
+        Files.setLastModifiedTime(stale, FileTime.fromMillis(0));
+        Files.write(foreignDir.resolve(built.getFileName()), new byte[4096]);
+
+        // 源文件修改后重新生成，缓存文件被替换
+        assertTrue(dem.toFile().setLastModified(dem.toFile().lastModified() - 60_000));
+        MappedDemCache rebuilt = MappedDemCache.openOrCreate(dem.toString(), staleDir);
+        assertEquals(stale, rebuilt.getPath());
+        assertNotEquals(0, Files.getLastModifiedTime(stale).toMillis());
+        assertArrayEquals(expected.array(), rebuilt.readGrid().array(), 0);
+
+        // 无法识别的文件也重新生成，而不是抛出异常
+        MappedDemCache replaced = MappedDemCache.openOrCreate(dem.toString(), foreignDir);
+        assertArrayEquals(expected.array(), replaced.readGrid().array(), 0);
+    }
+
+    @Test(expected = IOException.class)
+    public void rejectsForeignFile() throws IOException {
+        Path path = folder.newFile("not-a-cache.demcache").toPath();
+        Files.write(path, new byte[4096]);
+        MappedDemCache.open(path);
+    }
+
+    @Test
+    public void terrainFromCacheMatchesDataset() throws IOException {
+        MappedDemCache cache = MappedDemCache.create(DEM, folder.getRoot().toPath().resolve("dem.demcache"), 64);
+        SlopeAnalysis analysis = new SlopeAnalysis();
+        TerrainDerivatives fromDataset = analysis.calculateTerrainDerivatives(DEM);
+        // 块边长不小于栅格尺寸时整幅栅格就是一个零拷贝的块
+        TerrainDerivatives fromCache = analysis.calculateTerrainDerivatives(cache.tile(0, 0));
+        assertArrayEquals(fromDataset.getSlope(), fromCache.getSlope(), 0);
+        assertArrayEquals(fromDataset.getTpi(), fromCache.getTpi(), 0);
+    }
+}
@@ -0,0 +1,129 @@
+package com.gis.gdal;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import static org.junit.Assert.*;
+
+public class RasterGridTest {
+
+    private static final double[] GEO_TRANSFORM = {0, 10, 0, 500, 0, -10};
+
+    private static FloatRasterGrid ramp(FloatRasterGrid grid) {
+        for (int i = 0; i < grid.getSize(); i++) {
+            grid.set(i, i * 1.5f);
+        }
+        return grid;
+    }
+
+    @Test
+    public void heapAndDirectFloatGridsAgree() {
+        FloatRasterGrid heap = ramp(FloatRasterGrid.allocate(7, 5, GEO_TRANSFORM, null));
+        FloatRasterGrid direct = ramp(FloatRasterGrid.allocateDirect(7, 5, GEO_TRANSFORM, null));
+
+        assertTrue(heap.hasArray());
+        assertFalse(heap.isDirect());
+        assertTrue(direct.isDirect());
+        assertFalse(direct.hasArray());
+        for (int y = 0; y < 5; y++) {
+            for (int x = 0; x < 7; x++) {
+                assertEquals(heap.get(x, y), direct.get(x, y), 0);
+                assertEquals(heap.index(x, y) * 1.5, heap.getDouble(x, y), 0);
+            }
+        }
+        assertArrayEquals(heap.toRows(), direct.toRows());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void directGridHasNoArray() {
+        FloatRasterGrid.allocateDirect(2, 2, GEO_TRANSFORM, null).array();
+    }
+
+    @Test
+    public void wrapsByteBufferFromPositionInItsByteOrder() {
+        ByteBuffer bytes = ByteBuffer.allocate(8 + 4 * 6).order(ByteOrder.BIG_ENDIAN);
+        bytes.putLong(42L);
+        for (int i = 0; i < 6; i++) {
+            bytes.putFloat(i + 0.25f);
+        }
+        bytes.position(8);
+
+        FloatRasterGrid grid = FloatRasterGrid.wrap(bytes, 3, 2, GEO_TRANSFORM, null);
+        assertEquals(0.25f, grid.get(0, 0), 0);
+        assertEquals(5.25f, grid.get(2, 1), 0);
+        grid.set(1, 9f);
+        assertEquals(9f, bytes.getFloat(8 + 4), 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsShortBuffer() {
+        FloatRasterGrid.wrap(ByteBuffer.allocate(4 * 5), 3, 2, GEO_TRANSFORM, null);
+    }
+
+    @Test
+    public void byteGridIsUnsignedAndShortGridIsSigned() {
+        ByteRasterGrid mask = ByteRasterGrid.allocateDirect(2, 1, GEO_TRANSFORM, null);
+        mask.setDouble(0, 200);
+        assertEquals(200, mask.getDouble(0), 0);
+        assertEquals((byte) 200, mask.get(0));
+
+        ShortRasterGrid dem = ShortRasterGrid.wrap(new short[]{-32768, 1200}, 2, 1, GEO_TRANSFORM, -32768.0);
+        assertTrue(dem.isNoData(0));
+        assertFalse(dem.isNoData(1));
+        assertEquals(1200, dem.getDouble(1, 0), 0);
+    }
+
+    @Test
+    public void nanNoDataMatchesNan() {
+        FloatRasterGrid grid = FloatRasterGrid.wrap(new float[]{Float.NaN, 1}, 2, 1, GEO_TRANSFORM, Double.NaN);
+        assertTrue(grid.isNoData(0));
+        assertFalse(grid.isNoData(1));
+    }
+
+    @Test
+    public void terrainKernelAcceptsAnyGrid() {
+        int width = 6;
+        int height = 4;
+        float[] values = new float[width * height];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = (float) (100 + 3 * (i % width) + 4 * (i / width) + (i % 3));
+        }
+        TerrainDerivatives expected = TerrainKernel.compute(values, width, height, GEO_TRANSFORM, null);
+
+        FloatRasterGrid direct = FloatRasterGrid.allocateDirect(width, height, GEO_TRANSFORM, null);
+        short[] shorts = new short[values.length];
+        for (int i = 0; i < values.length; i++) {
+            direct.set(i, values[i]);
+            shorts[i] = (short) values[i];
+        }
+        ShortRasterGrid integer = ShortRasterGrid.wrap(shorts, width, height, GEO_TRANSFORM, null);
+
+        for (RasterGrid grid : new RasterGrid[]{direct, integer}) {
+            TerrainDerivatives actual = TerrainKernel.compute(grid);
+            assertArrayEquals(expected.getSlope(), actual.getSlope(), 0);
+            assertArrayEquals(expected.getAspect(), actual.getAspect(), 0);
+            assertArrayEquals(expected.getTpi(), actual.getTpi(), 0);
+        }
+        assertArrayEquals(expected.getSlope(), expected.getSlopeGrid().array(), 0);
+    }
+
+    @Test
+    public void depressionAnalysisOnGrid() {
+        float[] values = {0, 10, 20, 30, 40, 50, 60, 70, 80, 90};
+        FloatRasterGrid dem = FloatRasterGrid.wrap(values, 5, 2, GEO_TRANSFORM, 0.0);
+        DepressionAnalysis analysis = new DepressionAnalysis();
+
+        // 有效高程 10..90，分位数 0.2 取第 1 个（从 0 计）即 20
+        double threshold = analysis.calculateDepressionThreshold(dem, DepressionAnalysis.ThresholdMethod.PERCENTILE, 0.2);
+        assertEquals(20, threshold, 0);
+        // 加权平均：min 10、mean 50
+        assertEquals(10 * 0.5 + 50 * 0.5,
+                analysis.calculateDepressionThreshold(dem, DepressionAnalysis.ThresholdMethod.WEIGHTED_AVERAGE, 0.5), 1e-9);
+
+        ByteRasterGrid depressions = analysis.identifyDepressions(dem, threshold);
+        assertArrayEquals(new byte[]{0, 1, 0, 0, 0, 0, 0, 0, 0, 0}, depressions.array());
+        assertSame(GEO_TRANSFORM, depressions.getGeoTransform());
+    }
+}
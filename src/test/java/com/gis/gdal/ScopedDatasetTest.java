@@ -0,0 +1,63 @@
+package com.gis.gdal;
+
+import org.gdal.gdal.gdal;
+import org.junit.Assume;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.*;
+
+public class ScopedDatasetTest {
+
+    @Test
+    public void tempPathsAreUniqueInMemoryFiles() {
+        Set<String> paths = new HashSet<>();
+        for (int i = 0; i < 1000; i++) {
+            String path = ScopedDataset.tempPath("temp_slope", "tif");
+            assertTrue(path, path.startsWith("/vsimem/temp_slope_"));
+            assertTrue(path, path.endsWith(".tif"));
+            assertTrue(paths.add(path));
+        }
+    }
+
+    @Test
+    public void concurrentDemProcessingDoesNotInterfere() throws Exception {
+        try {
+            gdal.AllRegister();
+        } catch (Throwable e) {
+            Assume.assumeNoException("GDAL 原生库不可用", e);
+        }
+        String input = new File("src/main/resources/input50x50.asc").getAbsolutePath();
+        SlopeAnalysis analysis = new SlopeAnalysis();
+        double[][] slope = analysis.getSlopeDataFromAsc(input);
+        double[][] aspect = analysis.getAspectDataFromAsc(input);
+        Assume.assumeNotNull(slope, aspect);
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<double[][]>> slopes = new ArrayList<>();
+            List<Future<double[][]>> aspects = new ArrayList<>();
+            for (int i = 0; i < 16; i++) {
+                slopes.add(executor.submit(() -> analysis.getSlopeDataFromAsc(input)));
+                aspects.add(executor.submit(() -> analysis.getAspectDataFromAsc(input)));
+            }
+            for (int i = 0; i < slopes.size(); i++) {
+                assertArrayEquals(slope, slopes.get(i).get());
+                assertArrayEquals(aspect, aspects.get(i).get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+        // 结果只写入 /vsimem/，工作目录下不再有临时文件
+        assertFalse(new File("temp_slope.tif").exists());
+        assertFalse(new File("temp_aspect.tif").exists());
+    }
+}
@@ -0,0 +1,109 @@
+package com.gis.gdal;
+
+import org.gdal.gdal.gdal;
+import org.junit.Assume;
+import org.junit.Test;
+
+import java.io.File;
+
+import static org.junit.Assert.*;
+
+public class TerrainKernelTest {
+
+    private static final double[] GEO_TRANSFORM = {0, 10, 0, 500, 0, -10};
+
+    private static float[] plane(int width, int height, double a, double b) {
+        float[] dem = new float[width * height];
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                dem[y * width + x] = (float) (100 + a * x + b * y);
+            }
+        }
+        return dem;
+    }
+
+    private static boolean isCorner(int x, int y, int width, int height) {
+        return (x == 0 || x == width - 1) && (y == 0 || y == height - 1);
+    }
+
+    @Test
+    public void planeHasUniformSlopeAndZeroTpi() {
+        int width = 7;
+        int height = 5;
+        TerrainDerivatives result = TerrainKernel.compute(plane(width, height, 3, 4), width, height, GEO_TRANSFORM, null);
+
+        // 每像元东西向升高 3、南北向升高 4，分辨率 10 米，坡度为 atan(0.5)
+        double expected = Math.toDegrees(Math.atan(0.5));
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                if (isCorner(x, y, width, height)) {
+                    continue; // GDAL 在角点处左右邻居取自身列，梯度只有一半
+                }
+                assertEquals(expected, result.slopeAt(x, y), 1e-4);
+                assertEquals(0, result.tpiAt(x, y), 1e-4);
+            }
+        }
+    }
+
+    @Test
+    public void aspectIsAzimuthOfDownslope() {
+        int width = 5;
+        int height = 5;
+        // 向东升高：坡面朝西
+        assertEquals(270, TerrainKernel.compute(plane(width, height, 2, 0), width, height, GEO_TRANSFORM, null)
+                .aspectAt(2, 2), 1e-4);
+        // 向南（行号增大）升高：坡面朝北
+        assertEquals(0, TerrainKernel.compute(plane(width, height, 0, 2), width, height, GEO_TRANSFORM, null)
+                .aspectAt(2, 2), 1e-4);
+        // 向北升高：坡面朝南
+        assertEquals(180, TerrainKernel.compute(plane(width, height, 0, -2), width, height, GEO_TRANSFORM, null)
+                .aspectAt(2, 2), 1e-4);
+        // 平地
+        assertEquals(0, TerrainKernel.compute(plane(width, height, 0, 0), width, height, GEO_TRANSFORM, null)
+                .aspectAt(2, 2), 0);
+    }
+
+    @Test
+    public void noDataCenterAndNeighbours() {
+        int width = 5;
+        int height = 5;
+        float[] dem = plane(width, height, 0, 0);
+        dem[2 * width + 2] = -9999;
+        TerrainDerivatives result = TerrainKernel.compute(dem, width, height, GEO_TRANSFORM, -9999.0);
+
+        assertTrue(result.hasNoData());
+        assertEquals(TerrainKernel.DST_NODATA, result.slopeAt(2, 2), 0);
+        assertEquals(TerrainKernel.DST_NODATA, result.tpiAt(2, 2), 0);
+        // 无效邻居用中心值代替，平地仍然是平地
+        assertEquals(0, result.slopeAt(1, 1), 0);
+        assertEquals(0, result.tpiAt(1, 2), 0);
+    }
+
+    @Test
+    public void matchesGdalDemProcessing() {
+        try {
+            gdal.AllRegister();
+        } catch (Throwable e) {
+            Assume.assumeNoException("GDAL 原生库不可用", e);
+        }
+        String path = new File("src/main/resources/input50x50.asc").getAbsolutePath();
+        SlopeAnalysis analysis = new SlopeAnalysis();
+        double[][] slope = analysis.getSlopeDataFromAsc(path);
+        double[][] aspect = analysis.getAspectDataFromAsc(path);
+        double[][] tpi = analysis.getTPIDataFromAsc(path);
+        Assume.assumeNotNull(slope, aspect, tpi);
+
+        TerrainDerivatives result = analysis.calculateTerrainDerivatives(path);
+        assertNotNull(result);
+        assertEquals(slope.length, result.getHeight());
+        assertEquals(slope[0].length, result.getWidth());
+        for (int y = 0; y < result.getHeight(); y++) {
+            for (int x = 0; x < result.getWidth(); x++) {
+                assertEquals("slope " + x + "," + y, slope[y][x], result.slopeAt(x, y), 1e-3);
+                assertEquals("tpi " + x + "," + y, tpi[y][x], result.tpiAt(x, y), 1e-3);
+                double difference = Math.abs(aspect[y][x] - result.aspectAt(x, y));
+                assertTrue("aspect " + x + "," + y, Math.min(difference, 360 - difference) < 1e-2);
+            }
+        }
+    }
+}
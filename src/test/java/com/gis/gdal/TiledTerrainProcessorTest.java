@@ -0,0 +1,63 @@
+package com.gis.gdal;
+
+import org.gdal.gdal.Dataset;
+import org.gdal.gdal.gdal;
+import org.gdal.gdalconst.gdalconstConstants;
+import org.junit.Assume;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+
+import static org.junit.Assert.*;
+
+public class TiledTerrainProcessorTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void tileSizeIsRoundedToTiffBlock() {
+        assertEquals(16, new TiledTerrainProcessor(1, 2).getTileSize());
+        assertEquals(32, new TiledTerrainProcessor(20, 2).getTileSize());
+        assertEquals(512, new TiledTerrainProcessor().getTileSize());
+        assertEquals(1, new TiledTerrainProcessor(16, 0).getParallelism());
+    }
+
+    @Test
+    public void tiledResultMatchesWholeRaster() throws Exception {
+        try {
+            gdal.AllRegister();
+        } catch (Throwable e) {
+            Assume.assumeNoException("GDAL 原生库不可用", e);
+        }
+        String input = new File("src/main/resources/input50x50.asc").getAbsolutePath();
+        String output = new File(folder.getRoot(), "terrain.tif").getAbsolutePath();
+        SlopeAnalysis analysis = new SlopeAnalysis();
+        TerrainDerivatives expected = analysis.calculateTerrainDerivatives(input);
+        Assume.assumeNotNull(expected);
+
+        // 50x50 按 16 切成 4x4 块，包含不完整的边缘块
+        assertTrue(analysis.exportTerrainDerivatives(input, output, 16, 3));
+
+        Dataset dataset = gdal.Open(output, gdalconstConstants.GA_ReadOnly);
+        assertNotNull(dataset);
+        try {
+            int width = dataset.getRasterXSize();
+            int height = dataset.getRasterYSize();
+            assertEquals(expected.getWidth(), width);
+            assertEquals(expected.getHeight(), height);
+            assertEquals(3, dataset.getRasterCount());
+            float[][] bands = {expected.getSlope(), expected.getAspect(), expected.getTpi()};
+            for (int b = 0; b < bands.length; b++) {
+                float[] actual = new float[width * height];
+                dataset.GetRasterBand(b + 1).ReadRaster(0, 0, width, height, width, height,
+                        gdalconstConstants.GDT_Float32, actual);
+                assertArrayEquals("band " + (b + 1), bands[b], actual, 0f);
+            }
+        } finally {
+            dataset.delete();
+        }
+    }
+}
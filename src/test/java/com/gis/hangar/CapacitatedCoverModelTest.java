@@ -0,0 +1,121 @@
+package com.gis.hangar;
+
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+
+import static org.junit.Assert.*;
+
+public class CapacitatedCoverModelTest {
+
+    @Before
+    public void loadNativeLibraries() {
+        try {
+            com.google.ortools.Loader.loadNativeLibraries();
+        } catch (Throwable e) {
+            Assume.assumeNoException("OR-Tools 原生库不可用", e);
+        }
+    }
+
+    private static List<InspectionPoint> linePoints(int count) {
+        List<InspectionPoint> points = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            points.add(new InspectionPoint("p" + i, 13213977 + i * 500, 3016150, true));
+        }
+        return points;
+    }
+
+    @Test
+    public void capacityForcesMoreHangars() {
+        List<InspectionPoint> points = linePoints(10);
+        DroneModel drone = new DroneModel("A", 20.0);
+
+        CapacitatedPlacementSolution unlimited = new HangarPlacementAlgorithm5(points, Collections.singletonList(drone))
+                .solveCapacitated(0, 0);
+        assertTrue(unlimited.isOptimal());
+        assertEquals(1, unlimited.getHangars().size());
+
+        drone.setSortieCapacity(4);
+        points.get(3).setVisitsPerCycle(3);
+        CapacitatedPlacementSolution limited = new HangarPlacementAlgorithm5(points, Collections.singletonList(drone))
+                .solveCapacitated(0, 0);
+        assertTrue(limited.isOptimal());
+        // 共 12 次巡检，每个机巢最多 4 次
+        assertEquals(3, limited.getHangars().size());
+        double total = 0;
+        for (double load : limited.getLoads()) {
+            assertTrue(load <= 4 + 1e-6);
+            total += load;
+        }
+        assertEquals(12, total, 1e-6);
+        assertEquals(points.size(), limited.getAssignments().size());
+        for (InspectionPoint point : points) {
+            assertTrue(limited.getHangars().contains(limited.getAssignedHangar(point.getId())));
+        }
+    }
+
+    @Test
+    public void modelFixedCostAvoidsMixingModels() {
+        // 两端各一组点，小半径型号各放一个最便宜，但引入它要付固定成本
+        List<InspectionPoint> points = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            points.add(new InspectionPoint("a" + i, 13213977 + i * 100, 3016150, true));
+            points.add(new InspectionPoint("b" + i, 13213977 + 8000 + i * 100, 3016150, true));
+        }
+        DroneModel small = new DroneModel("small", 1.0);
+        DroneModel large = new DroneModel("large", 15.0);
+        List<DroneModel> drones = Arrays.asList(small, large);
+
+        PlacementSolution cheap = new HangarPlacementAlgorithm5(points, drones).solveCapacitated(0, 0);
+        assertEquals(2, cheap.getHangars().size());
+        assertEquals("small", cheap.getHangars().get(0).getDroneModelName());
+        assertEquals(2 * 1.1, cheap.getObjectiveValue(), 1e-6);
+
+        small.setFixedCost(5);
+        PlacementSolution withFixedCost = new HangarPlacementAlgorithm5(points, drones).solveCapacitated(0, 0);
+        assertEquals(1, withFixedCost.getHangars().size());
+        assertEquals("large", withFixedCost.getHangars().get(0).getDroneModelName());
+        assertEquals(2.5, withFixedCost.getObjectiveValue(), 1e-6);
+    }
+
+    @Test
+    public void insufficientCapacityIsReported() {
+        List<InspectionPoint> points = linePoints(5);
+        DroneModel drone = new DroneModel("A", 20.0);
+        drone.setSortieCapacity(1);
+        points.get(0).setCanBuildHangar(false);
+        PlacementSolution solution = new HangarPlacementAlgorithm5(points, Collections.singletonList(drone))
+                .solveCapacitated(0, 0);
+        assertEquals(PlacementSolution.Status.NOT_SOLVED, solution.getStatus());
+    }
+
+    @Test
+    public void weakAndStrongLinkingReachSameOptimum() {
+        List<InspectionPoint> points = linePoints(10);
+        DroneModel drone = new DroneModel("A", 1.0);
+        drone.setSortieCapacity(5);
+        points.get(2).setVisitsPerCycle(2);
+        List<DroneModel> drones = Collections.singletonList(drone);
+
+        CapacitatedPlacementSolution strong = new HangarPlacementAlgorithm5(points, drones).solveCapacitated(0, 0, true);
+        CapacitatedPlacementSolution weak = new HangarPlacementAlgorithm5(points, drones).solveCapacitated(0, 0, false);
+        assertTrue(strong.isOptimal());
+        assertTrue(weak.isOptimal());
+        assertEquals(strong.getObjectiveValue(), weak.getObjectiveValue(), 1e-6);
+    }
+
+    @Test(expected = CancellationException.class)
+    public void cancelBeforeSolveThrows() {
+        // 登记求解器之后再检查取消标志，不会带着已取消的标志完整求解
+        HangarPlacementAlgorithm5 algorithm = new HangarPlacementAlgorithm5(linePoints(10),
+                Collections.singletonList(new DroneModel("A", 1.0)));
+        algorithm.cancel();
+        algorithm.solveCapacitated(0, 0);
+    }
+}
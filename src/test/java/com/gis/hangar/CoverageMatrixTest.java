@@ -0,0 +1,89 @@
+package com.gis.hangar;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class CoverageMatrixTest {
+
+    private static List<InspectionPoint> linePoints(int count, double spacing) {
+        List<InspectionPoint> points = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            points.add(new InspectionPoint("p" + i, 13213977 + i * spacing, 3016150, true));
+        }
+        return points;
+    }
+
+    @Test
+    public void coverageMatchesDistance() {
+        List<InspectionPoint> points = linePoints(130, 1000);
+        List<DroneModel> drones = Arrays.asList(new DroneModel("A", 5.0), new DroneModel("B", 2.0));
+        CoverageMatrix matrix = CoverageMatrix.build(points, points, drones);
+
+        assertEquals(points.size() * drones.size(), matrix.getCandidateCount());
+        for (int hi = 0; hi < points.size(); hi++) {
+            for (int di = 0; di < drones.size(); di++) {
+                for (int pi = 0; pi < points.size(); pi++) {
+                    double distance = MercatorScale.groundDistance(points.get(hi).getCoordinate(),
+                            points.get(pi).getCoordinate());
+                    boolean expected = distance <= drones.get(di).getRangeKm() * 1000;
+                    assertEquals(expected, matrix.canCover(hi, pi, di));
+                }
+            }
+        }
+        // 端点只能覆盖自己一侧
+        assertEquals(6, matrix.coverageSize(matrix.candidateId(0, 0)));
+        assertEquals(11, matrix.coverageSize(matrix.candidateId(64, 0)));
+    }
+
+    @Test
+    public void coverageUsesGroundDistance() {
+        // 西安附近（约北纬 34.2°）墨卡托平面上相距 5.5 公里的两点，地面距离约 4.55 公里
+        List<InspectionPoint> points = new ArrayList<>();
+        points.add(new InspectionPoint("a", 12127000, 4053000, true));
+        points.add(new InspectionPoint("b", 12127000 + 5500, 4053000, true));
+        CoverageMatrix matrix = CoverageMatrix.build(points, points, Arrays.asList(new DroneModel("A", 5.0)));
+
+        assertTrue(matrix.canCover(0, 1, 0));
+        assertTrue(matrix.canCover(1, 0, 0));
+    }
+
+    @Test
+    public void applyAndUndoCover() {
+        List<InspectionPoint> points = linePoints(200, 1000);
+        List<DroneModel> drones = Arrays.asList(new DroneModel("A", 3.0));
+        CoverageMatrix matrix = CoverageMatrix.build(points, points, drones);
+
+        long[] covered = matrix.newPointSet();
+        long[] delta = matrix.newPointSet();
+        assertEquals(7, matrix.applyCover(63, covered, delta));
+        assertEquals(193, matrix.countUncovered(covered));
+        // 与已覆盖区域重叠，只统计新增部分（跨越64位边界）
+        assertEquals(4, matrix.countNewlyCovered(67, covered));
+
+        long[] delta2 = matrix.newPointSet();
+        assertEquals(4, matrix.applyCover(67, covered, delta2));
+        matrix.undoCover(covered, delta2);
+        assertEquals(193, matrix.countUncovered(covered));
+        matrix.undoCover(covered, delta);
+        assertEquals(0, CoverageMatrix.cardinality(covered));
+        assertEquals(0, matrix.firstUncovered(covered));
+    }
+
+    @Test
+    public void uncoverablePointsAreMarked() {
+        List<InspectionPoint> points = linePoints(3, 10000);
+        points.get(2).setCanBuildHangar(false);
+        List<InspectionPoint> hangars = points.subList(0, 2);
+        CoverageMatrix matrix = CoverageMatrix.build(hangars, points, Arrays.asList(new DroneModel("A", 1.0)));
+
+        long[] covered = matrix.newPointSet();
+        assertEquals(Arrays.asList(2), matrix.markUncoverable(covered));
+        assertEquals(1, matrix.getMaxNewlyCovered(matrix.newPointSet()));
+        assertEquals(0, matrix.firstUncovered(covered));
+    }
+}
@@ -0,0 +1,71 @@
+package com.gis.hangar;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class CoverageVerifierTest {
+
+    @Test
+    public void redundancyMatchesDistance() {
+        Random random = new Random(7);
+        List<InspectionPoint> points = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            points.add(new InspectionPoint("p" + i, 12127000 + random.nextDouble() * 40000,
+                    4053000 + random.nextDouble() * 40000, random.nextInt(10) == 0));
+        }
+        List<DroneModel> drones = Arrays.asList(new DroneModel("A", 3.0), new DroneModel("B", 8.0));
+        List<SelectedHangar> hangars = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            InspectionPoint site = points.get(random.nextInt(points.size()));
+            hangars.add(new SelectedHangar(site.getId(), drones.get(i % 2).getModelName(), site.getCoordinate()));
+        }
+
+        CoverageVerifier.Report report = new CoverageVerifier(points, drones).verify(hangars);
+
+        List<String> uncovered = new ArrayList<>();
+        int covered = 0;
+        for (int pi = 0; pi < points.size(); pi++) {
+            int expected = 0;
+            for (int h = 0; h < hangars.size(); h++) {
+                double distance = MercatorScale.groundDistance(hangars.get(h).getHangarCoordinate(),
+                        points.get(pi).getCoordinate());
+                if (distance <= drones.get(h % 2).getRangeKm() * 1000) {
+                    expected++;
+                }
+            }
+            assertEquals(expected, report.redundancyOf(pi));
+            if (expected == 0) {
+                uncovered.add(points.get(pi).getId());
+            } else {
+                covered++;
+            }
+        }
+        assertEquals(covered, report.getCoveredCount());
+        assertEquals(uncovered, report.uncoveredIds());
+        assertEquals((double) covered / points.size(), report.getCoverageRate(), 1e-12);
+    }
+
+    @Test
+    public void unknownModelCoversNothing() {
+        List<InspectionPoint> points = Arrays.asList(new InspectionPoint("a", 13213977, 3016150, true),
+                new InspectionPoint("b", 13214977, 3016150, false));
+        CoverageVerifier verifier = new CoverageVerifier(points, Collections.singletonList(new DroneModel("A", 5.0)));
+
+        CoverageVerifier.Report report = verifier.verify(Arrays.asList(
+                new SelectedHangar("a", "A", points.get(0).getCoordinate()),
+                new SelectedHangar("a", "X", points.get(0).getCoordinate()),
+                new SelectedHangar("b", "A", points.get(1).getCoordinate())));
+
+        assertEquals(2, report.getCoveredCount());
+        assertEquals(2, report.getRedundantCount());
+        assertEquals(2, report.getMaxRedundancy());
+        assertTrue(report.uncoveredIds().isEmpty());
+    }
+}
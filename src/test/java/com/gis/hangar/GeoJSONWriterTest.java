@@ -0,0 +1,82 @@
+package com.gis.hangar;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONArray;
+import com.alibaba.fastjson.JSONObject;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class GeoJSONWriterTest {
+
+    @Test
+    public void writesFeatureCollection() {
+        List<InspectionPoint> points = Arrays.asList(
+                new InspectionPoint("巡检点\"1\"", 13213977.25, 3016150, true),
+                new InspectionPoint("p2", -13218977.125, -3016150.5, false));
+        List<DroneModel> drones = Collections.singletonList(new DroneModel("DJI-M30-5KM", 5.0));
+        List<SelectedHangar> hangars = Arrays.asList(
+                new SelectedHangar("巡检点\"1\"", "DJI-M30-5KM", points.get(0).getCoordinate()),
+                new SelectedHangar("p2", "unknown", points.get(1).getCoordinate()));
+
+        JSONObject geoJSON = JSON.parseObject(GeoJSONUtils.convertToGeoJSON(hangars, drones, points));
+
+        assertEquals("FeatureCollection", geoJSON.getString("type"));
+        JSONArray features = geoJSON.getJSONArray("features");
+        // 2 个巡检点 + 2 个机巢 + 1 个覆盖范围（未知型号没有覆盖范围）
+        assertEquals(5, features.size());
+
+        JSONObject first = features.getJSONObject(0);
+        assertEquals("巡检点\"1\"", first.getJSONObject("properties").getString("id"));
+        assertTrue(first.getJSONObject("properties").getBooleanValue("canBuildHangar"));
+        JSONArray position = first.getJSONObject("geometry").getJSONArray("coordinates");
+        assertEquals(13213977.25, position.getDoubleValue(0), 0);
+        assertEquals(3016150, position.getDoubleValue(1), 0);
+
+        JSONArray negative = features.getJSONObject(1).getJSONObject("geometry").getJSONArray("coordinates");
+        assertEquals(-13218977.125, negative.getDoubleValue(0), 0);
+        assertEquals(-3016150.5, negative.getDoubleValue(1), 0);
+
+        JSONObject coverage = features.getJSONObject(3);
+        assertEquals("coverage", coverage.getJSONObject("properties").getString("type"));
+        assertEquals(5.0, coverage.getJSONObject("properties").getDoubleValue("rangeKm"), 0);
+        JSONArray ring = coverage.getJSONObject("geometry").getJSONArray("coordinates").getJSONArray(0);
+        assertEquals(65, ring.size());
+        assertEquals(ring.getJSONArray(0), ring.getJSONArray(64));
+        double radius = 5000 / MercatorScale.scaleAt(3016150);
+        for (int i = 0; i < ring.size(); i++) {
+            double dx = ring.getJSONArray(i).getDoubleValue(0) - 13213977.25;
+            double dy = ring.getJSONArray(i).getDoubleValue(1) - 3016150;
+            assertEquals(radius, Math.sqrt(dx * dx + dy * dy), 1e-2);
+        }
+    }
+
+    @Test
+    public void smallBufferProducesSameBytes() throws IOException {
+        List<InspectionPoint> points = Arrays.asList(new InspectionPoint("a\né🚁", 1.5, 0.0001, true),
+                new InspectionPoint("b", 12127000, 4053000, true));
+        List<DroneModel> drones = Collections.singletonList(new DroneModel("A", 2.5));
+        List<SelectedHangar> hangars = Collections.singletonList(
+                new SelectedHangar("b", "A", points.get(1).getCoordinate()));
+
+        ByteArrayOutputStream tiny = new ByteArrayOutputStream();
+        new GeoJSONWriter(tiny, 1).writeFeatureCollection(hangars, drones, points);
+        String expected = GeoJSONUtils.convertToGeoJSON(hangars, drones, points);
+
+        assertEquals(expected, new String(tiny.toByteArray(), StandardCharsets.UTF_8));
+        JSONObject geoJSON = JSON.parseObject(expected);
+        assertEquals("a\né🚁", geoJSON.getJSONArray("features").getJSONObject(0)
+                .getJSONObject("properties").getString("id"));
+        JSONArray position = geoJSON.getJSONArray("features").getJSONObject(0)
+                .getJSONObject("geometry").getJSONArray("coordinates");
+        assertEquals(1.5, position.getDoubleValue(0), 0);
+        assertEquals(0, position.getDoubleValue(1), 0);
+    }
+}
@@ -0,0 +1,64 @@
+package com.gis.hangar;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CancellationException;
+
+import static org.junit.Assert.*;
+
+public class GraspSolverTest {
+
+    @Test
+    public void resultIsCoveringAndIndependentOfParallelism() {
+        Random random = new Random(5);
+        List<InspectionPoint> points = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            points.add(new InspectionPoint("p" + i, 13200000 + random.nextDouble() * 70000,
+                    3000000 + random.nextDouble() * 70000, random.nextInt(3) == 0));
+        }
+        List<InspectionPoint> sites = new ArrayList<>();
+        for (InspectionPoint point : points) {
+            if (point.canBuildHangar()) {
+                sites.add(point);
+            }
+        }
+        List<DroneModel> drones = Arrays.asList(new DroneModel("S", 3.0), new DroneModel("L", 8.0));
+        CoverageMatrix matrix = CoverageMatrix.build(sites, points, drones);
+        double[] cost = SetCoverModel.rangeWeightedCosts(matrix);
+
+        GraspSolver.Result sequential = new GraspSolver(matrix, cost).setRestarts(8).setSeed(42).setParallelism(1).solve();
+        GraspSolver.Result parallel = new GraspSolver(matrix, cost).setRestarts(8).setSeed(42).setParallelism(4).solve();
+        assertArrayEquals(sequential.getCandidates(), parallel.getCandidates());
+        assertArrayEquals(sequential.getCosts(), parallel.getCosts(), 0);
+
+        // 最优解不差于任何一次重启，包括确定性贪心的第 0 次
+        for (double c : sequential.getCosts()) {
+            assertTrue(sequential.getBestCost() <= c);
+        }
+        assertEquals(SetCoverModel.costOf(sequential.getCandidates(), cost), sequential.getBestCost(), 1e-9);
+        assertTrue(sequential.getWorstCost() >= sequential.getMeanCost());
+
+        long[] covered = matrix.newPointSet();
+        matrix.markUncoverable(covered);
+        for (int c : sequential.getCandidates()) {
+            matrix.applyCover(c, covered);
+        }
+        assertEquals(0, matrix.countUncovered(covered));
+    }
+
+    @Test(expected = CancellationException.class)
+    public void cancelledSolveThrows() {
+        List<InspectionPoint> points = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            points.add(new InspectionPoint("p" + i, 13200000 + i * 4000, 3000000, true));
+        }
+        CoverageMatrix matrix = CoverageMatrix.build(points, points, Arrays.asList(new DroneModel("S", 5.0)));
+        GraspSolver solver = new GraspSolver(matrix, SetCoverModel.rangeWeightedCosts(matrix)).setRestarts(4);
+        solver.cancel();
+        solver.solve();
+    }
+}
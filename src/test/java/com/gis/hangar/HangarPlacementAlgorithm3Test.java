@@ -0,0 +1,220 @@
+package com.gis.hangar;
+
+import com.gis.hangar.bound.CoverageRatioBound;
+import org.junit.Assume;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CancellationException;
+
+import static org.junit.Assert.*;
+
+public class HangarPlacementAlgorithm3Test {
+
+    private static final List<DroneModel> DRONES = Arrays.asList(new DroneModel("S", 1.5), new DroneModel("L", 2.5));
+
+    private static List<InspectionPoint> randomPoints(Random random, int count, double extent) {
+        List<InspectionPoint> points = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            points.add(new InspectionPoint("p" + i, 13200000 + random.nextDouble() * extent,
+                    3000000 + random.nextDouble() * extent, true));
+        }
+        return points;
+    }
+
+    private static List<InspectionPoint> sites(List<InspectionPoint> points) {
+        List<InspectionPoint> sites = new ArrayList<>();
+        for (InspectionPoint point : points) {
+            if (point.canBuildHangar()) {
+                sites.add(point);
+            }
+        }
+        return sites;
+    }
+
+    /**
+     * 逐步加深的穷举搜索，求最少机巢数（不可覆盖的点不计）
+     */
+    private static int bruteForceMinimum(CoverageMatrix matrix) {
+        long[] covered = matrix.newPointSet();
+        matrix.markUncoverable(covered);
+        for (int k = 0; ; k++) {
+            if (coverableWithin(matrix, covered, k)) {
+                return k;
+            }
+        }
+    }
+
+    private static boolean coverableWithin(CoverageMatrix matrix, long[] covered, int k) {
+        int point = matrix.firstUncovered(covered);
+        if (point == -1) {
+            return true;
+        }
+        if (k == 0) {
+            return false;
+        }
+        for (int c : matrix.candidatesCovering(point)) {
+            long[] next = covered.clone();
+            matrix.applyCover(c, next);
+            if (coverableWithin(matrix, next, k - 1)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static HangarPlacementAlgorithm3 algorithm(List<InspectionPoint> points, List<DroneModel> drones,
+                                                       int parallelism) {
+        HangarPlacementAlgorithm3 algorithm = new HangarPlacementAlgorithm3(points, drones, false,
+                parallelism, 2, 1 << 16);
+        // 根节点不用 LP 下界，保证确实需要搜索，也不依赖 OR-Tools
+        algorithm.setRootBound(new CoverageRatioBound());
+        return algorithm;
+    }
+
+    private static void assertCoversAll(CoverageMatrix matrix, List<InspectionPoint> sites,
+                                        List<SelectedHangar> hangars) {
+        long[] covered = matrix.newPointSet();
+        matrix.markUncoverable(covered);
+        for (SelectedHangar hangar : hangars) {
+            int hi = -1;
+            for (int i = 0; i < sites.size(); i++) {
+                if (sites.get(i).getId().equals(hangar.getHangarLocationId())) {
+                    hi = i;
+                }
+            }
+            int di = -1;
+            for (int i = 0; i < matrix.getDroneCount(); i++) {
+                if (matrix.getDroneModel(i).getModelName().equals(hangar.getDroneModelName())) {
+                    di = i;
+                }
+            }
+            matrix.applyCover(matrix.candidateId(hi, di), covered);
+        }
+        assertEquals(0, matrix.countUncovered(covered));
+    }
+
+    @Test
+    public void parallelSearchFindsSameOptimumAsSequential() {
+        Random random = new Random(11);
+        for (int instance = 0; instance < 10; instance++) {
+            List<InspectionPoint> points = randomPoints(random, 30, 12000);
+            CoverageMatrix matrix = CoverageMatrix.build(points, points, DRONES);
+            int minimum = bruteForceMinimum(matrix);
+
+            List<SelectedHangar> sequential = algorithm(points, DRONES, 1).findOptimalHangars();
+            List<SelectedHangar> parallel = algorithm(points, DRONES, 4).findOptimalHangars();
+
+            assertEquals("实例 " + instance, minimum, sequential.size());
+            assertEquals("实例 " + instance, minimum, parallel.size());
+            assertCoversAll(matrix, points, sequential);
+            assertCoversAll(matrix, points, parallel);
+        }
+    }
+
+    @Test
+    public void coversPointsThatCannotHostHangars() {
+        Random random = new Random(19);
+        for (int instance = 0; instance < 10; instance++) {
+            List<InspectionPoint> points = randomPoints(random, 30, 12000);
+            for (InspectionPoint point : points) {
+                point.setCanBuildHangar(random.nextInt(3) != 0);
+            }
+            List<InspectionPoint> sites = sites(points);
+            CoverageMatrix matrix = CoverageMatrix.build(sites, points, DRONES);
+
+            HangarPlacementAlgorithm3 algorithm = algorithm(points, DRONES, 4);
+            PlacementSolution solution = algorithm.solve(0);
+            assertFalse(algorithm.isTimedOut());
+            assertEquals("实例 " + instance, bruteForceMinimum(matrix), solution.getHangars().size());
+            assertEquals(solution.getHangars().size(), algorithm.getLowerBound());
+            assertCoversAll(matrix, sites, solution.getHangars());
+
+            // 目标值与 ILP 相同，按 1 + 半径/10 计算
+            double expected = 0;
+            for (SelectedHangar hangar : solution.getHangars()) {
+                expected += "S".equals(hangar.getDroneModelName()) ? 1.15 : 1.25;
+            }
+            assertEquals(expected, solution.getObjectiveValue(), 1e-9);
+            assertEquals(1.15 * solution.getHangars().size(), solution.getLowerBound(), 1e-9);
+            assertEquals(solution.getObjectiveValue() <= solution.getLowerBound() + 1e-9, solution.isOptimal());
+        }
+    }
+
+    @Test
+    public void singleModelOptimumIsReportedOptimal() {
+        List<DroneModel> drones = Arrays.asList(new DroneModel("M", 2.0));
+        List<InspectionPoint> points = randomPoints(new Random(29), 30, 12000);
+        PlacementSolution solution = algorithm(points, drones, 4).solve(0);
+        assertEquals(PlacementSolution.Status.OPTIMAL, solution.getStatus());
+        assertEquals(1.2 * solution.getHangars().size(), solution.getObjectiveValue(), 1e-9);
+        assertEquals(0, solution.getGap(), 1e-12);
+    }
+
+    @Test
+    public void timeLimitStopsSearchWithIncumbent() {
+        List<InspectionPoint> points = randomPoints(new Random(31), 200, 30000);
+        HangarPlacementAlgorithm3 algorithm = algorithm(points, DRONES, 4);
+        // 不剪枝的下界使搜索无法在时限内完成
+        algorithm.setNodeBound((matrix, covered, budget) -> 0);
+        long start = System.currentTimeMillis();
+        PlacementSolution solution = algorithm.solve(100);
+        long elapsed = System.currentTimeMillis() - start;
+
+        assertTrue(algorithm.isTimedOut());
+        assertTrue("耗时 " + elapsed + "ms", elapsed < 10_000);
+        assertEquals(PlacementSolution.Status.FEASIBLE, solution.getStatus());
+        assertTrue(solution.getLowerBound() <= solution.getObjectiveValue());
+        CoverageMatrix matrix = CoverageMatrix.build(points, points, DRONES);
+        assertCoversAll(matrix, points, solution.getHangars());
+    }
+
+    @Test
+    public void matchesIlpOptimum() {
+        try {
+            com.google.ortools.Loader.loadNativeLibraries();
+        } catch (Throwable e) {
+            Assume.assumeNoException("OR-Tools 原生库不可用", e);
+        }
+        // 只有一个型号时 ILP 的加权成本与机巢数成正比，最优机巢数应一致
+        List<DroneModel> drones = Arrays.asList(new DroneModel("M", 2.0));
+        Random random = new Random(23);
+        for (int instance = 0; instance < 5; instance++) {
+            List<InspectionPoint> points = randomPoints(random, 20, 9000);
+            int parallel = algorithm(points, drones, 4).findOptimalHangars().size();
+            PlacementSolution ilp = new HangarPlacementAlgorithm5(points, drones).solve(0, 0);
+            assertTrue(ilp.isOptimal());
+            assertEquals("实例 " + instance, ilp.getHangars().size(), parallel);
+        }
+    }
+
+    @Test(expected = CancellationException.class)
+    public void cancelBeforeSearchThrows() {
+        List<InspectionPoint> points = randomPoints(new Random(3), 18, 9000);
+        HangarPlacementAlgorithm3 algorithm = algorithm(points, DRONES, 4);
+        algorithm.cancel();
+        algorithm.findOptimalHangars();
+    }
+
+    @Test
+    public void cancelFromProgressListenerStopsSearch() {
+        List<InspectionPoint> points = randomPoints(new Random(7), 40, 12000);
+        HangarPlacementAlgorithm3 algorithm = algorithm(points, DRONES, 4);
+        // 得到初始上界后立即取消，此时搜索尚未开始
+        algorithm.setProgressListener(progress -> {
+            if ("greedy".equals(progress.getPhase())) {
+                algorithm.cancel();
+            }
+        });
+        try {
+            algorithm.findOptimalHangars();
+            fail("取消后应抛出 CancellationException");
+        } catch (CancellationException expected) {
+            // 分支定界开始前就已停止，没有展开任何节点
+            assertEquals(0, algorithm.getNodesExplored());
+        }
+    }
+}
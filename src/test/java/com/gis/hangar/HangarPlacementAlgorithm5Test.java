@@ -0,0 +1,168 @@
+package com.gis.hangar;
+
+import com.google.ortools.linearsolver.MPSolver;
+import org.junit.Assume;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class HangarPlacementAlgorithm5Test {
+
+    private static final double[] COST = {1.0, 2.0, 3.0};
+
+    private static void assumeOrTools() {
+        try {
+            com.google.ortools.Loader.loadNativeLibraries();
+        } catch (Throwable e) {
+            Assume.assumeNoException("OR-Tools 原生库不可用", e);
+        }
+    }
+
+    private static List<InspectionPoint> linePoints(int count) {
+        List<InspectionPoint> points = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            points.add(new InspectionPoint("p" + i, 13213977 + i * 1000, 3016150, true));
+        }
+        return points;
+    }
+
+    @Test
+    public void solverIncumbentIsUsed() {
+        HangarPlacementAlgorithm5.ComponentResult result = HangarPlacementAlgorithm5.componentResult(
+                MPSolver.ResultStatus.OPTIMAL, new int[]{0, 1}, 3.0, 3.0, 0, new int[]{2}, COST, () -> 0.0);
+        assertTrue(result.optimal);
+        assertArrayEquals(new int[]{0, 1}, result.solution);
+        assertEquals(3.0, result.objective, 0);
+        assertEquals(3.0, result.bound, 0);
+
+        // 时间限制内只找到可行解
+        result = HangarPlacementAlgorithm5.componentResult(
+                MPSolver.ResultStatus.FEASIBLE, new int[]{2}, 3.0, 2.5, 0, null, COST, () -> 0.0);
+        assertFalse(result.optimal);
+        assertEquals(2.5, result.bound, 0);
+    }
+
+    @Test
+    public void optimalWithinGapIsNotProvenOptimal() {
+        // 设置了相对间隙时，求解器在间隙内停止也会报告 OPTIMAL
+        HangarPlacementAlgorithm5.ComponentResult result = HangarPlacementAlgorithm5.componentResult(
+                MPSolver.ResultStatus.OPTIMAL, new int[]{2}, 3.0, 2.8, 0.1, null, COST, () -> 0.0);
+        assertFalse(result.optimal);
+        assertEquals(2.8, result.bound, 0);
+
+        result = HangarPlacementAlgorithm5.componentResult(
+                MPSolver.ResultStatus.OPTIMAL, new int[]{2}, 3.0, 3.0, 0.1, null, COST, () -> 0.0);
+        assertTrue(result.optimal);
+    }
+
+    @Test
+    public void missingBoundUsesFallback() {
+        HangarPlacementAlgorithm5.ComponentResult result = HangarPlacementAlgorithm5.componentResult(
+                MPSolver.ResultStatus.FEASIBLE, new int[]{2}, 3.0, Double.NaN, 0, null, COST, () -> 2.0);
+        assertEquals(2.0, result.bound, 0);
+
+        result = HangarPlacementAlgorithm5.componentResult(
+                MPSolver.ResultStatus.FEASIBLE, new int[]{2}, 3.0, -1e30, 0, null, COST, () -> 1.0);
+        assertEquals(1.0, result.bound, 0);
+    }
+
+    @Test
+    public void timeoutFallsBackToGreedy() {
+        HangarPlacementAlgorithm5.ComponentResult result = HangarPlacementAlgorithm5.componentResult(
+                MPSolver.ResultStatus.NOT_SOLVED, null, Double.NaN, Double.NaN, 0, new int[]{0, 1}, COST, () -> 2.0);
+        assertFalse(result.optimal);
+        assertArrayEquals(new int[]{0, 1}, result.solution);
+        assertEquals(3.0, result.objective, 0);
+        assertEquals(2.0, result.bound, 0);
+
+        // 既没有可行解也没有贪心解
+        assertNull(HangarPlacementAlgorithm5.componentResult(
+                MPSolver.ResultStatus.NOT_SOLVED, null, Double.NaN, Double.NaN, 0, null, COST, () -> 2.0));
+    }
+
+    @Test
+    public void fallbackBoundUsesComponentPoints() {
+        List<InspectionPoint> points = linePoints(10);
+        CoverageMatrix matrix = CoverageMatrix.build(points, points,
+                Arrays.asList(new DroneModel("A", 1.0), new DroneModel("B", 0.5)));
+        double[] cost = SetCoverModel.rangeWeightedCosts(matrix);
+        int[] componentPoints = new int[10];
+        for (int pi = 0; pi < 10; pi++) {
+            componentPoints[pi] = pi;
+        }
+        int[] candidates = new int[matrix.getCandidateCount()];
+        for (int c = 0; c < candidates.length; c++) {
+            candidates[c] = c;
+        }
+        ProblemReducer.Component component = new ProblemReducer.Component(componentPoints, candidates);
+
+        // 分量内的贪心解覆盖全部点之后，下界仍按分量内的互斥难点计算（0、3、6、9 两两不共用候选）
+        long[] covered = matrix.newPointSet();
+        int[] greedy = new LazyGreedySolver(matrix).solve(covered).getCandidates();
+        assertEquals(0, matrix.countUncovered(covered));
+        double bound = HangarPlacementAlgorithm5.fallbackBound(matrix, component, cost);
+        assertTrue("下界 " + bound, bound >= 4 * 1.05 - 1e-9);
+        // 最优值为 3 × 1.1 + 1.05
+        assertTrue("下界 " + bound, bound <= 3 * 1.1 + 1.05 + 1e-9);
+
+        // 超时退回贪心解时报告的就是这个下界
+        HangarPlacementAlgorithm5.ComponentResult result = HangarPlacementAlgorithm5.componentResult(
+                MPSolver.ResultStatus.NOT_SOLVED, null, Double.NaN, Double.NaN, 0, greedy, cost,
+                () -> HangarPlacementAlgorithm5.fallbackBound(matrix, component, cost));
+        assertEquals(Math.min(bound, SetCoverModel.costOf(greedy, cost)), result.bound, 1e-9);
+        assertTrue(result.bound > 0);
+    }
+
+    @Test
+    public void gapReporting() {
+        List<SelectedHangar> none = Collections.emptyList();
+        assertEquals(0.2, new PlacementSolution(none, 10, 8, PlacementSolution.Status.FEASIBLE, 0).getGap(), 1e-12);
+        assertEquals(0, new PlacementSolution(none, 10, 10, PlacementSolution.Status.OPTIMAL, 0).getGap(), 0);
+        assertEquals(1, new PlacementSolution(none, 0, 0, PlacementSolution.Status.NOT_SOLVED, 0).getGap(), 0);
+    }
+
+    @Test
+    public void solveReportsOptimalStatusAndBound() {
+        assumeOrTools();
+        List<InspectionPoint> points = linePoints(10);
+        List<DroneModel> drones = Arrays.asList(new DroneModel("A", 1.0), new DroneModel("B", 0.5));
+
+        PlacementSolution solution = new HangarPlacementAlgorithm5(points, drones).solve(0, 0);
+        assertEquals(PlacementSolution.Status.OPTIMAL, solution.getStatus());
+        // 3 个 A（1.1）覆盖 9 个点，剩下一个点用 B（1.05）
+        assertEquals(3 * 1.1 + 1.05, solution.getObjectiveValue(), 1e-6);
+        assertEquals(solution.getObjectiveValue(), solution.getLowerBound(), 1e-6);
+        assertEquals(0, solution.getGap(), 1e-9);
+        assertEquals(4, solution.getHangars().size());
+    }
+
+    @Test
+    public void solveWithGapKeepsBoundValid() {
+        assumeOrTools();
+        List<InspectionPoint> points = new ArrayList<>();
+        Random random = new Random(1);
+        for (int i = 0; i < 200; i++) {
+            points.add(new InspectionPoint("p" + i, 13200000 + random.nextDouble() * 30000,
+                    3000000 + random.nextDouble() * 30000, random.nextInt(2) == 0));
+        }
+        List<DroneModel> drones = Arrays.asList(new DroneModel("S", 2.0), new DroneModel("L", 4.0));
+
+        PlacementSolution exact = new HangarPlacementAlgorithm5(points, drones).solve(0, 0);
+        PlacementSolution loose = new HangarPlacementAlgorithm5(points, drones).solve(60_000, 0.5);
+        assertTrue(exact.isOptimal());
+        assertNotEquals(PlacementSolution.Status.NOT_SOLVED, loose.getStatus());
+        // 下界不超过真正的最优值，目标值不低于最优值
+        assertTrue(loose.getLowerBound() <= exact.getObjectiveValue() + 1e-6);
+        assertTrue(loose.getObjectiveValue() >= exact.getObjectiveValue() - 1e-6);
+        assertTrue(loose.getGap() <= 0.5 + 1e-6);
+        if (loose.isOptimal()) {
+            assertEquals(0, loose.getGap(), 1e-6);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.gis.hangar;
+
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class IncrementalPlannerTest {
+
+    private static final List<DroneModel> DRONES = Arrays.asList(
+            new DroneModel("DJI-M30-5KM", 5.0), new DroneModel("DJI-M300-8KM", 8.0));
+
+    @Test
+    public void repairKeepsEveryCoverablePointCovered() {
+        Random random = new Random(7);
+        List<InspectionPoint> points = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            points.add(randomPoint("p" + i, random));
+        }
+        IncrementalPlanner planner = new IncrementalPlanner(points, DRONES);
+        planner.setSolution(Collections.emptyList());
+        assertCovered(planner);
+
+        int next = points.size();
+        for (int round = 0; round < 20; round++) {
+            List<InspectionPoint> added = new ArrayList<>();
+            for (int k = 0; k < 5; k++) {
+                added.add(randomPoint("p" + next++, random));
+            }
+            List<InspectionPoint> current = planner.getPoints();
+            Collections.shuffle(current, random);
+            List<String> removed = new ArrayList<>();
+            for (int k = 0; k < 5; k++) {
+                removed.add(current.get(k).getId());
+            }
+            planner.applyDelta(added, removed);
+            assertCovered(planner);
+        }
+        assertEquals(200, planner.getPointCount());
+    }
+
+    @Test
+    public void removingOnlyCoveredPointDropsRedundantHangar() {
+        List<InspectionPoint> points = new ArrayList<>();
+        points.add(new InspectionPoint("a", 13200000, 3000000, true));
+        points.add(new InspectionPoint("b", 13200000 + 4000, 3000000, false));
+        points.add(new InspectionPoint("c", 13300000, 3000000, true));
+        IncrementalPlanner planner = new IncrementalPlanner(points, DRONES);
+        planner.setSolution(Collections.emptyList());
+        assertEquals(2, planner.getSelectedCount());
+
+        // 删除 c 后其位置上的机巢随之删除，a 仍覆盖 b
+        IncrementalPlanner.Repair repair = planner.applyDelta(Collections.emptyList(), Collections.singletonList("c"));
+        assertEquals(1, repair.getRemovedHangars());
+        assertEquals(1, planner.getSelectedCount());
+
+        // 新增一个远处的点，只能由自己覆盖
+        repair = planner.applyDelta(Collections.singletonList(new InspectionPoint("d", 13400000, 3000000, true)),
+                Collections.emptyList());
+        assertEquals(1, repair.getUncoveredPoints());
+        assertEquals(1, repair.getAddedHangars());
+        assertTrue(planner.getUncoveredPoints().isEmpty());
+    }
+
+    private static InspectionPoint randomPoint(String id, Random random) {
+        return new InspectionPoint(id, 13200000 + random.nextDouble() * 60000,
+                3000000 + random.nextDouble() * 60000, random.nextInt(3) == 0);
+    }
+
+    /**
+     * 逐点暴力检查：能被任何机巢位置覆盖的点都已被选中的机巢覆盖
+     */
+    private static void assertCovered(IncrementalPlanner planner) {
+        List<InspectionPoint> points = planner.getPoints();
+        List<InspectionPoint> sites = new ArrayList<>();
+        for (InspectionPoint point : points) {
+            if (point.canBuildHangar()) {
+                sites.add(point);
+            }
+        }
+        CoverageMatrix matrix = CoverageMatrix.build(sites, points, DRONES);
+        long[] covered = matrix.newPointSet();
+        matrix.markUncoverable(covered);
+        for (SelectedHangar hangar : planner.getSelectedHangars()) {
+            int hi = -1;
+            for (int i = 0; i < sites.size(); i++) {
+                if (sites.get(i).getId().equals(hangar.getHangarLocationId())) {
+                    hi = i;
+                }
+            }
+            int di = hangar.getDroneModelName().equals(DRONES.get(0).getModelName()) ? 0 : 1;
+            matrix.applyCover(matrix.candidateId(hi, di), covered);
+        }
+        assertEquals(0, matrix.countUncovered(covered));
+    }
+}
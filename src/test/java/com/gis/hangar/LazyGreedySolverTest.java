@@ -0,0 +1,144 @@
+package com.gis.hangar;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class LazyGreedySolverTest {
+
+    /**
+     * 规则格网上随机抽取的点：对称的布局使大量候选的新增覆盖点数相同
+     */
+    private static List<InspectionPoint> latticePoints(Random random, int side, double spacing, double keep) {
+        List<InspectionPoint> points = new ArrayList<>();
+        for (int row = 0; row < side; row++) {
+            for (int col = 0; col < side; col++) {
+                if (random.nextDouble() < keep) {
+                    points.add(new InspectionPoint("p" + points.size(), 13213977 + col * spacing,
+                            3016150 + row * spacing, random.nextInt(3) != 0));
+                }
+            }
+        }
+        return points;
+    }
+
+    private static List<InspectionPoint> sites(List<InspectionPoint> points) {
+        List<InspectionPoint> sites = new ArrayList<>();
+        for (InspectionPoint point : points) {
+            if (point.canBuildHangar()) {
+                sites.add(point);
+            }
+        }
+        return sites;
+    }
+
+    /**
+     * 每轮重新扫描所有候选的普通贪心，选择规则：新增覆盖点数多者优先，相同时半径小者优先，再相同时编号小者优先
+     */
+    private static int[][] naiveGreedy(CoverageMatrix matrix, boolean allowSiteReuse, boolean[] allowed,
+                                       long[] covered) {
+        boolean[] siteUsed = new boolean[matrix.getHangarCount()];
+        List<Integer> selected = new ArrayList<>();
+        List<Integer> gains = new ArrayList<>();
+        while (matrix.countUncovered(covered) > 0) {
+            int best = -1;
+            int bestGain = 0;
+            double bestRange = 0;
+            for (int c = 0; c < matrix.getCandidateCount(); c++) {
+                if ((allowed != null && !allowed[c]) || (!allowSiteReuse && siteUsed[matrix.hangarOf(c)])) {
+                    continue;
+                }
+                int gain = matrix.countNewlyCovered(c, covered);
+                double range = matrix.getDroneModel(matrix.droneOf(c)).getRangeKm();
+                if (gain > bestGain || (gain == bestGain && gain > 0 && range < bestRange)) {
+                    best = c;
+                    bestGain = gain;
+                    bestRange = range;
+                }
+            }
+            if (best < 0) {
+                break;
+            }
+            matrix.applyCover(best, covered);
+            siteUsed[matrix.hangarOf(best)] = true;
+            selected.add(best);
+            gains.add(bestGain);
+        }
+        int[][] result = new int[2][selected.size()];
+        for (int i = 0; i < selected.size(); i++) {
+            result[0][i] = selected.get(i);
+            result[1][i] = gains.get(i);
+        }
+        return result;
+    }
+
+    private static void assertSameAsNaive(CoverageMatrix matrix, boolean allowSiteReuse, boolean[] allowed) {
+        long[] lazyCovered = matrix.newPointSet();
+        LazyGreedySolver.Result lazy = new LazyGreedySolver(matrix, allowSiteReuse, allowed).solve(lazyCovered);
+        long[] naiveCovered = matrix.newPointSet();
+        int[][] naive = naiveGreedy(matrix, allowSiteReuse, allowed, naiveCovered);
+
+        assertArrayEquals(naive[0], lazy.getCandidates());
+        assertArrayEquals(naive[1], lazy.getGains());
+        assertEquals(matrix.countUncovered(naiveCovered), lazy.getUncoveredCount());
+        assertArrayEquals(naiveCovered, lazyCovered);
+    }
+
+    @Test
+    public void matchesFullRescanGreedyIncludingTies() {
+        Random random = new Random(17);
+        // 两个型号半径相同，只能按候选编号区分
+        List<DroneModel> drones = Arrays.asList(new DroneModel("A", 2.5), new DroneModel("B", 2.5),
+                new DroneModel("C", 1.5), new DroneModel("D", 4.0));
+        for (int instance = 0; instance < 20; instance++) {
+            List<InspectionPoint> points = latticePoints(random, 14, 1000, 0.6);
+            CoverageMatrix matrix = CoverageMatrix.build(sites(points), points, drones);
+
+            assertSameAsNaive(matrix, true, null);
+            assertSameAsNaive(matrix, false, null);
+
+            boolean[] allowed = new boolean[matrix.getCandidateCount()];
+            for (int c = 0; c < allowed.length; c++) {
+                allowed[c] = random.nextInt(4) != 0;
+            }
+            assertSameAsNaive(matrix, true, allowed);
+            assertSameAsNaive(matrix, false, allowed);
+        }
+    }
+
+    @Test
+    public void continuesFromPartialCoverage() {
+        Random random = new Random(3);
+        List<InspectionPoint> points = latticePoints(random, 12, 1000, 0.7);
+        List<DroneModel> drones = Arrays.asList(new DroneModel("A", 2.0), new DroneModel("B", 3.0));
+        CoverageMatrix matrix = CoverageMatrix.build(sites(points), points, drones);
+
+        long[] lazyCovered = matrix.newPointSet();
+        long[] naiveCovered = matrix.newPointSet();
+        for (int pi = 0; pi < matrix.getPointCount(); pi += 3) {
+            CoverageMatrix.set(lazyCovered, pi);
+            CoverageMatrix.set(naiveCovered, pi);
+        }
+        LazyGreedySolver.Result lazy = new LazyGreedySolver(matrix).solve(lazyCovered);
+        int[][] naive = naiveGreedy(matrix, true, null, naiveCovered);
+        assertArrayEquals(naive[0], lazy.getCandidates());
+        assertArrayEquals(naiveCovered, lazyCovered);
+    }
+
+    @Test
+    public void evaluatesFewerCandidatesThanFullRescan() {
+        Random random = new Random(9);
+        List<InspectionPoint> points = latticePoints(random, 20, 800, 0.8);
+        List<DroneModel> drones = Arrays.asList(new DroneModel("A", 2.0), new DroneModel("B", 3.0));
+        CoverageMatrix matrix = CoverageMatrix.build(sites(points), points, drones);
+
+        LazyGreedySolver.Result lazy = new LazyGreedySolver(matrix).solve();
+        long fullRescan = (long) (lazy.getCandidates().length + 1) * matrix.getCandidateCount();
+        assertTrue(lazy.getEvaluations() < fullRescan);
+    }
+}
@@ -0,0 +1,85 @@
+package com.gis.hangar;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CancellationException;
+
+import static org.junit.Assert.*;
+
+public class LocalSearchOptimizerTest {
+
+    @Test
+    public void twoHangarsReplacedByOneAndDowngraded() {
+        // 三个点排成一条线，间距 4km；两端各建一个 5km 机巢是贪心可能给出的解，
+        // 中间的位置用 5km 型号即可覆盖全部三个点
+        List<InspectionPoint> points = new ArrayList<>();
+        points.add(new InspectionPoint("a", 13200000, 3000000, true));
+        points.add(new InspectionPoint("b", 13204000, 3000000, true));
+        points.add(new InspectionPoint("c", 13208000, 3000000, true));
+        List<DroneModel> drones = Arrays.asList(new DroneModel("S", 5.0), new DroneModel("L", 10.0));
+        CoverageMatrix matrix = CoverageMatrix.build(points, points, drones);
+        double[] cost = SetCoverModel.rangeWeightedCosts(matrix);
+
+        int[] initial = {matrix.candidateId(0, 1), matrix.candidateId(2, 0)};
+        LocalSearchOptimizer.Result result = new LocalSearchOptimizer(matrix, cost, true).improve(initial, 0);
+
+        assertArrayEquals(new int[]{matrix.candidateId(1, 0)}, result.getCandidates());
+        assertEquals(1.5, result.getFinalCost(), 1e-9);
+        assertFalse(result.isTimedOut());
+    }
+
+    @Test(expected = CancellationException.class)
+    public void cancelledSearchThrows() {
+        List<InspectionPoint> points = new ArrayList<>();
+        points.add(new InspectionPoint("a", 13200000, 3000000, true));
+        points.add(new InspectionPoint("b", 13204000, 3000000, true));
+        List<DroneModel> drones = Arrays.asList(new DroneModel("S", 5.0));
+        CoverageMatrix matrix = CoverageMatrix.build(points, points, drones);
+        LocalSearchOptimizer optimizer = new LocalSearchOptimizer(matrix, SetCoverModel.rangeWeightedCosts(matrix), true);
+        optimizer.cancel();
+        optimizer.improve(new int[]{matrix.candidateId(0, 0), matrix.candidateId(1, 0)}, 0);
+    }
+
+    @Test
+    public void keepsCoverageAndNeverIncreasesCost() {
+        Random random = new Random(11);
+        List<InspectionPoint> points = new ArrayList<>();
+        for (int i = 0; i < 400; i++) {
+            points.add(new InspectionPoint("p" + i, 13200000 + random.nextDouble() * 80000,
+                    3000000 + random.nextDouble() * 80000, random.nextInt(3) == 0));
+        }
+        List<InspectionPoint> sites = new ArrayList<>();
+        for (InspectionPoint point : points) {
+            if (point.canBuildHangar()) {
+                sites.add(point);
+            }
+        }
+        List<DroneModel> drones = Arrays.asList(new DroneModel("S", 3.0), new DroneModel("M", 5.0), new DroneModel("L", 8.0));
+        CoverageMatrix matrix = CoverageMatrix.build(sites, points, drones);
+        double[] cost = SetCoverModel.rangeWeightedCosts(matrix);
+
+        for (boolean allowSiteReuse : new boolean[]{true, false}) {
+            long[] greedyCovered = matrix.newPointSet();
+            LazyGreedySolver.Result greedy = new LazyGreedySolver(matrix, allowSiteReuse).solve(greedyCovered);
+            LocalSearchOptimizer.Result result = new LocalSearchOptimizer(matrix, cost, allowSiteReuse)
+                    .improve(greedy.getCandidates(), 0);
+
+            assertTrue(result.getFinalCost() <= SetCoverModel.costOf(greedy.getCandidates(), cost) + 1e-9);
+            assertEquals(SetCoverModel.costOf(result.getCandidates(), cost), result.getFinalCost(), 1e-9);
+            long[] covered = matrix.newPointSet();
+            boolean[] siteUsed = new boolean[matrix.getHangarCount()];
+            for (int c : result.getCandidates()) {
+                matrix.applyCover(c, covered);
+                if (!allowSiteReuse) {
+                    assertFalse(siteUsed[matrix.hangarOf(c)]);
+                    siteUsed[matrix.hangarOf(c)] = true;
+                }
+            }
+            assertArrayEquals(greedyCovered, covered);
+        }
+    }
+}
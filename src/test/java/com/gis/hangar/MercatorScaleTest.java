@@ -0,0 +1,73 @@
+package com.gis.hangar;
+
+import org.junit.Test;
+import org.locationtech.jts.geom.Coordinate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class MercatorScaleTest {
+
+    private static final double R = MercatorScale.EARTH_RADIUS;
+
+    private static double latitude(double y) {
+        return 2 * Math.atan(Math.exp(y / R)) - Math.PI / 2;
+    }
+
+    /**
+     * 球面大圆距离（与 EPSG:3857 相同的球半径）
+     */
+    private static double haversine(Coordinate a, Coordinate b) {
+        double lat1 = latitude(a.y);
+        double lat2 = latitude(b.y);
+        double dLat = lat2 - lat1;
+        double dLon = (b.x - a.x) / R;
+        double h = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(lat1) * Math.cos(lat2) * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * R * Math.asin(Math.sqrt(h));
+    }
+
+    @Test
+    public void matchesGreatCircleDistanceInShaanxi() {
+        Random random = new Random(7);
+        for (int i = 0; i < 1000; i++) {
+            // 陕西范围内，两点相距不超过 20 公里
+            Coordinate a = new Coordinate(11800000 + random.nextDouble() * 600000, 3750000 + random.nextDouble() * 1000000);
+            Coordinate b = new Coordinate(a.x + (random.nextDouble() - 0.5) * 40000, a.y + (random.nextDouble() - 0.5) * 40000);
+            double expected = haversine(a, b);
+            assertEquals(expected, MercatorScale.groundDistance(a, b), Math.max(0.01, expected * 1e-5));
+        }
+        // 北纬 34° 附近平面距离比地面距离大约 20%
+        assertEquals(Math.cos(Math.toRadians(34)), MercatorScale.scaleAt(R * Math.log(Math.tan(Math.PI / 4 + Math.toRadians(34) / 2))), 1e-12);
+    }
+
+    @Test
+    public void indexQueryMatchesPairwiseDistance() {
+        Random random = new Random(11);
+        List<InspectionPoint> points = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            points.add(new InspectionPoint("p" + i, 11800000 + random.nextDouble() * 60000,
+                    3750000 + random.nextDouble() * 400000, true));
+        }
+        double radius = 5000;
+        double maxAbsY = 3750000 + 400000;
+        PointGridIndex index = PointGridIndex.of(points, MercatorScale.searchRadius(radius, maxAbsY));
+        PointGridIndex.Neighbors neighbors = new PointGridIndex.Neighbors();
+        for (int q = 0; q < 200; q++) {
+            Coordinate center = points.get(q).getCoordinate();
+            neighbors.clear();
+            index.queryWithin(center.x, center.y, radius, neighbors);
+            boolean[] found = new boolean[points.size()];
+            for (int k = 0; k < neighbors.size(); k++) {
+                found[neighbors.id(k)] = true;
+            }
+            for (int pi = 0; pi < points.size(); pi++) {
+                double distance = MercatorScale.groundDistance(center, points.get(pi).getCoordinate());
+                assertEquals(distance <= radius, found[pi]);
+            }
+        }
+    }
+}
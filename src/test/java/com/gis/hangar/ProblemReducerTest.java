@@ -0,0 +1,54 @@
+package com.gis.hangar;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class ProblemReducerTest {
+
+    @Test
+    public void isolatedPointIsFixedAndClustersSplit() {
+        List<InspectionPoint> points = new ArrayList<>();
+        // 两组相距很远的点，加上一个只有自己能覆盖自己的孤立点
+        for (int i = 0; i < 5; i++) {
+            points.add(new InspectionPoint("a" + i, 13200000 + i * 1000, 3000000, true));
+            points.add(new InspectionPoint("b" + i, 13300000 + i * 1000, 3000000, true));
+        }
+        points.add(new InspectionPoint("c", 13400000, 3000000, true));
+        List<DroneModel> drones = Arrays.asList(new DroneModel("A", 1.0), new DroneModel("B", 1.5));
+        CoverageMatrix matrix = CoverageMatrix.build(points, points, drones);
+
+        double[] cost = new double[matrix.getCandidateCount()];
+        for (int c = 0; c < cost.length; c++) {
+            cost[c] = 1.0 + matrix.getDroneModel(matrix.droneOf(c)).getRangeKm() / 10.0;
+        }
+        ProblemReducer.Reduction reduction = new ProblemReducer(matrix, cost).reduce();
+
+        // 孤立点只能由自己覆盖，较便宜的型号必选（较贵型号覆盖相同，被支配）
+        int[] fixed = reduction.getFixedCandidates();
+        assertTrue(Arrays.stream(fixed).anyMatch(c -> c == matrix.candidateId(10, 0)));
+        assertFalse(Arrays.stream(fixed).anyMatch(c -> c == matrix.candidateId(10, 1)));
+
+        // 必选候选加上各分量的全部候选仍能覆盖所有点（约简不破坏可行性），分量中的点尚未被必选候选覆盖
+        long[] covered = matrix.newPointSet();
+        for (int c : fixed) {
+            matrix.applyCover(c, covered);
+        }
+        for (ProblemReducer.Component component : reduction.getComponents()) {
+            for (int pi : component.getPoints()) {
+                assertFalse(CoverageMatrix.get(covered, pi));
+            }
+            for (int c : component.getCandidates()) {
+                // 1.5km 与 1km 覆盖相同，成本更高的型号全部被删除
+                assertEquals(0, matrix.droneOf(c));
+                matrix.applyCover(c, covered);
+            }
+        }
+        assertEquals(-1, matrix.firstUncovered(covered));
+        assertTrue(reduction.getRemainingColumns() < reduction.getInitialColumns());
+    }
+}
@@ -0,0 +1,163 @@
+package com.gis.hangar;
+
+import com.google.ortools.linearsolver.MPSolver;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class SetCoverModelTest {
+
+    @Before
+    public void loadNativeLibraries() {
+        try {
+            com.google.ortools.Loader.loadNativeLibraries();
+        } catch (Throwable e) {
+            Assume.assumeNoException("OR-Tools 原生库不可用", e);
+        }
+    }
+
+    /**
+     * 一条直线上的 10 个点（地面间距约 900m），外加一个无法覆盖的远处点
+     * A 型号覆盖相邻两点，B 型号只覆盖自身
+     */
+    private static CoverageMatrix lineMatrix() {
+        List<InspectionPoint> points = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            points.add(new InspectionPoint("p" + i, 13213977 + i * 1000, 3016150, true));
+        }
+        List<InspectionPoint> sites = new ArrayList<>(points);
+        points.add(new InspectionPoint("far", 13213977 + 100000, 3016150, false));
+        return CoverageMatrix.build(sites, points, Arrays.asList(new DroneModel("A", 1.0), new DroneModel("B", 0.5)));
+    }
+
+    private static void assertCoversAll(CoverageMatrix matrix, int[] selected) {
+        long[] covered = matrix.newPointSet();
+        matrix.markUncoverable(covered);
+        for (int c : selected) {
+            matrix.applyCover(c, covered);
+        }
+        assertEquals(0, matrix.countUncovered(covered));
+    }
+
+    @Test
+    public void buildsOnlyNonZeroEntries() {
+        CoverageMatrix matrix = lineMatrix();
+        double[] cost = SetCoverModel.rangeWeightedCosts(matrix);
+        MPSolver solver = SetCoverModel.createMipSolver();
+        try {
+            // 只约束前 3 个点：只有覆盖它们的候选才有变量
+            int[] points = {0, 1, 2};
+            SetCoverModel model = SetCoverModel.build(solver, matrix, cost, points, null);
+
+            boolean[] expected = new boolean[matrix.getCandidateCount()];
+            long nonZeros = 0;
+            for (int pi : points) {
+                for (int c : matrix.candidatesCovering(pi)) {
+                    expected[c] = true;
+                    nonZeros++;
+                }
+            }
+            int expectedVariables = 0;
+            for (int c = 0; c < expected.length; c++) {
+                assertEquals(expected[c], model.variableOf(c) != null);
+                if (expected[c]) {
+                    expectedVariables++;
+                }
+            }
+            assertEquals(expectedVariables, model.getVariableCount());
+            assertEquals(expectedVariables, solver.numVariables());
+            assertTrue(model.getVariableCount() < matrix.getCandidateCount());
+            assertEquals(3, model.getConstraintCount());
+            assertEquals(nonZeros, model.getNonZeroCount());
+            // 目标函数 2 次/变量，约束 1 次/行 + 1 次/非零系数，外加 objective() 和 setMinimization()
+            assertEquals(2 + 2L * expectedVariables + 3 + nonZeros, model.getJniCalls());
+        } finally {
+            solver.delete();
+        }
+    }
+
+    @Test
+    public void skipsUncoverablePointsAndDisallowedCandidates() {
+        CoverageMatrix matrix = lineMatrix();
+        double[] cost = SetCoverModel.rangeWeightedCosts(matrix);
+
+        MPSolver solver = SetCoverModel.createMipSolver();
+        try {
+            SetCoverModel model = SetCoverModel.build(solver, matrix, cost);
+            // 远处的点没有候选能覆盖，不建约束
+            assertEquals(10, model.getConstraintCount());
+        } finally {
+            solver.delete();
+        }
+
+        // 只允许 A 型号
+        int[] allowed = new int[10];
+        for (int hi = 0; hi < 10; hi++) {
+            allowed[hi] = matrix.candidateId(hi, 0);
+        }
+        int[] points = new int[10];
+        for (int pi = 0; pi < 10; pi++) {
+            points[pi] = pi;
+        }
+        solver = SetCoverModel.createMipSolver();
+        try {
+            SetCoverModel model = SetCoverModel.build(solver, matrix, cost, points, allowed);
+            assertArrayEquals(allowed, model.getCandidates());
+            for (int hi = 0; hi < 10; hi++) {
+                assertNull(model.variableOf(matrix.candidateId(hi, 1)));
+            }
+            assertEquals(MPSolver.ResultStatus.OPTIMAL, solver.solve());
+            assertEquals(4, model.selectedCandidates().length);
+        } finally {
+            solver.delete();
+        }
+    }
+
+    @Test
+    public void warmStartFromGreedyReachesOptimum() {
+        CoverageMatrix matrix = lineMatrix();
+        double[] cost = SetCoverModel.rangeWeightedCosts(matrix);
+        long[] covered = matrix.newPointSet();
+        matrix.markUncoverable(covered);
+        int[] greedy = new LazyGreedySolver(matrix).solve(covered).getCandidates();
+        assertCoversAll(matrix, greedy);
+
+        MPSolver solver = SetCoverModel.createMipSolver();
+        try {
+            SetCoverModel model = SetCoverModel.build(solver, matrix, cost);
+            model.setHint(greedy);
+            assertEquals(MPSolver.ResultStatus.OPTIMAL, solver.solve());
+
+            int[] selected = model.selectedCandidates();
+            assertCoversAll(matrix, selected);
+            // 3 个 A（1.1）覆盖 9 个点，剩下一个点用 B（1.05）
+            assertEquals(3 * 1.1 + 1.05, SetCoverModel.costOf(selected, cost), 1e-9);
+            assertEquals(SetCoverModel.costOf(selected, cost), solver.objective().value(), 1e-6);
+            assertTrue(SetCoverModel.costOf(selected, cost) <= SetCoverModel.costOf(greedy, cost) + 1e-9);
+        } finally {
+            solver.delete();
+        }
+    }
+
+    @Test
+    public void hintIgnoresCandidatesOutsideModel() {
+        CoverageMatrix matrix = lineMatrix();
+        double[] cost = SetCoverModel.rangeWeightedCosts(matrix);
+        MPSolver solver = SetCoverModel.createMipSolver();
+        try {
+            SetCoverModel model = SetCoverModel.build(solver, matrix, cost, new int[]{0}, null);
+            // 第 9 个位置的候选不覆盖点 0，没有变量
+            model.setHint(new int[]{matrix.candidateId(0, 0), matrix.candidateId(9, 0)});
+            assertEquals(MPSolver.ResultStatus.OPTIMAL, solver.solve());
+            assertEquals(1, model.selectedCandidates().length);
+        } finally {
+            solver.delete();
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.gis.hangar;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class TranspositionTableTest {
+
+    @Test
+    public void incrementalHashMatchesFullHash() {
+        TranspositionTable table = new TranspositionTable(200, 1024);
+        long[] covered = new long[CoverageMatrix.wordsFor(200)];
+        long[] delta = new long[covered.length];
+        CoverageMatrix.set(delta, 3);
+        CoverageMatrix.set(delta, 64);
+        CoverageMatrix.set(delta, 199);
+
+        long hash = table.toggle(table.hashOf(covered), delta);
+        for (int w = 0; w < covered.length; w++) {
+            covered[w] |= delta[w];
+        }
+        assertEquals(table.hashOf(covered), hash);
+        // 撤销后回到空状态的哈希
+        assertEquals(0L, table.toggle(hash, delta));
+    }
+
+    @Test
+    public void probeKeepsShallowestDepth() {
+        TranspositionTable table = new TranspositionTable(64, 16, true, 1L);
+        long[] covered = new long[1];
+        CoverageMatrix.set(covered, 5);
+        long hash = table.hashOf(covered);
+
+        assertFalse(table.probeAndStore(hash, covered, 3));
+        assertTrue(table.probeAndStore(hash, covered, 3));
+        assertTrue(table.probeAndStore(hash, covered, 4));
+        assertFalse(table.probeAndStore(hash, covered, 2));
+        assertTrue(table.probeAndStore(hash, covered, 2));
+        assertEquals(3, table.getHits());
+        assertEquals(2, table.getMisses());
+
+        // 相同哈希、不同位图：校验失败，视为未命中
+        long[] other = new long[1];
+        CoverageMatrix.set(other, 6);
+        assertFalse(table.probeAndStore(hash, other, 5));
+        assertEquals(1, table.getCollisions());
+    }
+}
@@ -0,0 +1,54 @@
+package com.gis.hangar.bound;
+
+import com.gis.hangar.CoverageMatrix;
+import com.gis.hangar.DominanceFilter;
+import com.gis.hangar.DroneModel;
+import com.gis.hangar.InspectionPoint;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class LowerBoundTest {
+
+    private static CoverageMatrix lineMatrix(int count) {
+        List<InspectionPoint> points = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            points.add(new InspectionPoint("p" + i, 13213977 + i * 1000, 3016150, true));
+        }
+        return CoverageMatrix.build(points, points, Arrays.asList(new DroneModel("A", 1.0), new DroneModel("B", 0.5)));
+    }
+
+    @Test
+    public void shorterRangeIsDominated() {
+        CoverageMatrix matrix = lineMatrix(10);
+        boolean[] dominated = DominanceFilter.findDominated(matrix);
+        for (int hi = 0; hi < 10; hi++) {
+            // 0.5km 只覆盖自身，被同位置 1km 覆盖包含
+            assertTrue(dominated[matrix.candidateId(hi, 1)]);
+        }
+        // 端点 {0,1} 被 p1 的 {0,1,2} 包含
+        assertTrue(dominated[matrix.candidateId(0, 0)]);
+        assertFalse(dominated[matrix.candidateId(1, 0)]);
+        assertFalse(dominated[matrix.candidateId(5, 0)]);
+    }
+
+    @Test
+    public void boundsAreValidOnLine() {
+        // 10 个点每个候选最多覆盖 3 个，最优解为 4
+        CoverageMatrix matrix = lineMatrix(10);
+        long[] covered = matrix.newPointSet();
+
+        assertEquals(4, new CoverageRatioBound().estimate(matrix, covered, Integer.MAX_VALUE));
+        int disjoint = new DisjointPointsBound().estimate(matrix, covered, Integer.MAX_VALUE);
+        assertTrue(disjoint >= 3 && disjoint <= 4);
+        // 达到 budget 时提前返回
+        assertEquals(2, new DisjointPointsBound().estimate(matrix, covered, 2));
+
+        MaxLowerBound max = new MaxLowerBound(new CoverageRatioBound(), new DisjointPointsBound());
+        assertEquals(4, max.estimate(matrix, covered, Integer.MAX_VALUE));
+    }
+}
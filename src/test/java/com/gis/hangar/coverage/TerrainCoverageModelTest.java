@@ -0,0 +1,106 @@
+package com.gis.hangar.coverage;
+
+import com.gis.hangar.CoverageMatrix;
+import com.gis.hangar.DroneModel;
+import com.gis.hangar.InspectionPoint;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntBinaryOperator;
+
+import static org.junit.Assert.*;
+
+public class TerrainCoverageModelTest {
+
+    private static final double X0 = 13213977;
+    private static final double Y0 = 3016150;
+
+    /**
+     * 100 米分辨率的 DEM，巡检点 i 位于第 10*i 列
+     */
+    private static ElevationTileCache dem(IntBinaryOperator elevation, int tileSize) {
+        int width = 100;
+        int height = 10;
+        double[] geoTransform = {X0 - 50, 100, 0, Y0 + 500, 0, -100};
+        ElevationTileCache.TileReader reader = (x, y, w, h, out) -> {
+            for (int r = 0; r < h; r++) {
+                for (int c = 0; c < w; c++) {
+                    out[r * w + c] = elevation.applyAsInt(x + c, y + r);
+                }
+            }
+        };
+        return new ElevationTileCache(width, height, geoTransform, -9999.0, reader, tileSize, 4);
+    }
+
+    private static List<InspectionPoint> linePoints(int count) {
+        List<InspectionPoint> points = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            points.add(new InspectionPoint("p" + i, X0 + i * 1000, Y0, true));
+        }
+        return points;
+    }
+
+    @Test
+    public void ridgeBlocksLineOfSight() {
+        // 第 25 列是一道 400 米高的山脊，其余为平地
+        ElevationTileCache cache = dem((col, row) -> col == 25 ? 400 : 0, 32);
+        List<InspectionPoint> points = linePoints(6);
+        List<DroneModel> drones = Arrays.asList(new DroneModel("A", 5.0));
+        CoverageMatrix matrix = CoverageMatrix.build(points, points, drones, new TerrainCoverageModel(cache));
+
+        // 山脊两侧互不可见
+        for (int hi = 0; hi < points.size(); hi++) {
+            for (int pi = 0; pi < points.size(); pi++) {
+                boolean sameSide = (hi <= 2) == (pi <= 2);
+                assertEquals("hangar " + hi + " point " + pi, sameSide, matrix.canCover(hi, pi, 0));
+            }
+        }
+        assertTrue(cache.getHits() > cache.getMisses());
+    }
+
+    @Test
+    public void ceilingLimitsClimb() {
+        // 每列升高 5 米的均匀坡面：视线不被遮挡，但远处的点需要更高的飞行高度
+        ElevationTileCache cache = dem((col, row) -> col * 5, 256);
+        List<InspectionPoint> points = linePoints(6);
+        List<DroneModel> drones = Arrays.asList(new DroneModel("high", 5.0), new DroneModel("low", 5.0, 200));
+        CoverageMatrix matrix = CoverageMatrix.build(points, points, drones, new TerrainCoverageModel(cache));
+
+        for (int pi = 0; pi < points.size(); pi++) {
+            assertTrue(matrix.canCover(0, pi, 0));
+            // 第 pi 个点地面高 50*pi 米，加上 50 米巡检高度
+            assertEquals(50 * pi + 50 <= 200, matrix.canCover(0, pi, 1));
+        }
+        // 下坡方向不受升限影响
+        assertTrue(matrix.canCover(5, 0, 1));
+    }
+
+    @Test
+    public void noDataFallsBackToDistance() {
+        ElevationTileCache cache = dem((col, row) -> col >= 20 ? -9999 : 0, 16);
+        List<InspectionPoint> points = linePoints(5);
+        points.add(new InspectionPoint("outside", X0, Y0 + 5000, true));
+        List<DroneModel> drones = Arrays.asList(new DroneModel("A", 6.0));
+
+        CoverageMatrix terrain = CoverageMatrix.build(points, points, drones, new TerrainCoverageModel(cache));
+        CoverageMatrix flat = CoverageMatrix.build(points, points, drones);
+        for (int hi = 0; hi < points.size(); hi++) {
+            for (int pi = 0; pi < points.size(); pi++) {
+                assertEquals(flat.canCover(hi, pi, 0), terrain.canCover(hi, pi, 0));
+            }
+        }
+    }
+
+    @Test
+    public void euclideanModelMatchesDefaultBuild() {
+        List<InspectionPoint> points = linePoints(40);
+        List<DroneModel> drones = Arrays.asList(new DroneModel("A", 5.0), new DroneModel("B", 2.0));
+        CoverageMatrix byDefault = CoverageMatrix.build(points, points, drones);
+        CoverageMatrix explicit = CoverageMatrix.build(points, points, drones, EuclideanCoverageModel.INSTANCE);
+        for (int c = 0; c < byDefault.getCandidateCount(); c++) {
+            assertArrayEquals(byDefault.coverageOf(c), explicit.coverageOf(c));
+        }
+    }
+}
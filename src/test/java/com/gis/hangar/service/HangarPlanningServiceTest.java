@@ -0,0 +1,114 @@
+package com.gis.hangar.service;
+
+import com.gis.hangar.DroneModel;
+import com.gis.hangar.InspectionPoint;
+import com.gis.hangar.PlacementSolution;
+import com.gis.hangar.SelectedHangar;
+import com.gis.hangar.controller.HangarPlacementRequest;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class HangarPlanningServiceTest {
+
+    private final HangarPlanningService service = new HangarPlanningService(1, 4, 8, 60_000);
+
+    @After
+    public void shutdown() {
+        service.destroy();
+    }
+
+    private static List<InspectionPoint> randomPoints(long seed, int count) {
+        Random random = new Random(seed);
+        List<InspectionPoint> points = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            points.add(new InspectionPoint("p" + i, 13200000 + random.nextDouble() * 15000,
+                    3000000 + random.nextDouble() * 15000, random.nextInt(3) != 0));
+        }
+        return points;
+    }
+
+    private static HangarPlacementRequest request(String algorithm) {
+        HangarPlacementRequest request = new HangarPlacementRequest();
+        request.setAlgorithm(algorithm);
+        return request;
+    }
+
+    @Test
+    public void defaultAlgorithmIsIlp() {
+        assertEquals(HangarPlanningService.ALGORITHM_ILP, HangarPlanningService.normalizeAlgorithm(null));
+        assertEquals(HangarPlanningService.ALGORITHM_ILP, new HangarPlacementRequest().getAlgorithm());
+    }
+
+    @Test
+    public void allHeuristicsReportWeightedCost() {
+        List<InspectionPoint> points = randomPoints(2, 60);
+        List<DroneModel> drones = Arrays.asList(new DroneModel("S", 2.0), new DroneModel("L", 4.0));
+        for (String algorithm : new String[]{HangarPlanningService.ALGORITHM_GREEDY,
+                HangarPlanningService.ALGORITHM_GRASP, HangarPlanningService.ALGORITHM_BRANCH_AND_BOUND}) {
+            PlacementSolution solution = service.solve(points, drones, request(algorithm), null);
+            double expected = 0;
+            for (SelectedHangar hangar : solution.getHangars()) {
+                expected += "S".equals(hangar.getDroneModelName()) ? 1.2 : 1.4;
+            }
+            assertEquals(algorithm, expected, solution.getObjectiveValue(), 1e-9);
+            assertTrue(algorithm, solution.getLowerBound() <= solution.getObjectiveValue() + 1e-9);
+            // 下界同为加权成本：每个机巢至少 1.2
+            assertTrue(algorithm, solution.getLowerBound() >= 1.2);
+        }
+    }
+
+    @Test
+    public void branchAndBoundResultIsNotCached() {
+        HangarPlacementRequest request = new HangarPlacementRequest();
+        List<HangarPlacementRequest.InspectionPointDTO> dtos = new ArrayList<>();
+        for (InspectionPoint point : randomPoints(5, 20)) {
+            HangarPlacementRequest.InspectionPointDTO dto = new HangarPlacementRequest.InspectionPointDTO();
+            dto.setId(point.getId());
+            dto.setX(point.getCoordinate().x);
+            dto.setY(point.getCoordinate().y);
+            dto.setCanBuildHangar(point.canBuildHangar());
+            dtos.add(dto);
+        }
+        HangarPlacementRequest.DroneModelDTO drone = new HangarPlacementRequest.DroneModelDTO();
+        drone.setModelName("M");
+        drone.setRangeKm(3.0);
+        request.setInspectionPoints(dtos);
+        request.setDroneModels(Arrays.asList(drone));
+        request.setIncludeGeoJSON(false);
+
+        // 并行分支定界的方案取决于线程调度，不缓存
+        request.setAlgorithm(HangarPlanningService.ALGORITHM_BRANCH_AND_BOUND);
+        service.plan(request, null);
+        assertEquals(0, service.getCache().size());
+
+        request.setAlgorithm(HangarPlanningService.ALGORITHM_GREEDY);
+        service.plan(request, null);
+        assertEquals(1, service.getCache().size());
+    }
+
+    @Test
+    public void uncoverablePointPreventsOptimalStatus() {
+        List<InspectionPoint> points = randomPoints(3, 30);
+        for (InspectionPoint point : points) {
+            point.setCanBuildHangar(true);
+        }
+        points.add(new InspectionPoint("far", 13200000 + 200000, 3000000, false));
+        List<DroneModel> drones = Arrays.asList(new DroneModel("M", 3.0));
+
+        PlacementSolution solution = service.solve(points, drones,
+                request(HangarPlanningService.ALGORITHM_BRANCH_AND_BOUND), null);
+        assertFalse(solution.getHangars().isEmpty());
+        assertEquals(PlacementSolution.Status.FEASIBLE, solution.getStatus());
+
+        points.remove(points.size() - 1);
+        solution = service.solve(points, drones, request(HangarPlanningService.ALGORITHM_BRANCH_AND_BOUND), null);
+        assertEquals(PlacementSolution.Status.OPTIMAL, solution.getStatus());
+    }
+}
@@ -0,0 +1,96 @@
+package com.gis.hangar.service;
+
+import com.gis.hangar.controller.HangarPlacementRequest;
+import com.gis.hangar.controller.HangarPlacementResponse;
+import com.gis.hangar.controller.SelectedHangarDTO;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class PlanningResultCacheTest {
+
+    @Test
+    public void keyDependsOnContentOnly() {
+        String key = PlanningResultCache.keyOf(request(10, 8.0), "ilp");
+        assertEquals(key, PlanningResultCache.keyOf(request(10, 8.0), "ilp"));
+        assertNotEquals(key, PlanningResultCache.keyOf(request(10, 8.0), "greedy"));
+        assertNotEquals(key, PlanningResultCache.keyOf(request(10, 8.5), "ilp"));
+        assertNotEquals(key, PlanningResultCache.keyOf(request(11, 8.0), "ilp"));
+
+        HangarPlacementRequest moved = request(10, 8.0);
+        moved.getInspectionPoints().get(3).setX(moved.getInspectionPoints().get(3).getX() + 0.001);
+        assertNotEquals(key, PlanningResultCache.keyOf(moved, "ilp"));
+    }
+
+    @Test
+    public void evictsLeastRecentlyUsed() {
+        PlanningResultCache cache = new PlanningResultCache(2);
+        cache.put("a", response("a"));
+        cache.put("b", response("b"));
+        assertEquals("a", cache.get("a").getSolveStatus()); // a 最近被访问，b 最久未访问
+        cache.put("c", response("c"));
+
+        assertEquals(2, cache.size());
+        assertEquals("a", cache.get("a").getSolveStatus());
+        assertNull(cache.get("b"));
+        assertEquals("c", cache.get("c").getSolveStatus());
+        assertEquals(3, cache.getHits());
+        assertEquals(1, cache.getMisses());
+    }
+
+    @Test
+    public void returnsIndependentCopies() {
+        PlanningResultCache cache = new PlanningResultCache(2);
+        HangarPlacementResponse original = response("OPTIMAL");
+        cache.put("k", original);
+        // 存入后修改原对象不影响缓存
+        original.getSelectedHangars().get(0).setX(0);
+        original.setSolveStatus("FEASIBLE");
+
+        HangarPlacementResponse first = cache.get("k");
+        assertNotSame(original, first);
+        assertEquals("OPTIMAL", first.getSolveStatus());
+        assertEquals(13213977, first.getSelectedHangars().get(0).getX(), 0);
+
+        // 修改取出的副本也不影响之后的命中
+        first.getSelectedHangars().clear();
+        first.getUncoveredPoints().add("p9");
+        HangarPlacementResponse second = cache.get("k");
+        assertNotSame(first, second);
+        assertEquals(1, second.getSelectedHangars().size());
+        assertTrue(second.getUncoveredPoints().isEmpty());
+    }
+
+    private static HangarPlacementResponse response(String status) {
+        HangarPlacementResponse response = new HangarPlacementResponse();
+        response.setSolveStatus(status);
+        response.setSelectedHangars(new ArrayList<>(Collections.singletonList(
+                new SelectedHangarDTO("p0", "DJI-M300-8KM", 13213977, 3016150))));
+        response.setUncoveredPoints(new ArrayList<>());
+        return response;
+    }
+
+    private static HangarPlacementRequest request(int pointCount, double rangeKm) {
+        List<HangarPlacementRequest.InspectionPointDTO> points = new ArrayList<>();
+        for (int i = 0; i < pointCount; i++) {
+            HangarPlacementRequest.InspectionPointDTO point = new HangarPlacementRequest.InspectionPointDTO();
+            point.setId("p" + i);
+            point.setX(13213977 + i * 1000);
+            point.setY(3016150);
+            point.setCanBuildHangar(i % 2 == 0);
+            points.add(point);
+        }
+        HangarPlacementRequest.DroneModelDTO drone = new HangarPlacementRequest.DroneModelDTO();
+        drone.setModelName("DJI-M300-8KM");
+        drone.setRangeKm(rangeKm);
+
+        HangarPlacementRequest request = new HangarPlacementRequest();
+        request.setInspectionPoints(points);
+        request.setDroneModels(Collections.singletonList(drone));
+        return request;
+    }
+}